@@ -15,6 +15,9 @@ class ApplicationConstants {
   static DEFAULT_CLIENT_PRODUCT_REVIEW_PAGE_SIZE = 5;
   static DEFAULT_CLIENT_NOTIFICATION_PAGE_SIZE = 5;
   static DEFAULT_CLIENT_ORDER_PAGE_SIZE = 5;
+
+  // Khoảng thời gian hỏi lại vé xếp hàng đặt hàng, bằng Retry-After mà server trả về cùng mã 429
+  static CHECKOUT_QUEUE_POLL_INTERVAL = 5000;
 }
 
 export default ApplicationConstants;
@@ -91,6 +91,7 @@ class ResourceURL {
   static CLIENT_PAYMENT_METHOD = clientApiPath + '/payment-methods';
   static CLIENT_ORDER = clientApiPath + '/orders';
   static CLIENT_ORDER_CANCEL = ResourceURL.CLIENT_ORDER + '/cancel';
+  static CLIENT_ORDER_QUEUE = ResourceURL.CLIENT_ORDER + '/queue';
   static CLIENT_CHAT = clientApiPath + '/chat';
   static CLIENT_CHAT_GET_ROOM = ResourceURL.CLIENT_CHAT + '/get-room';
   static CLIENT_CHAT_CREATE_ROOM = ResourceURL.CLIENT_CHAT + '/create-room';
@@ -24,13 +24,14 @@ import {
   useMantineTheme
 } from '@mantine/core';
 import React, { useEffect, useRef, useState } from 'react';
-import { AlertTriangle, Check, Home, InfoCircle, Marquee, ShoppingCart, Trash, X } from 'tabler-icons-react';
+import { AlertTriangle, Check, Clock, Home, InfoCircle, Marquee, ShoppingCart, Trash, X } from 'tabler-icons-react';
 import { useMutation, useQuery, useQueryClient } from 'react-query';
 import {
   ClientCartRequest,
   ClientCartResponse,
   ClientCartVariantKeyRequest,
   ClientCartVariantResponse,
+  ClientCheckoutTicketResponse,
   ClientConfirmedOrderResponse,
   ClientPaymentMethodResponse,
   ClientSimpleOrderRequest,
@@ -487,8 +488,11 @@ function ConfirmedOrder() {
     data: clientConfirmedOrderResponse,
     isLoading,
     isError,
+    checkoutTicket,
   } = useCreateClientOrderApi();
 
+  const isWaitingInQueue = isLoading && checkoutTicket !== null;
+
   const [checkoutPaypalStatus, setCheckoutPaypalStatus] = useState<'none' | 'success' | 'cancel'>('none');
 
   const { currentPaymentMethod } = useAuthStore();
@@ -522,6 +526,20 @@ function ConfirmedOrder() {
     window.open(checkoutLink, 'mywin', 'width=500,height=800');
   };
 
+  if (isWaitingInQueue && checkoutTicket) {
+    contentFragment = (
+      <Stack align="center" sx={{ alignItems: 'center', color: theme.colors.blue[6] }}>
+        <Clock size={100} strokeWidth={1}/>
+        <Text weight={500}>Hệ thống đang có nhiều đơn hàng</Text>
+        <Text color="dimmed" size="sm" sx={{ textAlign: 'center' }}>
+          {checkoutTicket.ticketStatus === 1
+            ? `Bạn đang ở vị trí thứ ${checkoutTicket.ticketPosition} trong hàng đợi, đơn hàng sẽ được tạo ngay khi đến lượt`
+            : 'Đã đến lượt, đang tạo đơn hàng...'}
+        </Text>
+      </Stack>
+    );
+  }
+
   if (isError) {
     contentFragment = (
       <Stack justify="space-between" sx={{ height: '100%' }}>
@@ -623,7 +641,7 @@ function ConfirmedOrder() {
 
   return (
     <Stack sx={{ minHeight: isLoading ? 200 : 'unset' }}>
-      <LoadingOverlay visible={isLoading}/>
+      <LoadingOverlay visible={isLoading && !isWaitingInQueue}/>
       {contentFragment}
     </Stack>
   );
@@ -686,16 +704,63 @@ function useCreateClientOrderApi() {
 
   const { updateCurrentCartId, updateCurrentTotalCartItems } = useAuthStore();
 
-  return useMutation<ClientConfirmedOrderResponse, ErrorMessage, ClientSimpleOrderRequest>(
-    (requestBody) => FetchUtils.postWithToken(ResourceURL.CLIENT_ORDER, requestBody),
+  const [checkoutTicket, setCheckoutTicket] = useState<ClientCheckoutTicketResponse | null>(null);
+
+  // Ngừng chờ trong hàng đợi khi hộp thoại xác nhận đơn hàng đã đóng
+  const isMounted = useRef(true);
+  useEffect(() => () => {
+    isMounted.current = false;
+  }, []);
+
+  const updateCheckoutTicket = (ticket: ClientCheckoutTicketResponse | null) => {
+    if (isMounted.current) {
+      setCheckoutTicket(ticket);
+    }
+  };
+
+  // Khi quá tải, server trả về 429 kèm vé xếp hàng: hỏi lại vé tới khi đến lượt (ticketStatus = 2) rồi gửi lại yêu cầu
+  const waitForAdmission = async (ticket: ClientCheckoutTicketResponse) => {
+    while (ticket.ticketStatus === 1) {
+      updateCheckoutTicket(ticket);
+      await new Promise((resolve) => setTimeout(resolve, ApplicationConstants.CHECKOUT_QUEUE_POLL_INTERVAL));
+      if (!isMounted.current) {
+        throw ticket;
+      }
+      ticket = await FetchUtils.getWithToken<ClientCheckoutTicketResponse>(ResourceURL.CLIENT_ORDER_QUEUE);
+    }
+    updateCheckoutTicket(ticket);
+  };
+
+  const createClientOrder = async (requestBody: ClientSimpleOrderRequest): Promise<ClientConfirmedOrderResponse> => {
+    try {
+      return await FetchUtils.postWithToken<ClientSimpleOrderRequest, ClientConfirmedOrderResponse>(
+        ResourceURL.CLIENT_ORDER, requestBody);
+    } catch (error) {
+      if (!isCheckoutTicket(error)) {
+        throw error;
+      }
+      await waitForAdmission(error);
+      return createClientOrder(requestBody);
+    }
+  };
+
+  const mutation = useMutation<ClientConfirmedOrderResponse, ErrorMessage, ClientSimpleOrderRequest>(
+    createClientOrder,
     {
       onSuccess: () => {
         void queryClient.invalidateQueries(['client-api', 'carts', 'getCart']);
         updateCurrentCartId(null);
         updateCurrentTotalCartItems(0);
       },
+      onSettled: () => updateCheckoutTicket(null),
     }
   );
+
+  return { ...mutation, checkoutTicket };
+}
+
+function isCheckoutTicket(error: unknown): error is ClientCheckoutTicketResponse {
+  return typeof error === 'object' && error !== null && 'ticketToken' in error;
 }
 
 export default ClientCart;
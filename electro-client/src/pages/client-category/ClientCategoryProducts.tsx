@@ -94,7 +94,7 @@ function useGetAllCategoryProductsApi(categorySlug: string) {
   const requestParams = {
     page: activePage,
     size: ApplicationConstants.DEFAULT_CLIENT_CATEGORY_PAGE_SIZE,
-    filter: [`category.slug==${categorySlug}`, activeBrandFilter, activePriceFilter].filter(Boolean).join(';'),
+    filter: [`categorySubtree==${categorySlug}`, activeBrandFilter, activePriceFilter].filter(Boolean).join(';'),
     sort: activeSort,
     search: activeSearch,
     newable: true,
@@ -133,11 +133,12 @@ function ClientSearch() {
                 <Text weight={500} mr={theme.spacing.xs}>Sắp xếp theo</Text>
                 <RadioGroup
                   value={activeSort || ''}
-                  onChange={(value) => setActiveSort((value as '' | 'lowest-price' | 'highest-price') || null)}
+                  onChange={(value) => setActiveSort((value as '' | 'lowest-price' | 'highest-price' | 'best-selling') || null)}
                 >
                   <Radio value="" label="Mới nhất"/>
                   <Radio value="lowest-price" label="Giá thấp → cao"/>
                   <Radio value="highest-price" label="Giá cao → thấp"/>
+                  <Radio value="best-selling" label="Bán chạy"/>
                 </RadioGroup>
               </Group>
               <Text>{products?.totalElements || 0} sản phẩm</Text>
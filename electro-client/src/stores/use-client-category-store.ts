@@ -7,7 +7,7 @@ interface ClientCategoryState {
   activePage: number;
   activeBrandFilter: null | string;
   activePriceFilter: null | string;
-  activeSort: null | 'lowest-price' | 'highest-price';
+  activeSort: null | 'lowest-price' | 'highest-price' | 'best-selling';
   activeSearch: null | string;
   activeSaleable: boolean;
 }
@@ -17,7 +17,7 @@ interface ClientCategoryAction {
   updateActivePage: (value: number) => void;
   updateActiveBrandFilter: (value: null | string) => void;
   updateActivePriceFilter: (value: null | string) => void;
-  updateActiveSort: (value: null | 'lowest-price' | 'highest-price') => void;
+  updateActiveSort: (value: null | 'lowest-price' | 'highest-price' | 'best-selling') => void;
   updateActiveSearch: (value: null | string) => void;
   updateActiveSaleable: (value: boolean) => void;
   resetClientCategoryState: () => void;
@@ -83,6 +83,7 @@ export interface ClientProductResponse {
   productAverageRatingScore: number;
   productCountReviews: number;
   productRelatedProducts: ClientListedProductResponse[];
+  productBoughtTogetherProducts: ClientListedProductResponse[];
   productPromotion: ClientPromotionResponse | null;
 }
 
@@ -321,6 +322,14 @@ export interface ClientConfirmedOrderResponse {
   orderPaypalCheckoutLink: string | null;
 }
 
+export interface ClientCheckoutTicketResponse {
+  ticketToken: string;
+  // Status 1: Đang chờ, 2: Đến lượt (gửi lại yêu cầu đặt hàng), 3: Đang đặt hàng
+  ticketStatus: number;
+  ticketPosition: number;
+  ticketAdmittedUntil: string | null;
+}
+
 // REWARD
 
 export interface ClientRewardLogResponse {
@@ -3,10 +3,12 @@ package com.electro.config;
 import io.github.perplexhub.rsql.RSQLCommonSupport;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.time.Instant;
 
 @Configuration
+@EnableScheduling
 public class ApplicationConfig {
 
     @Bean
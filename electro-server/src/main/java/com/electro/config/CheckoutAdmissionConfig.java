@@ -0,0 +1,20 @@
+package com.electro.config;
+
+import com.electro.service.order.CheckoutAdmissionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+
+@Configuration
+public class CheckoutAdmissionConfig {
+
+    // MappedInterceptor được các HandlerMapping tự phát hiện, không cần WebMvcConfigurer
+    @Bean
+    public MappedInterceptor checkoutAdmissionInterceptor(CheckoutAdmissionService checkoutAdmissionService,
+                                                          ObjectMapper objectMapper) {
+        return new MappedInterceptor(new String[] {"/client-api/orders"},
+                new CheckoutAdmissionInterceptor(checkoutAdmissionService, objectMapper));
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.electro.config;
+
+import com.electro.dto.client.ClientCheckoutTicketResponse;
+import com.electro.service.order.CheckoutAdmissionService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.Nullable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Chặn POST /client-api/orders trước khi vào controller (và trước khi mở giao dịch): chỉ cho qua khi người dùng
+ * được CheckoutAdmissionService cho vào, nếu không trả về 429 kèm vé xếp hàng để client chờ tới lượt rồi gửi lại.
+ * Được đăng ký trong CheckoutAdmissionConfig.
+ */
+@AllArgsConstructor
+public class CheckoutAdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String ADMITTED_USERNAME = CheckoutAdmissionInterceptor.class.getName() + ".ADMITTED_USERNAME";
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    private CheckoutAdmissionService checkoutAdmissionService;
+    private ObjectMapper objectMapper;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        // Request chưa xác thực đã bị Spring Security chặn trước đó
+        if (!HttpMethod.POST.matches(request.getMethod()) || authentication == null) {
+            return true;
+        }
+
+        String username = authentication.getName();
+
+        if (checkoutAdmissionService.tryEnter(username)) {
+            request.setAttribute(ADMITTED_USERNAME, username);
+            return true;
+        }
+
+        Optional<ClientCheckoutTicketResponse> ticket = checkoutAdmissionService.findTicket(username);
+
+        response.setStatus(ticket.isPresent() ? HttpStatus.TOO_MANY_REQUESTS.value() : HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), ticket.isPresent()
+                ? ticket.get()
+                : Map.of("message", "Checkout queue is full. Please try again later!"));
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, @Nullable Exception ex) {
+        Object username = request.getAttribute(ADMITTED_USERNAME);
+
+        if (username != null) {
+            checkoutAdmissionService.leave((String) username);
+        }
+    }
+
+}
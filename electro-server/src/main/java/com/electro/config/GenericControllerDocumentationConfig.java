@@ -72,11 +72,15 @@ public class GenericControllerDocumentationConfig {
     private RouterFunction<ServerResponse> generateRoute(String resource) {
         return SpringdocRouteBuilder.route()
                 .GET("/api/" + resource, handler, operation(resource, "getAllResources"))
+                .GET("/api/" + resource + "/export", handler, operation(resource, "exportResources"))
                 .GET("/api/" + resource + "/{id}", handler, operation(resource, "getResource"))
                 .POST("/api/" + resource, handler, operation(resource, "createResource"))
                 .PUT("/api/" + resource + "/{id}", handler, operation(resource, "updateResource"))
                 .DELETE("/api/" + resource + "/{id}", handler, operation(resource, "deleteResource"))
                 .DELETE("/api/" + resource, handler, operation(resource, "deleteResources"))
+                .POST("/api/" + resource + "/batch", handler, operation(resource, "createResources"))
+                .PUT("/api/" + resource + "/batch", handler, operation(resource, "updateResources"))
+                .DELETE("/api/" + resource + "/batch", handler, operation(resource, "deleteResourcesInBatch"))
                 .build();
     }
 
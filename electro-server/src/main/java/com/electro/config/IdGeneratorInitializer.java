@@ -0,0 +1,52 @@
+package com.electro.config;
+
+import com.electro.entity.BaseEntity;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Đồng bộ bảng id_generator với dữ liệu hiện có, trước khi ứng dụng nhận request.
+ * <p>
+ * data.sql chèn bản ghi với id tường minh, nên mỗi bảng cần next_val > MAX(id), nếu không bộ cấp id theo khối
+ * (TableGenerator + pooled-lo trong BaseEntity) sẽ cấp trùng id. Chỉ tăng chứ không giảm next_val,
+ * nên chạy lại nhiều lần hoặc chạy trên cơ sở dữ liệu đã có dữ liệu đều an toàn.
+ */
+@Component
+@AllArgsConstructor
+@Slf4j
+public class IdGeneratorInitializer {
+
+    private static final String SYNC_SEGMENT_SQL = "INSERT INTO id_generator (sequence_name, next_val) " +
+            "SELECT ?, COALESCE(MAX(id), 0) + 1 FROM %s " +
+            "ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val))";
+
+    private EntityManagerFactory entityManagerFactory;
+    private JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void syncSegments() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        sessionFactory.getMetamodel().entityPersisters().values().stream()
+                .filter(AbstractEntityPersister.class::isInstance)
+                .map(AbstractEntityPersister.class::cast)
+                .filter(persister -> BaseEntity.class.isAssignableFrom(persister.getMappedClass()))
+                .filter(persister -> persister.getEntityName().equals(persister.getRootEntityName()))
+                .forEach(persister -> {
+                    // Giá trị segment là tên bảng gốc, giống cách TableGenerator xác định khi bật
+                    // prefer_entity_table_as_segment_value
+                    String tableName = persister.getRootTableName();
+                    jdbcTemplate.update(String.format(SYNC_SEGMENT_SQL, tableName), tableName);
+                });
+
+        log.info("Synchronized id_generator segments with existing table data");
+    }
+
+}
@@ -10,4 +10,5 @@ public interface FieldName {
     String PAYPAL_ORDER_ID = "paypal_order_id";
     String WAYBILL_CODE = "waybill_code";
     String CODE = "code";
+    String TOKEN = "token";
 }
@@ -55,4 +55,5 @@ public interface ResourceName {
     String ROOM = "Room";
     String MESSAGE = "Message";
     String REWARD_STRATEGY = "RewardStrategy";
+    String CHECKOUT_TICKET = "CheckoutTicket";
 }
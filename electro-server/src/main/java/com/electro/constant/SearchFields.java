@@ -370,13 +370,6 @@ public interface SearchFields {
             "amount"
     );
 
-    List<String> CLIENT_PRODUCT = List.of(
-            "name",
-            "slug",
-            "category.name",
-            "brand.name"
-    );
-
     List<String> WAYBILL = List.of(
             "code",
             "order.code"
@@ -18,6 +18,7 @@ public interface SecurityConstants {
 
     String[] IGNORING_API_PATHS = {
             "/client-api/notifications/events",
+            "/client-api/orders/queue/events",
             "/client-api/reviews/products/**",
             "/client-api/orders/success",
             "/client-api/orders/cancel"
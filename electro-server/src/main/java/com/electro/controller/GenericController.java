@@ -1,11 +1,20 @@
 package com.electro.controller;
 
 import com.electro.constant.AppConstants;
+import com.electro.dto.BatchItemResponse;
+import com.electro.dto.CollectionWrapper;
+import com.electro.dto.CursorResponse;
 import com.electro.dto.ListResponse;
 import com.electro.service.CrudService;
+import com.electro.service.CursorCrudService;
+import com.electro.service.general.BatchService;
+import com.electro.service.general.ExportFormat;
+import com.electro.service.general.ExportService;
 import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import org.springframework.context.annotation.Scope;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
@@ -14,16 +23,23 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
 @Component
 @Setter
 @Scope("prototype")
+@RequiredArgsConstructor
 @CrossOrigin(AppConstants.FRONTEND_HOST)
 public class GenericController<I, O> {
 
+    private final ExportService exportService;
+    private final BatchService batchService;
+
     private CrudService<Long, I, O> crudService;
+    // Chỉ có khi service hỗ trợ phân trang theo cursor, khi đó mới ánh xạ getAllResourcesByCursor và exportResources
+    private CursorCrudService<Long, I, O> cursorCrudService;
     private Class<I> requestType;
 
     public ResponseEntity<ListResponse<O>> getAllResources(
@@ -37,6 +53,38 @@ public class GenericController<I, O> {
         return ResponseEntity.status(HttpStatus.OK).body(crudService.findAll(page, size, sort, filter, search, all));
     }
 
+    /**
+     * Phân trang theo cursor (keyset): chỉ được ánh xạ khi request có tham số "cursor",
+     * "cursor=" rỗng để lấy trang đầu, sau đó truyền lại nextCursor của phản hồi trước.
+     * Không đếm tổng số bản ghi nên độ trễ không tăng theo độ sâu của trang.
+     */
+    public ResponseEntity<CursorResponse<O>> getAllResourcesByCursor(
+            @RequestParam(name = "cursor") String cursor,
+            @RequestParam(name = "size", defaultValue = AppConstants.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(name = "sort", defaultValue = AppConstants.DEFAULT_SORT) String sort,
+            @RequestParam(name = "filter", required = false) @Nullable String filter,
+            @RequestParam(name = "search", required = false) @Nullable String search
+    ) {
+        return ResponseEntity.status(HttpStatus.OK).body(cursorCrudService.findAllByCursor(cursor, size, sort, filter, search));
+    }
+
+    /**
+     * Xuất toàn bộ bản ghi (thay cho all=true với bảng lớn) dưới dạng NDJSON hoặc CSV,
+     * ghi dần từng khối vào response nên bộ nhớ không phụ thuộc kích thước bảng
+     */
+    public ResponseEntity<StreamingResponseBody> exportResources(
+            @RequestParam(name = "format", defaultValue = "ndjson") String format,
+            @RequestParam(name = "sort", defaultValue = AppConstants.DEFAULT_SORT) String sort,
+            @RequestParam(name = "filter", required = false) @Nullable String filter,
+            @RequestParam(name = "search", required = false) @Nullable String search
+    ) {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        return ResponseEntity.status(HttpStatus.OK)
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=export." + exportFormat.getExtension())
+                .body(exportService.export(cursorCrudService, exportFormat, sort, filter, search));
+    }
+
     public ResponseEntity<O> getResource(@PathVariable("id") Long id) {
         return ResponseEntity.status(HttpStatus.OK).body(crudService.findById(id));
     }
@@ -59,4 +107,22 @@ public class GenericController<I, O> {
         return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
     }
 
+    public ResponseEntity<CollectionWrapper<BatchItemResponse<O>>> createResources(@RequestBody JsonNode requests) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(CollectionWrapper.of(batchService.saveAll(crudService, requests, requestType)));
+    }
+
+    /**
+     * Mỗi phần tử gồm trường "id" của bản ghi cần cập nhật và các trường của request như updateResource
+     */
+    public ResponseEntity<CollectionWrapper<BatchItemResponse<O>>> updateResources(@RequestBody JsonNode requests) {
+        return ResponseEntity.status(HttpStatus.OK)
+                .body(CollectionWrapper.of(batchService.updateAll(crudService, requests, requestType)));
+    }
+
+    public ResponseEntity<Void> deleteResourcesInBatch(@RequestBody List<Long> ids) {
+        crudService.deleteInBatch(ids);
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+
 }
@@ -121,11 +121,9 @@ import com.electro.entity.inventory.StorageLocation;
 import com.electro.entity.inventory.Transfer;
 import com.electro.entity.inventory.VariantInventoryLimit;
 import com.electro.entity.inventory.Warehouse;
-import com.electro.entity.order.Order;
 import com.electro.entity.order.OrderCancellationReason;
 import com.electro.entity.order.OrderResource;
 import com.electro.entity.product.Brand;
-import com.electro.entity.product.Category;
 import com.electro.entity.product.Guarantee;
 import com.electro.entity.product.Product;
 import com.electro.entity.product.Property;
@@ -163,10 +161,8 @@ import com.electro.mapper.inventory.TransferMapper;
 import com.electro.mapper.inventory.VariantInventoryLimitMapper;
 import com.electro.mapper.inventory.WarehouseMapper;
 import com.electro.mapper.order.OrderCancellationReasonMapper;
-import com.electro.mapper.order.OrderMapper;
 import com.electro.mapper.order.OrderResourceMapper;
 import com.electro.mapper.product.BrandMapper;
-import com.electro.mapper.product.CategoryMapper;
 import com.electro.mapper.product.GuaranteeMapper;
 import com.electro.mapper.product.ProductMapper;
 import com.electro.mapper.product.PropertyMapper;
@@ -204,10 +200,8 @@ import com.electro.repository.inventory.TransferRepository;
 import com.electro.repository.inventory.VariantInventoryLimitRepository;
 import com.electro.repository.inventory.WarehouseRepository;
 import com.electro.repository.order.OrderCancellationReasonRepository;
-import com.electro.repository.order.OrderRepository;
 import com.electro.repository.order.OrderResourceRepository;
 import com.electro.repository.product.BrandRepository;
-import com.electro.repository.product.CategoryRepository;
 import com.electro.repository.product.GuaranteeRepository;
 import com.electro.repository.product.ProductRepository;
 import com.electro.repository.product.PropertyRepository;
@@ -218,9 +212,12 @@ import com.electro.repository.product.UnitRepository;
 import com.electro.repository.product.VariantRepository;
 import com.electro.repository.reward.RewardStrategyRepository;
 import com.electro.service.CrudService;
+import com.electro.service.CursorCrudService;
 import com.electro.service.GenericService;
 import com.electro.service.address.ProvinceService;
 import com.electro.service.inventory.DocketService;
+import com.electro.service.order.OrderService;
+import com.electro.service.product.CategoryService;
 import com.electro.service.promotion.PromotionService;
 import com.electro.service.review.ReviewService;
 import com.electro.service.waybill.WaybillService;
@@ -309,7 +306,6 @@ public class GenericMappingRegister {
     private GenericService<CustomerStatus, CustomerStatusRequest, CustomerStatusResponse> customerStatusService;
     private GenericService<Customer, CustomerRequest, CustomerResponse> customerService;
     private GenericService<Property, PropertyRequest, PropertyResponse> propertyService;
-    private GenericService<Category, CategoryRequest, CategoryResponse> categoryService;
     private GenericService<Tag, TagRequest, TagResponse> tagService;
     private GenericService<Guarantee, GuaranteeRequest, GuaranteeResponse> guaranteeService;
     private GenericService<Unit, UnitRequest, UnitResponse> unitService;
@@ -330,7 +326,6 @@ public class GenericMappingRegister {
     private GenericService<PurchaseOrder, PurchaseOrderRequest, PurchaseOrderResponse> purchaseOrderService;
     private GenericService<OrderResource, OrderResourceRequest, OrderResourceResponse> orderResourceService;
     private GenericService<OrderCancellationReason, OrderCancellationReasonRequest, OrderCancellationReasonResponse> orderCancellationReasonService;
-    private GenericService<Order, OrderRequest, OrderResponse> orderService;
     private GenericService<PaymentMethod, PaymentMethodRequest, PaymentMethodResponse> paymentMethodService;
     private GenericService<Room, RoomRequest, RoomResponse> roomService;
     private GenericService<RewardStrategy, RewardStrategyRequest, RewardStrategyResponse> rewardStrategyService;
@@ -452,12 +447,7 @@ public class GenericMappingRegister {
                 ResourceName.PROPERTY
         ), PropertyRequest.class);
 
-        register("categories", categoryController, categoryService.init(
-                context.getBean(CategoryRepository.class),
-                context.getBean(CategoryMapper.class),
-                SearchFields.CATEGORY,
-                ResourceName.CATEGORY
-        ), CategoryRequest.class);
+        register("categories", categoryController, context.getBean(CategoryService.class), CategoryRequest.class);
 
         register("tags", tagController, tagService.init(
                 context.getBean(TagRepository.class),
@@ -601,12 +591,7 @@ public class GenericMappingRegister {
                 ResourceName.ORDER_CANCELLATION_REASON
         ), OrderCancellationReasonRequest.class);
 
-        register("orders", orderController, orderService.init(
-                context.getBean(OrderRepository.class),
-                context.getBean(OrderMapper.class),
-                SearchFields.ORDER,
-                ResourceName.ORDER
-        ), OrderRequest.class);
+        register("orders", orderController, context.getBean(OrderService.class), OrderRequest.class);
 
         register("waybills", waybillController, context.getBean(WaybillService.class), WaybillRequest.class);
 
@@ -637,6 +622,44 @@ public class GenericMappingRegister {
 
     }
 
+    /**
+     * Như register bên dưới, thêm `?cursor` và `/export` cho service hỗ trợ phân trang theo cursor
+     */
+    private <I, O> void register(String resource,
+                                 GenericController<I, O> controller,
+                                 CursorCrudService<Long, I, O> service,
+                                 Class<I> requestType
+    ) throws NoSuchMethodException {
+        RequestMappingInfo.BuilderConfiguration options = new RequestMappingInfo.BuilderConfiguration();
+        options.setPatternParser(new PathPatternParser());
+
+        controller.setCursorCrudService(service);
+
+        handlerMapping.registerMapping(
+                RequestMappingInfo.paths("/api/" + resource)
+                        .methods(RequestMethod.GET)
+                        .params("cursor")
+                        .produces(MediaType.APPLICATION_JSON_VALUE)
+                        .options(options)
+                        .build(),
+                controller,
+                controller.getClass().getMethod("getAllResourcesByCursor", String.class, int.class,
+                        String.class, String.class, String.class)
+        );
+
+        handlerMapping.registerMapping(
+                RequestMappingInfo.paths("/api/" + resource + "/export")
+                        .methods(RequestMethod.GET)
+                        .options(options)
+                        .build(),
+                controller,
+                controller.getClass().getMethod("exportResources", String.class, String.class,
+                        String.class, String.class)
+        );
+
+        register(resource, controller, (CrudService<Long, I, O>) service, requestType);
+    }
+
     private <I, O> void register(String resource,
                                  GenericController<I, O> controller,
                                  CrudService<Long, I, O> service,
@@ -709,6 +732,38 @@ public class GenericMappingRegister {
                 controller,
                 controller.getClass().getMethod("deleteResources", List.class)
         );
+
+        handlerMapping.registerMapping(
+                RequestMappingInfo.paths("/api/" + resource + "/batch")
+                        .methods(RequestMethod.POST)
+                        .consumes(MediaType.APPLICATION_JSON_VALUE)
+                        .produces(MediaType.APPLICATION_JSON_VALUE)
+                        .options(options)
+                        .build(),
+                controller,
+                controller.getClass().getMethod("createResources", JsonNode.class)
+        );
+
+        handlerMapping.registerMapping(
+                RequestMappingInfo.paths("/api/" + resource + "/batch")
+                        .methods(RequestMethod.PUT)
+                        .consumes(MediaType.APPLICATION_JSON_VALUE)
+                        .produces(MediaType.APPLICATION_JSON_VALUE)
+                        .options(options)
+                        .build(),
+                controller,
+                controller.getClass().getMethod("updateResources", JsonNode.class)
+        );
+
+        handlerMapping.registerMapping(
+                RequestMappingInfo.paths("/api/" + resource + "/batch")
+                        .methods(RequestMethod.DELETE)
+                        .consumes(MediaType.APPLICATION_JSON_VALUE)
+                        .options(options)
+                        .build(),
+                controller,
+                controller.getClass().getMethod("deleteResourcesInBatch", List.class)
+        );
     }
 
 }
@@ -13,8 +13,7 @@ import com.electro.exception.ResourceNotFoundException;
 import com.electro.mapper.client.ClientCartMapper;
 import com.electro.repository.cart.CartRepository;
 import com.electro.repository.cart.CartVariantRepository;
-import com.electro.repository.inventory.DocketVariantRepository;
-import com.electro.utils.InventoryUtils;
+import com.electro.service.inventory.InventoryQueryService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.AllArgsConstructor;
@@ -30,6 +29,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -41,7 +41,7 @@ public class ClientCartController {
     private CartRepository cartRepository;
     private CartVariantRepository cartVariantRepository;
     private ClientCartMapper clientCartMapper;
-    private DocketVariantRepository docketVariantRepository;
+    private InventoryQueryService inventoryQueryService;
 
     @GetMapping
     public ResponseEntity<ObjectNode> getCart(Authentication authentication) {
@@ -71,10 +71,12 @@ public class ClientCartController {
         }
 
         // Validate Variant Inventory
+        Map<Long, Integer> variantAvailabilities = inventoryQueryService.availableFor(cartBeforeSave.getCartVariants().stream()
+                .map(cartVariant -> cartVariant.getCartVariantKey().getVariantId())
+                .collect(Collectors.toSet()));
+
         for (CartVariant cartVariant : cartBeforeSave.getCartVariants()) {
-            int inventory = InventoryUtils
-                    .calculateInventoryIndices(docketVariantRepository.findByVariantId(cartVariant.getCartVariantKey().getVariantId()))
-                    .get("canBeSold");
+            int inventory = variantAvailabilities.get(cartVariant.getCartVariantKey().getVariantId());
             if (cartVariant.getQuantity() > inventory) {
                 throw new RuntimeException("Variant quantity cannot greater than variant inventory");
             }
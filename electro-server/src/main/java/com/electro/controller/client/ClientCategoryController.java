@@ -5,10 +5,10 @@ import com.electro.constant.FieldName;
 import com.electro.constant.ResourceName;
 import com.electro.dto.CollectionWrapper;
 import com.electro.dto.client.ClientCategoryResponse;
-import com.electro.entity.product.Category;
 import com.electro.exception.ResourceNotFoundException;
 import com.electro.mapper.client.ClientCategoryMapper;
-import com.electro.repository.product.CategoryRepository;
+import com.electro.service.product.CategoryNode;
+import com.electro.service.product.CategoryTreeService;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -26,20 +26,20 @@ import java.util.List;
 @CrossOrigin(AppConstants.FRONTEND_HOST)
 public class ClientCategoryController {
 
-    private CategoryRepository categoryRepository;
+    private CategoryTreeService categoryTreeService;
     private ClientCategoryMapper clientCategoryMapper;
 
     @GetMapping
     public ResponseEntity<CollectionWrapper<ClientCategoryResponse>> getAllCategories() {
-        List<Category> firstCategories = categoryRepository.findByParentCategoryIsNull();
-        List<ClientCategoryResponse> clientCategoryResponses = clientCategoryMapper.entityToResponse(firstCategories, 3);
+        List<CategoryNode> firstCategoryNodes = categoryTreeService.getTree().getRoots();
+        List<ClientCategoryResponse> clientCategoryResponses = clientCategoryMapper.nodeToResponse(firstCategoryNodes, 3);
         return ResponseEntity.status(HttpStatus.OK).body(CollectionWrapper.of(clientCategoryResponses));
     }
 
     @GetMapping("/{slug}")
     public ResponseEntity<ClientCategoryResponse> getCategory(@PathVariable("slug") String slug) {
-        ClientCategoryResponse clientCategoryResponse = categoryRepository.findBySlug(slug)
-                .map(category -> clientCategoryMapper.entityToResponse(category, false))
+        ClientCategoryResponse clientCategoryResponse = categoryTreeService.getTree().findBySlug(slug)
+                .map(categoryNode -> clientCategoryMapper.nodeToResponse(categoryNode, false))
                 .orElseThrow(() -> new ResourceNotFoundException(ResourceName.CATEGORY, FieldName.SLUG, slug));
         return ResponseEntity.status(HttpStatus.OK).body(clientCategoryResponse);
     }
@@ -0,0 +1,53 @@
+package com.electro.controller.client;
+
+import com.electro.constant.AppConstants;
+import com.electro.constant.FieldName;
+import com.electro.constant.ResourceName;
+import com.electro.dto.client.ClientCheckoutTicketResponse;
+import com.electro.exception.ResourceNotFoundException;
+import com.electro.service.order.CheckoutAdmissionService;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Hàng đợi đặt hàng: client xếp hàng, hỏi vòng (hoặc nhận sự kiện SSE) tới khi ticketStatus = 2
+ * rồi gửi lại POST /client-api/orders
+ */
+@RestController
+@RequestMapping("/client-api/orders/queue")
+@AllArgsConstructor
+@CrossOrigin(AppConstants.FRONTEND_HOST)
+public class ClientCheckoutQueueController {
+
+    private CheckoutAdmissionService checkoutAdmissionService;
+
+    @PostMapping
+    public ResponseEntity<ClientCheckoutTicketResponse> joinQueue(Authentication authentication) {
+        String username = authentication.getName();
+        return ResponseEntity.status(HttpStatus.OK).body(checkoutAdmissionService.join(username));
+    }
+
+    @GetMapping
+    public ResponseEntity<ClientCheckoutTicketResponse> getTicket(Authentication authentication) {
+        String username = authentication.getName();
+        ClientCheckoutTicketResponse ticket = checkoutAdmissionService.findTicket(username)
+                .orElseThrow(() -> new ResourceNotFoundException(ResourceName.CHECKOUT_TICKET, FieldName.USERNAME, username));
+        return ResponseEntity.status(HttpStatus.OK).body(ticket);
+    }
+
+    // EventSource không gửi được header Authorization, nên vé được xác định bằng token ngẫu nhiên
+    @GetMapping("/events")
+    public SseEmitter subscribeTicketEvents(@RequestParam String ticketToken) {
+        return checkoutAdmissionService.subscribe(ticketToken);
+    }
+
+}
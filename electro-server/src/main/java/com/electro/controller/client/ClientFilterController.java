@@ -2,12 +2,16 @@ package com.electro.controller.client;
 
 import com.electro.constant.AppConstants;
 import com.electro.dto.client.ClientBrandResponse;
+import com.electro.dto.client.ClientFacetResponse;
 import com.electro.dto.client.ClientFilterResponse;
 import com.electro.entity.product.Brand;
 import com.electro.repository.product.BrandRepository;
+import com.electro.service.product.FacetIndexService;
+import com.electro.service.product.ProductSearchService;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -24,6 +28,8 @@ import java.util.stream.Collectors;
 public class ClientFilterController {
 
     private BrandRepository brandRepository;
+    private ProductSearchService productSearchService;
+    private FacetIndexService facetIndexService;
 
     @GetMapping("/category")
     public ResponseEntity<ClientFilterResponse> getFilterByCategorySlug(@RequestParam String slug) {
@@ -35,12 +41,26 @@ public class ClientFilterController {
 
     @GetMapping("/search")
     public ResponseEntity<ClientFilterResponse> getFilterBySearchQuery(@RequestParam String query) {
-        List<Brand> brands = brandRepository.findBySearchQuery(query);
+        List<Brand> brands = brandRepository.findByProductIds(productSearchService.search(query));
         ClientFilterResponse clientFilterResponse = new ClientFilterResponse();
         clientFilterResponse.setFilterBrands(mapToClientBrandResponse(brands));
         return ResponseEntity.status(HttpStatus.OK).body(clientFilterResponse);
     }
 
+    @GetMapping("/facets")
+    public ResponseEntity<ClientFacetResponse> getFacets(
+            @RequestParam(name = "category", required = false) @Nullable String categorySlug,
+            @RequestParam(name = "search", required = false) @Nullable String search,
+            @RequestParam(name = "brandIds", defaultValue = "") List<Long> brandIds,
+            @RequestParam(name = "priceBuckets", defaultValue = "") List<Integer> priceBuckets,
+            @RequestParam(name = "tagIds", defaultValue = "") List<Long> tagIds,
+            @RequestParam(name = "properties", defaultValue = "") List<String> properties
+    ) {
+        ClientFacetResponse clientFacetResponse = facetIndexService
+                .findFacets(categorySlug, search, brandIds, priceBuckets, tagIds, properties);
+        return ResponseEntity.status(HttpStatus.OK).body(clientFacetResponse);
+    }
+
     private List<ClientBrandResponse> mapToClientBrandResponse(List<Brand> brands) {
         return brands.stream()
                 .map(brand -> new ClientBrandResponse()
@@ -3,6 +3,7 @@ package com.electro.controller.client;
 import com.electro.constant.AppConstants;
 import com.electro.constant.FieldName;
 import com.electro.constant.ResourceName;
+import com.electro.dto.CursorResponse;
 import com.electro.dto.ListResponse;
 import com.electro.dto.general.EventInitiationResponse;
 import com.electro.dto.general.NotificationRequest;
@@ -10,6 +11,7 @@ import com.electro.dto.general.NotificationResponse;
 import com.electro.entity.general.Notification;
 import com.electro.exception.ResourceNotFoundException;
 import com.electro.mapper.general.NotificationMapper;
+import com.electro.repository.KeysetRepository;
 import com.electro.repository.general.NotificationRepository;
 import com.electro.service.general.EmitterService;
 import com.electro.service.general.NotificationService;
@@ -17,6 +19,7 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
@@ -46,6 +49,7 @@ public class ClientNotificationController {
     private final NotificationMapper notificationMapper;
     private final EmitterService emitterService;
     private final NotificationService notificationService;
+    private final KeysetRepository keysetRepository;
 
     @GetMapping
     public ResponseEntity<ListResponse<NotificationResponse>> getAllNotifications(
@@ -61,6 +65,21 @@ public class ClientNotificationController {
         return ResponseEntity.status(HttpStatus.OK).body(ListResponse.of(notificationResponses, notifications));
     }
 
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorResponse<NotificationResponse>> getAllNotificationsByCursor(
+            Authentication authentication,
+            @RequestParam(name = "cursor") String cursor,
+            @RequestParam(name = "size", defaultValue = AppConstants.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(name = "sort", defaultValue = AppConstants.DEFAULT_SORT) String sort,
+            @RequestParam(name = "filter", required = false) @Nullable String filter
+    ) {
+        String username = authentication.getName();
+        Slice<Notification> notifications = keysetRepository.findSlice(notificationRepository,
+                notificationRepository.filterByUsername(username, filter), sort, cursor, size);
+        List<NotificationResponse> notificationResponses = notifications.map(notificationMapper::entityToResponse).toList();
+        return ResponseEntity.status(HttpStatus.OK).body(CursorResponse.of(notificationResponses, notifications, sort));
+    }
+
     // Reference: https://stackoverflow.com/a/62749980
     @GetMapping("/init-events")
     public ResponseEntity<EventInitiationResponse> initNotificationEvents(Authentication authentication) {
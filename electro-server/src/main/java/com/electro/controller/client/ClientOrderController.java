@@ -3,9 +3,11 @@ package com.electro.controller.client;
 import com.electro.constant.AppConstants;
 import com.electro.constant.FieldName;
 import com.electro.constant.ResourceName;
+import com.electro.dto.CursorResponse;
 import com.electro.dto.ListResponse;
 import com.electro.dto.client.ClientConfirmedOrderResponse;
 import com.electro.dto.client.ClientOrderDetailResponse;
+import com.electro.dto.client.ClientOrderPreviewResponse;
 import com.electro.dto.client.ClientSimpleOrderRequest;
 import com.electro.dto.client.ClientSimpleOrderResponse;
 import com.electro.entity.general.Notification;
@@ -14,6 +16,7 @@ import com.electro.entity.order.Order;
 import com.electro.exception.ResourceNotFoundException;
 import com.electro.mapper.client.ClientOrderMapper;
 import com.electro.mapper.general.NotificationMapper;
+import com.electro.repository.KeysetRepository;
 import com.electro.repository.general.NotificationRepository;
 import com.electro.repository.order.OrderRepository;
 import com.electro.service.general.NotificationService;
@@ -23,6 +26,7 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
@@ -53,6 +57,7 @@ public class ClientOrderController {
     private NotificationRepository notificationRepository;
     private NotificationService notificationService;
     private NotificationMapper notificationMapper;
+    private KeysetRepository keysetRepository;
 
     @GetMapping
     public ResponseEntity<ListResponse<ClientSimpleOrderResponse>> getAllOrders(
@@ -68,6 +73,26 @@ public class ClientOrderController {
         return ResponseEntity.status(HttpStatus.OK).body(ListResponse.of(clientReviewResponses, orders));
     }
 
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorResponse<ClientSimpleOrderResponse>> getAllOrdersByCursor(
+            Authentication authentication,
+            @RequestParam(name = "cursor") String cursor,
+            @RequestParam(name = "size", defaultValue = AppConstants.DEFAULT_PAGE_SIZE) int size,
+            @RequestParam(name = "sort", defaultValue = AppConstants.DEFAULT_SORT) String sort,
+            @RequestParam(name = "filter", required = false) @Nullable String filter
+    ) {
+        String username = authentication.getName();
+        Slice<Order> orders = keysetRepository.findSlice(orderRepository,
+                orderRepository.filterByUsername(username, filter), sort, cursor, size);
+        List<ClientSimpleOrderResponse> clientOrderResponses = orders.map(clientOrderMapper::entityToResponse).toList();
+        return ResponseEntity.status(HttpStatus.OK).body(CursorResponse.of(clientOrderResponses, orders, sort));
+    }
+
+    @GetMapping("/preview")
+    public ResponseEntity<ClientOrderPreviewResponse> previewClientOrder() {
+        return ResponseEntity.status(HttpStatus.OK).body(orderService.previewClientOrder());
+    }
+
     @GetMapping("/{code}")
     public ResponseEntity<ClientOrderDetailResponse> getOrder(@PathVariable String code) {
         ClientOrderDetailResponse clientOrderDetailResponse = orderRepository.findByCode(code)
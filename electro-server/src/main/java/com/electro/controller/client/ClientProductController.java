@@ -3,21 +3,30 @@ package com.electro.controller.client;
 import com.electro.constant.AppConstants;
 import com.electro.constant.FieldName;
 import com.electro.constant.ResourceName;
+import com.electro.dto.CollectionWrapper;
 import com.electro.dto.ListResponse;
 import com.electro.dto.client.ClientListedProductResponse;
 import com.electro.dto.client.ClientProductResponse;
-import com.electro.entity.BaseEntity;
 import com.electro.entity.product.Product;
 import com.electro.exception.ResourceNotFoundException;
 import com.electro.mapper.client.ClientProductMapper;
-import com.electro.projection.inventory.SimpleProductInventory;
+import com.electro.projection.product.ProductCard;
 import com.electro.repository.ProjectionRepository;
 import com.electro.repository.product.ProductRepository;
 import com.electro.repository.review.ReviewRepository;
+import com.electro.service.inventory.InventoryQueryService;
+import com.electro.service.product.BestSellerService;
+import com.electro.service.product.BoughtTogetherService;
+import com.electro.service.product.CachedProductDetail;
+import com.electro.service.product.ProductDetailCacheService;
+import com.electro.service.product.ProductSearchService;
+import com.electro.service.product.RelatedProductService;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
@@ -28,8 +37,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/client-api/products")
@@ -37,10 +49,20 @@ import java.util.Optional;
 @CrossOrigin(AppConstants.FRONTEND_HOST)
 public class ClientProductController {
 
+    private static final int RELATED_PRODUCTS_LIMIT = 4;
+    private static final int BOUGHT_TOGETHER_LIMIT = 4;
+    private static final int BEST_SELLING_LIMIT = 50;
+
     private ProductRepository productRepository;
     private ProjectionRepository projectionRepository;
     private ClientProductMapper clientProductMapper;
     private ReviewRepository reviewRepository;
+    private ProductDetailCacheService productDetailCacheService;
+    private ProductSearchService productSearchService;
+    private RelatedProductService relatedProductService;
+    private BoughtTogetherService boughtTogetherService;
+    private BestSellerService bestSellerService;
+    private InventoryQueryService inventoryQueryService;
 
     @GetMapping
     public ResponseEntity<ListResponse<ClientListedProductResponse>> getAllProducts(
@@ -55,56 +77,123 @@ public class ClientProductController {
         // Phân trang
         Pageable pageable = PageRequest.of(page - 1, size);
 
+        // Tìm kiếm qua chỉ mục trong bộ nhớ, database chỉ còn lọc theo danh sách id
+        List<Long> searchedProductIds = search == null || search.isBlank() ? null : productSearchService.search(search);
+
         // Lấy danh sách sản phẩm theo điều kiện lọc và phân trang
-        Page<Product> products = productRepository.findByParams(filter, sort, search, saleable, newable, pageable);
+        Page<Long> products = sort == null && searchedProductIds != null
+                ? findByRelevance(filter, searchedProductIds, saleable, newable, pageable)
+                : productRepository.findByParams(filter, sort, searchedProductIds, saleable, newable, pageable)
+                .map(Product::getId);
 
-        // Lấy thông tin tồn kho của sản phẩm
-        List<Long> productIds = products.map(Product::getId).toList();
-        List<SimpleProductInventory> productInventories = projectionRepository.findSimpleProductInventories(productIds);
+        // Lấy dữ liệu thẻ sản phẩm và thông tin tồn kho của sản phẩm, số truy vấn không phụ thuộc kích thước trang
+        List<Long> productIds = products.getContent();
+        Map<Long, Integer> productAvailabilities = inventoryQueryService.availableForProducts(productIds);
 
-        List<ClientListedProductResponse> clientListedProductResponses = products
-                .map(product -> clientProductMapper.entityToListedResponse(product, productInventories)).toList();
+        List<ClientListedProductResponse> clientListedProductResponses = projectionRepository.findProductCards(productIds)
+                .stream()
+                .map(productCard -> clientProductMapper.cardToListedResponse(productCard, productAvailabilities))
+                .collect(Collectors.toList());
 
         return ResponseEntity.status(HttpStatus.OK).body(ListResponse.of(clientListedProductResponses, products));
     }
 
+    @GetMapping("/best-selling")
+    public ResponseEntity<CollectionWrapper<ClientListedProductResponse>> getBestSellingProducts(
+            @RequestParam(name = "size", defaultValue = "8") int size
+    ) {
+        // Xếp hạng được duy trì sẵn trong bộ nhớ, không gộp order_variant khi đọc
+        List<ClientListedProductResponse> clientListedProductResponses = toListedResponses(
+                bestSellerService.findTopProductIds(Math.min(size, BEST_SELLING_LIMIT)));
+
+        return ResponseEntity.status(HttpStatus.OK).body(CollectionWrapper.of(clientListedProductResponses));
+    }
+
+    @GetMapping("/{slug}/bought-together")
+    public ResponseEntity<CollectionWrapper<ClientListedProductResponse>> getBoughtTogetherProducts(@PathVariable String slug) {
+        Product product = productRepository.findBySlug(slug)
+                .orElseThrow(() -> new ResourceNotFoundException(ResourceName.PRODUCT, FieldName.SLUG, slug));
+
+        List<ClientListedProductResponse> clientListedProductResponses = toListedResponses(
+                boughtTogetherService.findPartners(product.getId(), BOUGHT_TOGETHER_LIMIT));
+
+        return ResponseEntity.status(HttpStatus.OK).body(CollectionWrapper.of(clientListedProductResponses));
+    }
+
     @GetMapping("/{slug}")
     public ResponseEntity<ClientProductResponse> getProduct(@PathVariable String slug) {
+        // Phần đã lắp ráp được cache theo slug, tồn kho và khuyến mãi được ghép vào ở mỗi request
+        CachedProductDetail cachedProductDetail = productDetailCacheService.getOrLoad(slug, () -> loadProduct(slug));
+        ClientProductResponse clientProductResponse = clientProductMapper.mergeVolatileData(cachedProductDetail.getResponse());
+
+        // Spring tự trả về 304 Not Modified khi ETag khớp với header If-None-Match của request
+        return ResponseEntity.status(HttpStatus.OK)
+                .cacheControl(CacheControl.noCache())
+                .eTag(productDetailCacheService.eTagOf(cachedProductDetail, clientProductResponse))
+                .body(clientProductResponse);
+    }
+
+    private ClientProductResponse loadProduct(String slug) {
         Product product = productRepository.findBySlug(slug)
                 .orElseThrow(() -> new ResourceNotFoundException(ResourceName.PRODUCT, FieldName.SLUG, slug));
 
-        List<SimpleProductInventory> productInventories = projectionRepository
-                .findSimpleProductInventories(List.of(product.getId()));
-
         int averageRatingScore = reviewRepository.findAverageRatingScoreByProductId(product.getId());
         int countReviews = reviewRepository.countByProductId(product.getId());
 
-        // Related Products
-        Page<Product> relatedProducts = productRepository.findByParams(
-                String.format("category.id==%s;id!=%s",
-                        Optional.ofNullable(product.getCategory())
-                                .map(BaseEntity::getId)
-                                .map(Object::toString)
-                                .orElse("0"),
-                        product.getId()),
-                "random",
-                null,
-                false,
-                false,
-                PageRequest.of(0, 4));
-
-        List<Long> relatedProductIds = relatedProducts.map(Product::getId).toList();
-        List<SimpleProductInventory> relatedProductInventories = projectionRepository
-                .findSimpleProductInventories(relatedProductIds);
-
-        List<ClientListedProductResponse> relatedProductResponses = relatedProducts
-                .map(p -> clientProductMapper.entityToListedResponse(p, relatedProductInventories)).toList();
+        // Related Products: lấy mẫu từ nhóm ứng viên trong bộ nhớ, database chỉ còn tải theo id
+        List<ClientListedProductResponse> relatedProductResponses = toListedResponses(
+                relatedProductService.sample(product.getId(), RELATED_PRODUCTS_LIMIT));
+
+        // Bought Together Products
+        List<Long> boughtTogetherProductIds = boughtTogetherService.findPartners(product.getId(), BOUGHT_TOGETHER_LIMIT);
+        List<ClientListedProductResponse> boughtTogetherProductResponses = boughtTogetherProductIds.isEmpty()
+                ? List.of()
+                : toListedResponses(boughtTogetherProductIds);
 
         // Result
         ClientProductResponse clientProductResponse = clientProductMapper
-                .entityToResponse(product, productInventories, averageRatingScore, countReviews, relatedProductResponses);
+                .entityToResponse(product, averageRatingScore, countReviews, relatedProductResponses);
+        clientProductResponse.setProductBoughtTogetherProducts(boughtTogetherProductResponses);
+
+        return clientProductResponse;
+    }
+
+    /**
+     * Không chỉ định sắp xếp thì giữ thứ tự theo độ liên quan của kết quả tìm kiếm: database lọc toàn bộ tập khớp
+     * (chỉ lấy id), sau đó sắp và phân trang theo thứ hạng, tổng số phần tử tính trên đúng tập đã lọc
+     */
+    private Page<Long> findByRelevance(String filter,
+                                       List<Long> searchedProductIds,
+                                       boolean saleable,
+                                       boolean newable,
+                                       Pageable pageable) {
+        Map<Long, Integer> ranks = new HashMap<>();
+        for (int rank = 0; rank < searchedProductIds.size(); rank++) {
+            ranks.put(searchedProductIds.get(rank), rank);
+        }
+
+        List<Long> productIds = projectionRepository
+                .findProductIds(productRepository.toSpecification(filter, null, searchedProductIds, saleable, newable))
+                .stream()
+                .sorted(Comparator.comparing(ranks::get))
+                .collect(Collectors.toList());
+
+        int fromIndex = (int) Math.min(pageable.getOffset(), productIds.size());
+        int toIndex = Math.min(fromIndex + pageable.getPageSize(), productIds.size());
+
+        return new PageImpl<>(productIds.subList(fromIndex, toIndex), pageable, productIds.size());
+    }
+
+    private List<ClientListedProductResponse> toListedResponses(List<Long> productIds) {
+        // Thẻ sản phẩm giữ nguyên thứ tự của `productIds`
+        List<ProductCard> productCards = projectionRepository.findProductCards(productIds);
+
+        List<Long> foundProductIds = productCards.stream().map(ProductCard::getProductId).collect(Collectors.toList());
+        Map<Long, Integer> productAvailabilities = inventoryQueryService.availableForProducts(foundProductIds);
 
-        return ResponseEntity.status(HttpStatus.OK).body(clientProductResponse);
+        return productCards.stream()
+                .map(productCard -> clientProductMapper.cardToListedResponse(productCard, productAvailabilities))
+                .collect(Collectors.toList());
     }
 
 }
@@ -6,6 +6,7 @@ import com.electro.constant.ResourceName;
 import com.electro.dto.ListResponse;
 import com.electro.dto.inventory.ProductInventoryResponse;
 import com.electro.dto.inventory.VariantInventoryResponse;
+import com.electro.dto.inventory.VariantStockVerificationResponse;
 import com.electro.entity.inventory.DocketVariant;
 import com.electro.entity.product.Product;
 import com.electro.entity.product.Variant;
@@ -13,11 +14,15 @@ import com.electro.exception.ResourceNotFoundException;
 import com.electro.mapper.product.ProductInventoryMapper;
 import com.electro.mapper.product.VariantInventoryMapper;
 import com.electro.projection.inventory.ProductInventory;
+import com.electro.projection.inventory.SimpleProductInventory;
+import com.electro.projection.inventory.SimpleVariantInventory;
 import com.electro.projection.inventory.VariantInventory;
+import com.electro.repository.ProjectionRepository;
 import com.electro.repository.inventory.DocketVariantRepository;
 import com.electro.repository.product.ProductRepository;
 import com.electro.repository.product.VariantRepository;
-import com.electro.utils.InventoryUtils;
+import com.electro.service.inventory.InventoryQueryService;
+import com.electro.service.inventory.VariantStockService;
 import lombok.AllArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -26,6 +31,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -33,6 +39,8 @@ import org.springframework.web.bind.annotation.RestController;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api")
@@ -45,6 +53,9 @@ public class InventoryController {
     private ProductInventoryMapper productInventoryMapper;
     private VariantRepository variantRepository;
     private VariantInventoryMapper variantInventoryMapper;
+    private VariantStockService variantStockService;
+    private InventoryQueryService inventoryQueryService;
+    private ProjectionRepository projectionRepository;
 
     @GetMapping("/product-inventories")
     public ResponseEntity<ListResponse<ProductInventoryResponse>> getProductInventories(
@@ -54,22 +65,32 @@ public class InventoryController {
         // Lấy danh sách sản phẩm từng được nhập xuất
         Page<Product> products = productRepository.findDocketedProducts(PageRequest.of(page - 1, size));
 
+        List<Long> productIds = products.map(Product::getId).toList();
+
+        // Lấy tồn kho và lịch sử nhập xuất của cả trang sản phẩm, thay vì truy vấn riêng từng sản phẩm
+        Map<Long, SimpleProductInventory> simpleProductInventories = productIds.isEmpty()
+                ? Map.of()
+                : projectionRepository.findSimpleProductInventories(productIds).stream()
+                .collect(Collectors.toMap(SimpleProductInventory::getProductId, Function.identity()));
+        Map<Long, List<DocketVariant>> transactionsByProductId = productIds.isEmpty()
+                ? Map.of()
+                : docketVariantRepository.findByProductIds(productIds).stream()
+                .collect(Collectors.groupingBy(transaction -> transaction.getVariant().getProduct().getId()));
+
         List<ProductInventory> productInventories = new ArrayList<>();
 
         for (Product product : products) {
             ProductInventory productInventory = new ProductInventory();
 
             productInventory.setProduct(product);
+            productInventory.setTransactions(transactionsByProductId.getOrDefault(product.getId(), List.of()));
 
-            List<DocketVariant> transactions = docketVariantRepository.findByProductId(product.getId());
-            productInventory.setTransactions(transactions);
-
-            Map<String, Integer> inventoryIndices = InventoryUtils.calculateInventoryIndices(transactions);
+            SimpleProductInventory simpleProductInventory = simpleProductInventories.get(product.getId());
 
-            productInventory.setInventory(inventoryIndices.get("inventory"));
-            productInventory.setWaitingForDelivery(inventoryIndices.get("waitingForDelivery"));
-            productInventory.setCanBeSold(inventoryIndices.get("canBeSold"));
-            productInventory.setAreComing(inventoryIndices.get("areComing"));
+            productInventory.setInventory(simpleProductInventory == null ? 0 : simpleProductInventory.getInventory());
+            productInventory.setWaitingForDelivery(simpleProductInventory == null ? 0 : simpleProductInventory.getWaitingForDelivery());
+            productInventory.setCanBeSold(simpleProductInventory == null ? 0 : simpleProductInventory.getCanBeSold());
+            productInventory.setAreComing(simpleProductInventory == null ? 0 : simpleProductInventory.getAreComing());
 
             productInventories.add(productInventory);
         }
@@ -87,24 +108,21 @@ public class InventoryController {
         // Lấy danh sách phiên bản sản phẩm từng được nhập xuất
         Page<Variant> variants = variantRepository.findDocketedVariants(PageRequest.of(page - 1, size));
 
-        List<VariantInventory> variantInventories = new ArrayList<>();
-
-        for (Variant variant : variants) {
-            VariantInventory variantInventory = new VariantInventory();
+        List<Long> variantIds = variants.map(Variant::getId).toList();
 
-            variantInventory.setVariant(variant);
+        // Lấy tồn kho và lịch sử nhập xuất của cả trang phiên bản, thay vì truy vấn riêng từng phiên bản
+        Map<Long, SimpleVariantInventory> simpleVariantInventories = inventoryQueryService.stockFor(variantIds);
+        Map<Long, List<DocketVariant>> transactionsByVariantId = variantIds.isEmpty()
+                ? Map.of()
+                : docketVariantRepository.findByVariantIds(variantIds).stream()
+                .collect(Collectors.groupingBy(transaction -> transaction.getVariant().getId()));
 
-            List<DocketVariant> transactions = docketVariantRepository.findByVariantId(variant.getId());
-            variantInventory.setTransactions(transactions);
-
-            Map<String, Integer> inventoryIndices = InventoryUtils.calculateInventoryIndices(transactions);
-
-            variantInventory.setInventory(inventoryIndices.get("inventory"));
-            variantInventory.setWaitingForDelivery(inventoryIndices.get("waitingForDelivery"));
-            variantInventory.setCanBeSold(inventoryIndices.get("canBeSold"));
-            variantInventory.setAreComing(inventoryIndices.get("areComing"));
+        List<VariantInventory> variantInventories = new ArrayList<>();
 
-            variantInventories.add(variantInventory);
+        for (Variant variant : variants) {
+            variantInventories.add(toVariantInventory(variant,
+                    transactionsByVariantId.getOrDefault(variant.getId(), List.of()),
+                    simpleVariantInventories.get(variant.getId())));
         }
 
         List<VariantInventoryResponse> variantInventoryResponses = variantInventoryMapper.toResponse(variantInventories);
@@ -117,23 +135,39 @@ public class InventoryController {
         Variant variant = variantRepository.findById(variantId)
                 .orElseThrow(() -> new ResourceNotFoundException(ResourceName.VARIANT, FieldName.ID, variantId));
 
+        VariantInventory variantInventory = toVariantInventory(variant,
+                docketVariantRepository.findByVariantId(variant.getId()),
+                inventoryQueryService.stockFor(List.of(variant.getId())).get(variant.getId()));
+
+        VariantInventoryResponse variantInventoryResponse = variantInventoryMapper.toResponse(variantInventory);
+
+        return ResponseEntity.status(HttpStatus.OK).body(variantInventoryResponse);
+    }
+
+    private VariantInventory toVariantInventory(Variant variant,
+                                                List<DocketVariant> transactions,
+                                                SimpleVariantInventory simpleVariantInventory) {
         VariantInventory variantInventory = new VariantInventory();
 
         variantInventory.setVariant(variant);
-
-        List<DocketVariant> transactions = docketVariantRepository.findByVariantId(variant.getId());
         variantInventory.setTransactions(transactions);
+        variantInventory.setInventory(simpleVariantInventory.getInventory());
+        variantInventory.setWaitingForDelivery(simpleVariantInventory.getWaitingForDelivery());
+        variantInventory.setCanBeSold(simpleVariantInventory.getCanBeSold());
+        variantInventory.setAreComing(simpleVariantInventory.getAreComing());
 
-        Map<String, Integer> inventoryIndices = InventoryUtils.calculateInventoryIndices(transactions);
-
-        variantInventory.setInventory(inventoryIndices.get("inventory"));
-        variantInventory.setWaitingForDelivery(inventoryIndices.get("waitingForDelivery"));
-        variantInventory.setCanBeSold(inventoryIndices.get("canBeSold"));
-        variantInventory.setAreComing(inventoryIndices.get("areComing"));
+        return variantInventory;
+    }
 
-        VariantInventoryResponse variantInventoryResponse = variantInventoryMapper.toResponse(variantInventory);
+    @PostMapping("/variant-stocks/rebuild")
+    public ResponseEntity<Void> rebuildVariantStocks() {
+        variantStockService.rebuild();
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
 
-        return ResponseEntity.status(HttpStatus.OK).body(variantInventoryResponse);
+    @GetMapping("/variant-stocks/verify")
+    public ResponseEntity<VariantStockVerificationResponse> verifyVariantStocks() {
+        return ResponseEntity.status(HttpStatus.OK).body(variantStockService.verify());
     }
 
 }
@@ -1,12 +1,15 @@
 package com.electro.controller.statistic;
 
 import com.electro.constant.AppConstants;
+import com.electro.dto.statistic.CacheStatisticResponse;
 import com.electro.dto.statistic.StatisticResponse;
+import com.electro.service.statistic.CacheStatisticService;
 import com.electro.service.statistic.StatisticService;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -18,6 +21,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class StatisticController {
 
     private StatisticService statisticService;
+    private CacheStatisticService cacheStatisticService;
 
     @GetMapping
     public ResponseEntity<StatisticResponse> getStatistic() {
@@ -25,4 +29,15 @@ public class StatisticController {
         return ResponseEntity.status(HttpStatus.OK).body(statisticService.getStatistic());
     }
 
+    @GetMapping("/cache")
+    public ResponseEntity<CacheStatisticResponse> getCacheStatistic() {
+        return ResponseEntity.status(HttpStatus.OK).body(cacheStatisticService.getCacheStatistic());
+    }
+
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> evictCache() {
+        cacheStatisticService.evictAll();
+        return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
+    }
+
 }
@@ -0,0 +1,22 @@
+package com.electro.dto;
+
+import lombok.Value;
+import org.springframework.lang.Nullable;
+
+@Value
+public class BatchItemResponse<T> {
+    int index;
+    boolean success;
+    @Nullable
+    T data;
+    @Nullable
+    String error;
+
+    public static <T> BatchItemResponse<T> success(int index, T data) {
+        return new BatchItemResponse<>(index, true, data, null);
+    }
+
+    public static <T> BatchItemResponse<T> failure(int index, String error) {
+        return new BatchItemResponse<>(index, false, null, error);
+    }
+}
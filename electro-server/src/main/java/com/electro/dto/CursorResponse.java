@@ -0,0 +1,30 @@
+package com.electro.dto;
+
+import com.electro.utils.CursorUtils;
+import lombok.Value;
+import org.springframework.data.domain.Slice;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+@Value
+public class CursorResponse<T> {
+    List<T> content;
+    int size;
+    @Nullable
+    String nextCursor;
+    boolean last;
+
+    public <E> CursorResponse(List<T> content, Slice<E> slice, String sort) {
+        this.content = content;
+        this.size = slice.getSize();
+        this.nextCursor = slice.hasNext()
+                ? CursorUtils.encode(slice.getContent().get(slice.getNumberOfElements() - 1), sort)
+                : null;
+        this.last = !slice.hasNext();
+    }
+
+    public static <T, E> CursorResponse<T> of(List<T> content, Slice<E> slice, String sort) {
+        return new CursorResponse<>(content, slice, sort);
+    }
+}
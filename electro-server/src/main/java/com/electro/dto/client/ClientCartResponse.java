@@ -2,10 +2,15 @@ package com.electro.dto.client;
 
 import lombok.Data;
 
+import java.math.BigDecimal;
 import java.util.Set;
 
 @Data
 public class ClientCartResponse {
     private Long cartId;
     private Set<ClientCartVariantResponse> cartItems;
+    private BigDecimal cartTotalAmount;
+    private BigDecimal cartTax;
+    private BigDecimal cartShippingCost;
+    private BigDecimal cartTotalPay;
 }
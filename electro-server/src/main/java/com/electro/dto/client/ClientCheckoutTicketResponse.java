@@ -0,0 +1,19 @@
+package com.electro.dto.client;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+
+@Data
+@Accessors(chain = true)
+public class ClientCheckoutTicketResponse {
+    private String ticketToken;
+    // Status 1: Đang chờ, 2: Đến lượt (gửi lại yêu cầu đặt hàng), 3: Đang đặt hàng
+    private Integer ticketStatus;
+    // Số người đứng trước trong hàng đợi, 0 khi đã đến lượt
+    private Integer ticketPosition;
+    @Nullable
+    private Instant ticketAdmittedUntil;
+}
@@ -0,0 +1,60 @@
+package com.electro.dto.client;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Accessors(chain = true)
+public class ClientFacetResponse {
+    private int facetTotalProducts;
+    private List<ClientBrandFacetResponse> facetBrands = new ArrayList<>();
+    private List<ClientPriceBucketFacetResponse> facetPriceBuckets = new ArrayList<>();
+    private List<ClientTagFacetResponse> facetTags = new ArrayList<>();
+    private List<ClientPropertyFacetResponse> facetProperties = new ArrayList<>();
+
+    @Data
+    @Accessors(chain = true)
+    public static class ClientBrandFacetResponse {
+        private Long brandId;
+        private String brandName;
+        private int count;
+    }
+
+    @Data
+    @Accessors(chain = true)
+    public static class ClientPriceBucketFacetResponse {
+        private int bucket;
+        private Double priceFrom;
+        // Null nếu là khoảng giá cuối cùng (không giới hạn trên)
+        @Nullable
+        private Double priceTo;
+        private int count;
+    }
+
+    @Data
+    @Accessors(chain = true)
+    public static class ClientTagFacetResponse {
+        private Long tagId;
+        private String tagName;
+        private int count;
+    }
+
+    @Data
+    @Accessors(chain = true)
+    public static class ClientPropertyFacetResponse {
+        private String propertyCode;
+        private String propertyName;
+        private List<ClientPropertyValueFacetResponse> propertyValues = new ArrayList<>();
+    }
+
+    @Data
+    @Accessors(chain = true)
+    public static class ClientPropertyValueFacetResponse {
+        private String value;
+        private int count;
+    }
+}
@@ -0,0 +1,30 @@
+package com.electro.dto.client;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+import org.springframework.lang.Nullable;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Accessors(chain = true)
+public class ClientOrderPreviewResponse {
+    private List<ClientOrderPreviewItemResponse> previewItems;
+    private BigDecimal previewTotalAmount;
+    private BigDecimal previewTax;
+    private BigDecimal previewShippingCost;
+    private BigDecimal previewTotalPay;
+
+    @Data
+    @Accessors(chain = true)
+    public static class ClientOrderPreviewItemResponse {
+        private Long previewItemVariantId;
+        private Integer previewItemQuantity;
+        private BigDecimal previewItemListPrice;
+        private BigDecimal previewItemPrice;
+        private BigDecimal previewItemAmount;
+        @Nullable
+        private ClientPromotionResponse previewItemPromotion;
+    }
+}
@@ -30,6 +30,7 @@ public class ClientProductResponse {
     private int productAverageRatingScore;
     private int productCountReviews;
     private List<ClientListedProductResponse> productRelatedProducts;
+    private List<ClientListedProductResponse> productBoughtTogetherProducts;
     @Nullable
     private ClientPromotionResponse productPromotion;
 
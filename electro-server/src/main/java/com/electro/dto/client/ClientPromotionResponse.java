@@ -6,4 +6,5 @@ import lombok.Data;
 public class ClientPromotionResponse {
     private Long promotionId;
     private Integer promotionPercent;
+    private Integer promotionRemainingQuota;
 }
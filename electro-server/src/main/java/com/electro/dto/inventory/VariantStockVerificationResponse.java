@@ -0,0 +1,32 @@
+package com.electro.dto.inventory;
+
+import lombok.Data;
+import lombok.experimental.Accessors;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Accessors(chain = true)
+public class VariantStockVerificationResponse {
+    private int checkedStocks;
+    private List<VariantStockDiscrepancy> discrepancies = new ArrayList<>();
+
+    @Data
+    @Accessors(chain = true)
+    public static class VariantStockDiscrepancy {
+        private Long variantId;
+        private Long warehouseId;
+        private VariantStockFigures expected;
+        private VariantStockFigures actual;
+    }
+
+    @Data
+    @Accessors(chain = true)
+    public static class VariantStockFigures {
+        private Integer inventory;
+        private Integer waitingForDelivery;
+        private Integer canBeSold;
+        private Integer areComing;
+    }
+}
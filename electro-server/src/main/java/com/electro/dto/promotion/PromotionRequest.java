@@ -15,6 +15,7 @@ public class PromotionRequest {
     @JsonDeserialize(using = DefaultInstantDeserializer.class)
     private Instant endDate;
     private Integer percent;
+    private Integer quotaPerVariant;
     private Integer status;
     private Set<Long> productIds;
     private Set<Long> categoryIds;
@@ -15,6 +15,7 @@ public class PromotionResponse {
     private Instant startDate;
     private Instant endDate;
     private Integer percent;
+    private Integer quotaPerVariant;
     private Integer status;
     private Set<ProductResponse> products;
 }
@@ -0,0 +1,18 @@
+package com.electro.dto.statistic;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CacheStatisticResponse {
+    private Long secondLevelCacheHitCount;
+    private Long secondLevelCacheMissCount;
+    private Long secondLevelCachePutCount;
+    private Long queryCacheHitCount;
+    private Long queryCacheMissCount;
+    private Long queryCachePutCount;
+    private Long queryExecutionCount;
+    private Long entityLoadCount;
+    private List<CacheRegionStatistic> regions;
+}
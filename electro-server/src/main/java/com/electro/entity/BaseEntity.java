@@ -3,6 +3,8 @@ package com.electro.entity;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.springframework.data.annotation.CreatedBy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedBy;
@@ -10,7 +12,6 @@ import org.springframework.data.annotation.LastModifiedDate;
 
 import javax.persistence.Column;
 import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.MappedSuperclass;
 import java.time.Instant;
@@ -20,8 +21,20 @@ import java.time.Instant;
 @Accessors(chain = true)
 @MappedSuperclass
 public abstract class BaseEntity {
+    // Cấp id theo khối 50 từ bảng id_generator (mỗi bảng một dòng) thay cho AUTO_INCREMENT,
+    // để Hibernate gom được các câu INSERT thành JDBC batch (xem IdGeneratorInitializer)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "pooled_table")
+    @GenericGenerator(
+            name = "pooled_table",
+            strategy = "org.hibernate.id.enhanced.TableGenerator",
+            parameters = {
+                    @Parameter(name = "table_name", value = "id_generator"),
+                    @Parameter(name = "prefer_entity_table_as_segment_value", value = "true"),
+                    @Parameter(name = "optimizer", value = "pooled-lo"),
+                    @Parameter(name = "increment_size", value = "50")
+            }
+    )
     @Column(name = "id", nullable = false)
     private Long id;
 
@@ -2,6 +2,7 @@ package com.electro.entity.general;
 
 import com.electro.entity.BaseEntity;
 import com.electro.entity.product.Product;
+import com.electro.service.product.ProductDetailCacheListener;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -11,6 +12,7 @@ import lombok.experimental.Accessors;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
@@ -23,6 +25,7 @@ import javax.persistence.Table;
 @Accessors(chain = true)
 @Entity
 @Table(name = "image")
+@EntityListeners(ProductDetailCacheListener.class)
 public class Image extends BaseEntity {
     @Column(name = "name", nullable = false, unique = true)
     private String name;
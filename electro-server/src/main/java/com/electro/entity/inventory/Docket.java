@@ -2,6 +2,7 @@ package com.electro.entity.inventory;
 
 import com.electro.entity.BaseEntity;
 import com.electro.entity.order.Order;
+import com.electro.service.product.ProductSortKeyListener;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -12,6 +13,7 @@ import lombok.experimental.Accessors;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
@@ -27,6 +29,7 @@ import java.util.Set;
 @Accessors(chain = true)
 @Entity
 @Table(name = "docket")
+@EntityListeners(ProductSortKeyListener.class)
 public class Docket extends BaseEntity {
     @Column(name = "type", nullable = false)
     private Integer type;
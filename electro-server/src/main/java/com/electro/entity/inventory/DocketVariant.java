@@ -1,6 +1,7 @@
 package com.electro.entity.inventory;
 
 import com.electro.entity.product.Variant;
+import com.electro.service.product.ProductSortKeyListener;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -10,6 +11,7 @@ import lombok.experimental.Accessors;
 import javax.persistence.Column;
 import javax.persistence.EmbeddedId;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.MapsId;
@@ -22,6 +24,7 @@ import javax.persistence.Table;
 @Accessors(chain = true)
 @Entity
 @Table(name = "docket_variant")
+@EntityListeners(ProductSortKeyListener.class)
 public class DocketVariant {
     @EmbeddedId
     private DocketVariantKey docketVariantKey = new DocketVariantKey();
@@ -0,0 +1,49 @@
+package com.electro.entity.inventory;
+
+import com.electro.entity.BaseEntity;
+import com.electro.entity.order.Order;
+import com.electro.entity.product.Variant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import java.time.Instant;
+
+/**
+ * Số lượng của một phiên bản sản phẩm được giữ cho đơn hàng, đã được trừ khỏi variant_availability.
+ * Status: 1 - Đang giữ, 2 - Đã chuyển thành phiếu xuất kho, 3 - Đã trả lại (hủy đơn hoặc hết hạn)
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Accessors(chain = true)
+@Entity
+@Table(name = "stock_reservation")
+public class StockReservation extends BaseEntity {
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "order_id", nullable = false)
+    private Order order;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "variant_id", nullable = false)
+    private Variant variant;
+
+    @Column(name = "quantity", nullable = false)
+    private Integer quantity;
+
+    @Column(name = "status", nullable = false, columnDefinition = "TINYINT")
+    private Integer status;
+
+    // Null nếu giữ hàng tới khi đơn được xử lý (thanh toán khi nhận hàng hoặc đã thanh toán PayPal)
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+}
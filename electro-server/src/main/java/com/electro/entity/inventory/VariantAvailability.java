@@ -0,0 +1,37 @@
+package com.electro.entity.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.Instant;
+
+/**
+ * Số lượng còn bán được của một phiên bản sản phẩm trên mọi kho: tổng can_be_sold trong variant_stock
+ * trừ đi các stock_reservation đang giữ. Chỉ được thay đổi bằng câu lệnh UPDATE có điều kiện trong
+ * VariantAvailabilityRepository để không bán vượt khi nhiều người cùng đặt hàng.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Accessors(chain = true)
+@Entity
+@Table(name = "variant_availability")
+public class VariantAvailability {
+    @Id
+    @Column(name = "variant_id")
+    private Long variantId;
+
+    @Column(name = "available", nullable = false)
+    private Integer available;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
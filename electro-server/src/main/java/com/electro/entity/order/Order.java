@@ -5,6 +5,7 @@ import com.electro.entity.authentication.User;
 import com.electro.entity.cashbook.PaymentMethodType;
 import com.electro.entity.inventory.Docket;
 import com.electro.entity.waybill.Waybill;
+import com.electro.service.product.ProductSortKeyListener;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import lombok.AllArgsConstructor;
@@ -16,6 +17,7 @@ import lombok.experimental.Accessors;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.FetchType;
@@ -37,6 +39,7 @@ import java.util.Set;
 @Accessors(chain = true)
 @Entity
 @Table(name = "`order`")
+@EntityListeners(ProductSortKeyListener.class)
 public class Order extends BaseEntity {
     @Column(name = "code", nullable = false, unique = true)
     private String code;
@@ -1,6 +1,7 @@
 package com.electro.entity.order;
 
 import com.electro.entity.product.Variant;
+import com.electro.entity.promotion.Promotion;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -10,6 +11,7 @@ import lombok.experimental.Accessors;
 import javax.persistence.Column;
 import javax.persistence.EmbeddedId;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.MapsId;
@@ -45,4 +47,9 @@ public class OrderVariant {
 
     @Column(name = "amount", nullable = false, columnDefinition = "DECIMAL(15,5)")
     private BigDecimal amount;
+
+    // Khuyến mãi đã áp dụng khi đặt hàng, dùng để trả lại suất flash sale khi đơn bị hủy
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "promotion_id")
+    private Promotion promotion;
 }
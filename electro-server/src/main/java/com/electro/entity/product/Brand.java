@@ -1,16 +1,21 @@
 package com.electro.entity.product;
 
 import com.electro.entity.BaseEntity;
+import com.electro.service.product.ProductIndexListener;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import java.util.ArrayList;
@@ -22,7 +27,10 @@ import java.util.List;
 @Setter
 @Accessors(chain = true)
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "brand")
 @Table(name = "brand")
+@EntityListeners(ProductIndexListener.class)
 public class Brand extends BaseEntity {
     @Column(name = "name", nullable = false)
     private String name;
@@ -0,0 +1,45 @@
+package com.electro.entity.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.MapsId;
+import javax.persistence.Table;
+
+/**
+ * Bảng bao đóng của cây danh mục: mỗi cặp (tổ tiên, con cháu) là một dòng, kể cả cặp (chính nó, chính nó) với depth = 0.
+ * Được dựng lại toàn bộ mỗi khi danh mục thay đổi (xem CategoryTreeServiceImpl).
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Accessors(chain = true)
+@Entity
+@Table(name = "category_closure")
+public class CategoryClosure {
+    @EmbeddedId
+    private CategoryClosureKey categoryClosureKey = new CategoryClosureKey();
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("ancestorId")
+    @JoinColumn(name = "ancestor_id", nullable = false)
+    private Category ancestor;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @MapsId("descendantId")
+    @JoinColumn(name = "descendant_id", nullable = false)
+    private Category descendant;
+
+    @Column(name = "depth", nullable = false)
+    private Integer depth;
+}
@@ -0,0 +1,27 @@
+package com.electro.entity.product;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Embeddable
+public class CategoryClosureKey implements Serializable {
+    @Column(name = "ancestor_id", nullable = false)
+    Long ancestorId;
+
+    @Column(name = "descendant_id", nullable = false)
+    Long descendantId;
+}
@@ -6,6 +6,8 @@ import com.electro.entity.client.Wish;
 import com.electro.entity.general.Image;
 import com.electro.entity.promotion.Promotion;
 import com.electro.entity.review.Review;
+import com.electro.service.product.ProductDetailCacheListener;
+import com.electro.service.product.ProductIndexListener;
 import com.electro.utils.JsonNodeConverter;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
@@ -20,6 +22,7 @@ import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Convert;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
@@ -27,6 +30,7 @@ import javax.persistence.ManyToMany;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -39,6 +43,7 @@ import java.util.Set;
 @Accessors(chain = true)
 @Entity
 @Table(name = "product")
+@EntityListeners({ProductDetailCacheListener.class, ProductIndexListener.class})
 public class Product extends BaseEntity {
     @Column(name = "name", nullable = false)
     private String name;
@@ -124,4 +129,27 @@ public class Product extends BaseEntity {
 
     @ManyToMany(mappedBy = "products")
     private Set<Promotion> promotions = new HashSet<>();
+
+    @OneToMany(mappedBy = "product")
+    private List<ProductAttribute> attributes = new ArrayList<>();
+
+    // Các khóa sắp xếp tính sẵn cho trang danh sách, chỉ được ghi bằng câu lệnh UPDATE của ProductSortKeyService
+    @Column(name = "min_price", insertable = false, updatable = false)
+    private Double minPrice;
+
+    @Column(name = "max_price", insertable = false, updatable = false)
+    private Double maxPrice;
+
+    @Column(name = "min_discounted_price", insertable = false, updatable = false)
+    private Double minDiscountedPrice;
+
+    @Column(name = "last_imported_at", insertable = false, updatable = false)
+    private Instant lastImportedAt;
+
+    @Column(name = "total_sold", insertable = false, updatable = false)
+    private Integer totalSold;
+
+    // Điểm bán chạy dạng logarit có suy giảm theo thời gian, do BestSellerService ghi định kỳ
+    @Column(name = "best_selling_score", insertable = false, updatable = false)
+    private Double bestSellingScore;
 }
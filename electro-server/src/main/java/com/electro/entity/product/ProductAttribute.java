@@ -0,0 +1,54 @@
+package com.electro.entity.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+
+/**
+ * Giá trị thuộc tính của sản phẩm đã được chuẩn hóa từ Product.properties và Variant.properties (mỗi giá trị một dòng),
+ * để toán tử RSQL `=json=` lọc bằng index (code, value) thay vì JSON_SEARCH trên từng dòng
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Accessors(chain = true)
+@Entity
+@Table(name = "product_attribute")
+public class ProductAttribute {
+    public static final int PRODUCT_SOURCE = 1;
+    public static final int VARIANT_SOURCE = 2;
+    // Giá trị dài hơn độ dài cột được cắt bớt cả khi ghi lẫn khi lọc, xem ProductAttributeServiceImpl
+    public static final int VALUE_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "product_id", nullable = false)
+    private Product product;
+
+    @Column(name = "code", nullable = false)
+    private String code;
+
+    @Column(name = "`value`", nullable = false, length = VALUE_LENGTH)
+    private String value;
+
+    // Nguồn của giá trị: 1 - Product.properties, 2 - Variant.properties
+    @Column(name = "source", nullable = false, columnDefinition = "TINYINT")
+    private Integer source;
+}
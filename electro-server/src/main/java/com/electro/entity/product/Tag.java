@@ -1,14 +1,19 @@
 package com.electro.entity.product;
 
 import com.electro.entity.BaseEntity;
+import com.electro.service.product.ProductIndexListener;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.experimental.Accessors;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.ManyToMany;
 import javax.persistence.Table;
 import java.util.HashSet;
@@ -20,7 +25,10 @@ import java.util.Set;
 @Setter
 @Accessors(chain = true)
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "tag")
 @Table(name = "tag")
+@EntityListeners(ProductIndexListener.class)
 public class Tag extends BaseEntity {
     @Column(name = "name", nullable = false)
     private String name;
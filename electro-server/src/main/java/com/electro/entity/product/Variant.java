@@ -6,6 +6,9 @@ import com.electro.entity.inventory.CountVariant;
 import com.electro.entity.inventory.DocketVariant;
 import com.electro.entity.inventory.PurchaseOrderVariant;
 import com.electro.entity.order.OrderVariant;
+import com.electro.service.product.ProductDetailCacheListener;
+import com.electro.service.product.ProductIndexListener;
+import com.electro.service.product.ProductSortKeyListener;
 import com.electro.utils.JsonNodeConverter;
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -19,6 +22,7 @@ import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Convert;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
@@ -34,6 +38,7 @@ import java.util.Set;
 @Accessors(chain = true)
 @Entity
 @Table(name = "variant")
+@EntityListeners({ProductDetailCacheListener.class, ProductIndexListener.class, ProductSortKeyListener.class})
 public class Variant extends BaseEntity {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
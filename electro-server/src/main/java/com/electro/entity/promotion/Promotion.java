@@ -2,6 +2,8 @@ package com.electro.entity.promotion;
 
 import com.electro.entity.BaseEntity;
 import com.electro.entity.product.Product;
+import com.electro.service.product.ProductDetailCacheListener;
+import com.electro.service.product.ProductSortKeyListener;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -11,6 +13,7 @@ import lombok.experimental.Accessors;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.JoinColumn;
 import javax.persistence.JoinTable;
 import javax.persistence.ManyToMany;
@@ -26,6 +29,7 @@ import java.util.Set;
 @Accessors(chain = true)
 @Entity
 @Table(name = "promotion")
+@EntityListeners({ProductDetailCacheListener.class, ProductSortKeyListener.class})
 public class Promotion extends BaseEntity {
     @Column(name = "name", nullable = false)
     private String name;
@@ -39,6 +43,10 @@ public class Promotion extends BaseEntity {
     @Column(name = "percent", nullable = false)
     private Integer percent;
 
+    // Flash sale: số đơn vị tối đa được bán với giá khuyến mãi cho mỗi phiên bản, null là không giới hạn
+    @Column(name = "quota_per_variant")
+    private Integer quotaPerVariant;
+
     @Column(name = "status", nullable = false, columnDefinition = "TINYINT")
     private Integer status;
 
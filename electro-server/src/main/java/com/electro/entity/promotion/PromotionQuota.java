@@ -0,0 +1,35 @@
+package com.electro.entity.promotion;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.Accessors;
+
+import javax.persistence.Column;
+import javax.persistence.EmbeddedId;
+import javax.persistence.Entity;
+import javax.persistence.Table;
+import java.time.Instant;
+
+/**
+ * Số suất flash sale đã bán theo từng khuyến mãi và phiên bản sản phẩm. Bộ đếm chính nằm trong bộ nhớ
+ * (FlashSaleServiceImpl), bảng này chỉ được ghi định kỳ để khởi tạo lại bộ đếm khi ứng dụng khởi động.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@Accessors(chain = true)
+@Entity
+@Table(name = "promotion_quota")
+public class PromotionQuota {
+    @EmbeddedId
+    private PromotionQuotaKey promotionQuotaKey = new PromotionQuotaKey();
+
+    @Column(name = "claimed", nullable = false)
+    private Integer claimed = 0;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt = Instant.now();
+}
@@ -0,0 +1,27 @@
+package com.electro.entity.promotion;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+
+@AllArgsConstructor
+@NoArgsConstructor
+@Getter
+@Setter
+@EqualsAndHashCode
+@ToString
+@Embeddable
+public class PromotionQuotaKey implements Serializable {
+    @Column(name = "promotion_id", nullable = false)
+    Long promotionId;
+
+    @Column(name = "variant_id", nullable = false)
+    Long variantId;
+}
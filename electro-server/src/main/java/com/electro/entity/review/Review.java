@@ -3,6 +3,7 @@ package com.electro.entity.review;
 import com.electro.entity.BaseEntity;
 import com.electro.entity.authentication.User;
 import com.electro.entity.product.Product;
+import com.electro.service.product.ProductDetailCacheListener;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -11,6 +12,7 @@ import lombok.experimental.Accessors;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
@@ -24,6 +26,7 @@ import javax.persistence.UniqueConstraint;
 @Accessors(chain = true)
 @Entity
 @Table(name = "review", uniqueConstraints = @UniqueConstraint(name = "uc_review", columnNames = {"user_id", "product_id"}))
+@EntityListeners(ProductDetailCacheListener.class)
 public class Review extends BaseEntity {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
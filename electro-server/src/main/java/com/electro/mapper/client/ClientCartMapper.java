@@ -11,21 +11,25 @@ import com.electro.entity.cart.CartVariantKey;
 import com.electro.entity.general.Image;
 import com.electro.entity.product.Product;
 import com.electro.entity.product.Variant;
-import com.electro.mapper.promotion.PromotionMapper;
+import com.electro.entity.promotion.Promotion;
 import com.electro.repository.authentication.UserRepository;
-import com.electro.repository.inventory.DocketVariantRepository;
 import com.electro.repository.product.VariantRepository;
-import com.electro.repository.promotion.PromotionRepository;
-import com.electro.utils.InventoryUtils;
+import com.electro.service.inventory.InventoryQueryService;
+import com.electro.service.order.PriceQuote;
+import com.electro.service.order.PricingEngine;
 import lombok.AllArgsConstructor;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Component
@@ -34,9 +38,9 @@ public class ClientCartMapper {
 
     private UserRepository userRepository;
     private VariantRepository variantRepository;
-    private DocketVariantRepository docketVariantRepository;
-    private PromotionRepository promotionRepository;
-    private PromotionMapper promotionMapper;
+    private InventoryQueryService inventoryQueryService;
+    private PricingEngine pricingEngine;
+    private ClientProductMapper clientProductMapper;
 
     public Cart requestToEntity(ClientCartRequest request) {
         var entity = new Cart();
@@ -99,43 +103,58 @@ public class ClientCartMapper {
         var response = new ClientCartResponse();
         response.setCartId(entity.getId());
         // Reference: https://stackoverflow.com/a/51331393
-        response.setCartItems(entity.getCartVariants().stream()
+        List<CartVariant> cartVariants = entity.getCartVariants().stream()
                 .sorted(Comparator.comparing(CartVariant::getCreatedAt))
-                .map(this::entityToResponse)
+                .collect(Collectors.toList());
+        // Giá, khuyến mãi và tổng tiền tính giống hệt lúc tạo đơn hàng; truy vấn của PricingEngine cũng nạp sẵn
+        // sản phẩm của mọi phiên bản, nên các bước dưới không phải truy vấn từng dòng
+        PriceQuote quote = pricingEngine.quote(cartVariants.stream()
+                .collect(Collectors.toMap(cartVariant -> cartVariant.getVariant().getId(), CartVariant::getQuantity,
+                        Integer::sum, LinkedHashMap::new)));
+        Map<Long, PriceQuote.Line> lines = quote.getLines().stream()
+                .collect(Collectors.toMap(line -> line.getVariant().getId(), Function.identity()));
+        // Lấy số lượng còn bán được (đã trừ hàng đang được giữ cho đơn hàng) của tất cả phiên bản bằng một truy vấn
+        Map<Long, Integer> variantAvailabilities = inventoryQueryService.availableFor(lines.keySet());
+        response.setCartItems(cartVariants.stream()
+                .map(cartVariant -> entityToResponse(cartVariant, variantAvailabilities,
+                        lines.get(cartVariant.getVariant().getId()).getPromotion()))
                 .collect(Collectors.toCollection(LinkedHashSet::new)));
+        response.setCartTotalAmount(quote.getTotalAmount());
+        response.setCartTax(quote.getTax());
+        response.setCartShippingCost(quote.getShippingCost());
+        response.setCartTotalPay(quote.getTotalPay());
         return response;
     }
 
-    private ClientCartVariantResponse.ClientVariantResponse.ClientProductResponse entityToResponse(Product entity) {
+    private ClientCartVariantResponse.ClientVariantResponse.ClientProductResponse entityToResponse(Product entity,
+                                                                                                  @Nullable Promotion promotion) {
         var response = new ClientCartVariantResponse.ClientVariantResponse.ClientProductResponse();
         response.setProductId(entity.getId());
         response.setProductName(entity.getName());
         response.setProductSlug(entity.getSlug());
         response.setProductThumbnail(entity.getImages().stream().filter(Image::getIsThumbnail).findAny().map(Image::getPath).orElse(null));
-        response.setProductPromotion(promotionRepository
-                .findActivePromotionByProductId(entity.getId())
-                .stream()
-                .findFirst()
-                .map(promotionMapper::entityToClientResponse)
-                .orElse(null));
+        response.setProductPromotion(promotion == null ? null
+                : clientProductMapper.toClientPromotionResponse(promotion, entity.getId()));
         return response;
     }
 
-    private ClientCartVariantResponse.ClientVariantResponse entityToResponse(Variant entity) {
+    private ClientCartVariantResponse.ClientVariantResponse entityToResponse(Variant entity,
+                                                                             Map<Long, Integer> variantAvailabilities,
+                                                                             @Nullable Promotion promotion) {
         var response = new ClientCartVariantResponse.ClientVariantResponse();
         response.setVariantId(entity.getId());
-        response.setVariantProduct(entityToResponse(entity.getProduct()));
+        response.setVariantProduct(entityToResponse(entity.getProduct(), promotion));
         response.setVariantPrice(entity.getPrice());
         response.setVariantProperties(entity.getProperties());
-        response.setVariantInventory(InventoryUtils
-                .calculateInventoryIndices(docketVariantRepository.findByVariantId(entity.getId()))
-                .get("canBeSold"));
+        response.setVariantInventory(variantAvailabilities.get(entity.getId()));
         return response;
     }
 
-    private ClientCartVariantResponse entityToResponse(CartVariant entity) {
+    private ClientCartVariantResponse entityToResponse(CartVariant entity,
+                                                       Map<Long, Integer> variantAvailabilities,
+                                                       @Nullable Promotion promotion) {
         var response = new ClientCartVariantResponse();
-        response.setCartItemVariant(entityToResponse(entity.getVariant()));
+        response.setCartItemVariant(entityToResponse(entity.getVariant(), variantAvailabilities, promotion));
         response.setCartItemQuantity(entity.getQuantity());
         return response;
     }
@@ -1,7 +1,7 @@
 package com.electro.mapper.client;
 
 import com.electro.dto.client.ClientCategoryResponse;
-import com.electro.entity.product.Category;
+import com.electro.service.product.CategoryNode;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Component;
 
@@ -16,42 +16,42 @@ public class ClientCategoryMapper {
     /**
      * Thông tin category gồm có name, slug và danh sách con cấp 3
      */
-    public List<ClientCategoryResponse> entityToResponse(List<Category> categories, int maxLevel) {
+    public List<ClientCategoryResponse> nodeToResponse(List<CategoryNode> categoryNodes, int maxLevel) {
         if (maxLevel == 0) {
             return Collections.emptyList();
         }
 
-        return categories.stream()
-                .flatMap(category -> Stream.of(new ClientCategoryResponse()
-                        .setCategoryName(category.getName())
-                        .setCategorySlug(category.getSlug())
-                        .setCategoryChildren(entityToResponse(category.getCategories(), maxLevel - 1))))
+        return categoryNodes.stream()
+                .flatMap(categoryNode -> Stream.of(new ClientCategoryResponse()
+                        .setCategoryName(categoryNode.getName())
+                        .setCategorySlug(categoryNode.getSlug())
+                        .setCategoryChildren(nodeToResponse(categoryNode.getChildren(), maxLevel - 1))))
                 .collect(Collectors.toList());
     }
 
     /**
      * Thông tin category gồm có name, slug, danh sách con cấp 1 và cha xa nhất (tạo breadcrumb)
      */
-    public ClientCategoryResponse entityToResponse(@Nullable Category category, boolean isParent) {
-        if (category == null) {
+    public ClientCategoryResponse nodeToResponse(@Nullable CategoryNode categoryNode, boolean isParent) {
+        if (categoryNode == null) {
             return null;
         }
 
         ClientCategoryResponse categoryResponse = new ClientCategoryResponse();
 
         categoryResponse
-                .setCategoryName(category.getName())
-                .setCategorySlug(category.getSlug());
+                .setCategoryName(categoryNode.getName())
+                .setCategorySlug(categoryNode.getSlug());
 
         if (!isParent) {
-            categoryResponse.setCategoryChildren(entityToResponse(category.getCategories(), 1));
+            categoryResponse.setCategoryChildren(nodeToResponse(categoryNode.getChildren(), 1));
         }
 
-        if (category.getParentCategory() == null) {
+        if (categoryNode.getParent() == null) {
             return categoryResponse;
         }
 
-        return categoryResponse.setCategoryParent(entityToResponse(category.getParentCategory(), true));
+        return categoryResponse.setCategoryParent(nodeToResponse(categoryNode.getParent(), true));
     }
 
 }
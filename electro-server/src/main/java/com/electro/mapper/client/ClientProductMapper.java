@@ -2,21 +2,29 @@ package com.electro.mapper.client;
 
 import com.electro.dto.client.ClientListedProductResponse;
 import com.electro.dto.client.ClientProductResponse;
+import com.electro.dto.client.ClientPromotionResponse;
 import com.electro.entity.general.Image;
 import com.electro.entity.product.Product;
 import com.electro.entity.product.Variant;
+import com.electro.entity.promotion.Promotion;
 import com.electro.mapper.general.ImageMapper;
 import com.electro.mapper.promotion.PromotionMapper;
-import com.electro.projection.inventory.SimpleProductInventory;
-import com.electro.repository.inventory.DocketVariantRepository;
-import com.electro.repository.promotion.PromotionRepository;
-import com.electro.utils.InventoryUtils;
+import com.electro.projection.product.ProductCard;
+import com.electro.projection.product.ProductCardVariant;
+import com.electro.service.inventory.InventoryQueryService;
+import com.electro.service.product.CategoryTreeService;
+import com.electro.service.promotion.FlashSaleService;
+import com.electro.service.promotion.PromotionIndexService;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Component
 @AllArgsConstructor
@@ -24,25 +32,43 @@ public class ClientProductMapper {
 
     private ImageMapper imageMapper;
     private ClientCategoryMapper clientCategoryMapper;
-    private DocketVariantRepository docketVariantRepository;
-    private PromotionRepository promotionRepository;
+    private CategoryTreeService categoryTreeService;
+    private InventoryQueryService inventoryQueryService;
+    private PromotionIndexService promotionIndexService;
     private PromotionMapper promotionMapper;
+    private FlashSaleService flashSaleService;
 
-    public ClientListedProductResponse entityToListedResponse(Product product, List<SimpleProductInventory> productInventories) {
+    public ClientListedProductResponse entityToListedResponse(Product product, Map<Long, Integer> productAvailabilities) {
+        ProductCard productCard = new ProductCard(product.getId(), product.getName(), product.getSlug());
+
+        productCard.setProductThumbnail(product.getImages().stream()
+                .filter(Image::getIsThumbnail)
+                .findAny()
+                .map(Image::getPath)
+                .orElse(null));
+        productCard.setProductVariants(product.getVariants().stream()
+                .map(variant -> new ProductCardVariant(product.getId(), variant.getId(), variant.getPrice(), variant.getProperties()))
+                .collect(Collectors.toList()));
+
+        return cardToListedResponse(productCard, productAvailabilities);
+    }
+
+    /**
+     * Thẻ sản phẩm từ ProjectionRepository.findProductCards, không cần tải entity Product
+     *
+     * @param productAvailabilities số lượng còn bán được theo sản phẩm (InventoryQueryService.availableForProducts)
+     */
+    public ClientListedProductResponse cardToListedResponse(ProductCard productCard, Map<Long, Integer> productAvailabilities) {
         ClientListedProductResponse clientListedProductResponse = new ClientListedProductResponse();
 
         clientListedProductResponse
-                .setProductId(product.getId())
-                .setProductName(product.getName())
-                .setProductSlug(product.getSlug())
-                .setProductThumbnail(product.getImages().stream()
-                        .filter(Image::getIsThumbnail)
-                        .findAny()
-                        .map(Image::getPath)
-                        .orElse(null));
-
-        List<Double> prices = product.getVariants().stream()
-                .map(Variant::getPrice).distinct().sorted().collect(Collectors.toList());
+                .setProductId(productCard.getProductId())
+                .setProductName(productCard.getProductName())
+                .setProductSlug(productCard.getProductSlug())
+                .setProductThumbnail(productCard.getProductThumbnail());
+
+        List<Double> prices = productCard.getProductVariants().stream()
+                .map(ProductCardVariant::getVariantPrice).distinct().sorted().collect(Collectors.toList());
 
         clientListedProductResponse.setProductPriceRange(
                 prices.size() == 0
@@ -52,43 +78,39 @@ public class ClientProductMapper {
                         : List.of(prices.get(0), prices.get(prices.size() - 1))
         );
 
-        clientListedProductResponse.setProductVariants(product.getVariants().stream()
+        clientListedProductResponse.setProductVariants(productCard.getProductVariants().stream()
                 .map(variant -> new ClientListedProductResponse.ClientListedVariantResponse()
-                        .setVariantId(variant.getId())
-                        .setVariantPrice(variant.getPrice())
-                        .setVariantProperties(variant.getProperties()))
+                        .setVariantId(variant.getVariantId())
+                        .setVariantPrice(variant.getVariantPrice())
+                        .setVariantProperties(variant.getVariantProperties()))
                 .collect(Collectors.toList()));
 
-        clientListedProductResponse.setProductSaleable(productInventories.stream()
-                .filter(productInventory -> productInventory.getProductId().equals(product.getId()))
-                .findAny()
-                .map(productInventory -> productInventory.getCanBeSold() > 0)
-                .orElse(false));
-
-        clientListedProductResponse.setProductPromotion(promotionRepository
-                .findActivePromotionByProductId(product.getId())
-                .stream()
-                .findFirst()
-                .map(promotionMapper::entityToClientResponse)
-                .orElse(null));
+        clientListedProductResponse.setProductSaleable(productAvailabilities.getOrDefault(productCard.getProductId(), 0) > 0);
+
+        clientListedProductResponse.setProductPromotion(toClientPromotionResponse(productCard.getProductId()));
 
         return clientListedProductResponse;
     }
 
     public ClientProductResponse entityToResponse(Product product,
-                                                  List<SimpleProductInventory> productInventories,
                                                   int averageRatingScore,
                                                   int countReviews,
                                                   List<ClientListedProductResponse> relatedProductResponses) {
         ClientProductResponse clientProductResponse = new ClientProductResponse();
 
+        Map<Long, Integer> variantAvailabilities = inventoryQueryService.availableFor(product.getVariants().stream()
+                .map(Variant::getId)
+                .collect(Collectors.toList()));
+
         clientProductResponse.setProductId(product.getId());
         clientProductResponse.setProductName(product.getName());
         clientProductResponse.setProductSlug(product.getSlug());
         clientProductResponse.setProductShortDescription(product.getShortDescription());
         clientProductResponse.setProductDescription(product.getDescription());
         clientProductResponse.setProductImages(imageMapper.entityToResponse(product.getImages()));
-        clientProductResponse.setProductCategory(clientCategoryMapper.entityToResponse(product.getCategory(), false));
+        clientProductResponse.setProductCategory(clientCategoryMapper.nodeToResponse(Optional.ofNullable(product.getCategory())
+                .flatMap(category -> categoryTreeService.getTree().findById(category.getId()))
+                .orElse(null), false));
         clientProductResponse.setProductBrand(product.getBrand() == null ? null : new ClientProductResponse.ClientBrandResponse()
                 .setBrandId(product.getBrand().getId())
                 .setBrandName(product.getBrand().getName()));
@@ -98,26 +120,100 @@ public class ClientProductMapper {
                         .setVariantId(variant.getId())
                         .setVariantPrice(variant.getPrice())
                         .setVariantProperties(variant.getProperties())
-                        .setVariantInventory(InventoryUtils
-                                .calculateInventoryIndices(docketVariantRepository.findByVariantId(variant.getId()))
-                                .get("canBeSold")))
+                        .setVariantInventory(variantAvailabilities.get(variant.getId())))
                 .collect(Collectors.toList()));
-        clientProductResponse.setProductSaleable(productInventories.stream()
-                .filter(productInventory -> productInventory.getProductId().equals(product.getId()))
-                .findAny()
-                .map(productInventory -> productInventory.getCanBeSold() > 0)
-                .orElse(false));
+        clientProductResponse.setProductSaleable(variantAvailabilities.values().stream().mapToInt(Integer::intValue).sum() > 0);
         clientProductResponse.setProductAverageRatingScore(averageRatingScore);
         clientProductResponse.setProductCountReviews(countReviews);
         clientProductResponse.setProductRelatedProducts(relatedProductResponses);
-        clientProductResponse.setProductPromotion(promotionRepository
-                .findActivePromotionByProductId(product.getId())
-                .stream()
-                .findFirst()
-                .map(promotionMapper::entityToClientResponse)
-                .orElse(null));
+        clientProductResponse.setProductPromotion(toClientPromotionResponse(product.getId()));
 
         return clientProductResponse;
     }
 
+    /**
+     * Tạo bản sao của chi tiết sản phẩm lấy từ cache, ghép vào tồn kho và khuyến mãi hiện tại (dữ liệu biến động không cache),
+     * kể cả của các thẻ sản phẩm liên quan và mua cùng; tồn kho của mọi phiên bản được đọc bằng một truy vấn
+     */
+    public ClientProductResponse mergeVolatileData(ClientProductResponse cachedResponse) {
+        List<ClientListedProductResponse> cachedCards = Stream.of(cachedResponse.getProductRelatedProducts(),
+                        cachedResponse.getProductBoughtTogetherProducts())
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+
+        Map<Long, Integer> variantAvailabilities = inventoryQueryService.availableFor(Stream.concat(
+                        cachedResponse.getProductVariants().stream().map(ClientProductResponse.ClientVariantResponse::getVariantId),
+                        cachedCards.stream().flatMap(card -> card.getProductVariants().stream())
+                                .map(ClientListedProductResponse.ClientListedVariantResponse::getVariantId))
+                .collect(Collectors.toSet()));
+
+        return new ClientProductResponse()
+                .setProductId(cachedResponse.getProductId())
+                .setProductName(cachedResponse.getProductName())
+                .setProductSlug(cachedResponse.getProductSlug())
+                .setProductShortDescription(cachedResponse.getProductShortDescription())
+                .setProductDescription(cachedResponse.getProductDescription())
+                .setProductImages(cachedResponse.getProductImages())
+                .setProductCategory(cachedResponse.getProductCategory())
+                .setProductBrand(cachedResponse.getProductBrand())
+                .setProductSpecifications(cachedResponse.getProductSpecifications())
+                .setProductVariants(cachedResponse.getProductVariants().stream()
+                        .map(variant -> new ClientProductResponse.ClientVariantResponse()
+                                .setVariantId(variant.getVariantId())
+                                .setVariantPrice(variant.getVariantPrice())
+                                .setVariantProperties(variant.getVariantProperties())
+                                .setVariantInventory(variantAvailabilities.get(variant.getVariantId())))
+                        .collect(Collectors.toList()))
+                .setProductSaleable(cachedResponse.getProductVariants().stream()
+                        .mapToInt(variant -> variantAvailabilities.get(variant.getVariantId()))
+                        .sum() > 0)
+                .setProductAverageRatingScore(cachedResponse.getProductAverageRatingScore())
+                .setProductCountReviews(cachedResponse.getProductCountReviews())
+                .setProductRelatedProducts(mergeVolatileData(cachedResponse.getProductRelatedProducts(), variantAvailabilities))
+                .setProductBoughtTogetherProducts(mergeVolatileData(cachedResponse.getProductBoughtTogetherProducts(), variantAvailabilities))
+                .setProductPromotion(toClientPromotionResponse(cachedResponse.getProductId()));
+    }
+
+    private List<ClientListedProductResponse> mergeVolatileData(List<ClientListedProductResponse> cachedCards,
+                                                                Map<Long, Integer> variantAvailabilities) {
+        if (cachedCards == null) {
+            return null;
+        }
+
+        return cachedCards.stream()
+                .map(card -> new ClientListedProductResponse()
+                        .setProductId(card.getProductId())
+                        .setProductName(card.getProductName())
+                        .setProductSlug(card.getProductSlug())
+                        .setProductThumbnail(card.getProductThumbnail())
+                        .setProductPriceRange(card.getProductPriceRange())
+                        .setProductVariants(card.getProductVariants())
+                        .setProductSaleable(card.getProductVariants().stream()
+                                .mapToInt(variant -> variantAvailabilities.get(variant.getVariantId()))
+                                .sum() > 0)
+                        .setProductPromotion(toClientPromotionResponse(card.getProductId())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Khuyến mãi đang hoạt động của sản phẩm, kèm số suất flash sale còn lại đọc từ bộ đếm trong bộ nhớ
+     */
+    private ClientPromotionResponse toClientPromotionResponse(Long productId) {
+        return promotionIndexService.findActivePromotion(productId)
+                .map(promotion -> toClientPromotionResponse(promotion, productId))
+                .orElse(null);
+    }
+
+    /**
+     * Khuyến mãi đã chọn sẵn cho sản phẩm (ví dụ khuyến mãi trong báo giá giỏ hàng), kèm số suất flash sale còn lại
+     */
+    public ClientPromotionResponse toClientPromotionResponse(Promotion promotion, Long productId) {
+        ClientPromotionResponse clientPromotionResponse = promotionMapper.entityToClientResponse(promotion);
+        clientPromotionResponse.setPromotionRemainingQuota(flashSaleService
+                .findRemainingQuota(promotion.getId(), productId)
+                .orElse(null));
+        return clientPromotionResponse;
+    }
+
 }
@@ -0,0 +1,11 @@
+package com.electro.projection.inventory;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ProductAvailability {
+    private Long productId;
+    private Long available;
+}
@@ -0,0 +1,32 @@
+package com.electro.projection.inventory;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class SimpleVariantInventory {
+    private Long variantId;
+    private Integer inventory = 0;
+    private Integer waitingForDelivery = 0;
+    private Integer canBeSold = 0;
+    private Integer areComing = 0;
+
+    public SimpleVariantInventory(Long variantId) {
+        this.variantId = variantId;
+    }
+
+    public SimpleVariantInventory(
+            Long variantId,
+            Long inventory,
+            Long waitingForDelivery,
+            Long canBeSold,
+            Long areComing
+    ) {
+        this.variantId = variantId;
+        this.inventory = Math.toIntExact(inventory);
+        this.waitingForDelivery = Math.toIntExact(waitingForDelivery);
+        this.canBeSold = Math.toIntExact(canBeSold);
+        this.areComing = Math.toIntExact(areComing);
+    }
+}
@@ -0,0 +1,29 @@
+package com.electro.projection.inventory;
+
+import lombok.Data;
+
+@Data
+public class SimpleVariantStock {
+    private Long variantId;
+    private Long warehouseId;
+    private Integer inventory;
+    private Integer waitingForDelivery;
+    private Integer canBeSold;
+    private Integer areComing;
+
+    public SimpleVariantStock(
+            Long variantId,
+            Long warehouseId,
+            Long inventory,
+            Long waitingForDelivery,
+            Long canBeSold,
+            Long areComing
+    ) {
+        this.variantId = variantId;
+        this.warehouseId = warehouseId;
+        this.inventory = Math.toIntExact(inventory);
+        this.waitingForDelivery = Math.toIntExact(waitingForDelivery);
+        this.canBeSold = Math.toIntExact(canBeSold);
+        this.areComing = Math.toIntExact(areComing);
+    }
+}
@@ -0,0 +1,11 @@
+package com.electro.projection.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class OrderProduct {
+    private Long orderId;
+    private Long productId;
+}
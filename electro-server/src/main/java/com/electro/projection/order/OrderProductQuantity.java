@@ -0,0 +1,14 @@
+package com.electro.projection.order;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+public class OrderProductQuantity {
+    private Long productId;
+    private Integer quantity;
+    private Instant orderedAt;
+}
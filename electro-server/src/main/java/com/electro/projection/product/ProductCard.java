@@ -0,0 +1,23 @@
+package com.electro.projection.product;
+
+import lombok.Data;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ProductCard {
+    private Long productId;
+    private String productName;
+    private String productSlug;
+    @Nullable
+    private String productThumbnail;
+    private List<ProductCardVariant> productVariants = new ArrayList<>();
+
+    public ProductCard(Long productId, String productName, String productSlug) {
+        this.productId = productId;
+        this.productName = productName;
+        this.productSlug = productSlug;
+    }
+}
@@ -0,0 +1,14 @@
+package com.electro.projection.product;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ProductCardVariant {
+    private Long productId;
+    private Long variantId;
+    private Double variantPrice;
+    private JsonNode variantProperties;
+}
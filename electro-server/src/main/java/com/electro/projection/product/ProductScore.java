@@ -0,0 +1,11 @@
+package com.electro.projection.product;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ProductScore {
+    private Long productId;
+    private Double score;
+}
@@ -0,0 +1,12 @@
+package com.electro.projection.promotion;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class FlashSaleClaim {
+    private Long promotionId;
+    private Long variantId;
+    private Long claimed;
+}
@@ -0,0 +1,13 @@
+package com.electro.projection.promotion;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class FlashSaleVariant {
+    private Long promotionId;
+    private Integer quotaPerVariant;
+    private Long productId;
+    private Long variantId;
+}
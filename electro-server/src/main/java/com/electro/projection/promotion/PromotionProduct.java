@@ -0,0 +1,12 @@
+package com.electro.projection.promotion;
+
+import com.electro.entity.promotion.Promotion;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class PromotionProduct {
+    private Long productId;
+    private Promotion promotion;
+}
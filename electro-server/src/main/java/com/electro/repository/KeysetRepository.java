@@ -0,0 +1,136 @@
+package com.electro.repository;
+
+import com.electro.utils.CursorUtils;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Repository
+@AllArgsConstructor
+public class KeysetRepository {
+
+    private EntityManager em;
+
+    /**
+     * Lấy một "lát" bản ghi nằm sau cursor theo thứ tự sort, không có truy vấn COUNT và không dùng OFFSET.
+     * Điều kiện keyset (a, id) > (a0, id0) được triển khai thành a > a0 OR (a = a0 AND id > id0),
+     * nên độ trễ giữ nguyên dù đang ở trang sâu đến đâu.
+     * Kiểu thực thể được suy ra từ kiểu generic của repository.
+     */
+    public <E> Slice<E> findSlice(JpaSpecificationExecutor<E> repository,
+                                  Specification<E> specification,
+                                  String sort,
+                                  @Nullable String cursor,
+                                  int size) {
+        Class<E> entityClass = resolveEntityClass(repository);
+        List<Sort.Order> orders = CursorUtils.parseSort(sort);
+        List<JsonNode> cursorValues = CursorUtils.decode(cursor, orders.size());
+
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<E> query = cb.createQuery(entityClass);
+        Root<E> root = query.from(entityClass);
+
+        List<Path<?>> paths = orders.stream()
+                .map(order -> getPath(root, order.getProperty()))
+                .collect(Collectors.toList());
+
+        List<Predicate> predicates = new ArrayList<>();
+
+        Predicate filterPredicate = specification.toPredicate(root, query, cb);
+        if (filterPredicate != null) {
+            predicates.add(filterPredicate);
+        }
+
+        if (cursorValues != null) {
+            predicates.add(after(cb, paths, orders, cursorValues));
+        }
+
+        List<Order> orderBy = new ArrayList<>();
+        for (int i = 0; i < paths.size(); i++) {
+            orderBy.add(orders.get(i).isAscending() ? cb.asc(paths.get(i)) : cb.desc(paths.get(i)));
+        }
+
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(orderBy);
+
+        // Lấy dư một bản ghi để biết còn trang sau hay không
+        List<E> entities = em.createQuery(query).setMaxResults(size + 1).getResultList();
+        boolean hasNext = entities.size() > size;
+
+        return new SliceImpl<>(hasNext ? entities.subList(0, size) : entities, PageRequest.of(0, size), hasNext);
+    }
+
+    private Predicate after(CriteriaBuilder cb, List<Path<?>> paths, List<Sort.Order> orders, List<JsonNode> cursorValues) {
+        List<Predicate> disjunctions = new ArrayList<>();
+        List<Predicate> equalities = new ArrayList<>();
+
+        for (int i = 0; i < paths.size(); i++) {
+            Path<?> path = paths.get(i);
+            Object value = CursorUtils.convert(cursorValues.get(i), path.getJavaType());
+
+            List<Predicate> conjunctions = new ArrayList<>(equalities);
+            conjunctions.add(strictlyAfter(cb, path, value, orders.get(i).isAscending()));
+            disjunctions.add(cb.and(conjunctions.toArray(new Predicate[0])));
+
+            equalities.add(value == null ? cb.isNull(path) : cb.equal(path, value));
+        }
+
+        return cb.or(disjunctions.toArray(new Predicate[0]));
+    }
+
+    /**
+     * MySQL xếp NULL lên đầu khi tăng dần và xuống cuối khi giảm dần
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate strictlyAfter(CriteriaBuilder cb, Path<?> path, @Nullable Object value, boolean ascending) {
+        Expression<Comparable> expression = (Expression<Comparable>) path;
+
+        if (ascending) {
+            return value == null ? cb.isNotNull(path) : cb.greaterThan(expression, (Comparable) value);
+        }
+
+        return value == null ? cb.disjunction() : cb.or(cb.lessThan(expression, (Comparable) value), cb.isNull(path));
+    }
+
+    private static Path<?> getPath(Root<?> root, String property) {
+        Path<?> path = root;
+        for (String part : property.split("\\.")) {
+            path = path.get(part);
+        }
+        return path;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> Class<E> resolveEntityClass(JpaSpecificationExecutor<E> repository) {
+        Class<?> entityClass = ResolvableType.forClass(repository.getClass())
+                .as(JpaSpecificationExecutor.class)
+                .resolveGeneric(0);
+
+        if (entityClass == null) {
+            throw new RuntimeException("Cannot resolve entity type of repository: " + repository.getClass().getName());
+        }
+
+        return (Class<E>) entityClass;
+    }
+
+}
@@ -1,18 +1,33 @@
 package com.electro.repository;
 
+import com.electro.entity.general.Image;
 import com.electro.entity.inventory.Docket;
 import com.electro.entity.inventory.DocketVariant;
+import com.electro.entity.inventory.VariantStock;
+import com.electro.entity.product.Product;
 import com.electro.entity.product.Variant;
 import com.electro.projection.inventory.SimpleProductInventory;
+import com.electro.projection.inventory.SimpleVariantInventory;
+import com.electro.projection.inventory.SimpleVariantStock;
+import com.electro.projection.product.ProductCard;
+import com.electro.projection.product.ProductCardVariant;
 import lombok.AllArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Repository;
 
 import javax.persistence.EntityManager;
+import javax.persistence.Tuple;
 import javax.persistence.criteria.CriteriaBuilder;
 import javax.persistence.criteria.CriteriaQuery;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.Root;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Repository
 @AllArgsConstructor
@@ -24,13 +39,134 @@ public class ProjectionRepository {
         CriteriaBuilder cb = em.getCriteriaBuilder();
         CriteriaQuery<SimpleProductInventory> query = cb.createQuery(SimpleProductInventory.class);
 
-        Root<Variant> variant = query.from(Variant.class);
-        Join<Variant, DocketVariant> docketVariant = variant.join("docketVariants");
-        Join<DocketVariant, Docket> docket = docketVariant.join("docket");
+        Root<VariantStock> variantStock = query.from(VariantStock.class);
+        Join<VariantStock, Variant> variant = variantStock.join("variant");
 
         query.select(cb.construct(
                 SimpleProductInventory.class,
                 variant.get("product").get("id"),
+                cb.sum(variantStock.get("inventory")),
+                cb.sum(variantStock.get("waitingForDelivery")),
+                cb.sum(variantStock.get("canBeSold")),
+                cb.sum(variantStock.get("areComing"))
+        ));
+
+        query.where(variant.get("product").get("id").in(productIds));
+        query.groupBy(variant.get("product").get("id"));
+
+        return em.createQuery(query).getResultList();
+    }
+
+    /**
+     * Id của mọi sản phẩm thỏa `spec`, không phân trang và không theo thứ tự nào
+     */
+    public List<Long> findProductIds(Specification<Product> spec) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+
+        Root<Product> product = query.from(Product.class);
+
+        query.select(product.get("id"));
+        Optional.ofNullable(spec.toPredicate(product, query, cb)).ifPresent(query::where);
+
+        return em.createQuery(query).getResultList();
+    }
+
+    /**
+     * Dữ liệu thẻ sản phẩm (tên, slug, ảnh đại diện, giá và thuộc tính phiên bản) cho một trang sản phẩm,
+     * luôn bằng 3 truy vấn bất kể số sản phẩm, thay vì tải entity Product rồi chạm vào images/variants của từng sản phẩm
+     *
+     * @return thẻ sản phẩm theo thứ tự của `productIds`, bỏ qua id không tồn tại
+     */
+    public List<ProductCard> findProductCards(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+
+        // (1) Thông tin chung của sản phẩm
+        CriteriaQuery<ProductCard> productQuery = cb.createQuery(ProductCard.class);
+        Root<Product> product = productQuery.from(Product.class);
+
+        productQuery.select(cb.construct(ProductCard.class, product.get("id"), product.get("name"), product.get("slug")));
+        productQuery.where(product.get("id").in(productIds));
+
+        Map<Long, ProductCard> productCards = em.createQuery(productQuery).getResultStream()
+                .collect(Collectors.toMap(ProductCard::getProductId, Function.identity()));
+
+        // (2) Ảnh đại diện
+        CriteriaQuery<Tuple> thumbnailQuery = cb.createTupleQuery();
+        Root<Image> image = thumbnailQuery.from(Image.class);
+
+        thumbnailQuery.multiselect(image.get("product").get("id"), image.get("path"));
+        thumbnailQuery.where(image.get("product").get("id").in(productIds), cb.isTrue(image.get("isThumbnail")));
+
+        em.createQuery(thumbnailQuery).getResultList().forEach(tuple -> Optional
+                .ofNullable(productCards.get(tuple.get(0, Long.class)))
+                .ifPresent(productCard -> productCard.setProductThumbnail(tuple.get(1, String.class))));
+
+        // (3) Giá và thuộc tính của các phiên bản
+        CriteriaQuery<ProductCardVariant> variantQuery = cb.createQuery(ProductCardVariant.class);
+        Root<Variant> variant = variantQuery.from(Variant.class);
+
+        variantQuery.select(cb.construct(
+                ProductCardVariant.class,
+                variant.get("product").get("id"),
+                variant.get("id"),
+                variant.get("price"),
+                variant.get("properties")
+        ));
+        variantQuery.where(variant.get("product").get("id").in(productIds));
+        variantQuery.orderBy(cb.asc(variant.get("id")));
+
+        em.createQuery(variantQuery).getResultList().forEach(productCardVariant -> Optional
+                .ofNullable(productCards.get(productCardVariant.getProductId()))
+                .ifPresent(productCard -> productCard.getProductVariants().add(productCardVariant)));
+
+        return productIds.stream()
+                .map(productCards::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    // Tổng hợp tồn kho của các phiên bản sản phẩm trên mọi kho từ bảng variant_stock
+    public List<SimpleVariantInventory> findSimpleVariantInventories(Collection<Long> variantIds) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<SimpleVariantInventory> query = cb.createQuery(SimpleVariantInventory.class);
+
+        Root<VariantStock> variantStock = query.from(VariantStock.class);
+
+        query.select(cb.construct(
+                SimpleVariantInventory.class,
+                variantStock.get("variant").get("id"),
+                cb.sum(variantStock.get("inventory")),
+                cb.sum(variantStock.get("waitingForDelivery")),
+                cb.sum(variantStock.get("canBeSold")),
+                cb.sum(variantStock.get("areComing"))
+        ));
+
+        query.where(variantStock.get("variant").get("id").in(variantIds));
+        query.groupBy(variantStock.get("variant").get("id"));
+
+        return em.createQuery(query).getResultList();
+    }
+
+    /**
+     * Tính lại số liệu tồn kho theo từng phiên bản sản phẩm và kho từ toàn bộ lịch sử docket_variant,
+     * dùng để dựng lại hoặc đối soát bảng variant_stock
+     */
+    public List<SimpleVariantStock> findVariantStockLedgers() {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<SimpleVariantStock> query = cb.createQuery(SimpleVariantStock.class);
+
+        Root<DocketVariant> docketVariant = query.from(DocketVariant.class);
+        Join<DocketVariant, Docket> docket = docketVariant.join("docket");
+
+        query.select(cb.construct(
+                SimpleVariantStock.class,
+                docketVariant.get("variant").get("id"),
+                docket.get("warehouse").get("id"),
                 cb.sum(
                         cb.<Integer>selectCase()
                                 .when(cb.and(cb.equal(docket.get("type"), 1),
@@ -76,8 +212,7 @@ public class ProjectionRepository {
                 )
         ));
 
-        query.where(variant.get("product").get("id").in(productIds));
-        query.groupBy(variant.get("product").get("id"));
+        query.groupBy(docketVariant.get("variant").get("id"), docket.get("warehouse").get("id"));
 
         return em.createQuery(query).getResultList();
     }
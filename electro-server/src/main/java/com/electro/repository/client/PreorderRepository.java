@@ -1,6 +1,7 @@
 package com.electro.repository.client;
 
 import com.electro.entity.client.Preorder;
+import com.electro.utils.RsqlUtils;
 import io.github.perplexhub.rsql.RSQLJPASupport;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -15,8 +16,8 @@ public interface PreorderRepository extends JpaRepository<Preorder, Long>, JpaSp
 
     default Page<Preorder> findAllByUsername(String username, String sort, String filter, Pageable pageable) {
         Specification<Preorder> sortable = RSQLJPASupport.toSort(sort);
-        Specification<Preorder> filterable = RSQLJPASupport.toSpecification(filter);
-        Specification<Preorder> usernameSpec = RSQLJPASupport.toSpecification("user.username==" + username);
+        Specification<Preorder> filterable = RsqlUtils.toSpecification(filter);
+        Specification<Preorder> usernameSpec = RsqlUtils.toSpecification("user.username==" + username);
         return findAll(sortable.and(filterable).and(usernameSpec), pageable);
     }
 
@@ -1,6 +1,7 @@
 package com.electro.repository.client;
 
 import com.electro.entity.client.Wish;
+import com.electro.utils.RsqlUtils;
 import io.github.perplexhub.rsql.RSQLJPASupport;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,8 +15,8 @@ public interface WishRepository extends JpaRepository<Wish, Long>, JpaSpecificat
 
     default Page<Wish> findAllByUsername(String username, String sort, String filter, Pageable pageable) {
         Specification<Wish> sortable = RSQLJPASupport.toSort(sort);
-        Specification<Wish> filterable = RSQLJPASupport.toSpecification(filter);
-        Specification<Wish> usernameSpec = RSQLJPASupport.toSpecification("user.username==" + username);
+        Specification<Wish> filterable = RsqlUtils.toSpecification(filter);
+        Specification<Wish> usernameSpec = RsqlUtils.toSpecification("user.username==" + username);
         return findAll(sortable.and(filterable).and(usernameSpec), pageable);
     }
 
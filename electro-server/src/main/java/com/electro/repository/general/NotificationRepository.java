@@ -1,6 +1,7 @@
 package com.electro.repository.general;
 
 import com.electro.entity.general.Notification;
+import com.electro.utils.RsqlUtils;
 import io.github.perplexhub.rsql.RSQLJPASupport;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -12,9 +13,13 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
 
     default Page<Notification> findAllByUsername(String username, String sort, String filter, Pageable pageable) {
         Specification<Notification> sortable = RSQLJPASupport.toSort(sort);
-        Specification<Notification> filterable = RSQLJPASupport.toSpecification(filter);
-        Specification<Notification> usernameSpec = RSQLJPASupport.toSpecification("user.username==" + username);
-        return findAll(sortable.and(filterable).and(usernameSpec), pageable);
+        return findAll(sortable.and(filterByUsername(username, filter)), pageable);
+    }
+
+    default Specification<Notification> filterByUsername(String username, String filter) {
+        Specification<Notification> filterable = RsqlUtils.toSpecification(filter);
+        Specification<Notification> usernameSpec = RsqlUtils.toSpecification("user.username==" + username);
+        return filterable.and(usernameSpec);
     }
 
 }
@@ -9,6 +9,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import javax.persistence.criteria.Join;
+import java.util.Collection;
 import java.util.List;
 
 public interface DocketVariantRepository extends JpaRepository<DocketVariant, DocketVariantKey>,
@@ -37,4 +38,22 @@ public interface DocketVariantRepository extends JpaRepository<DocketVariant, Do
         return findAll(spec);
     }
 
+    default List<DocketVariant> findByProductIds(Collection<Long> productIds) {
+        Specification<DocketVariant> spec = (root, query, cb) -> query
+                .where(root.get("variant").get("product").get("id").in(productIds))
+                .orderBy(cb.desc(root.get("docket").get("id")))
+                .getRestriction();
+
+        return findAll(spec);
+    }
+
+    default List<DocketVariant> findByVariantIds(Collection<Long> variantIds) {
+        Specification<DocketVariant> spec = (root, query, cb) -> query
+                .where(root.get("variant").get("id").in(variantIds))
+                .orderBy(cb.desc(root.get("docket").get("id")))
+                .getRestriction();
+
+        return findAll(spec);
+    }
+
 }
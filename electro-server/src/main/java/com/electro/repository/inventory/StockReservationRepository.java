@@ -0,0 +1,39 @@
+package com.electro.repository.inventory;
+
+import com.electro.entity.inventory.StockReservation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    List<StockReservation> findByOrder_IdAndStatus(Long orderId, Integer status);
+
+    boolean existsByOrder_Id(Long orderId);
+
+    @Query("SELECT DISTINCT sr.order.id FROM StockReservation sr WHERE sr.status = 1 AND sr.expiresAt < :now")
+    List<Long> findExpiredOrderIds(@Param("now") Instant now, Pageable pageable);
+
+    // Các câu lệnh đổi trạng thái đều có điều kiện status = 1, nên khi hủy đơn, hết hạn và lập phiếu xuất
+    // chạy đồng thời thì chỉ một bên trả lại số lượng cho variant_availability
+    @Modifying
+    @Query("UPDATE StockReservation sr SET sr.status = :status, sr.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE sr.id = :id AND sr.status = 1")
+    int close(@Param("id") Long id, @Param("status") Integer status);
+
+    @Modifying
+    @Query("UPDATE StockReservation sr SET sr.status = 3, sr.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE sr.id = :id AND sr.status = 1 AND sr.expiresAt < :now")
+    int closeIfExpired(@Param("id") Long id, @Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE StockReservation sr SET sr.expiresAt = :expiresAt, sr.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE sr.order.id = :orderId AND sr.status = 1")
+    int updateExpiresAt(@Param("orderId") Long orderId, @Param("expiresAt") Instant expiresAt);
+
+}
@@ -0,0 +1,51 @@
+package com.electro.repository.inventory;
+
+import com.electro.entity.inventory.VariantAvailability;
+import com.electro.projection.inventory.ProductAvailability;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+
+public interface VariantAvailabilityRepository extends JpaRepository<VariantAvailability, Long> {
+
+    // Tổng số lượng còn bán được theo sản phẩm, phiên bản đang âm (xuất kho vượt số còn lại) được tính là 0
+    @Query("SELECT NEW com.electro.projection.inventory.ProductAvailability(v.product.id, " +
+            "SUM(CASE WHEN va.available > 0 THEN va.available ELSE 0 END)) " +
+            "FROM VariantAvailability va, Variant v WHERE v.id = va.variantId AND v.product.id IN :productIds " +
+            "GROUP BY v.product.id")
+    List<ProductAvailability> findProductAvailabilities(@Param("productIds") Collection<Long> productIds);
+
+    // Trừ có điều kiện trong một câu lệnh: trả về 0 nếu không đủ hàng. Chỉ khóa dòng của phiên bản này
+    // tới khi giao dịch kết thúc, nên các đơn hàng khác phiên bản không phải chờ nhau
+    @Modifying
+    @Query(value = "UPDATE variant_availability SET available = available - :quantity, updated_at = NOW() " +
+            "WHERE variant_id = :variantId AND available >= :quantity", nativeQuery = true)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES, value = "variant_availability"))
+    int decrement(@Param("variantId") Long variantId, @Param("quantity") int quantity);
+
+    // Cộng (hoặc trừ nếu quantity âm) không điều kiện, tạo dòng nếu phiên bản chưa có
+    @Modifying
+    @Query(value = "INSERT INTO variant_availability (variant_id, available, updated_at) VALUES (:variantId, :quantity, NOW()) " +
+            "ON DUPLICATE KEY UPDATE available = available + VALUES(available), updated_at = VALUES(updated_at)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES, value = "variant_availability"))
+    void increment(@Param("variantId") Long variantId, @Param("quantity") int quantity);
+
+    // Tính lại từ variant_stock và các stock_reservation đang giữ
+    @Modifying
+    @Query(value = "INSERT INTO variant_availability (variant_id, available, updated_at) " +
+            "SELECT v.id, COALESCE(s.can_be_sold, 0) - COALESCE(r.reserved, 0), NOW() FROM variant v " +
+            "LEFT JOIN (SELECT variant_id, SUM(can_be_sold) AS can_be_sold FROM variant_stock GROUP BY variant_id) s " +
+            "ON s.variant_id = v.id " +
+            "LEFT JOIN (SELECT variant_id, SUM(quantity) AS reserved FROM stock_reservation WHERE status = 1 GROUP BY variant_id) r " +
+            "ON r.variant_id = v.id " +
+            "ON DUPLICATE KEY UPDATE available = VALUES(available), updated_at = VALUES(updated_at)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES, value = "variant_availability"))
+    int rebuild();
+
+}
@@ -0,0 +1,35 @@
+package com.electro.repository.inventory;
+
+import com.electro.entity.inventory.VariantStock;
+import com.electro.entity.inventory.VariantStockKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+
+public interface VariantStockRepository extends JpaRepository<VariantStock, VariantStockKey>,
+        JpaSpecificationExecutor<VariantStock> {
+
+    // Cộng dồn số liệu của một dòng phiếu trong một câu lệnh, tạo dòng nếu phiên bản chưa có ở kho này, nên hai phiếu
+    // đầu tiên của cùng (variant, warehouse) không tranh nhau chèn trùng khóa. Các phép gán chạy từ trái sang phải,
+    // can_be_sold được tính từ inventory và waiting_for_delivery vừa cập nhật
+    @Modifying
+    @Query(value = "INSERT INTO variant_stock (variant_id, warehouse_id, inventory, waiting_for_delivery, can_be_sold, " +
+            "are_coming, updated_at) VALUES (:variantId, :warehouseId, :inventory, :waitingForDelivery, " +
+            ":inventory - :waitingForDelivery, :areComing, NOW()) " +
+            "ON DUPLICATE KEY UPDATE inventory = inventory + VALUES(inventory), " +
+            "waiting_for_delivery = waiting_for_delivery + VALUES(waiting_for_delivery), " +
+            "can_be_sold = inventory - waiting_for_delivery, " +
+            "are_coming = are_coming + VALUES(are_coming), updated_at = VALUES(updated_at)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES, value = "variant_stock"))
+    void increment(@Param("variantId") Long variantId,
+                   @Param("warehouseId") Long warehouseId,
+                   @Param("inventory") int inventory,
+                   @Param("waitingForDelivery") int waitingForDelivery,
+                   @Param("areComing") int areComing);
+
+}
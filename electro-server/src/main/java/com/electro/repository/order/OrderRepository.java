@@ -1,6 +1,7 @@
 package com.electro.repository.order;
 
 import com.electro.entity.order.Order;
+import com.electro.utils.RsqlUtils;
 import io.github.perplexhub.rsql.RSQLJPASupport;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -8,16 +9,22 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
 
     default Page<Order> findAllByUsername(String username, String sort, String filter, Pageable pageable) {
         Specification<Order> sortable = RSQLJPASupport.toSort(sort);
-        Specification<Order> filterable = RSQLJPASupport.toSpecification(filter);
-        Specification<Order> usernameSpec = RSQLJPASupport.toSpecification("user.username==" + username);
-        return findAll(sortable.and(filterable).and(usernameSpec), pageable);
+        return findAll(sortable.and(filterByUsername(username, filter)), pageable);
+    }
+
+    default Specification<Order> filterByUsername(String username, String filter) {
+        Specification<Order> filterable = RsqlUtils.toSpecification(filter);
+        Specification<Order> usernameSpec = RsqlUtils.toSpecification("user.username==" + username);
+        return filterable.and(usernameSpec);
     }
 
     Optional<Order> findByCode(String code);
@@ -27,4 +34,8 @@ public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecific
     @Query("SELECT COUNT(o.id) FROM Order o")
     int countByOrderId();
 
+    // Duyệt các đơn hàng đã giao thành công (status 4) theo từng lô, tiếp sau đơn hàng có id `afterOrderId`
+    @Query("SELECT o.id FROM Order o WHERE o.status = 4 AND o.id > :afterOrderId ORDER BY o.id")
+    List<Long> findDeliveredOrderIds(@Param("afterOrderId") Long afterOrderId, Pageable pageable);
+
 }
@@ -2,8 +2,32 @@ package com.electro.repository.order;
 
 import com.electro.entity.order.OrderVariant;
 import com.electro.entity.order.OrderVariantKey;
+import com.electro.projection.order.OrderProduct;
+import com.electro.projection.order.OrderProductQuantity;
+import com.electro.projection.promotion.FlashSaleClaim;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface OrderVariantRepository extends JpaRepository<OrderVariant, OrderVariantKey>,
-        JpaSpecificationExecutor<OrderVariant> {}
+        JpaSpecificationExecutor<OrderVariant> {
+
+    @Query("SELECT DISTINCT NEW com.electro.projection.order.OrderProduct(ov.order.id, v.product.id) " +
+            "FROM OrderVariant ov JOIN ov.variant v WHERE ov.order.id IN :orderIds")
+    List<OrderProduct> findOrderProducts(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT NEW com.electro.projection.order.OrderProductQuantity(v.product.id, ov.quantity, o.createdAt) " +
+            "FROM OrderVariant ov JOIN ov.variant v JOIN ov.order o WHERE o.status = 4")
+    List<OrderProductQuantity> findDeliveredOrderProductQuantities();
+
+    // Số suất flash sale đã bán theo khuyến mãi và phiên bản, tính trên các đơn hàng chưa hủy (status khác 5)
+    @Query("SELECT NEW com.electro.projection.promotion.FlashSaleClaim(ov.promotion.id, ov.variant.id, SUM(ov.quantity)) " +
+            "FROM OrderVariant ov JOIN ov.order o WHERE ov.promotion.id IN :promotionIds AND o.status <> 5 " +
+            "GROUP BY ov.promotion.id, ov.variant.id")
+    List<FlashSaleClaim> findFlashSaleClaims(@Param("promotionIds") Collection<Long> promotionIds);
+
+}
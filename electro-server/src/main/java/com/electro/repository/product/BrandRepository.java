@@ -11,6 +11,7 @@ import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 
 import javax.persistence.criteria.Join;
+import java.util.Collection;
 import java.util.List;
 
 public interface BrandRepository extends JpaRepository<Brand, Long>, JpaSpecificationExecutor<Brand> {
@@ -30,20 +31,18 @@ public interface BrandRepository extends JpaRepository<Brand, Long>, JpaSpecific
         return findAll(spec);
     }
 
-    default List<Brand> findBySearchQuery(String searchQuery) {
+    default List<Brand> findByProductIds(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return List.of();
+        }
+
         Specification<Brand> spec = (root, query, cb) -> {
             Join<Brand, Product> product = root.join("products");
-            Join<Product, Category> category = product.join("category");
             Join<Product, Variant> variant = product.join("variants");
             Join<Variant, DocketVariant> docketVariant = variant.join("docketVariants");
 
             query.distinct(true);
-            query.where(cb.or(
-                    cb.like(product.get("name"), "%" + searchQuery + "%"),
-                    cb.like(product.get("slug"), "%" + searchQuery + "%"),
-                    cb.like(category.get("name"), "%" + searchQuery + "%"),
-                    cb.like(root.get("name"), "%" + searchQuery + "%")
-            ));
+            query.where(product.get("id").in(productIds));
             query.orderBy(cb.asc(root.get("name")));
 
             return query.getRestriction();
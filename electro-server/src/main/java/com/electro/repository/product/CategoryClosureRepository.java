@@ -0,0 +1,7 @@
+package com.electro.repository.product;
+
+import com.electro.entity.product.CategoryClosure;
+import com.electro.entity.product.CategoryClosureKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface CategoryClosureRepository extends JpaRepository<CategoryClosure, CategoryClosureKey> {}
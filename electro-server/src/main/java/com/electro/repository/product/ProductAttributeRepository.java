@@ -0,0 +1,15 @@
+package com.electro.repository.product;
+
+import com.electro.entity.product.ProductAttribute;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface ProductAttributeRepository extends JpaRepository<ProductAttribute, Long> {
+
+    @Modifying
+    @Query("DELETE FROM ProductAttribute pa WHERE pa.product.id = :productId")
+    void deleteByProductId(@Param("productId") Long productId);
+
+}
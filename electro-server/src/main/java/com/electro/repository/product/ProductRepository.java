@@ -1,30 +1,39 @@
 package com.electro.repository.product;
 
-import com.electro.constant.SearchFields;
-import com.electro.entity.inventory.Docket;
 import com.electro.entity.inventory.DocketVariant;
+import com.electro.entity.inventory.VariantAvailability;
 import com.electro.entity.product.Product;
+import com.electro.entity.product.ProductAttribute;
 import com.electro.entity.product.Variant;
-import com.electro.utils.SearchUtils;
+import com.electro.projection.product.ProductScore;
+import com.electro.utils.PropertyUtils;
+import com.electro.utils.RsqlUtils;
 import cz.jirutka.rsql.parser.ast.ComparisonOperator;
 import io.github.perplexhub.rsql.RSQLCustomPredicate;
-import io.github.perplexhub.rsql.RSQLJPASupport;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.lang.Nullable;
 
+import javax.persistence.QueryHint;
 import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.From;
 import javax.persistence.criteria.Join;
 import javax.persistence.criteria.Order;
+import javax.persistence.criteria.Path;
 import javax.persistence.criteria.Predicate;
 import javax.persistence.criteria.Root;
 import javax.persistence.criteria.Subquery;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
@@ -45,121 +54,157 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
 
     default Page<Product> findByParams(String filter,
                                        String sort,
-                                       String search,
+                                       @Nullable List<Long> searchedProductIds,
                                        boolean saleable,
                                        boolean newable,
                                        Pageable pageable) {
+        /*
+         * Phân trang ở phía database: truy vấn dữ liệu có LIMIT/OFFSET theo `pageable`,
+         * còn truy vấn đếm đi theo nhánh count query của Specification (không sắp xếp, chỉ đếm sản phẩm phân biệt).
+         *
+         * Reference:
+         * https://stackoverflow.com/a/59046245
+         * https://stackoverflow.com/a/37771947
+         */
+        return findAll(toSpecification(filter, sort, searchedProductIds, saleable, newable), pageable);
+    }
+
+    /**
+     * Điều kiện lọc và sắp xếp của trang danh sách sản phẩm. Với truy vấn có kiểu kết quả Long (đếm, hoặc chỉ lấy id như
+     * ProjectionRepository.findProductIds) thì chỉ áp điều kiện lọc, không sắp xếp.
+     */
+    default Specification<Product> toSpecification(String filter,
+                                                   String sort,
+                                                   @Nullable List<Long> searchedProductIds,
+                                                   boolean saleable,
+                                                   boolean newable) {
         // Xử lý `filter` thành Specification
+        // Toán tử `=json=(code,value1,value2,...)`: sản phẩm có thuộc tính `code` nhận một trong các giá trị, tra qua
+        // index (code, value) của bảng product_attribute. Selector quyết định nguồn của thuộc tính: `properties` là
+        // Product.properties, `variants.properties` là Variant.properties
         RSQLCustomPredicate<String> jsonPredicate = new RSQLCustomPredicate<>(
                 new ComparisonOperator("=json=", true),
                 String.class,
                 input -> {
                     CriteriaBuilder cb = input.getCriteriaBuilder();
 
+                    Path<?> parentPath = input.getPath().getParentPath();
+                    int source = parentPath != null && Variant.class.equals(parentPath.getJavaType())
+                            ? ProductAttribute.VARIANT_SOURCE
+                            : ProductAttribute.PRODUCT_SOURCE;
+
+                    // Mỗi điều kiện `=json=` dùng một phép join riêng, nên nhiều điều kiện được AND với nhau đúng nghĩa
+                    From<?, ?> root = input.getRoot();
+                    Join<Product, ProductAttribute> attribute = root.<Product, ProductAttribute>join("attributes");
+
                     // Lấy phần còn lại của danh sách `input.getArguments()` sau khi bỏ qua phần tử đầu tiên
-                    Object[] values = input.getArguments().stream().skip(1).toArray();
-
-                    return cb.function("JSON_EXTRACT", String.class,
-                            input.getPath(),
-                            cb.function("REPLACE", String.class,
-                                    cb.function("JSON_UNQUOTE", String.class,
-                                            cb.function("JSON_SEARCH", String.class,
-                                                    input.getPath(),
-                                                    cb.literal("one"),
-                                                    cb.literal(input.getArguments().get(0)))
-                                    ),
-                                    cb.literal(".code"),
-                                    cb.literal(".value")
-                            )
-                    ).in(values);
+                    Object[] values = input.getArguments().stream()
+                            .skip(1)
+                            .map(value -> PropertyUtils.truncate(String.valueOf(value)))
+                            .toArray();
+
+                    return cb.and(
+                            cb.equal(attribute.get("code"), input.getArguments().get(0)),
+                            attribute.get("value").in(values),
+                            cb.equal(attribute.get("source"), source)
+                    );
                 });
 
-        Specification<Product> filterable = RSQLJPASupport.toSpecification(filter, List.of(jsonPredicate));
-        Specification<Product> searchable = SearchUtils.parse(search, SearchFields.CLIENT_PRODUCT);
+        // Bí danh `categorySubtree==<slug>`: lọc sản phẩm thuộc danh mục có slug đó hoặc bất kỳ danh mục con cháu nào,
+        // chỉ bằng một phép join qua bảng category_closure bất kể độ sâu của cây
+        Map<String, String> propertyPathMapper = Map.of("categorySubtree", "category.ancestorClosures.ancestor.slug");
+
+        Specification<Product> filterable = RsqlUtils.toSpecification(filter, propertyPathMapper, List.of(jsonPredicate));
 
         // Lọc theo `saleable` (có thể bán) và `newable` (thứ tự mới nhất)
         Specification<Product> docketable = (root, query, cb) -> {
             List<Predicate> wheres = new ArrayList<>();
             List<Order> orders = new ArrayList<>();
 
-            Join<Product, Variant> variant = root.join("variants");
-            Join<Variant, DocketVariant> docketVariant = variant.join("docketVariants");
-            Join<DocketVariant, Docket> docket = docketVariant.join("docket");
+            // Chỉ lấy sản phẩm đã từng có dòng docket (trước đây là phép inner join tới docket_variant)
+            Subquery<Long> docketSubquery = query.subquery(Long.class);
+            Root<DocketVariant> docketVariantSq = docketSubquery.from(DocketVariant.class);
+            docketSubquery.select(docketVariantSq.get("variant").get("id"));
+            docketSubquery.where(cb.equal(docketVariantSq.get("variant").get("product").get("id"), root.get("id")));
+            wheres.add(cb.exists(docketSubquery));
 
             if (saleable) {
-                Subquery<Integer> subquery = query.subquery(Integer.class);
+                // Có phiên bản còn bán được theo variant_availability (đã trừ hàng đang được giữ cho đơn hàng)
+                Subquery<Long> subquery = query.subquery(Long.class);
+                Root<VariantAvailability> variantAvailabilitySq = subquery.from(VariantAvailability.class);
                 Root<Variant> variantSq = subquery.from(Variant.class);
-                Join<Variant, DocketVariant> docketVariantSq = variantSq.join("docketVariants");
-                Join<DocketVariant, Docket> docketSq = docketVariantSq.join("docket");
-
-                subquery.select(cb.diff(
-                        cb.sum(
-                                cb.<Integer>selectCase()
-                                        .when(cb.and(cb.equal(docketSq.get("type"), 1),
-                                                        cb.equal(docketSq.get("status"), 3)),
-                                                docketVariantSq.get("quantity"))
-                                        .when(cb.and(cb.equal(docketSq.get("type"), 2),
-                                                        cb.equal(docketSq.get("status"), 3)),
-                                                cb.prod(docketVariantSq.get("quantity"), -1))
-                                        .otherwise(0)
-                        ),
-                        cb.sum(
-                                cb.<Integer>selectCase()
-                                        .when(cb.and(cb.equal(docketSq.get("type"), 2),
-                                                        docketSq.get("status").in(1, 2)),
-                                                docketVariantSq.get("quantity"))
-                                        .otherwise(0)
-                        )
-                ));
-
-                subquery.where(cb.equal(variantSq.get("product").get("id"), root.get("id")));
-                subquery.groupBy(variantSq.get("product").get("id"));
-
-                wheres.add(cb.greaterThan(subquery, 0));
+
+                subquery.select(variantSq.get("id"));
+                subquery.where(cb.equal(variantSq.get("id"), variantAvailabilitySq.get("variantId")),
+                        cb.equal(variantSq.get("product").get("id"), root.get("id")),
+                        cb.greaterThan(variantAvailabilitySq.get("available"), 0));
+
+                wheres.add(cb.exists(subquery));
+            }
+
+            // Đã có lần nhập kho hoàn tất (docket type 1, status 3), xem ProductSortKeyService
+            if (newable) {
+                wheres.add(cb.isNotNull(root.get("lastImportedAt")));
+            }
+
+            // Kết quả tìm kiếm từ chỉ mục (ProductSearchService), danh sách rỗng nghĩa là không có sản phẩm nào khớp
+            if (searchedProductIds != null) {
+                wheres.add(searchedProductIds.isEmpty() ? cb.disjunction() : root.get("id").in(searchedProductIds));
+            }
+
+            Optional.ofNullable(filterable.toPredicate(root, query, cb)).ifPresent(wheres::add);
+
+            query.where(wheres.toArray(Predicate[]::new));
+
+            // Truy vấn đếm (count query) của Spring Data: không group/order, chỉ đếm sản phẩm phân biệt
+            if (Long.class.equals(query.getResultType())) {
+                query.distinct(true);
+                return query.getRestriction();
             }
 
+            // Sắp xếp trên các cột khóa tính sẵn có index, không cần gộp nhóm theo biến thể.
+            // Giá dùng để sắp là giá thấp nhất sau khuyến mãi đang áp dụng, đúng với giá hiển thị trên thẻ sản phẩm
             if ("lowest-price".equals(sort)) {
-                orders.add(cb.asc(cb.min(variant.get("price"))));
+                orders.add(cb.asc(root.get("minDiscountedPrice")));
+                orders.add(cb.asc(root.get("id")));
             }
 
             if ("highest-price".equals(sort)) {
-                orders.add(cb.desc(cb.max(variant.get("price"))));
+                orders.add(cb.desc(root.get("minDiscountedPrice")));
+                orders.add(cb.desc(root.get("id")));
+            }
+
+            // Tổng số lượng đã bán trong các đơn giao thành công, khác `best-selling` là điểm có suy giảm theo thời gian
+            if ("most-sold".equals(sort)) {
+                orders.add(cb.desc(root.get("totalSold")));
+                orders.add(cb.desc(root.get("id")));
             }
 
             if ("random".equals(sort)) {
                 orders.add(cb.asc(cb.function("RAND", Void.class)));
             }
 
-            if (newable) {
-                wheres.add(cb.equal(docket.get("type"), 1));
-                wheres.add(cb.equal(docket.get("status"), 3));
+            if ("best-selling".equals(sort)) {
+                orders.add(cb.desc(root.get("bestSellingScore")));
+                orders.add(cb.asc(root.get("id")));
+            }
 
-                orders.add(cb.desc(cb.max(docket.get("createdAt"))));
+            if (newable) {
+                orders.add(cb.desc(root.get("lastImportedAt")));
                 orders.add(cb.asc(root.get("id")));
             }
 
-            Optional.ofNullable(filterable.toPredicate(root, query, cb)).ifPresent(wheres::add);
-            Optional.ofNullable(searchable.toPredicate(root, query, cb)).ifPresent(wheres::add);
+            // Chỉ phép join của `filter` (RSQL) mới có thể nhân bản dòng sản phẩm
+            if (filter != null && !filter.isBlank()) {
+                query.distinct(true);
+            }
 
-            query.where(wheres.toArray(Predicate[]::new));
-            query.groupBy(root.get("id"));
             query.orderBy(orders);
 
             return query.getRestriction();
         };
 
-        /*
-         * Bug:
-         * https://stackoverflow.com/a/59046245
-         * https://stackoverflow.com/a/37771947
-         *
-         * TODO: Cần tìm cách hiệu quả hơn (sử dụng EntityManager)
-         */
-        List<Product> products = findAll(docketable);
-        final int start = (int) pageable.getOffset();
-        final int end = Math.min(start + pageable.getPageSize(), products.size());
-
-        return new PageImpl<>(products.subList(start, end), pageable, products.size());
+        return docketable;
     }
 
     Optional<Product> findBySlug(String slug);
@@ -168,4 +213,52 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
     @Query("SELECT COUNT(p.id) FROM Product p")
     int countByProductId();
 
+    @Query("SELECT p.id FROM Product p WHERE p.id IN :productIds AND p.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("productIds") Collection<Long> productIds, @Param("status") Integer status);
+
+    String REFRESH_SORT_KEYS = "UPDATE product p SET " +
+            "p.min_price = (SELECT MIN(v.price) FROM variant v WHERE v.product_id = p.id), " +
+            "p.max_price = (SELECT MAX(v.price) FROM variant v WHERE v.product_id = p.id), " +
+            "p.last_imported_at = (SELECT MAX(d.created_at) FROM docket_variant dv " +
+            "JOIN docket d ON d.id = dv.docket_id JOIN variant v ON v.id = dv.variant_id " +
+            "WHERE v.product_id = p.id AND d.type = 1 AND d.status = 3), " +
+            "p.total_sold = (SELECT COALESCE(SUM(ov.quantity), 0) FROM order_variant ov " +
+            "JOIN `order` o ON o.id = ov.order_id JOIN variant v ON v.id = ov.variant_id " +
+            "WHERE v.product_id = p.id AND o.status = 4)";
+
+    // Tính lại min/max giá biến thể, lần nhập kho hoàn tất gần nhất (docket type 1, status 3)
+    // và tổng số lượng đã bán trong các đơn hàng giao thành công (order status 4).
+    // Khai báo bảng bị ghi để Hibernate không xóa toàn bộ cache cấp 2 sau câu SQL native
+    @Modifying
+    @Query(value = REFRESH_SORT_KEYS + " WHERE p.id IN (:productIds)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES, value = "product"))
+    void refreshSortKeys(@Param("productIds") Collection<Long> productIds);
+
+    @Modifying
+    @Query(value = REFRESH_SORT_KEYS, nativeQuery = true)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES, value = "product"))
+    void refreshAllSortKeys();
+
+    @Modifying
+    @Query("UPDATE Product p SET p.minDiscountedPrice = p.minPrice * (100 - :percent) / 100.0 WHERE p.id IN :productIds")
+    void updateMinDiscountedPrice(@Param("productIds") Collection<Long> productIds, @Param("percent") int percent);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.minDiscountedPrice = p.minPrice")
+    void resetAllMinDiscountedPrices();
+
+    @Modifying
+    @Query("UPDATE Product p SET p.bestSellingScore = :score WHERE p.id = :productId")
+    void updateBestSellingScore(@Param("productId") Long productId, @Param("score") Double score);
+
+    @Query("SELECT NEW com.electro.projection.product.ProductScore(p.id, p.bestSellingScore) FROM Product p " +
+            "WHERE p.bestSellingScore IS NOT NULL")
+    List<ProductScore> findBestSellingScores();
+
+    @Query("SELECT DISTINCT v.product.id FROM DocketVariant dv JOIN dv.variant v WHERE dv.docket.id = :docketId")
+    List<Long> findProductIdsByDocketId(@Param("docketId") Long docketId);
+
+    @Query("SELECT DISTINCT v.product.id FROM OrderVariant ov JOIN ov.variant v WHERE ov.order.id = :orderId")
+    List<Long> findProductIdsByOrderId(@Param("orderId") Long orderId);
+
 }
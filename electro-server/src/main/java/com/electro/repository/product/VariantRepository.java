@@ -7,8 +7,12 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import javax.persistence.criteria.Join;
+import java.util.Collection;
+import java.util.List;
 
 public interface VariantRepository extends JpaRepository<Variant, Long>, JpaSpecificationExecutor<Variant> {
 
@@ -25,4 +29,7 @@ public interface VariantRepository extends JpaRepository<Variant, Long>, JpaSpec
         return findAll(spec, pageable);
     }
 
+    @Query("SELECT v FROM Variant v JOIN FETCH v.product WHERE v.id IN :ids")
+    List<Variant> findAllWithProductByIdIn(@Param("ids") Collection<Long> ids);
+
 }
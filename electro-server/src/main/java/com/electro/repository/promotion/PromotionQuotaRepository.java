@@ -0,0 +1,27 @@
+package com.electro.repository.promotion;
+
+import com.electro.entity.promotion.PromotionQuota;
+import com.electro.entity.promotion.PromotionQuotaKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+
+public interface PromotionQuotaRepository extends JpaRepository<PromotionQuota, PromotionQuotaKey> {
+
+    List<PromotionQuota> findByPromotionQuotaKey_PromotionIdIn(Collection<Long> promotionIds);
+
+    // Ghi đè số đã bán bằng giá trị của bộ đếm trong bộ nhớ, tạo dòng nếu chưa có
+    @Modifying
+    @Query(value = "INSERT INTO promotion_quota (promotion_id, variant_id, claimed, updated_at) " +
+            "VALUES (:promotionId, :variantId, :claimed, NOW()) " +
+            "ON DUPLICATE KEY UPDATE claimed = VALUES(claimed), updated_at = VALUES(updated_at)", nativeQuery = true)
+    @QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES, value = "promotion_quota"))
+    void upsert(@Param("promotionId") Long promotionId, @Param("variantId") Long variantId, @Param("claimed") int claimed);
+
+}
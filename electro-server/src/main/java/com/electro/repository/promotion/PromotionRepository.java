@@ -2,6 +2,8 @@ package com.electro.repository.promotion;
 
 import com.electro.entity.product.Product;
 import com.electro.entity.promotion.Promotion;
+import com.electro.projection.promotion.FlashSaleVariant;
+import com.electro.projection.promotion.PromotionProduct;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
@@ -38,6 +40,15 @@ public interface PromotionRepository extends JpaRepository<Promotion, Long>, Jpa
             "CURRENT_DATE BETWEEN pr.startDate AND pr.endDate")
     List<Promotion> findActivePromotionByProductId(@Param("productId") Long productId);
 
+    @Query("SELECT NEW com.electro.projection.promotion.PromotionProduct(p.id, pr) FROM Promotion pr JOIN pr.products p " +
+            "WHERE pr.status = 1 AND pr.endDate >= :now")
+    List<PromotionProduct> findUnexpiredPromotionProducts(@Param("now") Instant now);
+
+    @Query("SELECT NEW com.electro.projection.promotion.FlashSaleVariant(pr.id, pr.quotaPerVariant, p.id, v.id) " +
+            "FROM Promotion pr JOIN pr.products p JOIN p.variants v " +
+            "WHERE pr.status = 1 AND pr.endDate >= :now AND pr.quotaPerVariant IS NOT NULL")
+    List<FlashSaleVariant> findUnexpiredFlashSaleVariants(@Param("now") Instant now);
+
     @Query("SELECT COUNT(pr.id) FROM Promotion pr WHERE pr.status = 1 AND CURRENT_DATE BETWEEN pr.startDate AND pr.endDate")
     int countByPromotionId();
 
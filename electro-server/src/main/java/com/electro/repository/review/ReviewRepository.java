@@ -1,6 +1,7 @@
 package com.electro.repository.review;
 
 import com.electro.entity.review.Review;
+import com.electro.utils.RsqlUtils;
 import io.github.perplexhub.rsql.RSQLJPASupport;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -14,15 +15,15 @@ public interface ReviewRepository extends JpaRepository<Review, Long>, JpaSpecif
 
     default Page<Review> findAllByProductSlug(String productSlug, String sort, String filter, Pageable pageable) {
         Specification<Review> sortable = RSQLJPASupport.toSort(sort);
-        Specification<Review> filterable = RSQLJPASupport.toSpecification(filter);
-        Specification<Review> productIdSpec = RSQLJPASupport.toSpecification("product.slug==" + productSlug);
+        Specification<Review> filterable = RsqlUtils.toSpecification(filter);
+        Specification<Review> productIdSpec = RsqlUtils.toSpecification("product.slug==" + productSlug);
         return findAll(sortable.and(filterable).and(productIdSpec), pageable);
     }
 
     default Page<Review> findAllByUsername(String username, String sort, String filter, Pageable pageable) {
         Specification<Review> sortable = RSQLJPASupport.toSort(sort);
-        Specification<Review> filterable = RSQLJPASupport.toSpecification(filter);
-        Specification<Review> usernameSpec = RSQLJPASupport.toSpecification("user.username==" + username);
+        Specification<Review> filterable = RsqlUtils.toSpecification(filter);
+        Specification<Review> usernameSpec = RsqlUtils.toSpecification("user.username==" + username);
         return findAll(sortable.and(filterable).and(usernameSpec), pageable);
     }
 
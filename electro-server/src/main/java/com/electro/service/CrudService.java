@@ -4,6 +4,7 @@ import com.electro.constant.FieldName;
 import com.electro.dto.ListResponse;
 import com.electro.exception.ResourceNotFoundException;
 import com.electro.mapper.GenericMapper;
+import com.electro.utils.RsqlUtils;
 import com.electro.utils.SearchUtils;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -31,6 +32,14 @@ public interface CrudService<ID, I, O> {
 
     void delete(List<ID> ids);
 
+    /**
+     * Xóa nhiều bản ghi bằng một câu lệnh DELETE ... WHERE id IN (...), không nạp thực thể nên không chạy cascade
+     * và entity listener. Mặc định dùng lại delete(ids) cho các service cần xử lý riêng khi xóa.
+     */
+    default void deleteInBatch(List<ID> ids) {
+        delete(ids);
+    }
+
     default O save(JsonNode request, Class<I> requestType) {
         ObjectMapper mapper = new ObjectMapper();
         I typedRequest = mapper.convertValue(request, requestType);
@@ -50,7 +59,7 @@ public interface CrudService<ID, I, O> {
                                                JpaSpecificationExecutor<E> repository,
                                                GenericMapper<E, I, O> mapper) {
         Specification<E> sortable = RSQLJPASupport.toSort(sort);
-        Specification<E> filterable = RSQLJPASupport.toSpecification(filter);
+        Specification<E> filterable = RsqlUtils.toSpecification(filter);
         Specification<E> searchable = SearchUtils.parse(search, searchFields);
         Pageable pageable = all ? Pageable.unpaged() : PageRequest.of(page - 1, size);
         Page<E> entities = repository.findAll(sortable.and(filterable).and(searchable), pageable);
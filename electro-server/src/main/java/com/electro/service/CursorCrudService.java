@@ -0,0 +1,36 @@
+package com.electro.service;
+
+import com.electro.dto.CursorResponse;
+import com.electro.mapper.GenericMapper;
+import com.electro.repository.KeysetRepository;
+import com.electro.utils.RsqlUtils;
+import com.electro.utils.SearchUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+
+import java.util.List;
+
+/**
+ * CrudService có thêm phân trang theo con trỏ (keyset). Con trỏ luôn kèm cột `id`, nên chỉ service của thực thể
+ * có khóa chính `id` mới cài đặt interface này; chỉ những service này mới được ánh xạ `?cursor` và `/export`.
+ */
+public interface CursorCrudService<ID, I, O> extends CrudService<ID, I, O> {
+
+    CursorResponse<O> findAllByCursor(String cursor, int size, String sort, String filter, String search);
+
+    default <E> CursorResponse<O> defaultFindAllByCursor(String cursor, int size,
+                                                         String sort, String filter,
+                                                         String search,
+                                                         List<String> searchFields,
+                                                         JpaSpecificationExecutor<E> repository,
+                                                         KeysetRepository keysetRepository,
+                                                         GenericMapper<E, I, O> mapper) {
+        Specification<E> filterable = RsqlUtils.toSpecification(filter);
+        Specification<E> searchable = SearchUtils.parse(search, searchFields);
+        Slice<E> entities = keysetRepository.findSlice(repository, filterable.and(searchable), sort, cursor, size);
+        List<O> entityResponses = mapper.entityToResponse(entities.getContent());
+        return new CursorResponse<>(entityResponses, entities, sort);
+    }
+
+}
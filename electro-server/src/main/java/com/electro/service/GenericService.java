@@ -1,25 +1,41 @@
 package com.electro.service;
 
+import com.electro.dto.CursorResponse;
 import com.electro.dto.ListResponse;
 import com.electro.mapper.GenericMapper;
+import com.electro.repository.KeysetRepository;
+import com.electro.service.general.ListCacheService;
+import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import org.springframework.context.annotation.Scope;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Component;
 
+import javax.persistence.EntityListeners;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 @Component
 @Setter
 @Scope("prototype")
-public class GenericService<E, I, O> implements CrudService<Long, I, O> {
+@RequiredArgsConstructor
+public class GenericService<E, I, O> implements CursorCrudService<Long, I, O> {
 
+    private final KeysetRepository keysetRepository;
+    private final ListCacheService listCacheService;
+
+    private Class<?> entityClass;
     private JpaRepository<E, Long> repository;
     private JpaSpecificationExecutor<E> specificationExecutor;
     private GenericMapper<E, I, O> mapper;
     private List<String> searchFields;
     private String resourceName;
+    // Thực thể có entity listener (chỉ mục tìm kiếm, facet, cache chi tiết sản phẩm...) không được xóa bằng DELETE hàng loạt
+    private boolean batchDeletable;
 
     public <R extends JpaRepository<E, Long> & JpaSpecificationExecutor<E>> GenericService<E, I, O> init(
             R repository,
@@ -31,12 +47,26 @@ public class GenericService<E, I, O> implements CrudService<Long, I, O> {
         this.setMapper(mapper);
         this.setSearchFields(searchFields);
         this.setResourceName(resourceName);
+        this.setEntityClass(ResolvableType.forClass(repository.getClass()).as(JpaRepository.class).resolveGeneric(0));
+        if (entityClass == null) {
+            throw new RuntimeException("Cannot resolve entity type of repository: " + repository.getClass().getName());
+        }
+        this.setBatchDeletable(Optional.ofNullable(entityClass.getAnnotation(EntityListeners.class))
+                .map(entityListeners -> Arrays.stream(entityListeners.value())
+                        .allMatch(AuditingEntityListener.class::equals))
+                .orElse(true));
         return this;
     }
 
     @Override
     public ListResponse<O> findAll(int page, int size, String sort, String filter, String search, boolean all) {
-        return defaultFindAll(page, size, sort, filter, search, all, searchFields, specificationExecutor, mapper);
+        return listCacheService.getOrLoad(resourceName, entityClass, page, size, sort, filter, search, all,
+                () -> defaultFindAll(page, size, sort, filter, search, all, searchFields, specificationExecutor, mapper));
+    }
+
+    @Override
+    public CursorResponse<O> findAllByCursor(String cursor, int size, String sort, String filter, String search) {
+        return defaultFindAllByCursor(cursor, size, sort, filter, search, searchFields, specificationExecutor, keysetRepository, mapper);
     }
 
     @Override
@@ -64,4 +94,17 @@ public class GenericService<E, I, O> implements CrudService<Long, I, O> {
         repository.deleteAllById(ids);
     }
 
+    @Override
+    public void deleteInBatch(List<Long> ids) {
+        // DELETE hàng loạt bỏ qua entity listener, các chỉ mục trong bộ nhớ sẽ không được cập nhật
+        if (!batchDeletable) {
+            delete(ids);
+            return;
+        }
+
+        repository.deleteAllByIdInBatch(ids);
+        // DELETE hàng loạt không phát sinh sự kiện của Hibernate nên phải tự tăng phiên bản bảng
+        listCacheService.bumpAfterCompletion(entityClass);
+    }
+
 }
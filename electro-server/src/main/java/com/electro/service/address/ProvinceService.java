@@ -2,6 +2,6 @@ package com.electro.service.address;
 
 import com.electro.dto.address.ProvinceRequest;
 import com.electro.dto.address.ProvinceResponse;
-import com.electro.service.CrudService;
+import com.electro.service.CursorCrudService;
 
-public interface ProvinceService extends CrudService<Long, ProvinceRequest, ProvinceResponse> {}
+public interface ProvinceService extends CursorCrudService<Long, ProvinceRequest, ProvinceResponse> {}
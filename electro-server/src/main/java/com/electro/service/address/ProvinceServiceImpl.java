@@ -2,10 +2,12 @@ package com.electro.service.address;
 
 import com.electro.constant.ResourceName;
 import com.electro.constant.SearchFields;
+import com.electro.dto.CursorResponse;
 import com.electro.dto.ListResponse;
 import com.electro.dto.address.ProvinceRequest;
 import com.electro.dto.address.ProvinceResponse;
 import com.electro.mapper.address.ProvinceMapper;
+import com.electro.repository.KeysetRepository;
 import com.electro.repository.address.ProvinceRepository;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -17,6 +19,7 @@ import java.util.List;
 public class ProvinceServiceImpl implements ProvinceService {
 
     private ProvinceRepository provinceRepository;
+    private KeysetRepository keysetRepository;
 
     private ProvinceMapper provinceMapper;
 
@@ -25,6 +28,11 @@ public class ProvinceServiceImpl implements ProvinceService {
         return defaultFindAll(page, size, sort, filter, search, all, SearchFields.PROVINCE, provinceRepository, provinceMapper);
     }
 
+    @Override
+    public CursorResponse<ProvinceResponse> findAllByCursor(String cursor, int size, String sort, String filter, String search) {
+        return defaultFindAllByCursor(cursor, size, sort, filter, search, SearchFields.PROVINCE, provinceRepository, keysetRepository, provinceMapper);
+    }
+
     @Override
     public ProvinceResponse findById(Long id) {
         return defaultFindById(id, provinceRepository, provinceMapper, ResourceName.PROVINCE);
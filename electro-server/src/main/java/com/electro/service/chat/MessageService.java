@@ -2,6 +2,6 @@ package com.electro.service.chat;
 
 import com.electro.dto.chat.MessageRequest;
 import com.electro.dto.chat.MessageResponse;
-import com.electro.service.CrudService;
+import com.electro.service.CursorCrudService;
 
-public interface MessageService extends CrudService<Long, MessageRequest, MessageResponse> {}
+public interface MessageService extends CursorCrudService<Long, MessageRequest, MessageResponse> {}
@@ -2,11 +2,13 @@ package com.electro.service.chat;
 
 import com.electro.constant.ResourceName;
 import com.electro.constant.SearchFields;
+import com.electro.dto.CursorResponse;
 import com.electro.dto.ListResponse;
 import com.electro.dto.chat.MessageRequest;
 import com.electro.dto.chat.MessageResponse;
 import com.electro.entity.chat.Message;
 import com.electro.mapper.chat.MessageMapper;
+import com.electro.repository.KeysetRepository;
 import com.electro.repository.authentication.UserRepository;
 import com.electro.repository.chat.MessageRepository;
 import com.electro.repository.chat.RoomRepository;
@@ -21,6 +23,7 @@ import java.util.List;
 public class MessageServiceImpl implements MessageService {
 
     private MessageRepository messageRepository;
+    private KeysetRepository keysetRepository;
     private RoomRepository roomRepository;
     private UserRepository userRepository;
     private MessageMapper messageMapper;
@@ -30,6 +33,11 @@ public class MessageServiceImpl implements MessageService {
         return defaultFindAll(page, size, sort, filter, search, all, SearchFields.MESSAGE, messageRepository, messageMapper);
     }
 
+    @Override
+    public CursorResponse<MessageResponse> findAllByCursor(String cursor, int size, String sort, String filter, String search) {
+        return defaultFindAllByCursor(cursor, size, sort, filter, search, SearchFields.MESSAGE, messageRepository, keysetRepository, messageMapper);
+    }
+
     @Override
     public MessageResponse findById(Long id) {
         return defaultFindById(id, messageRepository, messageMapper, ResourceName.MESSAGE);
@@ -0,0 +1,15 @@
+package com.electro.service.general;
+
+import com.electro.dto.BatchItemResponse;
+import com.electro.service.CrudService;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+public interface BatchService {
+
+    <I, O> List<BatchItemResponse<O>> saveAll(CrudService<Long, I, O> crudService, JsonNode requests, Class<I> requestType);
+
+    <I, O> List<BatchItemResponse<O>> updateAll(CrudService<Long, I, O> crudService, JsonNode requests, Class<I> requestType);
+
+}
@@ -0,0 +1,124 @@
+package com.electro.service.general;
+
+import com.electro.dto.BatchItemResponse;
+import com.electro.service.CrudService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Tạo/cập nhật nhiều bản ghi trong một request, trả về kết quả cho từng phần tử theo đúng thứ tự gửi lên.
+ * <p>
+ * Các phần tử được lưu theo khối BATCH_CHUNK_SIZE (bằng hibernate.jdbc.batch_size), mỗi khối một giao dịch,
+ * nên câu INSERT/UPDATE của cả khối được gửi thành một JDBC batch khi commit. Nếu khối bị lỗi thì toàn khối
+ * rollback và từng phần tử được chạy lại trong giao dịch riêng để xác định chính xác phần tử lỗi.
+ */
+@Service
+@RequiredArgsConstructor
+public class BatchServiceImpl implements BatchService {
+
+    private static final int BATCH_CHUNK_SIZE = 50;
+    private static final int MAX_BATCH_ITEMS = 10000;
+    private static final String ID_FIELD = "id";
+
+    // Cùng cấu hình với CrudService.save(JsonNode, Class) nhưng dùng chung một instance cho cả request
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+
+    @Override
+    public <I, O> List<BatchItemResponse<O>> saveAll(CrudService<Long, I, O> crudService, JsonNode requests, Class<I> requestType) {
+        return process(requests, request -> {
+            I typedRequest = OBJECT_MAPPER.convertValue(request, requestType);
+            return () -> crudService.save(typedRequest);
+        });
+    }
+
+    @Override
+    public <I, O> List<BatchItemResponse<O>> updateAll(CrudService<Long, I, O> crudService, JsonNode requests, Class<I> requestType) {
+        return process(requests, request -> {
+            JsonNode id = request.get(ID_FIELD);
+
+            if (!request.isObject() || id == null || !id.canConvertToLong()) {
+                throw new RuntimeException("Each item must have a numeric id");
+            }
+
+            ObjectNode fields = ((ObjectNode) request).deepCopy();
+            fields.remove(ID_FIELD);
+
+            Long typedId = id.asLong();
+            I typedRequest = OBJECT_MAPPER.convertValue(fields, requestType);
+            return () -> crudService.save(typedId, typedRequest);
+        });
+    }
+
+    private <O> List<BatchItemResponse<O>> process(JsonNode requests, Function<JsonNode, Supplier<O>> preparer) {
+        if (requests == null || !requests.isArray()) {
+            throw new RuntimeException("Batch request body must be a JSON array");
+        }
+
+        if (requests.size() > MAX_BATCH_ITEMS) {
+            throw new RuntimeException("Batch request cannot contain more than " + MAX_BATCH_ITEMS + " items");
+        }
+
+        List<BatchItemResponse<O>> results = new ArrayList<>(Collections.nCopies(requests.size(), null));
+
+        // (1) Chuyển đổi từng phần tử, lỗi dữ liệu đầu vào không ảnh hưởng tới phần tử khác
+        List<Map.Entry<Integer, Supplier<O>>> operations = new ArrayList<>();
+
+        for (int index = 0; index < requests.size(); index++) {
+            try {
+                operations.add(Map.entry(index, preparer.apply(requests.get(index))));
+            } catch (RuntimeException e) {
+                results.set(index, BatchItemResponse.failure(index, getMessage(e)));
+            }
+        }
+
+        // (2) Lưu theo khối, mỗi khối một giao dịch
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        for (int from = 0; from < operations.size(); from += BATCH_CHUNK_SIZE) {
+            List<Map.Entry<Integer, Supplier<O>>> chunk = operations.subList(from, Math.min(from + BATCH_CHUNK_SIZE, operations.size()));
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> chunk.forEach(operation ->
+                        results.set(operation.getKey(), BatchItemResponse.success(operation.getKey(), operation.getValue().get()))));
+            } catch (RuntimeException e) {
+                chunk.forEach(operation -> {
+                    try {
+                        O data = transactionTemplate.execute(status -> operation.getValue().get());
+                        results.set(operation.getKey(), BatchItemResponse.success(operation.getKey(), data));
+                    } catch (RuntimeException itemException) {
+                        results.set(operation.getKey(), BatchItemResponse.failure(operation.getKey(), getMessage(itemException)));
+                    }
+                });
+            }
+
+            // Với open-in-view, persistence context sống suốt request nên cần giải phóng sau mỗi khối
+            entityManager.clear();
+        }
+
+        return results;
+    }
+
+    private static String getMessage(RuntimeException e) {
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(e);
+        return Optional.ofNullable(cause.getMessage()).orElse(cause.getClass().getSimpleName());
+    }
+
+}
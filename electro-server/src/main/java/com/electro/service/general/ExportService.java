@@ -0,0 +1,14 @@
+package com.electro.service.general;
+
+import com.electro.service.CursorCrudService;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+public interface ExportService {
+
+    <O> StreamingResponseBody export(CursorCrudService<Long, ?, O> crudService,
+                                     ExportFormat format,
+                                     String sort,
+                                     String filter,
+                                     String search);
+
+}
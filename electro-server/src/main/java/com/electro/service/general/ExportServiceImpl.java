@@ -0,0 +1,120 @@
+package com.electro.service.general;
+
+import com.electro.dto.CursorResponse;
+import com.electro.service.CursorCrudService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Xuất toàn bộ bảng theo từng khối EXPORT_CHUNK_SIZE bản ghi, đọc bằng phân trang keyset (findAllByCursor).
+ * <p>
+ * Mỗi khối được đọc và ánh xạ trong một giao dịch chỉ đọc riêng, nên persistence context được giải phóng
+ * sau mỗi khối và bộ nhớ không tăng theo kích thước bảng. Không dùng result set streaming của MySQL
+ * vì kết nối sẽ bị khóa, trong khi các mapper vẫn cần lazy load quan hệ trong lúc ánh xạ.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExportServiceImpl implements ExportService {
+
+    private static final int EXPORT_CHUNK_SIZE = 500;
+    private static final char UTF8_BOM = '\uFEFF';
+
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public <O> StreamingResponseBody export(CursorCrudService<Long, ?, O> crudService,
+                                            ExportFormat format,
+                                            String sort,
+                                            String filter,
+                                            String search) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        return outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            List<String> csvHeaders = null;
+            String cursor = "";
+
+            do {
+                String chunkCursor = cursor;
+                CursorResponse<O> chunk = transactionTemplate.execute(status ->
+                        crudService.findAllByCursor(chunkCursor, EXPORT_CHUNK_SIZE, sort, filter, search));
+
+                if (chunk == null) {
+                    break;
+                }
+
+                for (O item : chunk.getContent()) {
+                    if (format == ExportFormat.NDJSON) {
+                        writer.write(objectMapper.writeValueAsString(item));
+                        writer.write('\n');
+                        continue;
+                    }
+
+                    JsonNode row = objectMapper.valueToTree(item);
+
+                    // Tiêu đề CSV lấy theo các trường cấp 1 của bản ghi đầu tiên
+                    if (csvHeaders == null) {
+                        csvHeaders = new ArrayList<>();
+                        row.fieldNames().forEachRemaining(csvHeaders::add);
+                        writer.write(UTF8_BOM);
+                        writeCsvLine(writer, csvHeaders);
+                    }
+
+                    List<String> values = new ArrayList<>();
+                    for (String header : csvHeaders) {
+                        values.add(toCsvValue(row.get(header)));
+                    }
+                    writeCsvLine(writer, values);
+                }
+
+                writer.flush();
+                cursor = chunk.getNextCursor();
+            } while (cursor != null);
+
+            writer.flush();
+        };
+    }
+
+    private static void writeCsvLine(Writer writer, List<String> values) throws IOException {
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(escapeCsv(values.get(i)));
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Đối tượng và mảng lồng nhau được ghi dưới dạng chuỗi JSON trong một ô
+     */
+    private static String toCsvValue(JsonNode value) {
+        if (value == null || value.isNull()) {
+            return "";
+        }
+        return value.isValueNode() ? value.asText() : value.toString();
+    }
+
+    private static String escapeCsv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+}
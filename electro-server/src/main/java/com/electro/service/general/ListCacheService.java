@@ -0,0 +1,32 @@
+package com.electro.service.general;
+
+import com.electro.dto.ListResponse;
+
+import java.util.function.Supplier;
+
+public interface ListCacheService {
+
+    /**
+     * Trả về trang đã lưu nếu phiên bản của mọi bảng mà trang đó phụ thuộc chưa đổi, ngược lại gọi loader và lưu kết quả.
+     */
+    <O> ListResponse<O> getOrLoad(String resourceName, Class<?> entityClass,
+                                  int page, int size, String sort, String filter, String search, boolean all,
+                                  Supplier<ListResponse<O>> loader);
+
+    /**
+     * Tăng phiên bản bảng của thực thể ngay lập tức, dùng khi giao dịch ghi đã commit.
+     */
+    void bump(Class<?> entityClass);
+
+    /**
+     * Tăng phiên bản bảng của thực thể khi giao dịch hiện tại kết thúc (hoặc ngay nếu không có giao dịch),
+     * dùng cho các câu lệnh UPDATE/DELETE hàng loạt không phát sinh sự kiện của Hibernate.
+     */
+    void bumpAfterCompletion(Class<?> entityClass);
+
+    /**
+     * Ghi nhận thực thể vừa được nạp, nếu luồng hiện tại đang tính một trang để lưu vào cache.
+     */
+    void recordLoad(Class<?> entityClass);
+
+}
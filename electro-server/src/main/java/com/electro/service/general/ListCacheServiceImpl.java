@@ -0,0 +1,150 @@
+package com.electro.service.general;
+
+import com.electro.dto.ListResponse;
+import lombok.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache kết quả GenericService.findAll theo tài nguyên, sort/filter/search đã chuẩn hóa và trang.
+ * <p>
+ * Mỗi bảng (thực thể) có một bộ đếm phiên bản, được TableVersionListener tăng sau khi giao dịch ghi commit.
+ * Một trang lưu lại phiên bản (chụp trước khi truy vấn) của bảng gốc và của mọi thực thể được nạp khi tính trang,
+ * gồm cả các quan hệ mà mapper đọc tới, và chỉ được dùng lại khi tất cả phiên bản đó còn khớp.
+ * Vì phiên bản được chụp trước truy vấn còn bộ đếm tăng sau commit, một lần ghi xen giữa luôn làm trang đó hết hiệu lực.
+ * <p>
+ * Giới hạn: điều kiện filter trên thuộc tính của quan hệ mà không có bản ghi nào khớp thì quan hệ đó không được nạp,
+ * nên không được tính là phụ thuộc của trang rỗng.
+ */
+@Service
+public class ListCacheServiceImpl implements ListCacheService {
+
+    private static final int MAX_ENTRIES = 256;
+    // Không lưu các danh sách lớn (thường là all=true) để giới hạn bộ nhớ
+    private static final int MAX_CACHED_ELEMENTS = 1000;
+
+    private final Map<Class<?>, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    private final ThreadLocal<Set<Class<?>>> loadedEntityClasses = new ThreadLocal<>();
+
+    private final Map<String, CachedList> cachedLists = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedList> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <O> ListResponse<O> getOrLoad(String resourceName, Class<?> entityClass,
+                                         int page, int size, String sort, String filter, String search, boolean all,
+                                         Supplier<ListResponse<O>> loader) {
+        String key = String.join("\n", resourceName,
+                all ? "all" : page + "," + size,
+                normalizeSort(sort), normalize(filter), normalize(search));
+
+        synchronized (cachedLists) {
+            CachedList cachedList = cachedLists.get(key);
+            if (cachedList != null) {
+                if (isCurrent(cachedList.getVersions())) {
+                    return (ListResponse<O>) cachedList.getResponse();
+                }
+                cachedLists.remove(key);
+            }
+        }
+
+        // Luồng đang tính một trang khác (lồng nhau) thì không lưu để không lẫn tập thực thể đã nạp
+        if (loadedEntityClasses.get() != null) {
+            return loader.get();
+        }
+
+        Map<Class<?>, Long> snapshot = snapshot();
+        Set<Class<?>> dependencies = new HashSet<>();
+        dependencies.add(entityClass);
+
+        ListResponse<O> response;
+        loadedEntityClasses.set(dependencies);
+        try {
+            response = loader.get();
+        } finally {
+            loadedEntityClasses.remove();
+        }
+
+        if (response.getContent().size() <= MAX_CACHED_ELEMENTS) {
+            Map<Class<?>, Long> dependencyVersions = new HashMap<>();
+            dependencies.forEach(dependency -> dependencyVersions.put(dependency, snapshot.getOrDefault(dependency, 0L)));
+
+            synchronized (cachedLists) {
+                cachedLists.put(key, new CachedList(response, dependencyVersions));
+            }
+        }
+
+        return response;
+    }
+
+    @Override
+    public void bump(Class<?> entityClass) {
+        versions.computeIfAbsent(entityClass, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Override
+    public void bumpAfterCompletion(Class<?> entityClass) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(entityClass);
+            return;
+        }
+
+        // Tăng cả khi rollback: thừa một lần cache miss vẫn an toàn hơn giữ trang đã cũ
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                bump(entityClass);
+            }
+        });
+    }
+
+    @Override
+    public void recordLoad(Class<?> entityClass) {
+        Set<Class<?>> dependencies = loadedEntityClasses.get();
+        if (dependencies != null) {
+            dependencies.add(entityClass);
+        }
+    }
+
+    private Map<Class<?>, Long> snapshot() {
+        Map<Class<?>, Long> snapshot = new HashMap<>();
+        versions.forEach((entityClass, version) -> snapshot.put(entityClass, version.get()));
+        return snapshot;
+    }
+
+    private boolean isCurrent(Map<Class<?>, Long> dependencyVersions) {
+        return dependencyVersions.entrySet().stream().allMatch(entry -> Objects.equals(entry.getValue(),
+                versions.getOrDefault(entry.getKey(), new AtomicLong()).get()));
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim();
+    }
+
+    private static String normalizeSort(String sort) {
+        return sort == null ? "" : sort.replaceAll("\\s+", "");
+    }
+
+    @Value
+    private static class CachedList {
+        ListResponse<?> response;
+        Map<Class<?>, Long> versions;
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.electro.service.general;
+
+import lombok.AllArgsConstructor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Nối sự kiện của Hibernate vào ListCacheService: mọi INSERT/UPDATE/DELETE qua EntityManager (GenericService.save/delete
+ * và các service riêng) tăng phiên bản bảng sau khi giao dịch commit, còn sự kiện nạp thực thể cho biết một trang
+ * đang được tính phụ thuộc vào những bảng nào.
+ */
+@Component
+@AllArgsConstructor
+public class TableVersionListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener, PostLoadEventListener {
+
+    private EntityManagerFactory entityManagerFactory;
+    private ListCacheService listCacheService;
+
+    @PostConstruct
+    public void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImpl.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class);
+
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+        registry.appendListeners(EventType.POST_LOAD, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        listCacheService.bump(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        listCacheService.bump(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        listCacheService.bump(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // Giao dịch đã rollback, dữ liệu không đổi
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // Giao dịch đã rollback, dữ liệu không đổi
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // Giao dịch đã rollback, dữ liệu không đổi
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        listCacheService.recordLoad(event.getPersister().getMappedClass());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return true;
+    }
+
+    // Phương thức trừu tượng cũ (sai chính tả) vẫn bắt buộc phải cài đặt trong Hibernate 5.6
+    @Override
+    @SuppressWarnings("deprecation")
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+
+}
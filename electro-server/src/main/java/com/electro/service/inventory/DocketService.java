@@ -2,6 +2,6 @@ package com.electro.service.inventory;
 
 import com.electro.dto.inventory.DocketRequest;
 import com.electro.dto.inventory.DocketResponse;
-import com.electro.service.CrudService;
+import com.electro.service.CursorCrudService;
 
-public interface DocketService extends CrudService<Long, DocketRequest, DocketResponse> {}
+public interface DocketService extends CursorCrudService<Long, DocketRequest, DocketResponse> {}
@@ -3,6 +3,7 @@ package com.electro.service.inventory;
 import com.electro.constant.FieldName;
 import com.electro.constant.ResourceName;
 import com.electro.constant.SearchFields;
+import com.electro.dto.CursorResponse;
 import com.electro.dto.ListResponse;
 import com.electro.dto.inventory.DocketRequest;
 import com.electro.dto.inventory.DocketResponse;
@@ -13,6 +14,7 @@ import com.electro.entity.inventory.Docket;
 import com.electro.exception.ResourceNotFoundException;
 import com.electro.mapper.general.NotificationMapper;
 import com.electro.mapper.inventory.DocketMapper;
+import com.electro.repository.KeysetRepository;
 import com.electro.repository.client.PreorderRepository;
 import com.electro.repository.general.NotificationRepository;
 import com.electro.repository.inventory.DocketRepository;
@@ -21,16 +23,19 @@ import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import javax.transaction.Transactional;
 import java.time.Instant;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
 @AllArgsConstructor
+@Transactional
 @Slf4j
 public class DocketServiceImpl implements DocketService {
 
     private DocketRepository docketRepository;
+    private KeysetRepository keysetRepository;
 
     private DocketMapper docketMapper;
 
@@ -42,11 +47,20 @@ public class DocketServiceImpl implements DocketService {
 
     private NotificationMapper notificationMapper;
 
+    private VariantStockService variantStockService;
+
+    private StockReservationService stockReservationService;
+
     @Override
     public ListResponse<DocketResponse> findAll(int page, int size, String sort, String filter, String search, boolean all) {
         return defaultFindAll(page, size, sort, filter, search, all, SearchFields.DOCKET, docketRepository, docketMapper);
     }
 
+    @Override
+    public CursorResponse<DocketResponse> findAllByCursor(String cursor, int size, String sort, String filter, String search) {
+        return defaultFindAllByCursor(cursor, size, sort, filter, search, SearchFields.DOCKET, docketRepository, keysetRepository, docketMapper);
+    }
+
     @Override
     public DocketResponse findById(Long id) {
         return defaultFindById(id, docketRepository, docketMapper, ResourceName.DOCKET);
@@ -55,6 +69,7 @@ public class DocketServiceImpl implements DocketService {
     @Override
     public DocketResponse save(DocketRequest request) {
         Docket docket = docketRepository.save(docketMapper.requestToEntity(request));
+        variantStockService.apply(docket);
         afterCreateOrUpdateCallback(docket);
         return docketMapper.entityToResponse(docket);
     }
@@ -62,14 +77,24 @@ public class DocketServiceImpl implements DocketService {
     @Override
     public DocketResponse save(Long id, DocketRequest request) {
         Docket docket = docketRepository.findById(id)
-                .map(existingEntity -> docketMapper.partialUpdate(existingEntity, request))
+                .map(existingEntity -> {
+                    // Trừ phần tồn kho của docket cũ trước khi bị ghi đè
+                    variantStockService.revert(existingEntity);
+                    return docketMapper.partialUpdate(existingEntity, request);
+                })
                 .map(docketRepository::save)
                 .orElseThrow(() -> new ResourceNotFoundException(ResourceName.DOCKET, FieldName.ID, id));
+        variantStockService.apply(docket);
         afterCreateOrUpdateCallback(docket);
         return docketMapper.entityToResponse(docket);
     }
 
     private void afterCreateOrUpdateCallback(Docket docket) {
+        // Docket xuất (2) cho đơn hàng, chưa bị hủy: phần hàng đã giữ chuyển sang waiting_for_delivery
+        if (docket.getType().equals(2) && docket.getOrder() != null && !docket.getStatus().equals(4)) {
+            stockReservationService.consume(docket.getOrder());
+        }
+
         // Docket nhập (1) có trạng thái Hoàn thành (3)
         if (docket.getType().equals(1) && docket.getStatus().equals(3)) {
             List<Long> productIds = docket.getDocketVariants().stream()
@@ -110,11 +135,13 @@ public class DocketServiceImpl implements DocketService {
 
     @Override
     public void delete(Long id) {
+        docketRepository.findById(id).ifPresent(variantStockService::revert);
         docketRepository.deleteById(id);
     }
 
     @Override
     public void delete(List<Long> ids) {
+        docketRepository.findAllById(ids).forEach(variantStockService::revert);
         docketRepository.deleteAllById(ids);
     }
 
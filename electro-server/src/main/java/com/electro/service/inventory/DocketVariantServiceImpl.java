@@ -1,26 +1,33 @@
 package com.electro.service.inventory;
 
+import com.electro.constant.FieldName;
 import com.electro.constant.ResourceName;
 import com.electro.constant.SearchFields;
 import com.electro.dto.ListResponse;
 import com.electro.dto.inventory.DocketVariantRequest;
 import com.electro.dto.inventory.DocketVariantResponse;
+import com.electro.entity.inventory.DocketVariant;
 import com.electro.entity.inventory.DocketVariantKey;
+import com.electro.exception.ResourceNotFoundException;
 import com.electro.mapper.inventory.DocketVariantMapper;
 import com.electro.repository.inventory.DocketVariantRepository;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
 
+import javax.transaction.Transactional;
 import java.util.List;
 
 @Service
 @AllArgsConstructor
+@Transactional
 public class DocketVariantServiceImpl implements DocketVariantService {
 
     private DocketVariantRepository docketVariantRepository;
 
     private DocketVariantMapper docketVariantMapper;
 
+    private VariantStockService variantStockService;
+
     @Override
     public ListResponse<DocketVariantResponse> findAll(int page, int size, String sort, String filter, String search, boolean all) {
         return defaultFindAll(page, size, sort, filter, search, all, SearchFields.DOCKET_VARIANT, docketVariantRepository, docketVariantMapper);
@@ -33,21 +40,33 @@ public class DocketVariantServiceImpl implements DocketVariantService {
 
     @Override
     public DocketVariantResponse save(DocketVariantRequest request) {
-        return defaultSave(request, docketVariantRepository, docketVariantMapper);
+        DocketVariant docketVariant = docketVariantRepository.save(docketVariantMapper.requestToEntity(request));
+        variantStockService.apply(docketVariant);
+        return docketVariantMapper.entityToResponse(docketVariant);
     }
 
     @Override
     public DocketVariantResponse save(DocketVariantKey id, DocketVariantRequest request) {
-        return defaultSave(id, request, docketVariantRepository, docketVariantMapper, ResourceName.DOCKET_VARIANT);
+        DocketVariant docketVariant = docketVariantRepository.findById(id)
+                .map(existingEntity -> {
+                    variantStockService.revert(existingEntity);
+                    return docketVariantMapper.partialUpdate(existingEntity, request);
+                })
+                .map(docketVariantRepository::save)
+                .orElseThrow(() -> new ResourceNotFoundException(ResourceName.DOCKET_VARIANT, FieldName.ID, id));
+        variantStockService.apply(docketVariant);
+        return docketVariantMapper.entityToResponse(docketVariant);
     }
 
     @Override
     public void delete(DocketVariantKey id) {
+        docketVariantRepository.findById(id).ifPresent(variantStockService::revert);
         docketVariantRepository.deleteById(id);
     }
 
     @Override
     public void delete(List<DocketVariantKey> ids) {
+        docketVariantRepository.findAllById(ids).forEach(variantStockService::revert);
         docketVariantRepository.deleteAllById(ids);
     }
 
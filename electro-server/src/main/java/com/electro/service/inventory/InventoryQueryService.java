@@ -0,0 +1,28 @@
+package com.electro.service.inventory;
+
+import com.electro.projection.inventory.SimpleVariantInventory;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface InventoryQueryService {
+
+    /**
+     * Lấy tồn kho (cộng dồn mọi kho) của nhiều phiên bản sản phẩm bằng một truy vấn duy nhất.
+     * Map trả về luôn có đủ key cho mọi variantId truyền vào, phiên bản chưa từng nhập xuất có các chỉ số bằng 0.
+     */
+    Map<Long, SimpleVariantInventory> stockFor(Collection<Long> variantIds);
+
+    /**
+     * Số lượng còn bán được của nhiều phiên bản sản phẩm, đọc từ variant_availability (tồn kho có thể bán trừ các
+     * stock_reservation đang giữ) nên khớp với số mà bước đặt hàng chấp nhận; dùng cho các trang phía khách hàng.
+     * Map trả về luôn có đủ key cho mọi variantId truyền vào, phiên bản chưa có dòng hoặc đang âm được tính là 0.
+     */
+    Map<Long, Integer> availableFor(Collection<Long> variantIds);
+
+    /**
+     * Như availableFor nhưng cộng dồn theo sản phẩm, Map trả về luôn có đủ key cho mọi productId truyền vào
+     */
+    Map<Long, Integer> availableForProducts(Collection<Long> productIds);
+
+}
@@ -0,0 +1,68 @@
+package com.electro.service.inventory;
+
+import com.electro.projection.inventory.SimpleVariantInventory;
+import com.electro.repository.ProjectionRepository;
+import com.electro.repository.inventory.VariantAvailabilityRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+@AllArgsConstructor
+public class InventoryQueryServiceImpl implements InventoryQueryService {
+
+    private ProjectionRepository projectionRepository;
+    private VariantAvailabilityRepository variantAvailabilityRepository;
+
+    @Override
+    public Map<Long, SimpleVariantInventory> stockFor(Collection<Long> variantIds) {
+        Map<Long, SimpleVariantInventory> inventories = new HashMap<>();
+
+        if (variantIds.isEmpty()) {
+            return inventories;
+        }
+
+        projectionRepository.findSimpleVariantInventories(variantIds)
+                .forEach(variantInventory -> inventories.put(variantInventory.getVariantId(), variantInventory));
+
+        variantIds.forEach(variantId -> inventories.putIfAbsent(variantId, new SimpleVariantInventory(variantId)));
+
+        return inventories;
+    }
+
+    @Override
+    public Map<Long, Integer> availableFor(Collection<Long> variantIds) {
+        Map<Long, Integer> availabilities = new HashMap<>();
+
+        if (variantIds.isEmpty()) {
+            return availabilities;
+        }
+
+        variantAvailabilityRepository.findAllById(variantIds).forEach(variantAvailability ->
+                availabilities.put(variantAvailability.getVariantId(), Math.max(0, variantAvailability.getAvailable())));
+
+        variantIds.forEach(variantId -> availabilities.putIfAbsent(variantId, 0));
+
+        return availabilities;
+    }
+
+    @Override
+    public Map<Long, Integer> availableForProducts(Collection<Long> productIds) {
+        Map<Long, Integer> availabilities = new HashMap<>();
+
+        if (productIds.isEmpty()) {
+            return availabilities;
+        }
+
+        variantAvailabilityRepository.findProductAvailabilities(productIds).forEach(productAvailability ->
+                availabilities.put(productAvailability.getProductId(), Math.toIntExact(productAvailability.getAvailable())));
+
+        productIds.forEach(productId -> availabilities.putIfAbsent(productId, 0));
+
+        return availabilities;
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.electro.service.inventory;
+
+import com.electro.entity.order.Order;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+public interface StockReservationService {
+
+    /**
+     * Kiểm tra nhanh (không khóa) số lượng còn bán được cho các dòng của đơn hàng, để từ chối sớm trước khi gọi
+     * cổng thanh toán. Kết quả chỉ mang tính tham khảo, reserve mới là bước quyết định.
+     */
+    void checkAvailable(Order order);
+
+    /**
+     * Trừ variant_availability và tạo stock_reservation cho mọi dòng của đơn hàng đã được lưu.
+     * Ném RuntimeException nếu một phiên bản không đủ hàng, giao dịch gọi hàm sẽ rollback phần đã trừ.
+     *
+     * @param ttl thời gian giữ hàng, null nếu giữ tới khi đơn được xử lý
+     */
+    void reserve(Order order, @Nullable Duration ttl);
+
+    /**
+     * Đặt lại thời hạn cho các reservation đang giữ của đơn hàng (null để giữ vô thời hạn).
+     *
+     * @return false nếu reservation của đơn hàng đã bị trả lại (hủy hoặc hết hạn)
+     */
+    boolean extend(Order order, @Nullable Duration ttl);
+
+    /**
+     * Trả lại số lượng đang giữ khi đơn hàng bị hủy
+     */
+    void release(Order order);
+
+    /**
+     * Chuyển reservation của đơn hàng sang phiếu xuất kho: waiting_for_delivery của variant_stock giữ phần này từ đây
+     */
+    void consume(Order order);
+
+    /**
+     * Cộng thay đổi can_be_sold của variant_stock vào variant_availability
+     */
+    void adjust(Long variantId, int delta);
+
+    /**
+     * Trả lại các reservation đã hết hạn và hủy đơn hàng chưa thanh toán tương ứng
+     */
+    void releaseExpired();
+
+    /**
+     * Dựng lại variant_availability từ variant_stock và các reservation đang giữ
+     */
+    void rebuildAvailability();
+
+}
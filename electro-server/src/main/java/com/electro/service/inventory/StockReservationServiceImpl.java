@@ -0,0 +1,192 @@
+package com.electro.service.inventory;
+
+import com.electro.entity.inventory.StockReservation;
+import com.electro.entity.inventory.VariantAvailability;
+import com.electro.entity.order.Order;
+import com.electro.entity.order.OrderVariant;
+import com.electro.repository.inventory.StockReservationRepository;
+import com.electro.repository.inventory.VariantAvailabilityRepository;
+import com.electro.repository.order.OrderRepository;
+import com.electro.service.product.BestSellerService;
+import com.electro.service.promotion.FlashSaleService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.transaction.Transactional;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Giữ hàng cho đơn hàng bằng bộ đếm variant_availability theo từng phiên bản sản phẩm.
+ * <p>
+ * Mỗi phiên bản được trừ bằng một câu UPDATE có điều kiện available >= quantity, nên hai người mua
+ * không thể cùng lấy đơn vị cuối cùng, và chỉ những đơn hàng có chung phiên bản mới phải chờ khóa dòng của nhau.
+ * Các phiên bản của một đơn hàng luôn được trừ theo thứ tự id tăng dần để hai đơn hàng không khóa chéo nhau.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private static final int RESERVED = 1;
+    private static final int CONSUMED = 2;
+    private static final int RELEASED = 3;
+
+    private static final int EXPIRED_ORDERS_PER_RUN = 200;
+
+    private final VariantAvailabilityRepository variantAvailabilityRepository;
+    private final StockReservationRepository stockReservationRepository;
+    private final OrderRepository orderRepository;
+    private final FlashSaleService flashSaleService;
+    private final BestSellerService bestSellerService;
+    private final PlatformTransactionManager transactionManager;
+
+    @Override
+    public void checkAvailable(Order order) {
+        Map<Long, Integer> quantities = toQuantities(order);
+
+        Map<Long, Integer> availables = variantAvailabilityRepository.findAllById(quantities.keySet()).stream()
+                .collect(Collectors.toMap(VariantAvailability::getVariantId, VariantAvailability::getAvailable));
+
+        quantities.forEach((variantId, quantity) -> {
+            if (availables.getOrDefault(variantId, 0) < quantity) {
+                throw new RuntimeException(String.format("Variant with id %s does not have enough stock", variantId));
+            }
+        });
+    }
+
+    @Override
+    @Transactional
+    public void reserve(Order order, @Nullable Duration ttl) {
+        Instant expiresAt = ttl == null ? null : Instant.now().plus(ttl);
+
+        toQuantities(order).forEach((variantId, quantity) -> {
+            if (variantAvailabilityRepository.decrement(variantId, quantity) == 0) {
+                throw new RuntimeException(String.format("Variant with id %s does not have enough stock", variantId));
+            }
+        });
+
+        List<StockReservation> reservations = order.getOrderVariants().stream()
+                .map(orderVariant -> new StockReservation()
+                        .setOrder(order)
+                        .setVariant(orderVariant.getVariant())
+                        .setQuantity(orderVariant.getQuantity())
+                        .setStatus(RESERVED)
+                        .setExpiresAt(expiresAt))
+                .collect(Collectors.toList());
+
+        stockReservationRepository.saveAll(reservations);
+    }
+
+    @Override
+    @Transactional
+    public boolean extend(Order order, @Nullable Duration ttl) {
+        Instant expiresAt = ttl == null ? null : Instant.now().plus(ttl);
+
+        // Đơn hàng tạo trước khi có cơ chế giữ hàng thì không có reservation nào
+        return stockReservationRepository.updateExpiresAt(order.getId(), expiresAt) > 0
+                || !stockReservationRepository.existsByOrder_Id(order.getId());
+    }
+
+    @Override
+    @Transactional
+    public void release(Order order) {
+        // Chỉ trả suất flash sale khi hàng thực sự được trả lại, tránh trả hai lần cho cùng một đơn
+        if (close(order, RELEASED) > 0) {
+            flashSaleService.release(order);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void consume(Order order) {
+        close(order, CONSUMED);
+    }
+
+    @Override
+    @Transactional
+    public void adjust(Long variantId, int delta) {
+        if (delta != 0) {
+            variantAvailabilityRepository.increment(variantId, delta);
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelay = 60000)
+    public void releaseExpired() {
+        List<Long> orderIds = stockReservationRepository.findExpiredOrderIds(Instant.now(), PageRequest.of(0, EXPIRED_ORDERS_PER_RUN));
+
+        // Mỗi đơn hàng một giao dịch ngắn, không giữ khóa variant_availability của cả lượt quét
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        orderIds.forEach(orderId -> transactionTemplate.executeWithoutResult(status -> releaseExpired(orderId)));
+
+        if (!orderIds.isEmpty()) {
+            log.info("Released expired stock reservations of {} orders", orderIds.size());
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuildAvailability() {
+        int rows = variantAvailabilityRepository.rebuild();
+        log.info("Rebuilt variant_availability, {} rows affected", rows);
+    }
+
+    private void releaseExpired(Long orderId) {
+        Instant now = Instant.now();
+        int releasedCount = 0;
+
+        for (StockReservation reservation : stockReservationRepository.findByOrder_IdAndStatus(orderId, RESERVED)) {
+            // Đơn vừa được thanh toán (extend bỏ thời hạn) thì điều kiện hết hạn không còn đúng
+            if (stockReservationRepository.closeIfExpired(reservation.getId(), now) == 1) {
+                variantAvailabilityRepository.increment(reservation.getVariant().getId(), reservation.getQuantity());
+                releasedCount++;
+            }
+        }
+
+        if (releasedCount > 0) {
+            orderRepository.findById(orderId)
+                    .filter(order -> order.getStatus() == 1 && order.getPaymentStatus() == 1)
+                    .ifPresent(order -> {
+                        order.setStatus(5); // Status 5: Hủy do quá hạn thanh toán
+                        orderRepository.save(order);
+                        flashSaleService.release(order);
+                        bestSellerService.recordCancelledOrder(order);
+                    });
+        }
+    }
+
+    private int close(Order order, int status) {
+        int closedCount = 0;
+
+        for (StockReservation reservation : stockReservationRepository.findByOrder_IdAndStatus(order.getId(), RESERVED)) {
+            if (stockReservationRepository.close(reservation.getId(), status) == 1) {
+                variantAvailabilityRepository.increment(reservation.getVariant().getId(), reservation.getQuantity());
+                closedCount++;
+            }
+        }
+
+        return closedCount;
+    }
+
+    private static Map<Long, Integer> toQuantities(Order order) {
+        // TreeMap: thứ tự id tăng dần
+        return order.getOrderVariants().stream()
+                .collect(Collectors.toMap(orderVariant -> orderVariant.getVariant().getId(), OrderVariant::getQuantity,
+                        Integer::sum, TreeMap::new));
+    }
+
+}
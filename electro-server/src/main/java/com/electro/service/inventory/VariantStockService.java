@@ -0,0 +1,33 @@
+package com.electro.service.inventory;
+
+import com.electro.dto.inventory.VariantStockVerificationResponse;
+import com.electro.entity.inventory.Docket;
+import com.electro.entity.inventory.DocketVariant;
+
+public interface VariantStockService {
+
+    /**
+     * Cộng phần đóng góp của docket (theo type, status và số lượng hiện tại) vào variant_stock
+     */
+    void apply(Docket docket);
+
+    /**
+     * Trừ phần đóng góp của docket khỏi variant_stock, cần gọi trước khi docket bị sửa hoặc xóa
+     */
+    void revert(Docket docket);
+
+    void apply(DocketVariant docketVariant);
+
+    void revert(DocketVariant docketVariant);
+
+    /**
+     * Dựng lại toàn bộ variant_stock từ lịch sử docket_variant
+     */
+    void rebuild();
+
+    /**
+     * Đối soát variant_stock với lịch sử docket_variant, trả về các dòng bị lệch
+     */
+    VariantStockVerificationResponse verify();
+
+}
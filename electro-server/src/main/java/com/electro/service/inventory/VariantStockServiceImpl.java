@@ -0,0 +1,185 @@
+package com.electro.service.inventory;
+
+import com.electro.dto.inventory.VariantStockVerificationResponse;
+import com.electro.entity.inventory.Docket;
+import com.electro.entity.inventory.DocketVariant;
+import com.electro.entity.inventory.VariantStock;
+import com.electro.entity.inventory.VariantStockKey;
+import com.electro.projection.inventory.SimpleVariantStock;
+import com.electro.repository.ProjectionRepository;
+import com.electro.repository.inventory.VariantStockRepository;
+import com.electro.repository.inventory.WarehouseRepository;
+import com.electro.repository.product.VariantRepository;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@AllArgsConstructor
+@Transactional
+@Slf4j
+public class VariantStockServiceImpl implements VariantStockService {
+
+    private VariantStockRepository variantStockRepository;
+    private VariantRepository variantRepository;
+    private WarehouseRepository warehouseRepository;
+    private ProjectionRepository projectionRepository;
+    private StockReservationService stockReservationService;
+
+    @Override
+    public void apply(Docket docket) {
+        sortedByVariantId(docket).forEach(docketVariant -> update(docket, docketVariant, 1));
+    }
+
+    @Override
+    public void revert(Docket docket) {
+        sortedByVariantId(docket).forEach(docketVariant -> update(docket, docketVariant, -1));
+    }
+
+    @Override
+    public void apply(DocketVariant docketVariant) {
+        update(docketVariant.getDocket(), docketVariant, 1);
+    }
+
+    @Override
+    public void revert(DocketVariant docketVariant) {
+        update(docketVariant.getDocket(), docketVariant, -1);
+    }
+
+    private void update(Docket docket, DocketVariant docketVariant, int sign) {
+        int quantity = sign * docketVariant.getQuantity();
+        int inventory = 0;
+        int waitingForDelivery = 0;
+        int areComing = 0;
+
+        // Phiếu Nhập và trạng thái phiếu là Hoàn thành (3)
+        if (docket.getType().equals(1) && docket.getStatus().equals(3)) {
+            inventory += quantity;
+        }
+
+        // Phiếu Xuất và trạng thái phiếu là Hoàn thành (3)
+        if (docket.getType().equals(2) && docket.getStatus().equals(3)) {
+            inventory -= quantity;
+        }
+
+        // Phiếu Xuất và trạng thái phiếu là Mới (1) hoặc Đang xử lý (2)
+        if (docket.getType().equals(2) && List.of(1, 2).contains(docket.getStatus())) {
+            waitingForDelivery += quantity;
+        }
+
+        // Phiếu Nhập và trạng thái phiếu là Mới (1) hoặc Đang xử lý (2)
+        if (docket.getType().equals(1) && List.of(1, 2).contains(docket.getStatus())) {
+            areComing += quantity;
+        }
+
+        // Phiếu Hủy (4) không ảnh hưởng tồn kho
+        if (inventory == 0 && waitingForDelivery == 0 && areComing == 0) {
+            return;
+        }
+
+        Long variantId = docketVariant.getVariant().getId();
+
+        variantStockRepository.increment(variantId, docket.getWarehouse().getId(), inventory, waitingForDelivery, areComing);
+
+        stockReservationService.adjust(variantId, inventory - waitingForDelivery);
+    }
+
+    // Các dòng phiếu luôn được ghi theo thứ tự id phiên bản tăng dần, để hai phiếu có chung phiên bản
+    // không khóa chéo nhau trên variant_stock và variant_availability
+    private static List<DocketVariant> sortedByVariantId(Docket docket) {
+        return docket.getDocketVariants().stream()
+                .sorted(Comparator.comparing(docketVariant -> docketVariant.getVariant().getId()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void rebuild() {
+        List<SimpleVariantStock> ledgers = projectionRepository.findVariantStockLedgers();
+
+        variantStockRepository.deleteAllInBatch();
+
+        List<VariantStock> variantStocks = ledgers.stream()
+                .map(ledger -> new VariantStock()
+                        .setVariantStockKey(new VariantStockKey(ledger.getVariantId(), ledger.getWarehouseId()))
+                        .setVariant(variantRepository.getById(ledger.getVariantId()))
+                        .setWarehouse(warehouseRepository.getById(ledger.getWarehouseId()))
+                        .setInventory(ledger.getInventory())
+                        .setWaitingForDelivery(ledger.getWaitingForDelivery())
+                        .setCanBeSold(ledger.getCanBeSold())
+                        .setAreComing(ledger.getAreComing()))
+                .collect(Collectors.toList());
+
+        variantStockRepository.saveAll(variantStocks);
+
+        stockReservationService.rebuildAvailability();
+
+        log.info("Rebuilt variant_stock with {} rows", variantStocks.size());
+    }
+
+    @Override
+    public VariantStockVerificationResponse verify() {
+        Map<VariantStockKey, SimpleVariantStock> ledgers = projectionRepository.findVariantStockLedgers().stream()
+                .collect(Collectors.toMap(
+                        ledger -> new VariantStockKey(ledger.getVariantId(), ledger.getWarehouseId()),
+                        Function.identity()));
+
+        Map<VariantStockKey, VariantStock> variantStocks = variantStockRepository.findAll().stream()
+                .collect(Collectors.toMap(VariantStock::getVariantStockKey, Function.identity()));
+
+        Set<VariantStockKey> keys = new HashSet<>(ledgers.keySet());
+        keys.addAll(variantStocks.keySet());
+
+        VariantStockVerificationResponse response = new VariantStockVerificationResponse();
+        response.setCheckedStocks(keys.size());
+
+        for (VariantStockKey key : keys) {
+            VariantStockVerificationResponse.VariantStockFigures expected = toFigures(ledgers.get(key));
+            VariantStockVerificationResponse.VariantStockFigures actual = toFigures(variantStocks.get(key));
+
+            if (!Objects.equals(expected, actual)) {
+                response.getDiscrepancies().add(new VariantStockVerificationResponse.VariantStockDiscrepancy()
+                        .setVariantId(key.getVariantId())
+                        .setWarehouseId(key.getWarehouseId())
+                        .setExpected(expected)
+                        .setActual(actual));
+            }
+        }
+
+        return response;
+    }
+
+    private VariantStockVerificationResponse.VariantStockFigures toFigures(SimpleVariantStock ledger) {
+        return ledger == null
+                ? toFigures(0, 0, 0, 0)
+                : toFigures(ledger.getInventory(), ledger.getWaitingForDelivery(), ledger.getCanBeSold(), ledger.getAreComing());
+    }
+
+    private VariantStockVerificationResponse.VariantStockFigures toFigures(VariantStock variantStock) {
+        return variantStock == null
+                ? toFigures(0, 0, 0, 0)
+                : toFigures(variantStock.getInventory(), variantStock.getWaitingForDelivery(),
+                variantStock.getCanBeSold(), variantStock.getAreComing());
+    }
+
+    private VariantStockVerificationResponse.VariantStockFigures toFigures(Integer inventory,
+                                                                          Integer waitingForDelivery,
+                                                                          Integer canBeSold,
+                                                                          Integer areComing) {
+        return new VariantStockVerificationResponse.VariantStockFigures()
+                .setInventory(inventory)
+                .setWaitingForDelivery(waitingForDelivery)
+                .setCanBeSold(canBeSold)
+                .setAreComing(areComing);
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.electro.service.order;
+
+import com.electro.dto.client.ClientCheckoutTicketResponse;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Optional;
+
+public interface CheckoutAdmissionService {
+
+    /**
+     * Xin vào bước tạo đơn hàng. Được vào ngay nếu người dùng đã đến lượt, hoặc hàng đợi trống và còn suất;
+     * nếu không thì người dùng được xếp vào cuối hàng đợi (nếu hàng đợi chưa đầy).
+     *
+     * @return true nếu được vào, khi đó bắt buộc gọi leave sau khi tạo đơn xong (kể cả khi lỗi)
+     */
+    boolean tryEnter(String username);
+
+    /**
+     * Trả lại suất đang giữ và cho người kế tiếp trong hàng đợi vào
+     */
+    void leave(String username);
+
+    /**
+     * Xếp người dùng vào hàng đợi, hoặc trả về vé hiện có nếu đã xếp hàng
+     */
+    ClientCheckoutTicketResponse join(String username);
+
+    /**
+     * Vé hiện tại của người dùng, dùng cho client hỏi vòng. Mỗi lần hỏi giữ cho vé không bị hủy do bỏ chờ.
+     */
+    Optional<ClientCheckoutTicketResponse> findTicket(String username);
+
+    /**
+     * Đăng ký nhận sự kiện "ticket" mỗi khi vị trí hoặc trạng thái của vé thay đổi
+     */
+    SseEmitter subscribe(String ticketToken);
+
+}
@@ -0,0 +1,338 @@
+package com.electro.service.order;
+
+import com.electro.constant.FieldName;
+import com.electro.constant.ResourceName;
+import com.electro.dto.client.ClientCheckoutTicketResponse;
+import com.electro.exception.ResourceNotFoundException;
+import com.electro.mapper.general.EventMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Phòng chờ trước bước tạo đơn hàng: tối đa maxConcurrent người dùng được giữ suất (đã đến lượt hoặc đang đặt hàng)
+ * cùng lúc, những người còn lại xếp hàng theo thứ tự đến. Giới hạn này giữ số giao dịch và số lời gọi PayPal đồng thời
+ * dưới connection pool, thay vì để mọi request cùng chờ connection rồi hết thời gian.
+ * <p>
+ * Suất được chuyển ngay cho người kế tiếp khi một người tạo đơn xong, nên thông lượng bám theo tốc độ xử lý thực tế.
+ * Người đã đến lượt mà không đặt hàng trong admissionTimeoutMs, hoặc đang chờ mà không hỏi vòng/không giữ kết nối SSE
+ * trong idleTimeoutMs, bị loại khỏi hàng. Trạng thái nằm trong bộ nhớ nên chỉ đúng khi chạy một instance ứng dụng.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CheckoutAdmissionServiceImpl implements CheckoutAdmissionService {
+
+    private static final int WAITING = 1;
+    private static final int ADMITTED = 2;
+    private static final int IN_PROGRESS = 3;
+
+    private static final long EVENTS_TIMEOUT = 30 * 60 * 1000L; // 30 minutes
+    private static final String EVENT_NAME = "ticket";
+
+    // Nên nhỏ hơn spring.datasource.hikari.maximum-pool-size (mặc định 10) để còn connection cho các request khác
+    @Value("${electro.app.checkout.maxConcurrent:8}")
+    private int maxConcurrent;
+    @Value("${electro.app.checkout.maxQueueSize:5000}")
+    private int maxQueueSize;
+    @Value("${electro.app.checkout.admissionTimeoutMs:60000}")
+    private long admissionTimeoutMs;
+    @Value("${electro.app.checkout.idleTimeoutMs:60000}")
+    private long idleTimeoutMs;
+
+    private final EventMapper eventMapper;
+
+    // Mọi trạng thái bên dưới được bảo vệ bởi khóa của this, các thao tác trong khóa không gọi I/O
+    private final Map<String, Ticket> ticketsByUsername = new HashMap<>();
+    private final Map<String, Ticket> ticketsByToken = new HashMap<>();
+    private final Deque<Ticket> waitingTickets = new ArrayDeque<>();
+    private int activeCount;
+
+    @Override
+    public boolean tryEnter(String username) {
+        List<Notice> notices = new ArrayList<>();
+        boolean entered;
+
+        synchronized (this) {
+            Ticket ticket = ticketsByUsername.get(username);
+
+            if (ticket == null) {
+                // Hàng đợi trống và còn suất thì vào thẳng, không cần xếp hàng
+                entered = waitingTickets.isEmpty() && activeCount < maxConcurrent;
+
+                if (entered) {
+                    ticket = register(username);
+                    ticket.status = IN_PROGRESS;
+                    activeCount++;
+                } else {
+                    enqueue(username);
+                }
+            } else {
+                ticket.lastSeenAt = Instant.now();
+
+                // Đang chờ, hoặc đang đặt hàng ở một request khác (bấm đặt hàng nhiều lần)
+                entered = ticket.status == ADMITTED;
+
+                if (entered) {
+                    ticket.status = IN_PROGRESS;
+                    ticket.admittedUntil = null;
+                    notices.add(new Notice(ticket.emitter, toResponse(ticket)));
+                }
+            }
+        }
+
+        send(notices);
+        return entered;
+    }
+
+    @Override
+    public void leave(String username) {
+        List<Notice> notices = new ArrayList<>();
+        SseEmitter emitter;
+
+        synchronized (this) {
+            Ticket ticket = ticketsByUsername.get(username);
+
+            if (ticket == null || ticket.status == WAITING) {
+                return;
+            }
+
+            emitter = ticket.emitter;
+            remove(ticket);
+            activeCount--;
+            admitNext(notices);
+        }
+
+        complete(emitter);
+        send(notices);
+    }
+
+    @Override
+    public synchronized ClientCheckoutTicketResponse join(String username) {
+        Ticket ticket = ticketsByUsername.get(username);
+
+        if (ticket == null) {
+            ticket = enqueue(username);
+
+            if (ticket == null) {
+                throw new RuntimeException("Checkout queue is full. Please try again later!");
+            }
+        }
+
+        ticket.lastSeenAt = Instant.now();
+        return toResponse(ticket);
+    }
+
+    @Override
+    public synchronized Optional<ClientCheckoutTicketResponse> findTicket(String username) {
+        return Optional.ofNullable(ticketsByUsername.get(username))
+                .map(ticket -> {
+                    ticket.lastSeenAt = Instant.now();
+                    return toResponse(ticket);
+                });
+    }
+
+    @Override
+    public SseEmitter subscribe(String ticketToken) {
+        SseEmitter emitter = new SseEmitter(EVENTS_TIMEOUT);
+        SseEmitter replacedEmitter;
+        ClientCheckoutTicketResponse response;
+
+        synchronized (this) {
+            Ticket ticket = ticketsByToken.get(ticketToken);
+
+            if (ticket == null) {
+                throw new ResourceNotFoundException(ResourceName.CHECKOUT_TICKET, FieldName.TOKEN, ticketToken);
+            }
+
+            replacedEmitter = ticket.emitter;
+            ticket.emitter = emitter;
+            response = toResponse(ticket);
+        }
+
+        Runnable detach = () -> detach(ticketToken, emitter);
+        emitter.onCompletion(detach);
+        emitter.onTimeout(detach);
+        emitter.onError(e -> detach.run());
+
+        complete(replacedEmitter);
+        send(List.of(new Notice(emitter, response)));
+        return emitter;
+    }
+
+    /**
+     * Thu hồi suất quá hạn, loại người bỏ chờ, cho người kế tiếp vào và gửi vị trí mới cho người đang chờ
+     */
+    @Scheduled(fixedDelay = 1000)
+    public void tick() {
+        List<Notice> notices = new ArrayList<>();
+        List<SseEmitter> expiredEmitters = new ArrayList<>();
+
+        synchronized (this) {
+            Instant now = Instant.now();
+            Instant idleBefore = now.minusMillis(idleTimeoutMs);
+
+            List<Ticket> expiredTickets = new ArrayList<>();
+
+            ticketsByUsername.values().forEach(ticket -> {
+                if (ticket.status == ADMITTED && ticket.admittedUntil.isBefore(now)) {
+                    expiredTickets.add(ticket);
+                    activeCount--;
+                } else if (ticket.status == WAITING && ticket.emitter == null && ticket.lastSeenAt.isBefore(idleBefore)) {
+                    expiredTickets.add(ticket);
+                }
+            });
+
+            if (!expiredTickets.isEmpty()) {
+                expiredTickets.forEach(ticket -> {
+                    expiredEmitters.add(ticket.emitter);
+                    remove(ticket);
+                });
+                waitingTickets.removeIf(ticket -> !ticketsByToken.containsKey(ticket.token));
+            }
+
+            admitNext(notices);
+
+            int position = 1;
+            for (Ticket ticket : waitingTickets) {
+                if (ticket.position != position) {
+                    ticket.position = position;
+                    notices.add(new Notice(ticket.emitter, toResponse(ticket)));
+                }
+                position++;
+            }
+
+            if (!expiredTickets.isEmpty()) {
+                log.debug("Removed {} expired checkout tickets, {} waiting, {} active",
+                        expiredTickets.size(), waitingTickets.size(), activeCount);
+            }
+        }
+
+        expiredEmitters.forEach(this::complete);
+        send(notices);
+    }
+
+    private Ticket register(String username) {
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), username);
+        ticketsByUsername.put(username, ticket);
+        ticketsByToken.put(ticket.token, ticket);
+        return ticket;
+    }
+
+    private Ticket enqueue(String username) {
+        if (waitingTickets.size() >= maxQueueSize) {
+            return null;
+        }
+
+        Ticket ticket = register(username);
+        ticket.status = WAITING;
+        waitingTickets.addLast(ticket);
+        ticket.position = waitingTickets.size();
+        return ticket;
+    }
+
+    private void remove(Ticket ticket) {
+        ticketsByUsername.remove(ticket.username);
+        ticketsByToken.remove(ticket.token);
+    }
+
+    private void admitNext(List<Notice> notices) {
+        while (activeCount < maxConcurrent && !waitingTickets.isEmpty()) {
+            Ticket ticket = waitingTickets.pollFirst();
+
+            // Vé đã bị loại nhưng chưa kịp xóa khỏi hàng đợi
+            if (!ticketsByToken.containsKey(ticket.token)) {
+                continue;
+            }
+
+            ticket.status = ADMITTED;
+            ticket.position = 0;
+            ticket.admittedUntil = Instant.now().plusMillis(admissionTimeoutMs);
+            activeCount++;
+            notices.add(new Notice(ticket.emitter, toResponse(ticket)));
+        }
+    }
+
+    private synchronized void detach(String ticketToken, SseEmitter emitter) {
+        Ticket ticket = ticketsByToken.get(ticketToken);
+
+        if (ticket != null && ticket.emitter == emitter) {
+            ticket.emitter = null;
+            ticket.lastSeenAt = Instant.now();
+        }
+    }
+
+    private void send(List<Notice> notices) {
+        for (Notice notice : notices) {
+            if (notice.emitter == null) {
+                continue;
+            }
+
+            try {
+                notice.emitter.send(eventMapper.toSseEventBuilder(EVENT_NAME, notice.response));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Error while sending checkout ticket event: {}", notice.response, e);
+                notice.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private void complete(SseEmitter emitter) {
+        if (emitter != null) {
+            emitter.complete();
+        }
+    }
+
+    private static ClientCheckoutTicketResponse toResponse(Ticket ticket) {
+        return new ClientCheckoutTicketResponse()
+                .setTicketToken(ticket.token)
+                .setTicketStatus(ticket.status)
+                .setTicketPosition(ticket.status == WAITING ? ticket.position : 0)
+                .setTicketAdmittedUntil(ticket.admittedUntil);
+    }
+
+    private static class Ticket {
+
+        private final String token;
+        private final String username;
+        private int status;
+        // Vị trí trong hàng đợi, tính lại mỗi lần tick
+        private int position;
+        private Instant admittedUntil;
+        private Instant lastSeenAt = Instant.now();
+        private SseEmitter emitter;
+
+        private Ticket(String token, String username) {
+            this.token = token;
+            this.username = username;
+        }
+
+    }
+
+    private static class Notice {
+
+        private final SseEmitter emitter;
+        private final ClientCheckoutTicketResponse response;
+
+        private Notice(SseEmitter emitter, ClientCheckoutTicketResponse response) {
+            this.emitter = emitter;
+            this.response = response;
+        }
+
+    }
+
+}
@@ -1,12 +1,25 @@
 package com.electro.service.order;
 
 import com.electro.dto.client.ClientConfirmedOrderResponse;
+import com.electro.dto.client.ClientOrderPreviewResponse;
 import com.electro.dto.client.ClientSimpleOrderRequest;
+import com.electro.dto.order.OrderRequest;
+import com.electro.dto.order.OrderResponse;
+import com.electro.service.CursorCrudService;
 
-public interface OrderService {
+/**
+ * Các thao tác CRUD phục vụ trang quản trị (/api/orders), hủy hoặc xóa đơn hàng ở đây cũng trả lại hàng đã giữ,
+ * suất flash sale và phần điểm bán chạy giống như khi khách hàng tự hủy đơn
+ */
+public interface OrderService extends CursorCrudService<Long, OrderRequest, OrderResponse> {
 
     void cancelOrder(String code);
 
+    /**
+     * Báo giá cho giỏ hàng hiện tại của người dùng, tính giống hệt createClientOrder nhưng không tạo đơn hàng
+     */
+    ClientOrderPreviewResponse previewClientOrder();
+
     ClientConfirmedOrderResponse createClientOrder(ClientSimpleOrderRequest request);
 
     void captureTransactionPaypal(String paypalOrderId, String payerId);
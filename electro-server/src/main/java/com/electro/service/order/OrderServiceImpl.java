@@ -4,8 +4,14 @@ import com.electro.config.payment.paypal.PayPalHttpClient;
 import com.electro.constant.AppConstants;
 import com.electro.constant.FieldName;
 import com.electro.constant.ResourceName;
+import com.electro.constant.SearchFields;
+import com.electro.dto.CursorResponse;
+import com.electro.dto.ListResponse;
 import com.electro.dto.client.ClientConfirmedOrderResponse;
+import com.electro.dto.client.ClientOrderPreviewResponse;
 import com.electro.dto.client.ClientSimpleOrderRequest;
+import com.electro.dto.order.OrderRequest;
+import com.electro.dto.order.OrderResponse;
 import com.electro.dto.payment.OrderIntent;
 import com.electro.dto.payment.OrderStatus;
 import com.electro.dto.payment.PaymentLandingPage;
@@ -15,26 +21,32 @@ import com.electro.dto.waybill.GhnCancelOrderRequest;
 import com.electro.dto.waybill.GhnCancelOrderResponse;
 import com.electro.entity.authentication.User;
 import com.electro.entity.cart.Cart;
+import com.electro.entity.cart.CartVariant;
 import com.electro.entity.cashbook.PaymentMethodType;
 import com.electro.entity.general.Notification;
 import com.electro.entity.general.NotificationType;
 import com.electro.entity.order.Order;
 import com.electro.entity.order.OrderResource;
 import com.electro.entity.order.OrderVariant;
-import com.electro.entity.promotion.Promotion;
 import com.electro.entity.waybill.Waybill;
 import com.electro.entity.waybill.WaybillLog;
 import com.electro.exception.ResourceNotFoundException;
 import com.electro.mapper.client.ClientOrderMapper;
 import com.electro.mapper.general.NotificationMapper;
+import com.electro.mapper.order.OrderMapper;
+import com.electro.mapper.promotion.PromotionMapper;
+import com.electro.repository.KeysetRepository;
 import com.electro.repository.authentication.UserRepository;
 import com.electro.repository.cart.CartRepository;
 import com.electro.repository.general.NotificationRepository;
 import com.electro.repository.order.OrderRepository;
-import com.electro.repository.promotion.PromotionRepository;
 import com.electro.repository.waybill.WaybillLogRepository;
 import com.electro.repository.waybill.WaybillRepository;
+import com.electro.service.general.ListCacheService;
 import com.electro.service.general.NotificationService;
+import com.electro.service.inventory.StockReservationService;
+import com.electro.service.product.BestSellerService;
+import com.electro.service.promotion.FlashSaleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.bytebuddy.utility.RandomString;
@@ -52,7 +64,11 @@ import org.springframework.web.client.RestTemplate;
 import javax.transaction.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -69,20 +85,95 @@ public class OrderServiceImpl implements OrderService {
     private String ghnApiPath;
 
     private final OrderRepository orderRepository;
+    private final OrderMapper orderMapper;
+    private final KeysetRepository keysetRepository;
+    private final ListCacheService listCacheService;
     private final WaybillRepository waybillRepository;
     private final WaybillLogRepository waybillLogRepository;
     private final UserRepository userRepository;
     private final CartRepository cartRepository;
-    private final PromotionRepository promotionRepository;
+    private final PricingEngine pricingEngine;
+    private final FlashSaleService flashSaleService;
+    private final BestSellerService bestSellerService;
+    private final StockReservationService stockReservationService;
 
     private final PayPalHttpClient payPalHttpClient;
     private final ClientOrderMapper clientOrderMapper;
+    private final PromotionMapper promotionMapper;
 
     private final NotificationRepository notificationRepository;
     private final NotificationService notificationService;
     private final NotificationMapper notificationMapper;
 
     private static final int USD_VND_RATE = 23_000;
+    // Thời gian giữ hàng cho đơn PayPal chưa thanh toán, quá hạn thì đơn bị hủy và hàng được trả lại
+    private static final Duration PAYPAL_RESERVATION_TTL = Duration.ofMinutes(30);
+
+    @Override
+    public ListResponse<OrderResponse> findAll(int page, int size, String sort, String filter, String search, boolean all) {
+        return listCacheService.getOrLoad(ResourceName.ORDER, Order.class, page, size, sort, filter, search, all,
+                () -> defaultFindAll(page, size, sort, filter, search, all, SearchFields.ORDER, orderRepository, orderMapper));
+    }
+
+    @Override
+    public CursorResponse<OrderResponse> findAllByCursor(String cursor, int size, String sort, String filter, String search) {
+        return defaultFindAllByCursor(cursor, size, sort, filter, search, SearchFields.ORDER, orderRepository, keysetRepository, orderMapper);
+    }
+
+    @Override
+    public OrderResponse findById(Long id) {
+        return defaultFindById(id, orderRepository, orderMapper, ResourceName.ORDER);
+    }
+
+    @Override
+    public OrderResponse save(OrderRequest request) {
+        return defaultSave(request, orderRepository, orderMapper);
+    }
+
+    @Override
+    public OrderResponse save(Long id, OrderRequest request) {
+        Order order = orderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(ResourceName.ORDER, FieldName.ID, id));
+
+        int previousStatus = order.getStatus();
+        order = orderRepository.save(orderMapper.partialUpdate(order, request));
+
+        // Quản trị viên chuyển đơn sang trạng thái Hủy (status 5)
+        if (previousStatus != 5 && order.getStatus() == 5) {
+            releaseCancelledOrder(order);
+        }
+
+        return orderMapper.entityToResponse(order);
+    }
+
+    @Override
+    public void delete(Long id) {
+        Order order = orderRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException(ResourceName.ORDER, FieldName.ID, id));
+        deleteOrder(order);
+    }
+
+    @Override
+    public void delete(List<Long> ids) {
+        orderRepository.findAllById(ids).forEach(this::deleteOrder);
+    }
+
+    private void deleteOrder(Order order) {
+        // Đơn chưa giao và chưa hủy: trả lại hàng như khi hủy, các dòng stock_reservation bị xóa theo đơn (ON DELETE CASCADE)
+        if (order.getStatus() < 4) {
+            releaseCancelledOrder(order);
+        }
+
+        orderRepository.delete(order);
+    }
+
+    /**
+     * Trả lại hàng đã giữ cùng suất flash sale và trừ phần điểm bán chạy đã cộng lúc tạo đơn
+     */
+    private void releaseCancelledOrder(Order order) {
+        stockReservationService.release(order);
+        bestSellerService.recordCancelledOrder(order);
+    }
 
     @Override
     public void cancelOrder(String code) {
@@ -93,6 +184,7 @@ public class OrderServiceImpl implements OrderService {
         if (order.getStatus() < 3) {
             order.setStatus(5); // Status 5 là trạng thái Hủy
             orderRepository.save(order);
+            releaseCancelledOrder(order);
 
             Waybill waybill = waybillRepository.findByOrderId(order.getId()).orElse(null);
 
@@ -136,6 +228,34 @@ public class OrderServiceImpl implements OrderService {
         }
     }
 
+    @Override
+    public ClientOrderPreviewResponse previewClientOrder() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        String username = authentication.getName();
+
+        Cart cart = cartRepository.findByUsername(username)
+                .orElseThrow(() -> new ResourceNotFoundException(ResourceName.CART, FieldName.USERNAME, username));
+
+        PriceQuote quote = pricingEngine.quote(toQuantities(cart));
+
+        return new ClientOrderPreviewResponse()
+                .setPreviewItems(quote.getLines().stream()
+                        .map(line -> new ClientOrderPreviewResponse.ClientOrderPreviewItemResponse()
+                                .setPreviewItemVariantId(line.getVariant().getId())
+                                .setPreviewItemQuantity(line.getQuantity())
+                                .setPreviewItemListPrice(line.getListPrice())
+                                .setPreviewItemPrice(line.getPrice())
+                                .setPreviewItemAmount(line.getAmount())
+                                .setPreviewItemPromotion(line.getPromotion() == null
+                                        ? null
+                                        : promotionMapper.entityToClientResponse(line.getPromotion())))
+                        .collect(Collectors.toList()))
+                .setPreviewTotalAmount(quote.getTotalAmount())
+                .setPreviewTax(quote.getTax())
+                .setPreviewShippingCost(quote.getShippingCost())
+                .setPreviewTotalPay(quote.getTotalPay());
+    }
+
     @Override
     public ClientConfirmedOrderResponse createClientOrder(ClientSimpleOrderRequest request) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -160,47 +280,38 @@ public class OrderServiceImpl implements OrderService {
         order.setOrderResource((OrderResource) new OrderResource().setId(1L)); // Default OrderResource
         order.setUser(user);
 
-        order.setOrderVariants(cart.getCartVariants().stream()
-                .map(cartVariant -> {
-                    Promotion promotion = promotionRepository
-                            .findActivePromotionByProductId(cartVariant.getVariant().getProduct().getId())
-                            .stream()
-                            .findFirst()
-                            .orElse(null);
+        // Giá, khuyến mãi và tổng tiền tính chung một chỗ với giỏ hàng và báo giá
+        PriceQuote quote = pricingEngine.quote(toQuantities(cart));
 
-                    double currentPrice = calculateDiscountedPrice(cartVariant.getVariant().getPrice(),
-                            promotion == null ? 0 : promotion.getPercent());
+        order.setOrderVariants(quote.getLines().stream()
+                .map(line -> {
+                    // Lấy suất flash sale, giao dịch rollback (kể cả do lỗi ở bước sau) thì suất được trả lại
+                    if (line.getPromotion() != null && !flashSaleService
+                            .claim(line.getPromotion(), line.getVariant().getId(), line.getQuantity())) {
+                        throw new RuntimeException(String.format("Flash sale quota of variant with id %s is not enough",
+                                line.getVariant().getId()));
+                    }
 
                     return new OrderVariant()
                             .setOrder(order)
-                            .setVariant(cartVariant.getVariant())
-                            .setPrice(BigDecimal.valueOf(currentPrice))
-                            .setQuantity(cartVariant.getQuantity())
-                            .setAmount(BigDecimal.valueOf(currentPrice).multiply(BigDecimal.valueOf(cartVariant.getQuantity())));
+                            .setVariant(line.getVariant())
+                            .setPrice(line.getPrice())
+                            .setQuantity(line.getQuantity())
+                            .setAmount(line.getAmount())
+                            .setPromotion(line.getPromotion());
                 })
                 .collect(Collectors.toSet()));
 
-        // Calculate price values
-        // TODO: Vấn đề khuyến mãi
-        BigDecimal totalAmount = BigDecimal.valueOf(order.getOrderVariants().stream()
-                .mapToDouble(orderVariant -> orderVariant.getAmount().doubleValue())
-                .sum());
-
-        BigDecimal tax = BigDecimal.valueOf(AppConstants.DEFAULT_TAX);
-
-        BigDecimal shippingCost = BigDecimal.ZERO;
-
-        BigDecimal totalPay = totalAmount
-                .add(totalAmount.multiply(tax).setScale(0, RoundingMode.HALF_UP))
-                .add(shippingCost);
-
-        order.setTotalAmount(totalAmount);
-        order.setTax(tax);
-        order.setShippingCost(shippingCost);
-        order.setTotalPay(totalPay);
+        order.setTotalAmount(quote.getTotalAmount());
+        order.setTax(quote.getTax());
+        order.setShippingCost(quote.getShippingCost());
+        order.setTotalPay(quote.getTotalPay());
         order.setPaymentMethodType(request.getPaymentMethodType());
         order.setPaymentStatus(1); // Status 1: Chưa thanh toán
 
+        // Từ chối sớm khi đã hết hàng, trước khi tạo giao dịch PayPal
+        stockReservationService.checkAvailable(order);
+
         // (2) Tạo response
         ClientConfirmedOrderResponse response = new ClientConfirmedOrderResponse();
 
@@ -253,10 +364,17 @@ public class OrderServiceImpl implements OrderService {
             throw new RuntimeException("Cannot identify payment method");
         }
 
-        // (4) Vô hiệu cart
+        // (4) Giữ hàng, đặt sau bước gọi PayPal để khóa dòng variant_availability chỉ kéo dài tới lúc commit
+        stockReservationService.reserve(order,
+                request.getPaymentMethodType() == PaymentMethodType.PAYPAL ? PAYPAL_RESERVATION_TTL : null);
+
+        // (5) Vô hiệu cart
         cart.setStatus(2); // Status 2: Vô hiệu lực
         cartRepository.save(cart);
 
+        // (6) Cập nhật xếp hạng bán chạy
+        bestSellerService.recordCreatedOrder(order);
+
         return response;
     }
 
@@ -265,6 +383,12 @@ public class OrderServiceImpl implements OrderService {
         Order order = orderRepository.findByPaypalOrderId(paypalOrderId)
                 .orElseThrow(() -> new ResourceNotFoundException(ResourceName.ORDER, FieldName.PAYPAL_ORDER_ID, paypalOrderId));
 
+        // Bỏ thời hạn giữ hàng trước khi capture, để đơn không bị hủy do hết hạn trong lúc chờ PayPal
+        if (!stockReservationService.extend(order, null)) {
+            throw new RuntimeException(String
+                    .format("Reserved stock of order with code %s has expired. Please place the order again!", order.getCode()));
+        }
+
         order.setPaypalOrderStatus(OrderStatus.APPROVED.toString());
 
         try {
@@ -289,13 +413,19 @@ public class OrderServiceImpl implements OrderService {
                     notificationMapper.entityToResponse(notification));
         } catch (Exception e) {
             log.error("Cannot capture transaction: {0}", e);
+            // Chưa thanh toán được thì giữ hàng thêm một khoảng để người mua thử lại
+            stockReservationService.extend(order, PAYPAL_RESERVATION_TTL);
         }
 
         orderRepository.save(order);
     }
 
-    private Double calculateDiscountedPrice(Double price, Integer discount) {
-        return price * (100 - discount) / 100;
+    private static Map<Long, Integer> toQuantities(Cart cart) {
+        // Sắp theo thời điểm thêm vào giỏ, giống thứ tự hiển thị giỏ hàng
+        return cart.getCartVariants().stream()
+                .sorted(Comparator.comparing(CartVariant::getCreatedAt))
+                .collect(Collectors.toMap(cartVariant -> cartVariant.getVariant().getId(), CartVariant::getQuantity,
+                        Integer::sum, LinkedHashMap::new));
     }
 
 }
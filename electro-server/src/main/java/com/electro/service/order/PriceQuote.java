@@ -0,0 +1,38 @@
+package com.electro.service.order;
+
+import com.electro.entity.product.Variant;
+import com.electro.entity.promotion.Promotion;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.lang.Nullable;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Kết quả tính giá của PricingEngine, các dòng giữ đúng thứ tự đầu vào
+ */
+@Data
+@AllArgsConstructor
+public class PriceQuote {
+    private List<Line> lines;
+    private BigDecimal totalAmount;
+    // Thuế suất, giống Order.tax
+    private BigDecimal tax;
+    private BigDecimal shippingCost;
+    private BigDecimal totalPay;
+
+    @Data
+    @AllArgsConstructor
+    public static class Line {
+        private Variant variant;
+        private Integer quantity;
+        // Giá niêm yết của phiên bản
+        private BigDecimal listPrice;
+        @Nullable
+        private Promotion promotion;
+        // Giá sau khuyến mãi
+        private BigDecimal price;
+        private BigDecimal amount;
+    }
+}
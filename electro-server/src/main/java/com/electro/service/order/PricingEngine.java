@@ -0,0 +1,13 @@
+package com.electro.service.order;
+
+import java.util.Map;
+
+public interface PricingEngine {
+
+    /**
+     * Tính giá, khuyến mãi đang hoạt động, thuế và tổng tiền cho các dòng (variantId -> quantity) bằng một truy vấn,
+     * không phụ thuộc số dòng. Dùng chung cho giỏ hàng, xem trước đơn hàng và tạo đơn hàng.
+     */
+    PriceQuote quote(Map<Long, Integer> quantities);
+
+}
@@ -0,0 +1,76 @@
+package com.electro.service.order;
+
+import com.electro.constant.AppConstants;
+import com.electro.constant.FieldName;
+import com.electro.constant.ResourceName;
+import com.electro.entity.product.Variant;
+import com.electro.entity.promotion.Promotion;
+import com.electro.exception.ResourceNotFoundException;
+import com.electro.repository.product.VariantRepository;
+import com.electro.service.promotion.PromotionIndexService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Chi phí cố định cho mỗi lần tính: một truy vấn tải các phiên bản kèm sản phẩm, khuyến mãi đọc từ chỉ mục
+ * trong bộ nhớ (PromotionIndexService). Mọi phép tính tiền dùng BigDecimal, giá sau khuyến mãi giữ 5 chữ số thập phân
+ * như cột DECIMAL(15,5), riêng tiền thuế làm tròn tới đồng như trước đây.
+ */
+@Service
+@RequiredArgsConstructor
+public class PricingEngineImpl implements PricingEngine {
+
+    private static final BigDecimal ONE_HUNDRED = BigDecimal.valueOf(100);
+    private static final int PRICE_SCALE = 5;
+
+    private final VariantRepository variantRepository;
+    private final PromotionIndexService promotionIndexService;
+
+    @Override
+    public PriceQuote quote(Map<Long, Integer> quantities) {
+        Map<Long, Variant> variants = quantities.isEmpty()
+                ? Map.of()
+                : variantRepository.findAllWithProductByIdIn(quantities.keySet()).stream()
+                .collect(Collectors.toMap(Variant::getId, Function.identity()));
+
+        List<PriceQuote.Line> lines = new ArrayList<>();
+        BigDecimal totalAmount = BigDecimal.ZERO;
+
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Variant variant = variants.get(entry.getKey());
+
+            if (variant == null) {
+                throw new ResourceNotFoundException(ResourceName.VARIANT, FieldName.ID, entry.getKey());
+            }
+
+            Promotion promotion = promotionIndexService.findActivePromotion(variant.getProduct().getId()).orElse(null);
+
+            BigDecimal listPrice = BigDecimal.valueOf(variant.getPrice());
+            BigDecimal price = promotion == null
+                    ? listPrice
+                    : listPrice.multiply(BigDecimal.valueOf(100 - promotion.getPercent()))
+                    .divide(ONE_HUNDRED, PRICE_SCALE, RoundingMode.HALF_UP);
+            BigDecimal amount = price.multiply(BigDecimal.valueOf(entry.getValue()));
+
+            lines.add(new PriceQuote.Line(variant, entry.getValue(), listPrice, promotion, price, amount));
+            totalAmount = totalAmount.add(amount);
+        }
+
+        BigDecimal tax = BigDecimal.valueOf(AppConstants.DEFAULT_TAX);
+        BigDecimal shippingCost = BigDecimal.ZERO;
+        BigDecimal totalPay = totalAmount
+                .add(totalAmount.multiply(tax).setScale(0, RoundingMode.HALF_UP))
+                .add(shippingCost);
+
+        return new PriceQuote(lines, totalAmount, tax, shippingCost, totalPay);
+    }
+
+}
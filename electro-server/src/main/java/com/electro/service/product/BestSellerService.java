@@ -0,0 +1,40 @@
+package com.electro.service.product;
+
+import com.electro.entity.order.Order;
+
+import java.util.List;
+
+public interface BestSellerService {
+
+    /**
+     * @return id tối đa `limit` sản phẩm bán chạy nhất theo số lượng bán có suy giảm theo thời gian, lấy từ bộ nhớ
+     */
+    List<Long> findTopProductIds(int limit);
+
+    /**
+     * Cộng số lượng của đơn hàng vừa tạo (với trọng số thấp) vào điểm bán chạy, sau khi transaction commit
+     */
+    void recordCreatedOrder(Order order);
+
+    /**
+     * Cộng phần trọng số còn lại khi đơn hàng giao thành công, sau khi transaction commit
+     */
+    void recordDeliveredOrder(Order order);
+
+    /**
+     * Trừ lại phần đã cộng lúc tạo đơn khi đơn hàng chưa giao bị hủy, hết hạn thanh toán hoặc giao thất bại,
+     * sau khi transaction commit
+     */
+    void recordCancelledOrder(Order order);
+
+    /**
+     * Ghi điểm đã thay đổi của các sản phẩm xuống cột product.best_selling_score
+     */
+    void flush();
+
+    /**
+     * Nạp điểm từ cột product.best_selling_score, nếu chưa có điểm nào thì tính một lần từ lịch sử đơn hàng
+     */
+    void load();
+
+}
@@ -0,0 +1,235 @@
+package com.electro.service.product;
+
+import com.electro.entity.order.Order;
+import com.electro.entity.order.OrderVariant;
+import com.electro.entity.product.Product;
+import com.electro.projection.product.ProductScore;
+import com.electro.repository.order.OrderVariantRepository;
+import com.electro.repository.product.ProductRepository;
+import com.electro.service.general.ListCacheService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.transaction.Transactional;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Xếp hạng bán chạy theo số lượng bán có suy giảm theo hàm mũ (chu kỳ bán rã HALF_LIFE).
+ * <p>
+ * Thay vì giảm điểm của mọi sản phẩm theo thời gian, mỗi lượt bán tại thời điểm t được cộng vào với trọng số
+ * e^(λ(t - EPOCH)) và điểm được giữ dưới dạng logarit để không tràn số. Thứ tự giữa các sản phẩm vì vậy không đổi
+ * khi thời gian trôi, điểm chỉ tăng (trừ khi đơn hàng bị hủy), nên tập TOP_K sản phẩm dẫn đầu được duy trì tăng dần
+ * mà không cần sắp xếp lại.
+ * Điểm được ghi định kỳ xuống cột product.best_selling_score để findByParams sắp xếp theo `best-selling`.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BestSellerServiceImpl implements BestSellerService {
+
+    private static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+    private static final Duration HALF_LIFE = Duration.ofDays(7);
+    private static final double LAMBDA = Math.log(2) / HALF_LIFE.getSeconds();
+
+    // Đơn hàng mới tạo được tính một phần, phần còn lại được cộng khi giao thành công
+    private static final double CREATED_WEIGHT = 0.3;
+    private static final double DELIVERED_WEIGHT = 1.0 - CREATED_WEIGHT;
+
+    private static final int TOP_K = 100;
+
+    private final ProductRepository productRepository;
+    private final OrderVariantRepository orderVariantRepository;
+    private final ListCacheService listCacheService;
+
+    // Id sản phẩm -> điểm dạng logarit
+    private final Map<Long, Double> scores = new HashMap<>();
+    private final TreeSet<Long> topProductIds = new TreeSet<>(Comparator
+            .comparing((Long productId) -> scores.get(productId)).reversed()
+            .thenComparing(Comparator.naturalOrder()));
+    private final Set<Long> dirtyProductIds = new HashSet<>();
+
+    @Override
+    public synchronized List<Long> findTopProductIds(int limit) {
+        return topProductIds.stream().limit(limit).collect(Collectors.toList());
+    }
+
+    @Override
+    public void recordCreatedOrder(Order order) {
+        // Tính theo thời điểm tạo đơn để khi hủy có thể trừ lại đúng phần đã cộng
+        record(order, CREATED_WEIGHT, order.getCreatedAt());
+    }
+
+    @Override
+    public void recordDeliveredOrder(Order order) {
+        record(order, DELIVERED_WEIGHT, null);
+    }
+
+    @Override
+    public void recordCancelledOrder(Order order) {
+        Map<Long, Integer> productQuantities = toProductQuantities(order);
+        Instant createdAt = order.getCreatedAt();
+
+        afterCommit(() -> {
+            synchronized (this) {
+                productQuantities.forEach((productId, quantity) ->
+                        subtract(productId, logIncrement(quantity * CREATED_WEIGHT, createdAt)));
+            }
+        });
+    }
+
+    @Override
+    @Scheduled(fixedDelay = 300000)
+    @EventListener(ContextClosedEvent.class)
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void flush() {
+        Map<Long, Double> changedScores;
+
+        synchronized (this) {
+            // Sản phẩm bị trừ hết điểm không còn trong `scores`, cột được ghi về NULL
+            changedScores = new HashMap<>();
+            dirtyProductIds.forEach(productId -> changedScores.put(productId, scores.get(productId)));
+            dirtyProductIds.clear();
+        }
+
+        if (!changedScores.isEmpty()) {
+            changedScores.forEach(productRepository::updateBestSellingScore);
+            listCacheService.bumpAfterCompletion(Product.class);
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void load() {
+        List<ProductScore> productScores = productRepository.findBestSellingScores();
+
+        synchronized (this) {
+            scores.clear();
+            topProductIds.clear();
+            productScores.forEach(productScore -> add(productScore.getProductId(), productScore.getScore()));
+            dirtyProductIds.clear();
+        }
+
+        // Lần chạy đầu tiên: tính một lần từ các đơn hàng đã giao thành công
+        if (productScores.isEmpty()) {
+            orderVariantRepository.findDeliveredOrderProductQuantities().forEach(orderProductQuantity -> {
+                synchronized (this) {
+                    add(orderProductQuantity.getProductId(),
+                            logIncrement(orderProductQuantity.getQuantity(), orderProductQuantity.getOrderedAt()));
+                }
+            });
+            flush();
+        }
+
+        log.info("Loaded best seller scores of {} products", scores.size());
+    }
+
+    private void record(Order order, double weight, @Nullable Instant soldAt) {
+        Map<Long, Integer> productQuantities = toProductQuantities(order);
+
+        afterCommit(() -> {
+            Instant at = soldAt == null ? Instant.now() : soldAt;
+            synchronized (this) {
+                productQuantities.forEach((productId, quantity) -> add(productId, logIncrement(quantity * weight, at)));
+            }
+        });
+    }
+
+    private static Map<Long, Integer> toProductQuantities(Order order) {
+        return order.getOrderVariants().stream()
+                .collect(Collectors.toMap(
+                        orderVariant -> orderVariant.getVariant().getProduct().getId(),
+                        OrderVariant::getQuantity,
+                        Integer::sum));
+    }
+
+    private static void afterCommit(Runnable runnable) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runnable.run();
+                }
+            });
+        } else {
+            runnable.run();
+        }
+    }
+
+    private static double logIncrement(double quantity, Instant soldAt) {
+        return Math.log(quantity) + LAMBDA * Duration.between(EPOCH, soldAt).getSeconds();
+    }
+
+    // Gọi khi đang giữ khóa của `this`
+    private void add(Long productId, double logIncrement) {
+        // Phải bỏ ra khỏi TreeSet trước khi đổi điểm, vì TreeSet so sánh theo điểm
+        boolean wasTop = topProductIds.remove(productId);
+
+        Double current = scores.get(productId);
+        scores.put(productId, current == null ? logIncrement : logAddExp(current, logIncrement));
+        dirtyProductIds.add(productId);
+
+        // Điểm của sản phẩm khác chỉ giảm khi đơn hàng bị hủy (xem subtract), nên ở đây sản phẩm chỉ có thể đi vào
+        // tập dẫn đầu chứ không rơi ra ngoài do sản phẩm khác
+        if (wasTop || topProductIds.size() < TOP_K || scores.get(productId) > scores.get(topProductIds.last())) {
+            topProductIds.add(productId);
+            if (topProductIds.size() > TOP_K) {
+                topProductIds.pollLast();
+            }
+        }
+    }
+
+    // Gọi khi đang giữ khóa của `this`
+    private void subtract(Long productId, double logDecrement) {
+        Double current = scores.get(productId);
+
+        if (current == null) {
+            return;
+        }
+
+        boolean wasTop = topProductIds.remove(productId);
+
+        // Phần trừ không vượt quá phần đã cộng, bằng hoặc lớn hơn (sai số làm tròn) thì coi như sản phẩm hết điểm
+        if (logDecrement >= current) {
+            scores.remove(productId);
+        } else {
+            scores.put(productId, current + Math.log1p(-Math.exp(logDecrement - current)));
+        }
+        dirtyProductIds.add(productId);
+
+        if (!wasTop) {
+            return;
+        }
+
+        // Sản phẩm dẫn đầu bị giảm điểm thì chỗ trống thuộc về sản phẩm có điểm cao nhất còn lại (có thể chính nó),
+        // phải quét toàn bộ vì ngoài tập dẫn đầu không giữ thứ tự; chỉ xảy ra khi đơn hàng bị hủy
+        scores.keySet().stream()
+                .filter(candidateId -> !topProductIds.contains(candidateId))
+                .min(topProductIds.comparator())
+                .ifPresent(topProductIds::add);
+    }
+
+    // log(e^a + e^b) không tràn số
+    private static double logAddExp(double a, double b) {
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+    }
+
+}
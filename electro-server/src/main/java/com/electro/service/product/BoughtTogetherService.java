@@ -0,0 +1,23 @@
+package com.electro.service.product;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface BoughtTogetherService {
+
+    /**
+     * @return id tối đa `limit` sản phẩm hay được mua cùng với sản phẩm, nhiều đơn hàng chung nhất trước
+     */
+    List<Long> findPartners(Long productId, int limit);
+
+    /**
+     * Cộng dồn một đơn hàng vừa giao thành công vào ma trận mua cùng (sau khi transaction hiện tại commit, nếu có)
+     */
+    void recordDeliveredOrder(Collection<Long> productIds);
+
+    /**
+     * Dựng lại toàn bộ ma trận mua cùng bằng cách duyệt order_variant của các đơn hàng đã giao thành công theo từng lô
+     */
+    void rebuild();
+
+}
@@ -0,0 +1,166 @@
+package com.electro.service.product;
+
+import com.electro.projection.order.OrderProduct;
+import com.electro.repository.order.OrderRepository;
+import com.electro.repository.order.OrderVariantRepository;
+import com.electro.repository.product.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.transaction.Transactional;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Ma trận mua cùng thưa giữa các sản phẩm: ô (a, b) là số đơn hàng đã giao thành công có cả sản phẩm a và b.
+ * <p>
+ * Ma trận được dựng một lần khi khởi động bằng cách duyệt order_variant theo từng lô đơn hàng, sau đó chỉ cộng dồn
+ * từng đơn hàng khi đơn hàng chuyển sang trạng thái giao thành công, không quét lại toàn bộ lịch sử.
+ * Với mỗi sản phẩm chỉ giữ sẵn danh sách TOP_K sản phẩm mua cùng nhiều nhất để đọc nhanh.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BoughtTogetherServiceImpl implements BoughtTogetherService {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int TOP_K = 16;
+
+    private final OrderRepository orderRepository;
+    private final ProductRepository productRepository;
+    private final OrderVariantRepository orderVariantRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Id sản phẩm -> (id sản phẩm mua cùng -> số đơn hàng chung)
+    private final Map<Long, Map<Long, Integer>> coOccurrences = new HashMap<>();
+    // Id sản phẩm -> id TOP_K sản phẩm mua cùng nhiều nhất
+    private final Map<Long, List<Long>> topPartners = new HashMap<>();
+
+    @Override
+    public List<Long> findPartners(Long productId, int limit) {
+        List<Long> partnerIds;
+
+        lock.readLock().lock();
+        try {
+            partnerIds = topPartners.getOrDefault(productId, List.of());
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (partnerIds.isEmpty()) {
+            return List.of();
+        }
+
+        // Ma trận không theo dõi trạng thái sản phẩm, bỏ các sản phẩm đang ẩn (status khác 1) khi đọc
+        Set<Long> activePartnerIds = Set.copyOf(productRepository.findIdsByIdInAndStatus(partnerIds, 1));
+
+        return partnerIds.stream()
+                .filter(activePartnerIds::contains)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void recordDeliveredOrder(Collection<Long> productIds) {
+        Set<Long> orderProductIds = Set.copyOf(productIds);
+
+        Runnable record = () -> {
+            lock.writeLock().lock();
+            try {
+                addOrder(coOccurrences, orderProductIds);
+                orderProductIds.forEach(this::updateTopPartners);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+
+        // Đơn hàng có thể bị rollback, nên chỉ cộng dồn sau khi transaction commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    record.run();
+                }
+            });
+        } else {
+            record.run();
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void rebuild() {
+        Map<Long, Map<Long, Integer>> newCoOccurrences = new HashMap<>();
+        long afterOrderId = 0L;
+        int countOrders = 0;
+
+        // Duyệt theo khóa id đơn hàng thay vì OFFSET, mỗi lô chỉ tải cặp (đơn hàng, sản phẩm)
+        while (true) {
+            List<Long> orderIds = orderRepository.findDeliveredOrderIds(afterOrderId, PageRequest.of(0, BATCH_SIZE));
+
+            if (orderIds.isEmpty()) {
+                break;
+            }
+
+            orderVariantRepository.findOrderProducts(orderIds).stream()
+                    .collect(Collectors.groupingBy(OrderProduct::getOrderId,
+                            Collectors.mapping(OrderProduct::getProductId, Collectors.toSet())))
+                    .values()
+                    .forEach(orderProductIds -> addOrder(newCoOccurrences, orderProductIds));
+
+            afterOrderId = orderIds.get(orderIds.size() - 1);
+            countOrders += orderIds.size();
+        }
+
+        lock.writeLock().lock();
+        try {
+            coOccurrences.clear();
+            coOccurrences.putAll(newCoOccurrences);
+            topPartners.clear();
+            coOccurrences.keySet().forEach(this::updateTopPartners);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Rebuilt bought together matrix from {} orders with {} products", countOrders, coOccurrences.size());
+    }
+
+    private static void addOrder(Map<Long, Map<Long, Integer>> coOccurrences, Set<Long> orderProductIds) {
+        for (Long productId : orderProductIds) {
+            for (Long partnerId : orderProductIds) {
+                if (!productId.equals(partnerId)) {
+                    coOccurrences.computeIfAbsent(productId, key -> new HashMap<>()).merge(partnerId, 1, Integer::sum);
+                }
+            }
+        }
+    }
+
+    private void updateTopPartners(Long productId) {
+        Map<Long, Integer> partners = coOccurrences.getOrDefault(productId, Map.of());
+
+        if (partners.isEmpty()) {
+            topPartners.remove(productId);
+            return;
+        }
+
+        topPartners.put(productId, partners.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(TOP_K)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList()));
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.electro.service.product;
+
+import com.electro.dto.client.ClientProductResponse;
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Một mục trong cache chi tiết sản phẩm: phần đã lắp ráp (không tính dữ liệu biến động như tồn kho, khuyến mãi)
+ * kèm mã băm nội dung dùng để dựng ETag
+ */
+@Value
+public class CachedProductDetail {
+    ClientProductResponse response;
+    /**
+     * Mã băm MD5 của phần đã lắp ráp
+     */
+    String contentHash;
+    /**
+     * Id của chính sản phẩm và các sản phẩm liên quan, sửa bất kỳ sản phẩm nào trong đó đều làm mục này hết hiệu lực
+     */
+    Set<Long> productIds;
+    long expiresAt;
+}
@@ -0,0 +1,53 @@
+package com.electro.service.product;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.lang.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Nút bất biến của cây danh mục, chỉ được tạo trong CategoryTree
+ */
+@Getter
+public class CategoryNode {
+    private final Long id;
+    private final String name;
+    private final String slug;
+    @Nullable
+    private final CategoryNode parent;
+    private final int depth;
+    private final List<CategoryNode> children;
+    /**
+     * Id của mọi danh mục con cháu, không gồm chính nó
+     */
+    private final Set<Long> descendantIds;
+
+    @Getter(AccessLevel.NONE)
+    private final List<CategoryNode> mutableChildren = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    private final Set<Long> mutableDescendantIds = new HashSet<>();
+
+    CategoryNode(Long id, String name, String slug, @Nullable CategoryNode parent) {
+        this.id = id;
+        this.name = name;
+        this.slug = slug;
+        this.parent = parent;
+        this.depth = parent == null ? 0 : parent.depth + 1;
+        this.children = Collections.unmodifiableList(mutableChildren);
+        this.descendantIds = Collections.unmodifiableSet(mutableDescendantIds);
+    }
+
+    void addChild(CategoryNode child) {
+        mutableChildren.add(child);
+    }
+
+    void addDescendantId(Long descendantId) {
+        mutableDescendantIds.add(descendantId);
+    }
+
+}
@@ -0,0 +1,7 @@
+package com.electro.service.product;
+
+import com.electro.dto.product.CategoryRequest;
+import com.electro.dto.product.CategoryResponse;
+import com.electro.service.CursorCrudService;
+
+public interface CategoryService extends CursorCrudService<Long, CategoryRequest, CategoryResponse> {}
@@ -0,0 +1,69 @@
+package com.electro.service.product;
+
+import com.electro.constant.ResourceName;
+import com.electro.constant.SearchFields;
+import com.electro.dto.CursorResponse;
+import com.electro.dto.ListResponse;
+import com.electro.dto.product.CategoryRequest;
+import com.electro.dto.product.CategoryResponse;
+import com.electro.mapper.product.CategoryMapper;
+import com.electro.repository.KeysetRepository;
+import com.electro.repository.product.CategoryRepository;
+import lombok.AllArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+@AllArgsConstructor
+public class CategoryServiceImpl implements CategoryService {
+
+    private CategoryRepository categoryRepository;
+    private KeysetRepository keysetRepository;
+
+    private CategoryMapper categoryMapper;
+
+    private CategoryTreeService categoryTreeService;
+
+    @Override
+    public ListResponse<CategoryResponse> findAll(int page, int size, String sort, String filter, String search, boolean all) {
+        return defaultFindAll(page, size, sort, filter, search, all, SearchFields.CATEGORY, categoryRepository, categoryMapper);
+    }
+
+    @Override
+    public CursorResponse<CategoryResponse> findAllByCursor(String cursor, int size, String sort, String filter, String search) {
+        return defaultFindAllByCursor(cursor, size, sort, filter, search, SearchFields.CATEGORY, categoryRepository, keysetRepository, categoryMapper);
+    }
+
+    @Override
+    public CategoryResponse findById(Long id) {
+        return defaultFindById(id, categoryRepository, categoryMapper, ResourceName.CATEGORY);
+    }
+
+    @Override
+    public CategoryResponse save(CategoryRequest request) {
+        CategoryResponse categoryResponse = defaultSave(request, categoryRepository, categoryMapper);
+        categoryTreeService.rebuild();
+        return categoryResponse;
+    }
+
+    @Override
+    public CategoryResponse save(Long id, CategoryRequest request) {
+        CategoryResponse categoryResponse = defaultSave(id, request, categoryRepository, categoryMapper, ResourceName.CATEGORY);
+        categoryTreeService.rebuild();
+        return categoryResponse;
+    }
+
+    @Override
+    public void delete(Long id) {
+        categoryRepository.deleteById(id);
+        categoryTreeService.rebuild();
+    }
+
+    @Override
+    public void delete(List<Long> ids) {
+        categoryRepository.deleteAllById(ids);
+        categoryTreeService.rebuild();
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.electro.service.product;
+
+import com.electro.entity.product.Category;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Ảnh chụp bất biến của toàn bộ cây danh mục. Mỗi lần danh mục thay đổi sẽ dựng một cây mới và thay thế nguyên khối,
+ * nên có thể đọc đồng thời mà không cần khóa.
+ */
+public class CategoryTree {
+
+    public static final CategoryTree EMPTY = new CategoryTree(List.of(), Map.of(), Map.of());
+
+    private final List<CategoryNode> roots;
+    private final Map<Long, CategoryNode> nodesById;
+    private final Map<String, CategoryNode> nodesBySlug;
+
+    private CategoryTree(List<CategoryNode> roots, Map<Long, CategoryNode> nodesById, Map<String, CategoryNode> nodesBySlug) {
+        this.roots = roots;
+        this.nodesById = nodesById;
+        this.nodesBySlug = nodesBySlug;
+    }
+
+    public static CategoryTree of(List<Category> categories) {
+        Map<Long, Category> categoriesById = new HashMap<>();
+        categories.forEach(category -> categoriesById.put(category.getId(), category));
+
+        Map<Long, CategoryNode> nodesById = new HashMap<>();
+        Map<String, CategoryNode> nodesBySlug = new HashMap<>();
+        List<CategoryNode> roots = new ArrayList<>();
+
+        for (Category category : categories) {
+            CategoryNode node = toNode(category, categoriesById, nodesById);
+            nodesBySlug.put(node.getSlug(), node);
+            if (node.getParent() == null) {
+                roots.add(node);
+            }
+        }
+
+        // Giữ thứ tự con theo thứ tự của danh sách đầu vào
+        for (Category category : categories) {
+            CategoryNode node = nodesById.get(category.getId());
+            if (node.getParent() != null) {
+                node.getParent().addChild(node);
+            }
+            for (CategoryNode ancestor = node.getParent(); ancestor != null; ancestor = ancestor.getParent()) {
+                ancestor.addDescendantId(node.getId());
+            }
+        }
+
+        return new CategoryTree(Collections.unmodifiableList(roots), Map.copyOf(nodesById), Map.copyOf(nodesBySlug));
+    }
+
+    private static CategoryNode toNode(Category category, Map<Long, Category> categoriesById, Map<Long, CategoryNode> nodesById) {
+        CategoryNode node = nodesById.get(category.getId());
+
+        if (node == null) {
+            // Cha được dựng trước con để con có thể trỏ tới cha
+            Category parentCategory = category.getParentCategory() == null
+                    ? null
+                    : categoriesById.get(category.getParentCategory().getId());
+            CategoryNode parent = parentCategory == null ? null : toNode(parentCategory, categoriesById, nodesById);
+
+            node = new CategoryNode(category.getId(), category.getName(), category.getSlug(), parent);
+            nodesById.put(category.getId(), node);
+        }
+
+        return node;
+    }
+
+    public List<CategoryNode> getRoots() {
+        return roots;
+    }
+
+    public Optional<CategoryNode> findById(Long id) {
+        return Optional.ofNullable(nodesById.get(id));
+    }
+
+    public Optional<CategoryNode> findBySlug(String slug) {
+        return Optional.ofNullable(nodesBySlug.get(slug));
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.electro.service.product;
+
+public interface CategoryTreeService {
+
+    /**
+     * Cây danh mục hiện tại trong bộ nhớ
+     */
+    CategoryTree getTree();
+
+    /**
+     * Dựng lại cây danh mục từ database, thay thế cây hiện tại và đồng bộ bảng category_closure
+     */
+    void rebuild();
+
+}
@@ -0,0 +1,72 @@
+package com.electro.service.product;
+
+import com.electro.entity.product.Category;
+import com.electro.entity.product.CategoryClosure;
+import com.electro.repository.product.CategoryClosureRepository;
+import com.electro.repository.product.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryTreeServiceImpl implements CategoryTreeService {
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryClosureRepository categoryClosureRepository;
+    private final ProductDetailCacheService productDetailCacheService;
+
+    private volatile CategoryTree tree = CategoryTree.EMPTY;
+
+    @Override
+    public CategoryTree getTree() {
+        return tree;
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public synchronized void rebuild() {
+        List<Category> categories = categoryRepository.findAll(Sort.by("id"));
+        CategoryTree newTree = CategoryTree.of(categories);
+
+        // Dựng lại bảng bao đóng từ cây vừa tạo, dùng cho lọc sản phẩm theo cả nhánh danh mục
+        Map<Long, Category> categoriesById = categories.stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        List<CategoryClosure> closures = new ArrayList<>();
+
+        for (Category category : categories) {
+            newTree.findById(category.getId()).ifPresent(node -> {
+                for (CategoryNode ancestor = node; ancestor != null; ancestor = ancestor.getParent()) {
+                    CategoryClosure closure = new CategoryClosure()
+                            .setAncestor(categoriesById.get(ancestor.getId()))
+                            .setDescendant(category)
+                            .setDepth(node.getDepth() - ancestor.getDepth());
+                    closure.getCategoryClosureKey().setAncestorId(ancestor.getId());
+                    closure.getCategoryClosureKey().setDescendantId(category.getId());
+                    closures.add(closure);
+                }
+            });
+        }
+
+        categoryClosureRepository.deleteAllInBatch();
+        categoryClosureRepository.saveAll(closures);
+
+        tree = newTree;
+        // Breadcrumb danh mục nằm trong chi tiết sản phẩm đã cache
+        productDetailCacheService.invalidateAll();
+        log.info("Rebuilt category tree with {} root categories and {} closure rows", tree.getRoots().size(), closures.size());
+    }
+
+}
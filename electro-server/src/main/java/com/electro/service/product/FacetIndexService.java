@@ -0,0 +1,34 @@
+package com.electro.service.product;
+
+import com.electro.dto.client.ClientFacetResponse;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+public interface FacetIndexService {
+
+    /**
+     * Đếm số sản phẩm theo từng giá trị của mỗi facet (thương hiệu, khoảng giá, tag, thuộc tính) cho trạng thái lọc hiện tại.
+     * Số đếm của một facet áp dụng mọi điều kiện lọc trừ điều kiện của chính facet đó, để người dùng thấy được
+     * các lựa chọn khác cùng nhóm.
+     *
+     * @param properties các cặp thuộc tính dạng `code:value`
+     */
+    ClientFacetResponse findFacets(@Nullable String categorySlug,
+                                   @Nullable String search,
+                                   List<Long> brandIds,
+                                   List<Integer> priceBuckets,
+                                   List<Long> tagIds,
+                                   List<String> properties);
+
+    /**
+     * Cập nhật bitset của một sản phẩm từ database, hoặc xóa khỏi chỉ mục nếu sản phẩm không còn tồn tại
+     */
+    void index(Long productId);
+
+    /**
+     * Dựng lại toàn bộ chỉ mục từ database
+     */
+    void rebuild();
+
+}
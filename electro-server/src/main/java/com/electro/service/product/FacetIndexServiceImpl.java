@@ -0,0 +1,377 @@
+package com.electro.service.product;
+
+import com.electro.dto.client.ClientFacetResponse;
+import com.electro.entity.product.Product;
+import com.electro.entity.product.Tag;
+import com.electro.entity.product.Variant;
+import com.electro.repository.product.ProductRepository;
+import com.electro.utils.PropertyUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Chỉ mục facet dạng bitset: mỗi sản phẩm được gán một số thứ tự (ordinal), mỗi giá trị facet giữ một BitSet
+ * đánh dấu các sản phẩm có giá trị đó. Đếm facet cho một trạng thái lọc chỉ là phép giao các BitSet trong bộ nhớ.
+ * <p>
+ * Ordinal không được tái sử dụng khi xóa sản phẩm (chỉ bỏ khỏi `live`), lần dựng lại toàn bộ tiếp theo sẽ đánh số lại.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FacetIndexServiceImpl implements FacetIndexService {
+
+    // Trùng với ClientFilterResponse.filterPriceQuartiles mà giao diện dùng để hiển thị các khoảng giá
+    private static final double[] PRICE_BOUNDARIES = {10_000_000, 50_000_000};
+
+    private final ProductRepository productRepository;
+    private final ProductSearchService productSearchService;
+    private final CategoryTreeService categoryTreeService;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private int nextOrdinal = 0;
+    private final Map<Integer, FacetDocument> documents = new HashMap<>();
+    private final BitSet live = new BitSet();
+
+    private final Map<Long, BitSet> categoryBits = new HashMap<>();
+    private final Map<Long, BitSet> brandBits = new HashMap<>();
+    private final Map<Long, BitSet> tagBits = new HashMap<>();
+    private final List<BitSet> priceBucketBits = Stream.generate(BitSet::new)
+            .limit(PRICE_BOUNDARIES.length + 1)
+            .collect(Collectors.toList());
+    // Mã thuộc tính -> (giá trị -> BitSet)
+    private final Map<String, Map<String, BitSet>> propertyBits = new HashMap<>();
+
+    private final Map<Long, String> brandNames = new HashMap<>();
+    private final Map<Long, String> tagNames = new HashMap<>();
+    private final Map<String, String> propertyNames = new HashMap<>();
+
+    @Override
+    public ClientFacetResponse findFacets(@Nullable String categorySlug,
+                                          @Nullable String search,
+                                          List<Long> brandIds,
+                                          List<Integer> priceBuckets,
+                                          List<Long> tagIds,
+                                          List<String> properties) {
+        Optional<CategoryNode> category = Optional.ofNullable(categorySlug)
+                .flatMap(slug -> categoryTreeService.getTree().findBySlug(slug));
+        List<Long> searchedProductIds = search == null || search.isBlank() ? null : productSearchService.search(search);
+
+        // Gom các cặp `code:value` theo mã thuộc tính, cùng mã thì OR, khác mã thì AND
+        Map<String, Set<String>> selectedProperties = new HashMap<>();
+        properties.stream()
+                .filter(property -> property.indexOf(':') > 0)
+                .forEach(property -> selectedProperties
+                        .computeIfAbsent(property.substring(0, property.indexOf(':')), code -> new HashSet<>())
+                        .add(property.substring(property.indexOf(':') + 1)));
+
+        lock.readLock().lock();
+        try {
+            BitSet base = (BitSet) live.clone();
+
+            if (categorySlug != null) {
+                BitSet categoryMask = new BitSet();
+                category.ifPresent(node -> {
+                    Optional.ofNullable(categoryBits.get(node.getId())).ifPresent(categoryMask::or);
+                    node.getDescendantIds().forEach(id -> Optional.ofNullable(categoryBits.get(id)).ifPresent(categoryMask::or));
+                });
+                base.and(categoryMask);
+            }
+
+            if (searchedProductIds != null) {
+                BitSet searchMask = new BitSet();
+                searchedProductIds.stream().map(ordinals::get).filter(Objects::nonNull).forEach(searchMask::set);
+                base.and(searchMask);
+            }
+
+            BitSet brandMask = union(brandIds.stream().map(brandBits::get));
+            BitSet priceMask = union(priceBuckets.stream()
+                    .filter(bucket -> bucket >= 0 && bucket < priceBucketBits.size())
+                    .map(priceBucketBits::get));
+            BitSet tagMask = union(tagIds.stream().map(tagBits::get));
+            Map<String, BitSet> propertyMasks = new HashMap<>();
+            selectedProperties.forEach((code, values) -> propertyMasks.put(code, union(values.stream()
+                    .map(value -> propertyBits.getOrDefault(code, Map.of()).get(value)))));
+
+            ClientFacetResponse response = new ClientFacetResponse();
+
+            response.setFacetTotalProducts(intersect(base, brandMask, priceMask, tagMask, propertyMasks.values()).cardinality());
+
+            BitSet brandContext = intersect(base, null, priceMask, tagMask, propertyMasks.values());
+            response.setFacetBrands(brandBits.entrySet().stream()
+                    .map(entry -> new ClientFacetResponse.ClientBrandFacetResponse()
+                            .setBrandId(entry.getKey())
+                            .setBrandName(brandNames.get(entry.getKey()))
+                            .setCount(countIntersection(brandContext, entry.getValue())))
+                    .filter(facet -> facet.getCount() > 0 || brandIds.contains(facet.getBrandId()))
+                    .sorted(Comparator.comparing(ClientFacetResponse.ClientBrandFacetResponse::getBrandName))
+                    .collect(Collectors.toList()));
+
+            BitSet priceContext = intersect(base, brandMask, null, tagMask, propertyMasks.values());
+            List<ClientFacetResponse.ClientPriceBucketFacetResponse> priceFacets = new ArrayList<>();
+            for (int bucket = 0; bucket < priceBucketBits.size(); bucket++) {
+                priceFacets.add(new ClientFacetResponse.ClientPriceBucketFacetResponse()
+                        .setBucket(bucket)
+                        .setPriceFrom(bucket == 0 ? 0 : PRICE_BOUNDARIES[bucket - 1])
+                        .setPriceTo(bucket < PRICE_BOUNDARIES.length ? PRICE_BOUNDARIES[bucket] : null)
+                        .setCount(countIntersection(priceContext, priceBucketBits.get(bucket))));
+            }
+            response.setFacetPriceBuckets(priceFacets);
+
+            BitSet tagContext = intersect(base, brandMask, priceMask, null, propertyMasks.values());
+            response.setFacetTags(tagBits.entrySet().stream()
+                    .map(entry -> new ClientFacetResponse.ClientTagFacetResponse()
+                            .setTagId(entry.getKey())
+                            .setTagName(tagNames.get(entry.getKey()))
+                            .setCount(countIntersection(tagContext, entry.getValue())))
+                    .filter(facet -> facet.getCount() > 0 || tagIds.contains(facet.getTagId()))
+                    .sorted(Comparator.comparing(ClientFacetResponse.ClientTagFacetResponse::getTagName))
+                    .collect(Collectors.toList()));
+
+            List<ClientFacetResponse.ClientPropertyFacetResponse> propertyFacets = new ArrayList<>();
+            propertyBits.keySet().stream().sorted().forEach(code -> {
+                Map<String, BitSet> otherPropertyMasks = new HashMap<>(propertyMasks);
+                otherPropertyMasks.remove(code);
+                BitSet propertyContext = intersect(base, brandMask, priceMask, tagMask, otherPropertyMasks.values());
+                Set<String> selectedValues = selectedProperties.getOrDefault(code, Set.of());
+
+                List<ClientFacetResponse.ClientPropertyValueFacetResponse> valueFacets = propertyBits.get(code).entrySet().stream()
+                        .map(entry -> new ClientFacetResponse.ClientPropertyValueFacetResponse()
+                                .setValue(entry.getKey())
+                                .setCount(countIntersection(propertyContext, entry.getValue())))
+                        .filter(facet -> facet.getCount() > 0 || selectedValues.contains(facet.getValue()))
+                        .sorted(Comparator.comparing(ClientFacetResponse.ClientPropertyValueFacetResponse::getValue))
+                        .collect(Collectors.toList());
+
+                if (!valueFacets.isEmpty()) {
+                    propertyFacets.add(new ClientFacetResponse.ClientPropertyFacetResponse()
+                            .setPropertyCode(code)
+                            .setPropertyName(propertyNames.getOrDefault(code, code))
+                            .setPropertyValues(valueFacets));
+                }
+            });
+            response.setFacetProperties(propertyFacets);
+
+            return response;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void index(Long productId) {
+        Optional<FacetDocument> document = productRepository.findById(productId).map(FacetDocument::of);
+
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(productId);
+
+            if (ordinal != null) {
+                removeDocument(ordinal);
+            }
+
+            if (document.isPresent()) {
+                if (ordinal == null) {
+                    ordinal = nextOrdinal++;
+                    ordinals.put(productId, ordinal);
+                }
+                addDocument(ordinal, document.get());
+            } else if (ordinal != null) {
+                ordinals.remove(productId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void rebuild() {
+        List<FacetDocument> newDocuments = productRepository.findAll().stream()
+                .map(FacetDocument::of)
+                .collect(Collectors.toList());
+
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            documents.clear();
+            live.clear();
+            categoryBits.clear();
+            brandBits.clear();
+            tagBits.clear();
+            propertyBits.clear();
+            priceBucketBits.forEach(BitSet::clear);
+            brandNames.clear();
+            tagNames.clear();
+            propertyNames.clear();
+            nextOrdinal = 0;
+
+            for (FacetDocument document : newDocuments) {
+                int ordinal = nextOrdinal++;
+                ordinals.put(document.productId, ordinal);
+                addDocument(ordinal, document);
+            }
+
+            log.info("Rebuilt facet index with {} products, {} brands, {} tags, {} properties",
+                    newDocuments.size(), brandBits.size(), tagBits.size(), propertyBits.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addDocument(int ordinal, FacetDocument document) {
+        documents.put(ordinal, document);
+        live.set(ordinal);
+
+        Optional.ofNullable(document.categoryId)
+                .ifPresent(categoryId -> categoryBits.computeIfAbsent(categoryId, key -> new BitSet()).set(ordinal));
+        Optional.ofNullable(document.brandId).ifPresent(brandId -> {
+            brandBits.computeIfAbsent(brandId, key -> new BitSet()).set(ordinal);
+            brandNames.put(brandId, document.brandName);
+        });
+        document.tagNames.forEach((tagId, tagName) -> {
+            tagBits.computeIfAbsent(tagId, key -> new BitSet()).set(ordinal);
+            tagNames.put(tagId, tagName);
+        });
+        document.priceBuckets.forEach(bucket -> priceBucketBits.get(bucket).set(ordinal));
+        document.properties.forEach((code, values) -> values.forEach(value -> propertyBits
+                .computeIfAbsent(code, key -> new HashMap<>())
+                .computeIfAbsent(value, key -> new BitSet())
+                .set(ordinal)));
+        propertyNames.putAll(document.propertyNames);
+    }
+
+    private void removeDocument(int ordinal) {
+        FacetDocument document = documents.remove(ordinal);
+        live.clear(ordinal);
+
+        if (document == null) {
+            return;
+        }
+
+        Optional.ofNullable(document.categoryId).ifPresent(categoryId -> clear(categoryBits, categoryId, ordinal));
+        Optional.ofNullable(document.brandId).ifPresent(brandId -> clear(brandBits, brandId, ordinal));
+        document.tagNames.keySet().forEach(tagId -> clear(tagBits, tagId, ordinal));
+        document.priceBuckets.forEach(bucket -> priceBucketBits.get(bucket).clear(ordinal));
+        document.properties.forEach((code, values) -> {
+            Map<String, BitSet> valueBits = propertyBits.get(code);
+            values.forEach(value -> clear(valueBits, value, ordinal));
+            if (valueBits.isEmpty()) {
+                propertyBits.remove(code);
+            }
+        });
+    }
+
+    private static <K> void clear(Map<K, BitSet> bits, K key, int ordinal) {
+        BitSet bitSet = bits.get(key);
+        bitSet.clear(ordinal);
+        if (bitSet.isEmpty()) {
+            bits.remove(key);
+        }
+    }
+
+    /**
+     * Hợp các BitSet của những giá trị được chọn, null nếu không chọn giá trị nào (không lọc theo facet này)
+     */
+    @Nullable
+    private static BitSet union(Stream<BitSet> bitSets) {
+        List<BitSet> selected = bitSets.collect(Collectors.toList());
+
+        if (selected.isEmpty()) {
+            return null;
+        }
+
+        BitSet result = new BitSet();
+        selected.stream().filter(Objects::nonNull).forEach(result::or);
+        return result;
+    }
+
+    private static BitSet intersect(BitSet base,
+                                    @Nullable BitSet brandMask,
+                                    @Nullable BitSet priceMask,
+                                    @Nullable BitSet tagMask,
+                                    Collection<BitSet> propertyMasks) {
+        BitSet result = (BitSet) base.clone();
+        Optional.ofNullable(brandMask).ifPresent(result::and);
+        Optional.ofNullable(priceMask).ifPresent(result::and);
+        Optional.ofNullable(tagMask).ifPresent(result::and);
+        propertyMasks.forEach(result::and);
+        return result;
+    }
+
+    private static int countIntersection(BitSet context, BitSet bits) {
+        BitSet result = (BitSet) context.clone();
+        result.and(bits);
+        return result.cardinality();
+    }
+
+    private static int priceBucketOf(double price) {
+        int bucket = 0;
+        while (bucket < PRICE_BOUNDARIES.length && price >= PRICE_BOUNDARIES[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    /**
+     * Các giá trị facet của một sản phẩm, giữ lại để gỡ đúng các bit cũ khi sản phẩm thay đổi
+     */
+    private static class FacetDocument {
+        private final Long productId;
+        @Nullable
+        private final Long categoryId;
+        @Nullable
+        private final Long brandId;
+        @Nullable
+        private final String brandName;
+        private final Map<Long, String> tagNames;
+        private final Set<Integer> priceBuckets;
+        private final Map<String, Set<String>> properties = new HashMap<>();
+        private final Map<String, String> propertyNames = new HashMap<>();
+
+        private FacetDocument(Product product) {
+            this.productId = product.getId();
+            this.categoryId = product.getCategory() == null ? null : product.getCategory().getId();
+            this.brandId = product.getBrand() == null ? null : product.getBrand().getId();
+            this.brandName = product.getBrand() == null ? null : product.getBrand().getName();
+            this.tagNames = product.getTags().stream().collect(Collectors.toMap(Tag::getId, Tag::getName));
+            this.priceBuckets = product.getVariants().stream()
+                    .map(Variant::getPrice)
+                    .filter(Objects::nonNull)
+                    .map(FacetIndexServiceImpl::priceBucketOf)
+                    .collect(Collectors.toSet());
+
+            PropertyUtils.read(product.getProperties(), properties, propertyNames);
+            product.getVariants().forEach(variant -> PropertyUtils.read(variant.getProperties(), properties, propertyNames));
+        }
+
+        static FacetDocument of(Product product) {
+            return new FacetDocument(product);
+        }
+    }
+
+}
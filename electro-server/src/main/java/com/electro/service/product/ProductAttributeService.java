@@ -0,0 +1,15 @@
+package com.electro.service.product;
+
+public interface ProductAttributeService {
+
+    /**
+     * Đồng bộ các dòng product_attribute của một sản phẩm với Product.properties và Variant.properties hiện tại
+     */
+    void sync(Long productId);
+
+    /**
+     * Dựng lại toàn bộ bảng product_attribute
+     */
+    void rebuild();
+
+}
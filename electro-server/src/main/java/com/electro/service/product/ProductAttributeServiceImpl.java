@@ -0,0 +1,90 @@
+package com.electro.service.product;
+
+import com.electro.entity.product.Product;
+import com.electro.entity.product.ProductAttribute;
+import com.electro.repository.product.ProductAttributeRepository;
+import com.electro.repository.product.ProductRepository;
+import com.electro.utils.PropertyUtils;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@AllArgsConstructor
+@Slf4j
+public class ProductAttributeServiceImpl implements ProductAttributeService {
+
+    private ProductRepository productRepository;
+    private ProductAttributeRepository productAttributeRepository;
+
+    @Override
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void sync(Long productId) {
+        productAttributeRepository.deleteByProductId(productId);
+        productRepository.findById(productId)
+                .map(ProductAttributeServiceImpl::toAttributes)
+                .ifPresent(productAttributeRepository::saveAll);
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void rebuild() {
+        List<ProductAttribute> attributes = new ArrayList<>();
+        productRepository.findAll().forEach(product -> attributes.addAll(toAttributes(product)));
+
+        productAttributeRepository.deleteAllInBatch();
+        productAttributeRepository.saveAll(attributes);
+
+        log.info("Rebuilt product_attribute with {} rows", attributes.size());
+    }
+
+    /**
+     * Bảng được cập nhật tăng dần theo từng lần ghi sản phẩm, chỉ cần dựng lại khi còn trống (ví dụ sau khi khởi tạo dữ liệu)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void backfill() {
+        if (productAttributeRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    private static List<ProductAttribute> toAttributes(Product product) {
+        Map<String, Set<String>> productValues = new HashMap<>();
+        Map<String, Set<String>> variantValues = new HashMap<>();
+        Map<String, String> names = new HashMap<>();
+
+        PropertyUtils.read(product.getProperties(), productValues, names);
+        product.getVariants().forEach(variant -> PropertyUtils.read(variant.getProperties(), variantValues, names));
+
+        List<ProductAttribute> attributes = new ArrayList<>();
+        addAttributes(attributes, product, productValues, ProductAttribute.PRODUCT_SOURCE);
+        addAttributes(attributes, product, variantValues, ProductAttribute.VARIANT_SOURCE);
+
+        return attributes;
+    }
+
+    private static void addAttributes(List<ProductAttribute> attributes,
+                                      Product product,
+                                      Map<String, Set<String>> values,
+                                      int source) {
+        values.forEach((code, codeValues) -> codeValues.stream()
+                .map(PropertyUtils::truncate)
+                .distinct()
+                .forEach(value -> attributes.add(new ProductAttribute()
+                        .setProduct(product)
+                        .setCode(code)
+                        .setValue(value)
+                        .setSource(source))));
+    }
+
+}
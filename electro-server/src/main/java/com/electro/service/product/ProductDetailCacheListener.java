@@ -0,0 +1,75 @@
+package com.electro.service.product;
+
+import com.electro.entity.general.Image;
+import com.electro.entity.product.Product;
+import com.electro.entity.product.Variant;
+import com.electro.entity.promotion.Promotion;
+import com.electro.entity.review.Review;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import java.util.Optional;
+
+/**
+ * Entity listener gắn trên Product, Variant, Image, Review, Promotion để xóa cache chi tiết sản phẩm
+ * ở mọi nơi ghi dữ liệu (CRUD chung, controller phía client, cascade từ Product).
+ * <p>
+ * Xóa ngay khi flush và xóa thêm lần nữa sau khi commit, để request đọc trong lúc transaction chưa commit
+ * không giữ lại dữ liệu cũ trong cache.
+ */
+public class ProductDetailCacheListener {
+
+    private final ProductDetailCacheService productDetailCacheService;
+
+    // Listener được Hibernate tạo khi dựng EntityManagerFactory, inject lazy để không bắt buộc bean có sẵn lúc đó
+    public ProductDetailCacheListener(@Lazy ProductDetailCacheService productDetailCacheService) {
+        this.productDetailCacheService = productDetailCacheService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Object entity) {
+        Optional<Long> productId = findProductId(entity);
+        invalidate(entity, productId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidate(entity, productId);
+                }
+            });
+        }
+    }
+
+    private void invalidate(Object entity, Optional<Long> productId) {
+        // Khuyến mãi có thể áp cho nhiều sản phẩm nên xóa toàn bộ cache
+        if (entity instanceof Promotion) {
+            productDetailCacheService.invalidateAll();
+        } else {
+            productId.ifPresent(productDetailCacheService::invalidateProduct);
+        }
+    }
+
+    private static Optional<Long> findProductId(Object entity) {
+        Product product = null;
+
+        if (entity instanceof Product) {
+            product = (Product) entity;
+        } else if (entity instanceof Variant) {
+            product = ((Variant) entity).getProduct();
+        } else if (entity instanceof Image) {
+            product = ((Image) entity).getProduct();
+        } else if (entity instanceof Review) {
+            product = ((Review) entity).getProduct();
+        }
+
+        return Optional.ofNullable(product).map(Product::getId);
+    }
+
+}
@@ -0,0 +1,27 @@
+package com.electro.service.product;
+
+import com.electro.dto.client.ClientProductResponse;
+
+import java.util.function.Supplier;
+
+public interface ProductDetailCacheService {
+
+    /**
+     * Lấy chi tiết sản phẩm đã lắp ráp theo slug từ cache, nếu chưa có hoặc đã hết hạn thì gọi `loader` để lắp ráp
+     * và lưu lại. Ngoại lệ của `loader` (ví dụ không tìm thấy sản phẩm) được ném ra nguyên vẹn và không được cache.
+     */
+    CachedProductDetail getOrLoad(String slug, Supplier<ClientProductResponse> loader);
+
+    /**
+     * Dựng strong ETag cho phản hồi cuối cùng, gồm phần đã cache và dữ liệu biến động được ghép vào lúc đọc
+     */
+    String eTagOf(CachedProductDetail cachedProductDetail, ClientProductResponse response);
+
+    /**
+     * Xóa các mục có liên quan đến sản phẩm (chính nó hoặc nằm trong danh sách sản phẩm liên quan)
+     */
+    void invalidateProduct(Long productId);
+
+    void invalidateAll();
+
+}
@@ -0,0 +1,139 @@
+package com.electro.service.product;
+
+import com.electro.dto.client.ClientListedProductResponse;
+import com.electro.dto.client.ClientProductResponse;
+import com.electro.dto.client.ClientPromotionResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cache LRU có giới hạn số mục và thời gian sống, kết hợp xóa chủ động khi sản phẩm, phiên bản, hình ảnh,
+ * đánh giá hoặc khuyến mãi thay đổi (xem ProductDetailCacheListener).
+ * <p>
+ * Mỗi lần xóa đều tăng `generation`; kết quả lắp ráp bắt đầu trước lần xóa sẽ không được ghi vào cache,
+ * tránh trường hợp một request đọc dữ liệu cũ rồi ghi đè lên sau khi cache vừa bị xóa.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductDetailCacheServiceImpl implements ProductDetailCacheService {
+
+    private static final int MAX_ENTRIES = 1000;
+    private static final long TTL_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Map<String, CachedProductDetail> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedProductDetail> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    @Override
+    public CachedProductDetail getOrLoad(String slug, Supplier<ClientProductResponse> loader) {
+        long now = System.nanoTime();
+
+        synchronized (entries) {
+            CachedProductDetail cached = entries.get(slug);
+            if (cached != null && now - cached.getExpiresAt() < 0) {
+                return cached;
+            }
+        }
+
+        long loadGeneration = generation.get();
+        ClientProductResponse response = loader.get();
+
+        Set<Long> productIds = new HashSet<>();
+        productIds.add(response.getProductId());
+        Stream.of(response.getProductRelatedProducts(), response.getProductBoughtTogetherProducts())
+                .filter(Objects::nonNull)
+                .forEach(listedProducts -> productIds.addAll(listedProducts.stream()
+                        .map(ClientListedProductResponse::getProductId)
+                        .collect(Collectors.toSet())));
+
+        CachedProductDetail loaded = new CachedProductDetail(response, hash(response), Set.copyOf(productIds), now + TTL_NANOS);
+
+        synchronized (entries) {
+            if (generation.get() == loadGeneration) {
+                entries.put(slug, loaded);
+            }
+        }
+
+        return loaded;
+    }
+
+    @Override
+    public String eTagOf(CachedProductDetail cachedProductDetail, ClientProductResponse response) {
+        // Gồm mọi trường được ClientProductMapper.mergeVolatileData ghép lại theo từng request
+        StringBuilder volatileData = new StringBuilder(cachedProductDetail.getContentHash())
+                .append('|').append(response.isProductSaleable())
+                .append('|').append(promotionKey(response.getProductPromotion()));
+
+        response.getProductVariants().forEach(variant -> volatileData
+                .append('|').append(variant.getVariantId())
+                .append(':').append(variant.getVariantInventory()));
+
+        Stream.of(response.getProductRelatedProducts(), response.getProductBoughtTogetherProducts())
+                .filter(Objects::nonNull)
+                .forEach(listedProducts -> {
+                    volatileData.append('#');
+                    listedProducts.forEach(listedProduct -> volatileData
+                            .append('|').append(listedProduct.getProductId())
+                            .append(':').append(listedProduct.isProductSaleable())
+                            .append(':').append(promotionKey(listedProduct.getProductPromotion())));
+                });
+
+        return "\"" + DigestUtils.md5DigestAsHex(volatileData.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    @Override
+    public void invalidateProduct(Long productId) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.values().removeIf(cached -> cached.getProductIds().contains(productId));
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+    }
+
+    private static String promotionKey(@Nullable ClientPromotionResponse promotion) {
+        return Optional.ofNullable(promotion)
+                .map(clientPromotion -> clientPromotion.getPromotionId() + ":" + clientPromotion.getPromotionPercent()
+                        + ":" + clientPromotion.getPromotionRemainingQuota())
+                .orElse("");
+    }
+
+    private String hash(ClientProductResponse response) {
+        try {
+            return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(response));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Cannot serialize product detail of product " + response.getProductId(), e);
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.electro.service.product;
+
+import com.electro.entity.product.Product;
+import com.electro.entity.product.Variant;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Entity listener gắn trên Product, Variant, Brand, Category, Tag để cập nhật chỉ mục tìm kiếm, chỉ mục facet,
+ * bảng product_attribute và nhóm sản phẩm liên quan sau khi transaction commit.
+ * <ul>
+ *     <li>Product: đánh chỉ mục lại sản phẩm đó ở tất cả các nơi</li>
+ *     <li>Variant: chỉ ảnh hưởng facet và product_attribute (giá, thuộc tính), đánh chỉ mục lại sản phẩm cha</li>
+ *     <li>Brand, Category, Tag (ít khi thay đổi): dựng lại toàn bộ</li>
+ * </ul>
+ * Các thay đổi trong cùng một transaction được gom lại và xử lý một lần khi commit, nên mỗi sản phẩm chỉ được đánh chỉ
+ * mục lại một lần và việc dựng lại toàn bộ chạy nhiều nhất một lần dù transaction ghi nhiều Brand, Category, Tag.
+ */
+public class ProductIndexListener {
+
+    private final ProductSearchService productSearchService;
+    private final FacetIndexService facetIndexService;
+    private final ProductAttributeService productAttributeService;
+    private final RelatedProductService relatedProductService;
+
+    // Các service phụ thuộc ProductRepository, nên phải inject lazy để tránh vòng phụ thuộc với EntityManagerFactory
+    public ProductIndexListener(@Lazy ProductSearchService productSearchService,
+                                @Lazy FacetIndexService facetIndexService,
+                                @Lazy ProductAttributeService productAttributeService,
+                                @Lazy RelatedProductService relatedProductService) {
+        this.productSearchService = productSearchService;
+        this.facetIndexService = facetIndexService;
+        this.productAttributeService = productAttributeService;
+        this.relatedProductService = relatedProductService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Object entity) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingReindex pendingReindex = new PendingReindex();
+            pendingReindex.add(entity);
+            reindex(pendingReindex);
+            return;
+        }
+
+        // Gom mọi thay đổi trong cùng transaction vào một tài nguyên, chỉ đăng ký một synchronization cho lần ghi đầu tiên
+        PendingReindex pendingReindex = (PendingReindex) TransactionSynchronizationManager.getResource(PendingReindex.class);
+
+        if (pendingReindex == null) {
+            PendingReindex newPendingReindex = new PendingReindex();
+            TransactionSynchronizationManager.bindResource(PendingReindex.class, newPendingReindex);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // Gỡ trước khi đánh chỉ mục, các transaction mới mở trong lúc đó sẽ gom thay đổi của riêng chúng
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PendingReindex.class);
+                    reindex(newPendingReindex);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PendingReindex.class);
+                }
+            });
+            pendingReindex = newPendingReindex;
+        }
+
+        pendingReindex.add(entity);
+    }
+
+    private void reindex(PendingReindex pendingReindex) {
+        pendingReindex.productIds.forEach(productId -> {
+            productAttributeService.sync(productId);
+            relatedProductService.index(productId);
+        });
+        pendingReindex.variantProductIds.forEach(productAttributeService::sync);
+
+        if (pendingReindex.fullRebuild) {
+            productSearchService.rebuild();
+            facetIndexService.rebuild();
+            return;
+        }
+
+        pendingReindex.productIds.forEach(productId -> {
+            productSearchService.index(productId);
+            facetIndexService.index(productId);
+        });
+        pendingReindex.variantProductIds.forEach(facetIndexService::index);
+    }
+
+    private static class PendingReindex {
+
+        // Sản phẩm được ghi trực tiếp, cần đánh chỉ mục lại ở tất cả các nơi
+        private final Set<Long> productIds = new LinkedHashSet<>();
+        // Sản phẩm cha của các phiên bản được ghi, chỉ ảnh hưởng facet và product_attribute
+        private final Set<Long> variantProductIds = new LinkedHashSet<>();
+        // Có Brand, Category hoặc Tag bị ghi, dựng lại toàn bộ chỉ mục tìm kiếm và facet một lần
+        private boolean fullRebuild;
+
+        private void add(Object entity) {
+            if (entity instanceof Product) {
+                Long productId = ((Product) entity).getId();
+                productIds.add(productId);
+                variantProductIds.remove(productId);
+            } else if (entity instanceof Variant) {
+                Long productId = ((Variant) entity).getProduct().getId();
+                if (!productIds.contains(productId)) {
+                    variantProductIds.add(productId);
+                }
+            } else {
+                fullRebuild = true;
+            }
+        }
+
+    }
+
+}
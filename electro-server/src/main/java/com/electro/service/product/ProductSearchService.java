@@ -0,0 +1,25 @@
+package com.electro.service.product;
+
+import java.util.List;
+
+public interface ProductSearchService {
+
+    /**
+     * Tìm sản phẩm trong chỉ mục đảo ngược trong bộ nhớ. Mọi từ trong `query` đều phải khớp (theo tiền tố, không phân biệt
+     * hoa thường và dấu tiếng Việt).
+     *
+     * @return id của mọi sản phẩm khớp, xếp theo độ liên quan giảm dần
+     */
+    List<Long> search(String query);
+
+    /**
+     * Đánh chỉ mục lại một sản phẩm từ database, hoặc xóa khỏi chỉ mục nếu sản phẩm không còn tồn tại
+     */
+    void index(Long productId);
+
+    /**
+     * Dựng lại toàn bộ chỉ mục từ database
+     */
+    void rebuild();
+
+}
@@ -0,0 +1,220 @@
+package com.electro.service.product;
+
+import com.electro.entity.product.Product;
+import com.electro.repository.product.ProductRepository;
+import com.electro.utils.SearchUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Chỉ mục đảo ngược theo từ trên tên, mã, slug, thương hiệu, danh mục và tag của sản phẩm.
+ * <p>
+ * Mỗi từ (đã bỏ dấu) trỏ tới tập sản phẩm chứa nó cùng trọng số của trường có từ đó. Điểm của sản phẩm là tổng điểm
+ * các từ trong truy vấn, mỗi từ tính theo trọng số trường x IDF, từ khớp tiền tố được nửa số điểm của từ khớp trọn vẹn.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchServiceImpl implements ProductSearchService {
+
+    private static final int NAME_WEIGHT = 8;
+    private static final int CODE_WEIGHT = 6;
+    private static final int BRAND_WEIGHT = 4;
+    private static final int CATEGORY_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int SLUG_WEIGHT = 1;
+
+    // Từ truy vấn ngắn hơn MIN_PREFIX_LENGTH ký tự chỉ được mở rộng tiền tố tới MAX_SHORT_PREFIX_TERMS từ đầu tiên,
+    // tránh việc "a" hay "sa" duyệt gần hết chỉ mục
+    private static final int MIN_PREFIX_LENGTH = 3;
+    private static final int MAX_SHORT_PREFIX_TERMS = 50;
+
+    private final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Mỗi lúc chỉ một lần rebuild() chạy
+    private final Lock rebuildLock = new ReentrantLock();
+    // Từ -> (id sản phẩm -> trọng số cao nhất của từ trong sản phẩm), sắp theo từ để tra tiền tố
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    // Id sản phẩm -> các từ đã đánh chỉ mục, dùng khi cập nhật hoặc xóa sản phẩm
+    private final Map<Long, Map<String, Integer>> documents = new HashMap<>();
+    // Id sản phẩm được index() trong lúc rebuild() đọc lại toàn bộ sản phẩm, null khi không có rebuild() nào chạy
+    private Set<Long> indexedDuringRebuild;
+
+    @Override
+    public List<Long> search(String query) {
+        List<String> queryTokens = SearchUtils.tokenize(query).stream().distinct().collect(Collectors.toList());
+
+        if (queryTokens.isEmpty()) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+
+            for (String queryToken : queryTokens) {
+                Map<Long, Double> tokenScores = scoreToken(queryToken);
+
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((productId, score) -> score + tokenScores.get(productId));
+                }
+
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void index(Long productId) {
+        Optional<Map<String, Integer>> document = productRepository.findById(productId).map(ProductSearchServiceImpl::toDocument);
+
+        lock.writeLock().lock();
+        try {
+            removeDocument(productId);
+            document.ifPresent(value -> addDocument(productId, value));
+
+            if (indexedDuringRebuild != null) {
+                indexedDuringRebuild.add(productId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            setIndexedDuringRebuild(new HashSet<>());
+
+            Map<Long, Map<String, Integer>> newDocuments = productRepository.findAll().stream()
+                    .collect(Collectors.toMap(Product::getId, ProductSearchServiceImpl::toDocument));
+
+            lock.writeLock().lock();
+            try {
+                // Sản phẩm được index() trong lúc đọc có thể mới hơn ảnh chụp vừa đọc, giữ lại tài liệu hiện tại của chúng
+                // (null nghĩa là sản phẩm đã bị xóa)
+                Map<Long, Map<String, Integer>> indexedDocuments = new HashMap<>();
+                indexedDuringRebuild.forEach(productId -> indexedDocuments.put(productId, documents.get(productId)));
+                indexedDuringRebuild = null;
+
+                postings.clear();
+                documents.clear();
+                newDocuments.forEach(this::addDocument);
+
+                indexedDocuments.forEach((productId, document) -> {
+                    removeDocument(productId);
+                    if (document != null) {
+                        addDocument(productId, document);
+                    }
+                });
+
+                log.info("Rebuilt product search index with {} products, {} terms, {} replayed",
+                        documents.size(), postings.size(), indexedDocuments.size());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            setIndexedDuringRebuild(null);
+            rebuildLock.unlock();
+        }
+    }
+
+    private void setIndexedDuringRebuild(Set<Long> productIds) {
+        lock.writeLock().lock();
+        try {
+            indexedDuringRebuild = productIds;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreToken(String queryToken) {
+        Map<Long, Double> tokenScores = new HashMap<>();
+
+        // Các từ bắt đầu bằng `queryToken`, ví dụ "sam" khớp "samsung"; từ khớp trọn vẹn luôn đứng đầu nên không bị cắt
+        long maxTerms = queryToken.length() < MIN_PREFIX_LENGTH ? MAX_SHORT_PREFIX_TERMS : Long.MAX_VALUE;
+
+        postings.subMap(queryToken, true, queryToken + Character.MAX_VALUE, false).entrySet().stream()
+                .limit(maxTerms)
+                .forEach(entry -> {
+                    Map<Long, Integer> products = entry.getValue();
+                    double idf = Math.log(1.0 + (double) documents.size() / products.size());
+                    double match = entry.getKey().equals(queryToken) ? 1.0 : 0.5;
+                    products.forEach((productId, weight) -> tokenScores.merge(productId, weight * match * idf, Math::max));
+                });
+
+        return tokenScores;
+    }
+
+    private void addDocument(Long productId, Map<String, Integer> document) {
+        documents.put(productId, document);
+        document.forEach((token, weight) -> postings.computeIfAbsent(token, key -> new HashMap<>()).put(productId, weight));
+    }
+
+    private void removeDocument(Long productId) {
+        Map<String, Integer> document = documents.remove(productId);
+
+        if (document != null) {
+            document.keySet().forEach(token -> {
+                Map<Long, Integer> products = postings.get(token);
+                products.remove(productId);
+                if (products.isEmpty()) {
+                    postings.remove(token);
+                }
+            });
+        }
+    }
+
+    private static Map<String, Integer> toDocument(Product product) {
+        Map<String, Integer> document = new HashMap<>();
+
+        addField(document, product.getName(), NAME_WEIGHT);
+        addField(document, product.getCode(), CODE_WEIGHT);
+        addField(document, product.getSlug(), SLUG_WEIGHT);
+        Optional.ofNullable(product.getBrand()).ifPresent(brand -> addField(document, brand.getName(), BRAND_WEIGHT));
+        Optional.ofNullable(product.getCategory()).ifPresent(category -> addField(document, category.getName(), CATEGORY_WEIGHT));
+        product.getTags().forEach(tag -> addField(document, tag.getName(), TAG_WEIGHT));
+
+        return document;
+    }
+
+    private static void addField(Map<String, Integer> document, String text, int weight) {
+        SearchUtils.tokenize(text).forEach(token -> document.merge(token, weight, Math::max));
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.electro.service.product;
+
+import com.electro.entity.inventory.Docket;
+import com.electro.entity.inventory.DocketVariant;
+import com.electro.entity.order.Order;
+import com.electro.entity.product.Variant;
+import com.electro.entity.promotion.Promotion;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import java.util.List;
+
+/**
+ * Entity listener gắn trên Variant, Docket, DocketVariant, Order, Promotion để tính lại khóa sắp xếp
+ * của các sản phẩm liên quan sau khi transaction commit.
+ */
+public class ProductSortKeyListener {
+
+    private final ProductSortKeyService productSortKeyService;
+
+    // Service phụ thuộc ProductRepository, nên phải inject lazy để tránh vòng phụ thuộc với EntityManagerFactory
+    public ProductSortKeyListener(@Lazy ProductSortKeyService productSortKeyService) {
+        this.productSortKeyService = productSortKeyService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Object entity) {
+        Runnable refresh;
+
+        if (entity instanceof Variant) {
+            Long productId = ((Variant) entity).getProduct().getId();
+            refresh = () -> productSortKeyService.refresh(List.of(productId));
+        } else if (entity instanceof DocketVariant) {
+            Long productId = ((DocketVariant) entity).getVariant().getProduct().getId();
+            refresh = () -> productSortKeyService.refresh(List.of(productId));
+        } else if (entity instanceof Docket) {
+            Long docketId = ((Docket) entity).getId();
+            refresh = () -> productSortKeyService.refreshDocket(docketId);
+        } else if (entity instanceof Order) {
+            Long orderId = ((Order) entity).getId();
+            refresh = () -> productSortKeyService.refreshOrder(orderId);
+        } else if (entity instanceof Promotion) {
+            // Chỉ mục khuyến mãi đã được nạp lại trong PromotionServiceImpl trước khi commit
+            refresh = productSortKeyService::refreshDiscounts;
+        } else {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh.run();
+                }
+            });
+        } else {
+            refresh.run();
+        }
+    }
+
+}
@@ -0,0 +1,32 @@
+package com.electro.service.product;
+
+import java.util.Collection;
+
+public interface ProductSortKeyService {
+
+    /**
+     * Tính lại các khóa sắp xếp (min/max giá, giá sau khuyến mãi, lần nhập kho gần nhất, tổng đã bán) của các sản phẩm
+     */
+    void refresh(Collection<Long> productIds);
+
+    /**
+     * Tính lại khóa sắp xếp của các sản phẩm có trong docket
+     */
+    void refreshDocket(Long docketId);
+
+    /**
+     * Tính lại khóa sắp xếp của các sản phẩm có trong đơn hàng
+     */
+    void refreshOrder(Long orderId);
+
+    /**
+     * Cập nhật giá sau khuyến mãi của các sản phẩm có khuyến mãi vừa bắt đầu, kết thúc hoặc thay đổi
+     */
+    void refreshDiscounts();
+
+    /**
+     * Tính lại khóa sắp xếp của toàn bộ sản phẩm
+     */
+    void rebuild();
+
+}
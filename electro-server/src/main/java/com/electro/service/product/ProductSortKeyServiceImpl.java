@@ -0,0 +1,131 @@
+package com.electro.service.product;
+
+import com.electro.entity.product.Product;
+import com.electro.entity.promotion.Promotion;
+import com.electro.repository.product.ProductRepository;
+import com.electro.service.general.ListCacheService;
+import com.electro.service.promotion.PromotionIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Duy trì các cột khóa sắp xếp trên bảng product, để findByParams sắp xếp trên cột có index
+ * thay vì MIN/MAX trên toàn bộ biến thể và dòng docket ở mỗi truy vấn.
+ * <p>
+ * Giá sau khuyến mãi phụ thuộc thời gian, nên ngoài lúc khuyến mãi được ghi còn được đối chiếu định kỳ với
+ * PromotionIndexService: chỉ những sản phẩm có phần trăm giảm khác với lần ghi trước mới bị cập nhật.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSortKeyServiceImpl implements ProductSortKeyService {
+
+    private final ProductRepository productRepository;
+    private final PromotionIndexService promotionIndexService;
+    private final ListCacheService listCacheService;
+
+    // Id sản phẩm -> phần trăm giảm đã ghi vào min_discounted_price (không có nghĩa là không giảm)
+    private final Map<Long, Integer> appliedPercents = new HashMap<>();
+
+    @Override
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public synchronized void refresh(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+
+        productRepository.refreshSortKeys(productIds);
+        // UPDATE trực tiếp không phát sinh sự kiện của Hibernate nên phải tự tăng phiên bản bảng product
+        listCacheService.bumpAfterCompletion(Product.class);
+
+        // min_price vừa được tính lại nên giá sau khuyến mãi cũng phải ghi lại, kể cả khi phần trăm giảm không đổi
+        Map<Long, Integer> percents = new HashMap<>();
+        productIds.forEach(productId -> percents.put(productId, findActivePercent(productId)));
+        applyPercents(percents);
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void refreshDocket(Long docketId) {
+        refresh(productRepository.findProductIdsByDocketId(docketId));
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void refreshOrder(Long orderId) {
+        refresh(productRepository.findProductIdsByOrderId(orderId));
+    }
+
+    @Override
+    @Scheduled(fixedDelay = 30000)
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public synchronized void refreshDiscounts() {
+        Set<Long> candidateProductIds = new HashSet<>(promotionIndexService.findPromotedProductIds());
+        candidateProductIds.addAll(appliedPercents.keySet());
+
+        Map<Long, Integer> changedPercents = new HashMap<>();
+        candidateProductIds.forEach(productId -> {
+            int percent = findActivePercent(productId);
+            if (percent != appliedPercents.getOrDefault(productId, 0)) {
+                changedPercents.put(productId, percent);
+            }
+        });
+
+        if (!changedPercents.isEmpty()) {
+            applyPercents(changedPercents);
+            listCacheService.bumpAfterCompletion(Product.class);
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public synchronized void rebuild() {
+        productRepository.refreshAllSortKeys();
+        productRepository.resetAllMinDiscountedPrices();
+        listCacheService.bumpAfterCompletion(Product.class);
+        appliedPercents.clear();
+
+        // Khuyến mãi đang hoạt động được áp ở đây hoặc ở lần refreshDiscounts kế tiếp nếu chỉ mục khuyến mãi chưa nạp xong
+        Map<Long, Integer> percents = new HashMap<>();
+        promotionIndexService.findPromotedProductIds().forEach(productId -> percents.put(productId, findActivePercent(productId)));
+        applyPercents(percents);
+
+        log.info("Rebuilt product sort keys, {} products with active promotion", appliedPercents.size());
+    }
+
+    private int findActivePercent(Long productId) {
+        return promotionIndexService.findActivePromotion(productId).map(Promotion::getPercent).orElse(0);
+    }
+
+    private void applyPercents(Map<Long, Integer> percents) {
+        // Gộp theo phần trăm giảm để mỗi mức giảm chỉ cần một câu lệnh UPDATE
+        Map<Integer, List<Long>> productIdsByPercent = percents.entrySet().stream()
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+
+        productIdsByPercent.forEach((percent, productIds) -> productRepository.updateMinDiscountedPrice(productIds, percent));
+
+        percents.forEach((productId, percent) -> {
+            if (percent == 0) {
+                appliedPercents.remove(productId);
+            } else {
+                appliedPercents.put(productId, percent);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.electro.service.product;
+
+import java.util.List;
+
+public interface RelatedProductService {
+
+    /**
+     * Chọn ngẫu nhiên tối đa `limit` sản phẩm liên quan: ưu tiên sản phẩm hay được mua cùng, còn lại lấy từ cùng danh mục.
+     * Không bao gồm chính sản phẩm và các sản phẩm đang ẩn.
+     *
+     * @return id sản phẩm liên quan, theo thứ tự ngẫu nhiên
+     */
+    List<Long> sample(Long productId, int limit);
+
+    /**
+     * Cập nhật lại vị trí của một sản phẩm trong các nhóm theo danh mục (khi đổi danh mục, đổi trạng thái hoặc bị xóa)
+     */
+    void index(Long productId);
+
+    /**
+     * Dựng lại toàn bộ các nhóm theo danh mục và dữ liệu mua cùng từ database
+     */
+    void rebuild();
+
+}
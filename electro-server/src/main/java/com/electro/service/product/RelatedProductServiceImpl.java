@@ -0,0 +1,168 @@
+package com.electro.service.product;
+
+import com.electro.entity.product.Product;
+import com.electro.repository.product.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Nhóm ứng viên sản phẩm liên quan giữ trong bộ nhớ, thay cho truy vấn `ORDER BY RAND()` trên mỗi lượt xem sản phẩm.
+ * <p>
+ * Mỗi danh mục giữ một danh sách id sản phẩm đang hiển thị (status 1), kèm vị trí của từng sản phẩm trong danh sách
+ * để thêm/xóa trong O(1). Lấy mẫu k sản phẩm là chọn ngẫu nhiên k vị trí, không phải sắp xếp cả danh mục.
+ * Sản phẩm hay được mua cùng (BoughtTogetherService) được ưu tiên cho một nửa số sản phẩm trả về.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RelatedProductServiceImpl implements RelatedProductService {
+
+    private final ProductRepository productRepository;
+    private final BoughtTogetherService boughtTogetherService;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Id danh mục -> id các sản phẩm đang hiển thị trong danh mục
+    private final Map<Long, List<Long>> categoryPools = new HashMap<>();
+    // Id sản phẩm -> id danh mục và vị trí của sản phẩm trong nhóm của danh mục đó
+    private final Map<Long, Long> productCategories = new HashMap<>();
+    private final Map<Long, Integer> positions = new HashMap<>();
+
+    @Override
+    public List<Long> sample(Long productId, int limit) {
+        Set<Long> picked = new LinkedHashSet<>();
+
+        lock.readLock().lock();
+        try {
+            List<Long> boughtTogether = boughtTogetherService.findPartners(productId, limit * 4).stream()
+                    .filter(productCategories::containsKey)
+                    .collect(Collectors.toList());
+            sampleInto(boughtTogether, limit / 2, productId, picked);
+
+            Optional.ofNullable(productCategories.get(productId))
+                    .map(categoryPools::get)
+                    .ifPresent(pool -> sampleInto(pool, limit, productId, picked));
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return new ArrayList<>(picked);
+    }
+
+    @Override
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void index(Long productId) {
+        Optional<Product> product = productRepository.findById(productId);
+
+        lock.writeLock().lock();
+        try {
+            removeFromPool(productId);
+            product.ifPresent(this::addToPool);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public void rebuild() {
+        List<Product> products = productRepository.findAll();
+
+        lock.writeLock().lock();
+        try {
+            categoryPools.clear();
+            productCategories.clear();
+            positions.clear();
+            products.forEach(this::addToPool);
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("Rebuilt related product pools with {} products in {} categories",
+                productCategories.size(), categoryPools.size());
+    }
+
+    private void addToPool(Product product) {
+        if (product.getCategory() == null || !Integer.valueOf(1).equals(product.getStatus())) {
+            return;
+        }
+
+        List<Long> pool = categoryPools.computeIfAbsent(product.getCategory().getId(), key -> new ArrayList<>());
+        productCategories.put(product.getId(), product.getCategory().getId());
+        positions.put(product.getId(), pool.size());
+        pool.add(product.getId());
+    }
+
+    private void removeFromPool(Long productId) {
+        Long categoryId = productCategories.remove(productId);
+
+        if (categoryId == null) {
+            return;
+        }
+
+        // Đưa phần tử cuối vào chỗ trống rồi bỏ phần tử cuối, tránh dịch chuyển cả danh sách
+        List<Long> pool = categoryPools.get(categoryId);
+        int position = positions.remove(productId);
+        Long lastProductId = pool.remove(pool.size() - 1);
+
+        if (!lastProductId.equals(productId)) {
+            pool.set(position, lastProductId);
+            positions.put(lastProductId, position);
+        }
+
+        if (pool.isEmpty()) {
+            categoryPools.remove(categoryId);
+        }
+    }
+
+    /**
+     * Thêm ngẫu nhiên các phần tử của `pool` vào `picked` cho tới khi đủ `limit` phần tử, bỏ qua `excludedProductId`.
+     * Nhóm lớn thì chọn ngẫu nhiên từng vị trí (trùng thì chọn lại, có giới hạn số lần), nhóm nhỏ thì xáo trộn bản sao.
+     */
+    private static void sampleInto(List<Long> pool, int limit, Long excludedProductId, Set<Long> picked) {
+        if (picked.size() >= limit || pool.isEmpty()) {
+            return;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        if (pool.size() <= limit * 4) {
+            List<Long> candidates = new ArrayList<>(pool);
+            Collections.shuffle(candidates, random);
+            for (Long candidate : candidates) {
+                if (picked.size() >= limit) {
+                    break;
+                }
+                if (!candidate.equals(excludedProductId)) {
+                    picked.add(candidate);
+                }
+            }
+            return;
+        }
+
+        for (int attempt = 0; attempt < limit * 8 && picked.size() < limit; attempt++) {
+            Long candidate = pool.get(random.nextInt(pool.size()));
+            if (!candidate.equals(excludedProductId)) {
+                picked.add(candidate);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.electro.service.promotion;
+
+import com.electro.entity.order.Order;
+import com.electro.entity.promotion.Promotion;
+
+import java.util.Optional;
+
+public interface FlashSaleService {
+
+    /**
+     * Lấy quantity suất flash sale của phiên bản sản phẩm theo khuyến mãi. Khuyến mãi không giới hạn số lượng
+     * luôn trả về true. Nếu giao dịch hiện tại rollback thì các suất đã lấy được tự động trả lại.
+     *
+     * @return false nếu không còn đủ suất
+     */
+    boolean claim(Promotion promotion, Long variantId, int quantity);
+
+    /**
+     * Trả lại suất flash sale của các dòng đơn hàng có áp dụng khuyến mãi giới hạn số lượng,
+     * sau khi giao dịch hiện tại commit
+     */
+    void release(Order order);
+
+    /**
+     * Tổng số suất còn lại trên mọi phiên bản của sản phẩm, đọc từ bộ đếm trong bộ nhớ
+     *
+     * @return rỗng nếu khuyến mãi không giới hạn số lượng
+     */
+    Optional<Integer> findRemainingQuota(Long promotionId, Long productId);
+
+    /**
+     * Nạp lại bộ đếm từ database, cần gọi sau mỗi lần thêm, sửa, xóa khuyến mãi
+     */
+    void reload();
+
+    /**
+     * Ghi số suất đã bán của các bộ đếm có thay đổi xuống bảng promotion_quota
+     */
+    void flush();
+
+}
@@ -0,0 +1,403 @@
+package com.electro.service.promotion;
+
+import com.electro.entity.order.Order;
+import com.electro.entity.order.OrderVariant;
+import com.electro.entity.promotion.Promotion;
+import com.electro.entity.promotion.PromotionQuota;
+import com.electro.projection.promotion.FlashSaleClaim;
+import com.electro.projection.promotion.FlashSaleVariant;
+import com.electro.repository.order.OrderVariantRepository;
+import com.electro.repository.promotion.PromotionQuotaRepository;
+import com.electro.repository.promotion.PromotionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Bộ đếm suất flash sale theo từng khuyến mãi và phiên bản sản phẩm, nằm trong bộ nhớ để một phiên bản bán chạy
+ * không trở thành một dòng bị khóa liên tục trong database.
+ * <p>
+ * Mỗi bộ đếm chia số suất còn lại ra nhiều ngăn (AtomicInteger), luồng lấy suất bắt đầu từ ngăn của mình nên
+ * các luồng ít khi CAS trên cùng một ô nhớ. Tổng các ngăn không bao giờ âm, nên không bán vượt quota.
+ * Số đã bán được ghi xuống promotion_quota mỗi FLUSH_INTERVAL và khi ứng dụng dừng, rồi đọc lại khi khởi động
+ * và đối soát với order_variant của các đơn hàng chưa hủy.
+ * Bộ đếm chỉ đúng khi chạy một instance ứng dụng.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FlashSaleServiceImpl implements FlashSaleService {
+
+    private static final long FLUSH_INTERVAL = 5000;
+
+    private final PromotionRepository promotionRepository;
+    private final PromotionQuotaRepository promotionQuotaRepository;
+    private final OrderVariantRepository orderVariantRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    // promotionId -> bộ đếm của khuyến mãi, thay thế nguyên khối khi reload
+    private volatile Map<Long, FlashSale> flashSales = Map.of();
+
+    @Override
+    public boolean claim(Promotion promotion, Long variantId, int quantity) {
+        if (promotion.getQuotaPerVariant() == null) {
+            return true;
+        }
+
+        StripedQuota quota = findQuota(promotion.getId(), variantId);
+
+        // Phiên bản được thêm vào sản phẩm sau lần reload gần nhất
+        if (quota == null) {
+            reload();
+            quota = findQuota(promotion.getId(), variantId);
+        }
+
+        if (quota == null || !quota.tryClaim(quantity)) {
+            return false;
+        }
+
+        StripedQuota claimedQuota = quota;
+        afterCompletion(committed -> {
+            if (!committed) {
+                claimedQuota.release(quantity);
+            }
+        });
+
+        return true;
+    }
+
+    @Override
+    public void release(Order order) {
+        List<OrderVariant> orderVariants = order.getOrderVariants().stream()
+                .filter(orderVariant -> orderVariant.getPromotion() != null)
+                .filter(orderVariant -> orderVariant.getPromotion().getQuotaPerVariant() != null)
+                .collect(Collectors.toList());
+
+        if (orderVariants.isEmpty()) {
+            return;
+        }
+
+        afterCompletion(committed -> {
+            if (committed) {
+                orderVariants.forEach(orderVariant -> Optional
+                        .ofNullable(findQuota(orderVariant.getPromotion().getId(), orderVariant.getVariant().getId()))
+                        .ifPresent(quota -> quota.release(orderVariant.getQuantity())));
+            }
+        });
+    }
+
+    @Override
+    public Optional<Integer> findRemainingQuota(Long promotionId, Long productId) {
+        return Optional.ofNullable(flashSales.get(promotionId))
+                .map(flashSale -> flashSale.byProduct.getOrDefault(productId, List.of()).stream()
+                        .mapToInt(StripedQuota::remaining)
+                        .sum());
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        Map<Long, FlashSale> current = flashSales;
+
+        Map<Long, List<FlashSaleVariant>> variantsByPromotion = promotionRepository.findUnexpiredFlashSaleVariants(Instant.now())
+                .stream()
+                .collect(Collectors.groupingBy(FlashSaleVariant::getPromotionId));
+
+        Map<Long, Map<Long, Integer>> persistedClaims = variantsByPromotion.isEmpty() ? Map.of() : promotionQuotaRepository
+                .findByPromotionQuotaKey_PromotionIdIn(variantsByPromotion.keySet()).stream()
+                .collect(Collectors.groupingBy(promotionQuota -> promotionQuota.getPromotionQuotaKey().getPromotionId(),
+                        Collectors.toMap(promotionQuota -> promotionQuota.getPromotionQuotaKey().getVariantId(),
+                                PromotionQuota::getClaimed)));
+
+        // Số đã bán ghi trong promotion_quota trễ tối đa FLUSH_INTERVAL, mất nếu ứng dụng dừng đột ngột;
+        // đối soát với các đơn hàng chưa hủy để không bán lại những suất đó
+        Map<Long, Map<Long, Integer>> orderedClaims = variantsByPromotion.isEmpty() ? Map.of() : orderVariantRepository
+                .findFlashSaleClaims(variantsByPromotion.keySet()).stream()
+                .collect(Collectors.groupingBy(FlashSaleClaim::getPromotionId,
+                        Collectors.toMap(FlashSaleClaim::getVariantId, claim -> claim.getClaimed().intValue())));
+
+        Map<Long, FlashSale> next = new HashMap<>();
+
+        variantsByPromotion.forEach((promotionId, variants) -> {
+            FlashSale existing = current.get(promotionId);
+            Map<Long, Integer> claims = persistedClaims.getOrDefault(promotionId, Map.of());
+            Map<Long, Integer> orders = orderedClaims.getOrDefault(promotionId, Map.of());
+
+            Map<Long, StripedQuota> byVariant = new HashMap<>();
+            Map<Long, List<StripedQuota>> byProduct = new HashMap<>();
+
+            for (FlashSaleVariant variant : variants) {
+                int quotaPerVariant = variant.getQuotaPerVariant();
+                StripedQuota quota = existing == null ? null : existing.byVariant.get(variant.getVariantId());
+
+                // Luôn giữ bộ đếm đang chạy và chỉnh quota tại chỗ, để suất lấy hoặc trả trong lúc reload không bị mất
+                if (quota == null) {
+                    int persisted = claims.getOrDefault(variant.getVariantId(), 0);
+                    quota = new StripedQuota(quotaPerVariant, Math.max(persisted, orders.getOrDefault(variant.getVariantId(), 0)));
+                    // Lần flush kế tiếp ghi lại số đã đối soát nếu nó khác promotion_quota
+                    quota.flushedClaimed = persisted;
+                } else if (quota.quota != quotaPerVariant) {
+                    quota.resize(quotaPerVariant);
+                }
+
+                byVariant.put(variant.getVariantId(), quota);
+                byProduct.computeIfAbsent(variant.getProductId(), productId -> new ArrayList<>()).add(quota);
+            }
+
+            next.put(promotionId, new FlashSale(Map.copyOf(byVariant), Map.copyOf(byProduct)));
+        });
+
+        flashSales = Map.copyOf(next);
+
+        log.info("Reloaded flash sale quotas of {} promotions", next.size());
+    }
+
+    @Override
+    @Scheduled(fixedDelay = FLUSH_INTERVAL)
+    @EventListener(ContextClosedEvent.class)
+    public synchronized void flush() {
+        // Mỗi khuyến mãi một giao dịch, khuyến mãi vừa bị xóa không làm hỏng lượt ghi của khuyến mãi khác
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        flashSales.forEach((promotionId, flashSale) -> {
+            Map<Long, Integer> changes = new HashMap<>();
+
+            flashSale.byVariant.forEach((variantId, quota) -> {
+                int claimed = quota.claimed();
+                if (claimed != quota.flushedClaimed) {
+                    changes.put(variantId, claimed);
+                }
+            });
+
+            if (changes.isEmpty()) {
+                return;
+            }
+
+            try {
+                transactionTemplate.executeWithoutResult(status -> changes.forEach((variantId, claimed) ->
+                        promotionQuotaRepository.upsert(promotionId, variantId, claimed)));
+                changes.forEach((variantId, claimed) -> flashSale.byVariant.get(variantId).flushedClaimed = claimed);
+            } catch (RuntimeException e) {
+                log.warn("Cannot flush flash sale quotas of promotion {}: {}", promotionId, e.getMessage());
+            }
+        });
+    }
+
+    private StripedQuota findQuota(Long promotionId, Long variantId) {
+        FlashSale flashSale = flashSales.get(promotionId);
+        return flashSale == null ? null : flashSale.byVariant.get(variantId);
+    }
+
+    /**
+     * Chạy callback khi giao dịch hiện tại kết thúc, hoặc ngay lập tức (coi như đã commit) nếu không có giao dịch
+     */
+    private static void afterCompletion(Consumer<Boolean> callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.accept(true);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private static class FlashSale {
+
+        private final Map<Long, StripedQuota> byVariant;
+        private final Map<Long, List<StripedQuota>> byProduct;
+
+        private FlashSale(Map<Long, StripedQuota> byVariant, Map<Long, List<StripedQuota>> byProduct) {
+            this.byVariant = byVariant;
+            this.byProduct = byProduct;
+        }
+
+    }
+
+    /**
+     * Số suất còn lại được chia vào STRIPES ngăn, mỗi ngăn là một AtomicInteger không bao giờ âm
+     */
+    static class StripedQuota {
+
+        private static final int STRIPES = Math.max(4, Runtime.getRuntime().availableProcessors());
+        private static final int ATTEMPTS = 2;
+
+        private volatile int quota;
+        private final AtomicInteger[] stripes = new AtomicInteger[STRIPES];
+        // Số suất đã bán vượt quota (quota bị giảm xuống dưới số đã bán), được trừ dần bằng các suất trả lại
+        private final AtomicInteger overdrawn = new AtomicInteger();
+
+        // Số đã bán ở lần ghi xuống database gần nhất, chỉ luồng flush đọc và ghi
+        private volatile int flushedClaimed;
+
+        StripedQuota(int quota, int claimed) {
+            int remaining = Math.max(0, quota - claimed);
+
+            for (int i = 0; i < STRIPES; i++) {
+                stripes[i] = new AtomicInteger(remaining / STRIPES + (i < remaining % STRIPES ? 1 : 0));
+            }
+
+            this.quota = quota;
+            this.overdrawn.set(Math.max(0, claimed - quota));
+            this.flushedClaimed = claimed;
+        }
+
+        /**
+         * Đổi quota mà không dựng lại bộ đếm: tăng thì thêm suất vào một ngăn, giảm thì rút suất khỏi các ngăn bằng CAS
+         * như một lượt lấy suất, phần không rút được (đã bán) ghi vào `overdrawn`. Các lượt lấy và trả suất chạy song song
+         * vẫn tác động lên cùng các ngăn nên không suất nào bị mất.
+         */
+        synchronized void resize(int newQuota) {
+            int delta = newQuota - quota;
+
+            if (delta > 0) {
+                int added = settleOverdrawn(delta);
+                if (added > 0) {
+                    stripes[0].addAndGet(added);
+                }
+            } else if (delta < 0) {
+                int needed = -delta;
+
+                for (int i = 0; i < STRIPES && needed > 0; i++) {
+                    needed -= take(stripes[i], needed);
+                }
+
+                if (needed > 0) {
+                    overdrawn.addAndGet(needed);
+                }
+            }
+
+            quota = newQuota;
+        }
+
+        boolean tryClaim(int quantity) {
+            if (quantity <= 0) {
+                return quantity == 0;
+            }
+
+            int start = (int) (Thread.currentThread().getId() % STRIPES);
+
+            for (int attempt = 0; attempt < ATTEMPTS; attempt++) {
+                int taken = 0;
+
+                for (int i = 0; i < STRIPES && taken < quantity; i++) {
+                    taken += take(stripes[(start + i) % STRIPES], quantity - taken);
+                }
+
+                if (taken == quantity) {
+                    return true;
+                }
+
+                // Không đủ: trả lại phần đã lấy. Luồng khác có thể đang giữ tạm một phần suất, nên thử thêm một lần
+                release(taken);
+            }
+
+            return tryClaimExclusively(quantity);
+        }
+
+        /**
+         * Đường dự phòng khi nhiều luồng cùng giữ tạm một phần suất của nhau (thường là vài suất cuối): các lượt lấy
+         * dưới khóa không chen vào nhau, mỗi lượt vét mọi ngăn cho tới khi đủ hoặc một vòng không lấy thêm được suất nào,
+         * nên không từ chối sai khi số suất còn lại vẫn đủ.
+         */
+        private synchronized boolean tryClaimExclusively(int quantity) {
+            int taken = 0;
+
+            while (taken < quantity) {
+                int takenInRound = 0;
+
+                for (int i = 0; i < STRIPES && taken + takenInRound < quantity; i++) {
+                    takenInRound += take(stripes[i], quantity - taken - takenInRound);
+                }
+
+                if (takenInRound == 0) {
+                    break;
+                }
+
+                taken += takenInRound;
+            }
+
+            if (taken == quantity) {
+                return true;
+            }
+
+            release(taken);
+            return false;
+        }
+
+        void release(int quantity) {
+            int returned = settleOverdrawn(quantity);
+
+            if (returned > 0) {
+                stripes[(int) (Thread.currentThread().getId() % STRIPES)].addAndGet(returned);
+            }
+        }
+
+        int remaining() {
+            int remaining = 0;
+            for (AtomicInteger stripe : stripes) {
+                remaining += stripe.get();
+            }
+            return remaining;
+        }
+
+        int claimed() {
+            return quota - remaining() + overdrawn.get();
+        }
+
+        // Lấy tối đa `quantity` suất từ một ngăn, trả về số suất lấy được
+        private static int take(AtomicInteger stripe, int quantity) {
+            while (true) {
+                int current = stripe.get();
+                if (current == 0) {
+                    return 0;
+                }
+
+                int taken = Math.min(current, quantity);
+                if (stripe.compareAndSet(current, current - taken)) {
+                    return taken;
+                }
+            }
+        }
+
+        // Dùng `quantity` suất để bù phần bán vượt quota trước, trả về số suất còn lại
+        private int settleOverdrawn(int quantity) {
+            while (quantity > 0) {
+                int current = overdrawn.get();
+                if (current == 0) {
+                    return quantity;
+                }
+
+                int settled = Math.min(current, quantity);
+                if (overdrawn.compareAndSet(current, current - settled)) {
+                    return quantity - settled;
+                }
+            }
+
+            return 0;
+        }
+
+    }
+
+}
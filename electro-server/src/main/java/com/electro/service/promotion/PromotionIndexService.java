@@ -0,0 +1,25 @@
+package com.electro.service.promotion;
+
+import com.electro.entity.promotion.Promotion;
+
+import java.util.Optional;
+import java.util.Set;
+
+public interface PromotionIndexService {
+
+    /**
+     * Tra khuyến mãi đang hoạt động của sản phẩm từ chỉ mục trong bộ nhớ, không truy vấn database
+     */
+    Optional<Promotion> findActivePromotion(Long productId);
+
+    /**
+     * @return id các sản phẩm có khuyến mãi đang hoặc sắp hoạt động
+     */
+    Set<Long> findPromotedProductIds();
+
+    /**
+     * Nạp lại toàn bộ chỉ mục từ database, cần gọi sau mỗi lần thêm, sửa, xóa khuyến mãi
+     */
+    void reload();
+
+}
@@ -0,0 +1,155 @@
+package com.electro.service.promotion;
+
+import com.electro.entity.promotion.Promotion;
+import com.electro.projection.promotion.PromotionProduct;
+import com.electro.repository.promotion.PromotionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Chỉ mục khoảng thời gian của khuyến mãi theo sản phẩm (productId -> danh sách khuyến mãi sắp theo startDate).
+ * <p>
+ * Snapshot là bất biến và được thay thế nguyên khối, nên luồng đọc không cần khóa. Tập khuyến mãi đang hoạt động
+ * được tính sẵn và chỉ tính lại khi thời điểm hiện tại vượt qua mốc bắt đầu/kết thúc gần nhất.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PromotionIndexServiceImpl implements PromotionIndexService {
+
+    private final PromotionRepository promotionRepository;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    @Override
+    public Optional<Promotion> findActivePromotion(Long productId) {
+        Snapshot current = snapshot;
+        Instant now = Instant.now();
+
+        // Trường hợp timer chưa kịp chạy mà đã qua mốc thời gian
+        if (!now.isBefore(current.nextBoundary)) {
+            current = advance(now);
+        }
+
+        return Optional.ofNullable(current.activePromotions.get(productId));
+    }
+
+    @Override
+    public Set<Long> findPromotedProductIds() {
+        return snapshot.intervals.keySet();
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reload() {
+        Instant now = Instant.now();
+
+        Map<Long, List<Promotion>> intervals = promotionRepository.findUnexpiredPromotionProducts(now).stream()
+                .collect(Collectors.groupingBy(PromotionProduct::getProductId,
+                        Collectors.mapping(PromotionProduct::getPromotion, Collectors.toList())));
+
+        intervals.values().forEach(promotions -> promotions.sort(Comparator.comparing(Promotion::getStartDate)));
+
+        snapshot = Snapshot.of(intervals, now);
+
+        log.info("Reloaded promotion index with {} products, {} active", intervals.size(), snapshot.activePromotions.size());
+    }
+
+    @Scheduled(fixedDelay = 30000)
+    public void tick() {
+        Instant now = Instant.now();
+        if (!now.isBefore(snapshot.nextBoundary)) {
+            advance(now);
+        }
+    }
+
+    private synchronized Snapshot advance(Instant now) {
+        Snapshot current = snapshot;
+
+        if (!now.isBefore(current.nextBoundary)) {
+            current = Snapshot.of(current.intervals, now);
+            snapshot = current;
+        }
+
+        return current;
+    }
+
+    private static class Snapshot {
+
+        private static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), Instant.MAX);
+
+        private final Map<Long, List<Promotion>> intervals;
+        private final Map<Long, Promotion> activePromotions;
+        private final Instant nextBoundary;
+
+        private Snapshot(Map<Long, List<Promotion>> intervals, Map<Long, Promotion> activePromotions, Instant nextBoundary) {
+            this.intervals = intervals;
+            this.activePromotions = activePromotions;
+            this.nextBoundary = nextBoundary;
+        }
+
+        private static Snapshot of(Map<Long, List<Promotion>> intervals, Instant now) {
+            Map<Long, Promotion> activePromotions = new HashMap<>();
+            Instant nextBoundary = Instant.MAX;
+
+            for (Map.Entry<Long, List<Promotion>> entry : intervals.entrySet()) {
+                List<Promotion> promotions = entry.getValue();
+
+                findActive(promotions, now).ifPresent(promotion -> activePromotions.put(entry.getKey(), promotion));
+
+                // Mốc gần nhất: khuyến mãi sắp bắt đầu, hoặc khuyến mãi sắp kết thúc (ngay sau endDate)
+                for (Promotion promotion : promotions) {
+                    Instant end = promotion.getEndDate().plusNanos(1);
+                    if (promotion.getStartDate().isAfter(now) && promotion.getStartDate().isBefore(nextBoundary)) {
+                        nextBoundary = promotion.getStartDate();
+                    }
+                    if (end.isAfter(now) && end.isBefore(nextBoundary)) {
+                        nextBoundary = end;
+                    }
+                }
+            }
+
+            return new Snapshot(Map.copyOf(intervals), Map.copyOf(activePromotions), nextBoundary);
+        }
+
+        private static Optional<Promotion> findActive(List<Promotion> promotions, Instant now) {
+            // Tìm nhị phân khuyến mãi cuối cùng có startDate <= now
+            int low = 0;
+            int high = promotions.size() - 1;
+            int last = -1;
+
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                if (promotions.get(mid).getStartDate().isAfter(now)) {
+                    high = mid - 1;
+                } else {
+                    last = mid;
+                    low = mid + 1;
+                }
+            }
+
+            for (int i = last; i >= 0; i--) {
+                if (!promotions.get(i).getEndDate().isBefore(now)) {
+                    return Optional.of(promotions.get(i));
+                }
+            }
+
+            return Optional.empty();
+        }
+
+    }
+
+}
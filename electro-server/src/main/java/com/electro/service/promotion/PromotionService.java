@@ -2,11 +2,11 @@ package com.electro.service.promotion;
 
 import com.electro.dto.promotion.PromotionRequest;
 import com.electro.dto.promotion.PromotionResponse;
-import com.electro.service.CrudService;
+import com.electro.service.CursorCrudService;
 
 import java.time.Instant;
 
-public interface PromotionService extends CrudService<Long, PromotionRequest, PromotionResponse> {
+public interface PromotionService extends CursorCrudService<Long, PromotionRequest, PromotionResponse> {
 
     boolean checkCanCreatePromotionForProduct(Long productId, Instant startDate, Instant endDate);
 
@@ -3,6 +3,7 @@ package com.electro.service.promotion;
 import com.electro.constant.FieldName;
 import com.electro.constant.ResourceName;
 import com.electro.constant.SearchFields;
+import com.electro.dto.CursorResponse;
 import com.electro.dto.ListResponse;
 import com.electro.dto.promotion.PromotionRequest;
 import com.electro.dto.promotion.PromotionResponse;
@@ -10,6 +11,7 @@ import com.electro.entity.product.Product;
 import com.electro.entity.promotion.Promotion;
 import com.electro.exception.ResourceNotFoundException;
 import com.electro.mapper.promotion.PromotionMapper;
+import com.electro.repository.KeysetRepository;
 import com.electro.repository.promotion.PromotionRepository;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -22,13 +24,21 @@ import java.util.List;
 public class PromotionServiceImpl implements PromotionService {
 
     private PromotionRepository promotionRepository;
+    private KeysetRepository keysetRepository;
     private PromotionMapper promotionMapper;
+    private PromotionIndexService promotionIndexService;
+    private FlashSaleService flashSaleService;
 
     @Override
     public ListResponse<PromotionResponse> findAll(int page, int size, String sort, String filter, String search, boolean all) {
         return defaultFindAll(page, size, sort, filter, search, all, SearchFields.PROMOTION, promotionRepository, promotionMapper);
     }
 
+    @Override
+    public CursorResponse<PromotionResponse> findAllByCursor(String cursor, int size, String sort, String filter, String search) {
+        return defaultFindAllByCursor(cursor, size, sort, filter, search, SearchFields.PROMOTION, promotionRepository, keysetRepository, promotionMapper);
+    }
+
     @Override
     public PromotionResponse findById(Long id) {
         return defaultFindById(id, promotionRepository, promotionMapper, ResourceName.PROMOTION);
@@ -42,6 +52,10 @@ public class PromotionServiceImpl implements PromotionService {
             throw new RuntimeException("Product list of promotion is empty");
         }
 
+        if (promotion.getQuotaPerVariant() != null && promotion.getQuotaPerVariant() <= 0) {
+            throw new RuntimeException("Quota per variant of promotion must be positive");
+        }
+
         for (Product product : promotion.getProducts()) {
             List<Promotion> promotions = promotionRepository
                     .findByProductId(product.getId(), promotion.getStartDate(), promotion.getEndDate());
@@ -50,7 +64,10 @@ public class PromotionServiceImpl implements PromotionService {
             }
         }
 
-        return promotionMapper.entityToResponse(promotionRepository.save(promotion));
+        PromotionResponse promotionResponse = promotionMapper.entityToResponse(promotionRepository.save(promotion));
+        promotionIndexService.reload();
+        flashSaleService.reload();
+        return promotionResponse;
     }
 
     @Override
@@ -63,17 +80,28 @@ public class PromotionServiceImpl implements PromotionService {
             throw new RuntimeException("Product list of promotion is empty");
         }
 
-        return promotionMapper.entityToResponse(promotionRepository.save(promotion));
+        if (promotion.getQuotaPerVariant() != null && promotion.getQuotaPerVariant() <= 0) {
+            throw new RuntimeException("Quota per variant of promotion must be positive");
+        }
+
+        PromotionResponse promotionResponse = promotionMapper.entityToResponse(promotionRepository.save(promotion));
+        promotionIndexService.reload();
+        flashSaleService.reload();
+        return promotionResponse;
     }
 
     @Override
     public void delete(Long id) {
         promotionRepository.deleteById(id);
+        promotionIndexService.reload();
+        flashSaleService.reload();
     }
 
     @Override
     public void delete(List<Long> ids) {
         promotionRepository.deleteAllById(ids);
+        promotionIndexService.reload();
+        flashSaleService.reload();
     }
 
     @Override
@@ -2,6 +2,6 @@ package com.electro.service.review;
 
 import com.electro.dto.review.ReviewRequest;
 import com.electro.dto.review.ReviewResponse;
-import com.electro.service.CrudService;
+import com.electro.service.CursorCrudService;
 
-public interface ReviewService extends CrudService<Long, ReviewRequest, ReviewResponse> {}
+public interface ReviewService extends CursorCrudService<Long, ReviewRequest, ReviewResponse> {}
@@ -3,12 +3,14 @@ package com.electro.service.review;
 import com.electro.constant.FieldName;
 import com.electro.constant.ResourceName;
 import com.electro.constant.SearchFields;
+import com.electro.dto.CursorResponse;
 import com.electro.dto.ListResponse;
 import com.electro.dto.review.ReviewRequest;
 import com.electro.dto.review.ReviewResponse;
 import com.electro.entity.review.Review;
 import com.electro.exception.ResourceNotFoundException;
 import com.electro.mapper.review.ReviewMapper;
+import com.electro.repository.KeysetRepository;
 import com.electro.repository.review.ReviewRepository;
 import com.electro.utils.RewardUtils;
 import lombok.AllArgsConstructor;
@@ -21,6 +23,7 @@ import java.util.List;
 public class ReviewServiceImpl implements ReviewService {
 
     private ReviewRepository reviewRepository;
+    private KeysetRepository keysetRepository;
     private ReviewMapper reviewMapper;
     private RewardUtils rewardUtils;
 
@@ -29,6 +32,11 @@ public class ReviewServiceImpl implements ReviewService {
         return defaultFindAll(page, size, sort, filter, search, all, SearchFields.REVIEW, reviewRepository, reviewMapper);
     }
 
+    @Override
+    public CursorResponse<ReviewResponse> findAllByCursor(String cursor, int size, String sort, String filter, String search) {
+        return defaultFindAllByCursor(cursor, size, sort, filter, search, SearchFields.REVIEW, reviewRepository, keysetRepository, reviewMapper);
+    }
+
     @Override
     public ReviewResponse findById(Long id) {
         return defaultFindById(id, reviewRepository, reviewMapper, ResourceName.REVIEW);
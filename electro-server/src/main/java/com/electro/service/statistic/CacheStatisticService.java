@@ -0,0 +1,11 @@
+package com.electro.service.statistic;
+
+import com.electro.dto.statistic.CacheStatisticResponse;
+
+public interface CacheStatisticService {
+
+    CacheStatisticResponse getCacheStatistic();
+
+    void evictAll();
+
+}
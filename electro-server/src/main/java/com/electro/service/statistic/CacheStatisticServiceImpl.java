@@ -0,0 +1,73 @@
+package com.electro.service.statistic;
+
+import com.electro.dto.statistic.CacheRegionStatistic;
+import com.electro.dto.statistic.CacheStatisticResponse;
+import lombok.AllArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Số liệu cache cấp 2 và cache truy vấn của Hibernate (cần hibernate.generate_statistics = true),
+ * tính từ lúc khởi động ứng dụng hoặc lần gọi evictAll gần nhất.
+ */
+@Service
+@AllArgsConstructor
+public class CacheStatisticServiceImpl implements CacheStatisticService {
+
+    private EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public CacheStatisticResponse getCacheStatistic() {
+        Statistics statistics = getStatistics();
+
+        List<CacheRegionStatistic> regions = Arrays.stream(statistics.getSecondLevelCacheRegionNames())
+                .map(statistics::getCacheRegionStatistics)
+                .filter(Objects::nonNull)
+                .map(CacheStatisticServiceImpl::toCacheRegionStatistic)
+                .sorted(Comparator.comparing(CacheRegionStatistic::getRegionName))
+                .collect(Collectors.toList());
+
+        CacheStatisticResponse response = new CacheStatisticResponse();
+        response.setSecondLevelCacheHitCount(statistics.getSecondLevelCacheHitCount());
+        response.setSecondLevelCacheMissCount(statistics.getSecondLevelCacheMissCount());
+        response.setSecondLevelCachePutCount(statistics.getSecondLevelCachePutCount());
+        response.setQueryCacheHitCount(statistics.getQueryCacheHitCount());
+        response.setQueryCacheMissCount(statistics.getQueryCacheMissCount());
+        response.setQueryCachePutCount(statistics.getQueryCachePutCount());
+        response.setQueryExecutionCount(statistics.getQueryExecutionCount());
+        response.setEntityLoadCount(statistics.getEntityLoadCount());
+        response.setRegions(regions);
+
+        return response;
+    }
+
+    @Override
+    public void evictAll() {
+        // Dùng khi dữ liệu danh mục bị sửa trực tiếp trong cơ sở dữ liệu, không qua Hibernate
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        getStatistics().clear();
+    }
+
+    private Statistics getStatistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private static CacheRegionStatistic toCacheRegionStatistic(CacheRegionStatistics regionStatistics) {
+        long hitCount = regionStatistics.getHitCount();
+        long missCount = regionStatistics.getMissCount();
+        double hitRatio = hitCount + missCount == 0 ? 0 : (double) hitCount / (hitCount + missCount);
+
+        return new CacheRegionStatistic(regionStatistics.getRegionName(), hitCount, missCount,
+                regionStatistics.getPutCount(), hitRatio);
+    }
+
+}
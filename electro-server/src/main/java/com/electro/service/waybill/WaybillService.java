@@ -3,9 +3,9 @@ package com.electro.service.waybill;
 import com.electro.dto.waybill.GhnCallbackOrderRequest;
 import com.electro.dto.waybill.WaybillRequest;
 import com.electro.dto.waybill.WaybillResponse;
-import com.electro.service.CrudService;
+import com.electro.service.CursorCrudService;
 
-public interface WaybillService extends CrudService<Long, WaybillRequest, WaybillResponse> {
+public interface WaybillService extends CursorCrudService<Long, WaybillRequest, WaybillResponse> {
 
     void callbackStatusWaybillFromGHN(GhnCallbackOrderRequest ghnCallbackOrderRequest);
 
@@ -4,6 +4,7 @@ import com.electro.constant.FieldName;
 import com.electro.constant.ResourceName;
 import com.electro.constant.SearchFields;
 import com.electro.dto.CollectionWrapper;
+import com.electro.dto.CursorResponse;
 import com.electro.dto.ListResponse;
 import com.electro.dto.waybill.GhnCallbackOrderRequest;
 import com.electro.dto.waybill.GhnCreateOrderRequest;
@@ -22,11 +23,14 @@ import com.electro.entity.waybill.WaybillLog;
 import com.electro.exception.ResourceNotFoundException;
 import com.electro.mapper.general.NotificationMapper;
 import com.electro.mapper.waybill.WaybillMapper;
+import com.electro.repository.KeysetRepository;
 import com.electro.repository.general.NotificationRepository;
 import com.electro.repository.order.OrderRepository;
 import com.electro.repository.waybill.WaybillLogRepository;
 import com.electro.repository.waybill.WaybillRepository;
 import com.electro.service.general.NotificationService;
+import com.electro.service.product.BestSellerService;
+import com.electro.service.product.BoughtTogetherService;
 import com.electro.utils.RewardUtils;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -51,6 +55,7 @@ import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.StringJoiner;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -66,18 +71,26 @@ public class WaybillServiceImpl implements WaybillService {
 
     private final OrderRepository orderRepository;
     private final WaybillRepository waybillRepository;
+    private final KeysetRepository keysetRepository;
     private final WaybillMapper waybillMapper;
     private final NotificationService notificationService;
     private final NotificationRepository notificationRepository;
     private final NotificationMapper notificationMapper;
     private final WaybillLogRepository waybillLogRepository;
     private final RewardUtils rewardUtils;
+    private final BoughtTogetherService boughtTogetherService;
+    private final BestSellerService bestSellerService;
 
     @Override
     public ListResponse<WaybillResponse> findAll(int page, int size, String sort, String filter, String search, boolean all) {
         return defaultFindAll(page, size, sort, filter, search, all, SearchFields.WAYBILL, waybillRepository, waybillMapper);
     }
 
+    @Override
+    public CursorResponse<WaybillResponse> findAllByCursor(String cursor, int size, String sort, String filter, String search) {
+        return defaultFindAllByCursor(cursor, size, sort, filter, search, SearchFields.WAYBILL, waybillRepository, keysetRepository, waybillMapper);
+    }
+
     @Override
     public WaybillResponse findById(Long id) {
         return defaultFindById(id, waybillRepository, waybillMapper, ResourceName.WAYBILL);
@@ -348,6 +361,8 @@ public class WaybillServiceImpl implements WaybillService {
                         // TODO: KHI HOÀN THÀNH ĐƠN HÀNG CẦN GỬI MAIL CHO KHÁCH HÀNG
                         waybillLog.setCurrentStatus(3);
                         waybill.setStatus(3);
+                        // GHN có thể gửi lại callback giao thành công, chỉ cộng dồn thống kê ở lần đầu
+                        boolean deliveredBefore = order.getStatus() == 4;
                         order.setStatus(4);
                         // Status 2: Đã thanh toán (giả định giao thành công thì
                         // cũng có nghĩa khách hàng đã thanh toán tiền mặt)
@@ -355,6 +370,16 @@ public class WaybillServiceImpl implements WaybillService {
 
                         // Tích điểm
                         rewardUtils.successOrderHook(order);
+
+                        if (!deliveredBefore) {
+                            // Cộng dồn đơn hàng vào ma trận mua cùng, không quét lại toàn bộ lịch sử đơn hàng
+                            boughtTogetherService.recordDeliveredOrder(order.getOrderVariants().stream()
+                                    .map(orderVariant -> orderVariant.getVariant().getProduct().getId())
+                                    .collect(Collectors.toSet()));
+
+                            // Cộng phần còn lại của số lượng bán vào xếp hạng bán chạy
+                            bestSellerService.recordDeliveredOrder(order);
+                        }
                         break;
                     case WaybillCallbackConstants.FAILED:
                     case WaybillCallbackConstants.RETURN:
@@ -367,6 +392,10 @@ public class WaybillServiceImpl implements WaybillService {
                                 .setStatus(1));
                         waybillLog.setCurrentStatus(4);
                         waybill.setStatus(4);
+                        // Trừ lại phần số lượng bán đã cộng lúc tạo đơn, nếu đơn chưa bị hủy trước đó
+                        if (order.getStatus() != 5) {
+                            bestSellerService.recordCancelledOrder(order);
+                        }
                         order.setStatus(5);
                         break;
                     default:
@@ -0,0 +1,99 @@
+package com.electro.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+public class CursorUtils {
+
+    private static final String ID_FIELD = "id";
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    /**
+     * Phân tích chuỗi sort theo định dạng RSQL ("createdAt,desc;id,desc") thành danh sách Sort.Order,
+     * luôn kết thúc bằng id để thứ tự là duy nhất.
+     * Ví dụ: "createdAt,desc" -> [createdAt DESC, id DESC]
+     */
+    public static List<Sort.Order> parseSort(String sort) {
+        List<Sort.Order> orders = new ArrayList<>();
+
+        for (String part : sort.split(";")) {
+            if (part.isBlank()) {
+                continue;
+            }
+
+            String[] tokens = part.split(",");
+            String field = tokens[0].trim();
+            Sort.Direction direction = tokens.length > 1 && "desc".equalsIgnoreCase(tokens[1].trim())
+                    ? Sort.Direction.DESC
+                    : Sort.Direction.ASC;
+
+            orders.add(new Sort.Order(direction, field));
+        }
+
+        if (orders.stream().noneMatch(order -> ID_FIELD.equals(order.getProperty()))) {
+            Sort.Direction direction = orders.isEmpty() ? Sort.Direction.DESC : orders.get(orders.size() - 1).getDirection();
+            orders.add(new Sort.Order(direction, ID_FIELD));
+        }
+
+        return orders;
+    }
+
+    /**
+     * Mã hóa giá trị các khóa sắp xếp của bản ghi cuối cùng thành cursor (base64url của mảng JSON)
+     */
+    public static String encode(Object entity, String sort) {
+        BeanWrapperImpl wrapper = new BeanWrapperImpl(entity);
+        ArrayNode values = OBJECT_MAPPER.createArrayNode();
+
+        for (Sort.Order order : parseSort(sort)) {
+            values.add(OBJECT_MAPPER.valueToTree(wrapper.getPropertyValue(order.getProperty())));
+        }
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(values.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Giải mã cursor thành danh sách giá trị JSON ứng với từng khóa sắp xếp, trả về null nếu là trang đầu tiên
+     */
+    @Nullable
+    public static List<JsonNode> decode(@Nullable String cursor, int orderCount) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+
+        try {
+            JsonNode values = OBJECT_MAPPER.readTree(Base64.getUrlDecoder().decode(cursor));
+
+            if (!values.isArray() || values.size() != orderCount) {
+                throw new RuntimeException("Cursor does not match sort: " + cursor);
+            }
+
+            List<JsonNode> result = new ArrayList<>();
+            values.forEach(result::add);
+            return result;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    /**
+     * Chuyển giá trị JSON trong cursor về kiểu Java của thuộc tính tương ứng
+     */
+    @Nullable
+    public static Object convert(JsonNode value, Class<?> javaType) {
+        return value.isNull() ? null : OBJECT_MAPPER.convertValue(value, javaType);
+    }
+
+}
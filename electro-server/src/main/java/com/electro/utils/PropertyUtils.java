@@ -0,0 +1,49 @@
+package com.electro.utils;
+
+import com.electro.entity.product.ProductAttribute;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.lang.Nullable;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class PropertyUtils {
+
+    /**
+     * Đọc thuộc tính dạng `{"content": [{"code", "name", "value"}]}` của Product.properties (value là mảng chuỗi)
+     * hoặc Variant.properties (value là chuỗi) vào `values` (code -> tập giá trị) và `names` (code -> tên thuộc tính)
+     */
+    public static void read(@Nullable JsonNode properties, Map<String, Set<String>> values, Map<String, String> names) {
+        if (properties == null || !properties.path("content").isArray()) {
+            return;
+        }
+
+        for (JsonNode property : properties.get("content")) {
+            String code = property.path("code").asText(null);
+            JsonNode value = property.get("value");
+
+            if (code == null || value == null || value.isNull()) {
+                continue;
+            }
+
+            names.put(code, property.path("name").asText(code));
+            Set<String> codeValues = values.computeIfAbsent(code, key -> new HashSet<>());
+
+            if (value.isArray()) {
+                value.forEach(element -> codeValues.add(element.asText()));
+            } else {
+                codeValues.add(value.asText());
+            }
+        }
+    }
+
+    /**
+     * Cắt giá trị thuộc tính về độ dài cột product_attribute.value; toán tử `=json=` cắt tham số lọc theo cùng cách
+     * nên giá trị dài vẫn so khớp được
+     */
+    public static String truncate(String value) {
+        return value.length() > ProductAttribute.VALUE_LENGTH ? value.substring(0, ProductAttribute.VALUE_LENGTH) : value;
+    }
+
+}
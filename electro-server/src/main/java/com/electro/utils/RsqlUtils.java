@@ -0,0 +1,95 @@
+package com.electro.utils;
+
+import cz.jirutka.rsql.parser.RSQLParser;
+import cz.jirutka.rsql.parser.ast.ComparisonOperator;
+import cz.jirutka.rsql.parser.ast.Node;
+import io.github.perplexhub.rsql.RSQLCustomPredicate;
+import io.github.perplexhub.rsql.RSQLJPAPredicateConverter;
+import io.github.perplexhub.rsql.RSQLOperators;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.criteria.Predicate;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Thay cho RSQLJPASupport.toSpecification: RSQLJPASupport phân tích lại chuỗi RSQL mỗi lần gọi toPredicate
+ * (hai lần cho một trang: truy vấn dữ liệu và truy vấn đếm), trong khi các màn hình quản trị lặp lại
+ * một số ít chuỗi filter/search.
+ * <p>
+ * Cây cú pháp (Node) chỉ phụ thuộc vào chuỗi và tập toán tử, không phụ thuộc thực thể, và là bất biến,
+ * nên được lưu trong một cache LRU có giới hạn, dùng chung cho mọi thực thể. Phần chuyển thành Predicate
+ * vẫn chạy mỗi lần vì phụ thuộc Root/CriteriaBuilder của từng truy vấn.
+ */
+public class RsqlUtils {
+
+    private static final int MAX_ENTRIES = 512;
+
+    private static final Set<ComparisonOperator> DEFAULT_OPERATORS = RSQLOperators.supportedOperators();
+    private static final RSQLParser DEFAULT_PARSER = new RSQLParser(DEFAULT_OPERATORS);
+
+    private static final Map<String, Node> PARSED_NODES = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Node> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    public static <T> Specification<T> toSpecification(@Nullable String rsqlQuery) {
+        return toSpecification(rsqlQuery, Map.of(), List.of());
+    }
+
+    public static <T> Specification<T> toSpecification(@Nullable String rsqlQuery,
+                                                       Map<String, String> propertyPathMapper,
+                                                       List<RSQLCustomPredicate<?>> customPredicates) {
+        if (!StringUtils.hasText(rsqlQuery)) {
+            return (root, query, cb) -> null;
+        }
+
+        Node node = parse(rsqlQuery.trim(), customPredicates);
+
+        return (root, query, cb) -> (Predicate) node.accept(
+                new RSQLJPAPredicateConverter(cb, propertyPathMapper, customPredicates, Map.of()), root);
+    }
+
+    private static Node parse(String rsqlQuery, List<RSQLCustomPredicate<?>> customPredicates) {
+        // Toán tử tùy chỉnh làm thay đổi cách phân tích, nên là một phần của khóa cache
+        String key = customPredicates.isEmpty()
+                ? rsqlQuery
+                : customPredicates.stream()
+                .map(customPredicate -> customPredicate.getOperator().getSymbol())
+                .collect(Collectors.joining(",", "[", "]")) + rsqlQuery;
+
+        synchronized (PARSED_NODES) {
+            Node cachedNode = PARSED_NODES.get(key);
+            if (cachedNode != null) {
+                return cachedNode;
+            }
+        }
+
+        Node node = createParser(customPredicates).parse(rsqlQuery);
+
+        synchronized (PARSED_NODES) {
+            PARSED_NODES.put(key, node);
+        }
+
+        return node;
+    }
+
+    private static RSQLParser createParser(List<RSQLCustomPredicate<?>> customPredicates) {
+        if (customPredicates.isEmpty()) {
+            return DEFAULT_PARSER;
+        }
+
+        Set<ComparisonOperator> operators = new HashSet<>(DEFAULT_OPERATORS);
+        customPredicates.forEach(customPredicate -> operators.add(customPredicate.getOperator()));
+        return new RSQLParser(operators);
+    }
+
+}
@@ -1,21 +1,49 @@
 package com.electro.utils;
 
-import io.github.perplexhub.rsql.RSQLJPASupport;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.text.Normalizer;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 public class SearchUtils {
 
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern TOKEN_SEPARATORS = Pattern.compile("[^a-z0-9]+");
+
     public static <T> Specification<T> parse(String search, List<String> searchFields) {
         if (search == null || search.isBlank() || searchFields == null || searchFields.size() == 0) {
-            return RSQLJPASupport.toSpecification(null);
+            return RsqlUtils.toSpecification(null);
         }
 
         return searchFields.stream()
                 .map(field -> field + "=like='" + search.trim() + "'")
-                .collect(Collectors.collectingAndThen(Collectors.joining(","), RSQLJPASupport::toSpecification));
+                .collect(Collectors.collectingAndThen(Collectors.joining(","), RsqlUtils::toSpecification));
+    }
+
+    /**
+     * Chuẩn hóa chuỗi để tìm kiếm: chữ thường, bỏ dấu tiếng Việt (kể cả "đ" -> "d").
+     * Ví dụ: "Điện Thoại Sạc Nhanh" -> "dien thoai sac nhanh"
+     */
+    public static String fold(String text) {
+        String lowerCased = text.toLowerCase(Locale.ROOT).replace('đ', 'd');
+        return COMBINING_MARKS.matcher(Normalizer.normalize(lowerCased, Normalizer.Form.NFD)).replaceAll("");
+    }
+
+    /**
+     * Tách chuỗi đã chuẩn hóa thành các từ gồm chữ cái và chữ số
+     */
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+
+        return Arrays.stream(TOKEN_SEPARATORS.split(fold(text)))
+                .filter(token -> !token.isEmpty())
+                .collect(Collectors.toList());
     }
 
 }
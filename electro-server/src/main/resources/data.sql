@@ -2051,6 +2051,24 @@ VALUES (1, 102, 13);
 INSERT INTO docket_variant (docket_id, variant_id, quantity)
 VALUES (1, 103, 8);
 
+-- variant_stock TABLE: tổng hợp từ docket_variant
+INSERT INTO variant_stock (variant_id, warehouse_id, inventory, waiting_for_delivery, can_be_sold, are_coming, updated_at)
+SELECT dv.variant_id,
+       d.warehouse_id,
+       SUM(CASE WHEN d.type = 1 AND d.status = 3 THEN dv.quantity
+                WHEN d.type = 2 AND d.status = 3 THEN -dv.quantity
+                ELSE 0 END),
+       SUM(CASE WHEN d.type = 2 AND d.status IN (1, 2) THEN dv.quantity ELSE 0 END),
+       SUM(CASE WHEN d.type = 1 AND d.status = 3 THEN dv.quantity
+                WHEN d.type = 2 AND d.status = 3 THEN -dv.quantity
+                ELSE 0 END)
+           - SUM(CASE WHEN d.type = 2 AND d.status IN (1, 2) THEN dv.quantity ELSE 0 END),
+       SUM(CASE WHEN d.type = 1 AND d.status IN (1, 2) THEN dv.quantity ELSE 0 END),
+       NOW()
+FROM docket_variant dv
+         JOIN docket d ON d.id = dv.docket_id
+GROUP BY dv.variant_id, d.warehouse_id;
+
 -- transfer TABLE: 2 records
 INSERT INTO transfer (created_at, updated_at, code, export_docket_id, import_docket_id, note)
 VALUES ('2022-07-01 14:16:33', '2021-12-02 23:53:14', '06420-076', 1, 2, 'Excision of Right Lower Leg Tendon, Open Approach');
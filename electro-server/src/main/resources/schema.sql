@@ -19,6 +19,7 @@ DROP TABLE IF EXISTS
     customer,
     property,
     category,
+    category_closure,
     tag,
     guarantee,
     unit,
@@ -26,6 +27,7 @@ DROP TABLE IF EXISTS
     brand,
     specification,
     product,
+    product_attribute,
     product_tag,
     variant,
     image,
@@ -41,11 +43,14 @@ DROP TABLE IF EXISTS
     purchase_order_variant,
     docket,
     docket_variant,
+    variant_stock,
+    variant_availability,
     transfer,
     order_resource,
     order_cancellation_reason,
     `order`,
     order_variant,
+    stock_reservation,
     waybill,
     wish,
     preorder,
@@ -56,13 +61,15 @@ DROP TABLE IF EXISTS
     payment_method,
     promotion,
     promotion_product,
+    promotion_quota,
     room,
     message,
     verification,
     refresh_token,
     waybill_log,
     reward_strategy,
-    reward_log;
+    reward_log,
+    id_generator;
 
 -- CREATE TABLES
 
@@ -373,6 +380,22 @@ ALTER TABLE category
 ALTER TABLE category
     ADD CONSTRAINT FK_CATEGORY_ON_CATEGORY FOREIGN KEY (category_id) REFERENCES category (id);
 
+CREATE TABLE category_closure
+(
+    ancestor_id   BIGINT NOT NULL,
+    descendant_id BIGINT NOT NULL,
+    depth         INT    NOT NULL,
+    CONSTRAINT pk_category_closure PRIMARY KEY (ancestor_id, descendant_id)
+);
+
+CREATE INDEX idx_category_closure_descendant ON category_closure (descendant_id, ancestor_id);
+
+ALTER TABLE category_closure
+    ADD CONSTRAINT FK_CATEGORY_CLOSURE_ON_ANCESTOR FOREIGN KEY (ancestor_id) REFERENCES category (id) ON DELETE CASCADE;
+
+ALTER TABLE category_closure
+    ADD CONSTRAINT FK_CATEGORY_CLOSURE_ON_DESCENDANT FOREIGN KEY (descendant_id) REFERENCES category (id) ON DELETE CASCADE;
+
 CREATE TABLE tag
 (
     id         BIGINT AUTO_INCREMENT NOT NULL,
@@ -503,9 +526,23 @@ CREATE TABLE product
     properties        JSON                  NULL,
     weight            DOUBLE                NULL,
     guarantee_id      BIGINT                NULL,
+    min_price            DOUBLE             NULL,
+    max_price            DOUBLE             NULL,
+    min_discounted_price DOUBLE             NULL,
+    last_imported_at     datetime           NULL,
+    total_sold           INT                NOT NULL DEFAULT 0,
+    best_selling_score   DOUBLE             NULL,
     CONSTRAINT pk_product PRIMARY KEY (id)
 );
 
+-- Khóa sắp xếp tính sẵn (ProductSortKeyService), để trang danh sách sắp xếp bằng index thay vì gộp nhóm theo biến thể
+CREATE INDEX idx_product_min_price ON product (min_price, id);
+CREATE INDEX idx_product_max_price ON product (max_price, id);
+CREATE INDEX idx_product_min_discounted_price ON product (min_discounted_price, id);
+CREATE INDEX idx_product_last_imported_at ON product (last_imported_at, id);
+CREATE INDEX idx_product_total_sold ON product (total_sold, id);
+CREATE INDEX idx_product_best_selling_score ON product (best_selling_score, id);
+
 ALTER TABLE product
     ADD CONSTRAINT uc_product_code UNIQUE (code);
 
@@ -527,6 +564,21 @@ ALTER TABLE product
 ALTER TABLE product
     ADD CONSTRAINT FK_PRODUCT_ON_UNIT FOREIGN KEY (unit_id) REFERENCES unit (id);
 
+CREATE TABLE product_attribute
+(
+    id         BIGINT AUTO_INCREMENT NOT NULL,
+    product_id BIGINT                NOT NULL,
+    code       VARCHAR(255)          NOT NULL,
+    `value`    VARCHAR(255)          NOT NULL,
+    source     TINYINT               NOT NULL,
+    CONSTRAINT pk_product_attribute PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_product_attribute_code_value ON product_attribute (code, `value`, source, product_id);
+
+ALTER TABLE product_attribute
+    ADD CONSTRAINT FK_PRODUCT_ATTRIBUTE_ON_PRODUCT FOREIGN KEY (product_id) REFERENCES product (id) ON DELETE CASCADE;
+
 CREATE TABLE product_tag
 (
     product_id BIGINT NOT NULL,
@@ -814,6 +866,35 @@ ALTER TABLE docket_variant
 ALTER TABLE docket_variant
     ADD CONSTRAINT FK_DOCKET_VARIANT_ON_VARIANT FOREIGN KEY (variant_id) REFERENCES variant (id);
 
+CREATE TABLE variant_stock
+(
+    variant_id           BIGINT   NOT NULL,
+    warehouse_id         BIGINT   NOT NULL,
+    inventory            INT      NOT NULL,
+    waiting_for_delivery INT      NOT NULL,
+    can_be_sold          INT      NOT NULL,
+    are_coming           INT      NOT NULL,
+    updated_at           datetime NOT NULL,
+    CONSTRAINT pk_variant_stock PRIMARY KEY (variant_id, warehouse_id)
+);
+
+ALTER TABLE variant_stock
+    ADD CONSTRAINT FK_VARIANT_STOCK_ON_VARIANT FOREIGN KEY (variant_id) REFERENCES variant (id);
+
+ALTER TABLE variant_stock
+    ADD CONSTRAINT FK_VARIANT_STOCK_ON_WAREHOUSE FOREIGN KEY (warehouse_id) REFERENCES warehouse (id);
+
+CREATE TABLE variant_availability
+(
+    variant_id BIGINT   NOT NULL,
+    available  INT      NOT NULL,
+    updated_at datetime NOT NULL,
+    CONSTRAINT pk_variant_availability PRIMARY KEY (variant_id)
+);
+
+ALTER TABLE variant_availability
+    ADD CONSTRAINT FK_VARIANT_AVAILABILITY_ON_VARIANT FOREIGN KEY (variant_id) REFERENCES variant (id) ON DELETE CASCADE;
+
 CREATE TABLE transfer
 (
     id               BIGINT AUTO_INCREMENT NOT NULL,
@@ -924,11 +1005,12 @@ ALTER TABLE docket
 
 CREATE TABLE order_variant
 (
-    order_id   BIGINT         NOT NULL,
-    variant_id BIGINT         NOT NULL,
-    price      DECIMAL(15, 5) NOT NULL,
-    quantity   INT            NOT NULL,
-    amount     DECIMAL(15, 5) NOT NULL,
+    order_id     BIGINT         NOT NULL,
+    variant_id   BIGINT         NOT NULL,
+    price        DECIMAL(15, 5) NOT NULL,
+    quantity     INT            NOT NULL,
+    amount       DECIMAL(15, 5) NOT NULL,
+    promotion_id BIGINT         NULL,
     CONSTRAINT pk_order_variant PRIMARY KEY (order_id, variant_id)
 );
 
@@ -938,6 +1020,29 @@ ALTER TABLE order_variant
 ALTER TABLE order_variant
     ADD CONSTRAINT FK_ORDER_VARIANT_ON_VARIANT FOREIGN KEY (variant_id) REFERENCES variant (id);
 
+CREATE TABLE stock_reservation
+(
+    id         BIGINT AUTO_INCREMENT NOT NULL,
+    created_at datetime              NOT NULL,
+    updated_at datetime              NOT NULL,
+    created_by BIGINT                NULL,
+    updated_by BIGINT                NULL,
+    order_id   BIGINT                NOT NULL,
+    variant_id BIGINT                NOT NULL,
+    quantity   INT                   NOT NULL,
+    status     TINYINT               NOT NULL,
+    expires_at datetime              NULL,
+    CONSTRAINT pk_stock_reservation PRIMARY KEY (id)
+);
+
+ALTER TABLE stock_reservation
+    ADD CONSTRAINT FK_STOCK_RESERVATION_ON_ORDER FOREIGN KEY (order_id) REFERENCES `order` (id) ON DELETE CASCADE;
+
+ALTER TABLE stock_reservation
+    ADD CONSTRAINT FK_STOCK_RESERVATION_ON_VARIANT FOREIGN KEY (variant_id) REFERENCES variant (id);
+
+CREATE INDEX idx_stock_reservation_status_expires_at ON stock_reservation (status, expires_at);
+
 CREATE TABLE waybill
 (
     id                     BIGINT AUTO_INCREMENT NOT NULL,
@@ -1102,16 +1207,17 @@ CREATE TABLE payment_method
 
 CREATE TABLE promotion
 (
-    id         BIGINT AUTO_INCREMENT NOT NULL,
-    created_at datetime              NOT NULL,
-    updated_at datetime              NOT NULL,
-    created_by BIGINT                NULL,
-    updated_by BIGINT                NULL,
-    name       VARCHAR(255)          NOT NULL,
-    start_date datetime              NOT NULL,
-    end_date   datetime              NOT NULL,
-    percent    INT                   NOT NULL,
-    status     TINYINT               NOT NULL,
+    id                BIGINT AUTO_INCREMENT NOT NULL,
+    created_at        datetime              NOT NULL,
+    updated_at        datetime              NOT NULL,
+    created_by        BIGINT                NULL,
+    updated_by        BIGINT                NULL,
+    name              VARCHAR(255)          NOT NULL,
+    start_date        datetime              NOT NULL,
+    end_date          datetime              NOT NULL,
+    percent           INT                   NOT NULL,
+    quota_per_variant INT                   NULL,
+    status            TINYINT               NOT NULL,
     CONSTRAINT pk_promotion PRIMARY KEY (id)
 );
 
@@ -1128,6 +1234,24 @@ ALTER TABLE promotion_product
 ALTER TABLE promotion_product
     ADD CONSTRAINT FK_PROMOTION_PRODUCT_ON_PRODUCT FOREIGN KEY (product_id) REFERENCES product (id);
 
+CREATE TABLE promotion_quota
+(
+    promotion_id BIGINT   NOT NULL,
+    variant_id   BIGINT   NOT NULL,
+    claimed      INT      NOT NULL,
+    updated_at   datetime NOT NULL,
+    CONSTRAINT pk_promotion_quota PRIMARY KEY (promotion_id, variant_id)
+);
+
+ALTER TABLE promotion_quota
+    ADD CONSTRAINT FK_PROMOTION_QUOTA_ON_PROMOTION FOREIGN KEY (promotion_id) REFERENCES promotion (id) ON DELETE CASCADE;
+
+ALTER TABLE promotion_quota
+    ADD CONSTRAINT FK_PROMOTION_QUOTA_ON_VARIANT FOREIGN KEY (variant_id) REFERENCES variant (id) ON DELETE CASCADE;
+
+ALTER TABLE order_variant
+    ADD CONSTRAINT FK_ORDER_VARIANT_ON_PROMOTION FOREIGN KEY (promotion_id) REFERENCES promotion (id) ON DELETE SET NULL;
+
 CREATE TABLE room
 (
     id              BIGINT AUTO_INCREMENT NOT NULL,
@@ -1261,3 +1385,10 @@ CREATE TABLE reward_log
 
 ALTER TABLE reward_log
     ADD CONSTRAINT FK_REWARD_LOG_ON_USER FOREIGN KEY (user_id) REFERENCES user (id);
+
+CREATE TABLE id_generator
+(
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val      BIGINT       NOT NULL,
+    CONSTRAINT pk_id_generator PRIMARY KEY (sequence_name)
+);
@@ -5,7 +5,9 @@ import com.electro.dto.client.ClientCategoryResponse;
 import com.electro.entity.product.Category;
 import com.electro.exception.ResourceNotFoundException;
 import com.electro.mapper.client.ClientCategoryMapper;
-import com.electro.repository.product.CategoryRepository;
+import com.electro.service.product.CategoryNode;
+import com.electro.service.product.CategoryTree;
+import com.electro.service.product.CategoryTreeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -22,7 +24,6 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -42,7 +43,7 @@ public class ClientCategoryControllerTests {
 
     // Mock các đối tượng cần thiết cho controller
     @Mock
-    private CategoryRepository categoryRepository; // Repository truy vấn dữ liệu danh mục
+    private CategoryTreeService categoryTreeService; // Service giữ cây danh mục trong bộ nhớ
 
     @Mock
     private ClientCategoryMapper clientCategoryMapper; // Mapper chuyển đổi giữa entity và DTO
@@ -58,7 +59,7 @@ public class ClientCategoryControllerTests {
     private Category childCategory2; // Danh mục con 2 (Laptops) của Computers
     private Category childCategory3; // Danh mục con 3 (Tablets) của Electronics
     private Category grandchildCategory; // Danh mục cháu (Earphones) của Smartphones
-    private List<Category> parentCategories; // Danh sách tất cả danh mục cha
+    private CategoryTree categoryTree; // Cây danh mục dựng từ tất cả danh mục ở trên
     private List<ClientCategoryResponse> clientCategoryResponses; // Danh sách response DTO
     private ClientCategoryResponse mockResponse1; // Response giả lập 1
     private ClientCategoryResponse mockResponse2; // Response giả lập 2
@@ -109,8 +110,10 @@ public class ClientCategoryControllerTests {
         when(grandchildCategory.getSlug()).thenReturn("earphones");
         when(grandchildCategory.getParentCategory()).thenReturn(childCategory1); // Thuộc Smartphones
 
-        // Tạo danh sách danh mục cha
-        parentCategories = Arrays.asList(parentCategory1, parentCategory2);
+        // Dựng cây danh mục từ các danh mục trên
+        categoryTree = CategoryTree.of(Arrays.asList(parentCategory1, parentCategory2,
+                childCategory1, childCategory2, childCategory3, grandchildCategory));
+        when(categoryTreeService.getTree()).thenReturn(categoryTree);
 
         // Tạo các response mock (không cần thiết lập chi tiết các getter/setter)
         mockResponse1 = mock(ClientCategoryResponse.class);
@@ -127,10 +130,8 @@ public class ClientCategoryControllerTests {
     @DisplayName("Should return all parent categories with child categories")
     void getAllCategories_ShouldReturnAllParentCategoriesWithChildren() {
         // Arrange - Chuẩn bị dữ liệu đầu vào
-        // Cấu hình mock để trả về danh sách danh mục cha
-        when(categoryRepository.findByParentCategoryIsNull()).thenReturn(parentCategories);
         // Cấu hình mapper để trả về DTO có cấu trúc phân cấp
-        when(clientCategoryMapper.entityToResponse(eq(parentCategories), anyInt())).thenReturn(clientCategoryResponses);
+        when(clientCategoryMapper.nodeToResponse(eq(categoryTree.getRoots()), anyInt())).thenReturn(clientCategoryResponses);
 
         // Act - Thực hiện phương thức cần test
         ResponseEntity<CollectionWrapper<ClientCategoryResponse>> response = clientCategoryController
@@ -143,8 +144,8 @@ public class ClientCategoryControllerTests {
         assertEquals(2, response.getBody().getContent().size()); // Kiểm tra số lượng danh mục cha
 
         // Xác minh các phương thức mock đã được gọi đúng
-        verify(categoryRepository).findByParentCategoryIsNull();
-        verify(clientCategoryMapper).entityToResponse(eq(parentCategories), eq(3)); // Độ sâu mặc định là 3
+        verify(categoryTreeService).getTree();
+        verify(clientCategoryMapper).nodeToResponse(eq(categoryTree.getRoots()), eq(3)); // Độ sâu mặc định là 3
     }
 
     /**
@@ -157,8 +158,8 @@ public class ClientCategoryControllerTests {
     void getAllCategories_ShouldReturnEmptyList_WhenNoCategoriesExist() {
         // Arrange - Chuẩn bị dữ liệu đầu vào
         // Cấu hình mock để trả về danh sách rỗng
-        when(categoryRepository.findByParentCategoryIsNull()).thenReturn(Collections.emptyList());
-        when(clientCategoryMapper.entityToResponse(eq(Collections.emptyList()), anyInt()))
+        when(categoryTreeService.getTree()).thenReturn(CategoryTree.EMPTY);
+        when(clientCategoryMapper.nodeToResponse(eq(Collections.emptyList()), anyInt()))
                 .thenReturn(Collections.emptyList());
 
         // Act - Thực hiện phương thức cần test
@@ -171,8 +172,8 @@ public class ClientCategoryControllerTests {
         assertTrue(response.getBody().getContent().isEmpty()); // Kiểm tra danh sách rỗng
 
         // Xác minh các phương thức mock đã được gọi đúng
-        verify(categoryRepository).findByParentCategoryIsNull();
-        verify(clientCategoryMapper).entityToResponse(eq(Collections.emptyList()), eq(3));
+        verify(categoryTreeService).getTree();
+        verify(clientCategoryMapper).nodeToResponse(eq(Collections.emptyList()), eq(3));
     }
 
     /**
@@ -188,8 +189,8 @@ public class ClientCategoryControllerTests {
         ClientCategoryResponse mockCategoryResponse = mock(ClientCategoryResponse.class);
 
         // Cấu hình mock để trả về danh mục khi tìm theo slug
-        when(categoryRepository.findBySlug(eq(slug))).thenReturn(Optional.of(childCategory1));
-        when(clientCategoryMapper.entityToResponse(eq(childCategory1), anyBoolean())).thenReturn(mockCategoryResponse);
+        CategoryNode categoryNode = categoryTree.findBySlug(slug).orElseThrow();
+        when(clientCategoryMapper.nodeToResponse(eq(categoryNode), anyBoolean())).thenReturn(mockCategoryResponse);
 
         // Act - Thực hiện phương thức cần test
         ResponseEntity<ClientCategoryResponse> response = clientCategoryController.getCategory(slug);
@@ -200,8 +201,8 @@ public class ClientCategoryControllerTests {
         assertSame(mockCategoryResponse, response.getBody()); // Kiểm tra đúng đối tượng trả về
 
         // Xác minh các phương thức mock đã được gọi đúng
-        verify(categoryRepository).findBySlug(slug);
-        verify(clientCategoryMapper).entityToResponse(eq(childCategory1), eq(false));
+        verify(categoryTreeService).getTree();
+        verify(clientCategoryMapper).nodeToResponse(eq(categoryNode), eq(false));
     }
 
     /**
@@ -213,19 +214,16 @@ public class ClientCategoryControllerTests {
     @DisplayName("Should throw ResourceNotFoundException when invalid slug provided")
     void getCategory_ShouldThrowResourceNotFoundException_WhenInvalidSlugProvided() {
         // Arrange - Chuẩn bị dữ liệu đầu vào
-        String slug = "non-existent-category"; // Slug không tồn tại
-
-        // Cấu hình mock để trả về Optional rỗng (không tìm thấy danh mục)
-        when(categoryRepository.findBySlug(eq(slug))).thenReturn(Optional.empty());
+        String slug = "non-existent-category"; // Slug không có trong cây danh mục
 
         // Act & Assert - Thực hiện và kiểm tra ngoại lệ
         assertThrows(ResourceNotFoundException.class,
                 () -> clientCategoryController.getCategory(slug));
 
         // Xác minh các phương thức mock đã được gọi đúng
-        verify(categoryRepository).findBySlug(slug);
+        verify(categoryTreeService).getTree();
         // Xác minh mapper không được gọi khi không tìm thấy danh mục
-        verify(clientCategoryMapper, never()).entityToResponse(any(Category.class), anyBoolean());
+        verify(clientCategoryMapper, never()).nodeToResponse(any(CategoryNode.class), anyBoolean());
     }
 
     /**
@@ -241,8 +239,8 @@ public class ClientCategoryControllerTests {
         ClientCategoryResponse mockResponse = mock(ClientCategoryResponse.class);
 
         // Cấu hình mock để trả về danh mục cha
-        when(categoryRepository.findBySlug(eq(slug))).thenReturn(Optional.of(parentCategory1));
-        when(clientCategoryMapper.entityToResponse(eq(parentCategory1), eq(false))).thenReturn(mockResponse);
+        CategoryNode categoryNode = categoryTree.findBySlug(slug).orElseThrow();
+        when(clientCategoryMapper.nodeToResponse(eq(categoryNode), eq(false))).thenReturn(mockResponse);
 
         // Act - Thực hiện phương thức cần test
         ResponseEntity<ClientCategoryResponse> response = clientCategoryController.getCategory(slug);
@@ -253,8 +251,8 @@ public class ClientCategoryControllerTests {
         assertSame(mockResponse, response.getBody()); // Kiểm tra đúng đối tượng trả về
 
         // Xác minh các phương thức mock đã được gọi đúng
-        verify(categoryRepository).findBySlug(slug);
-        verify(clientCategoryMapper).entityToResponse(eq(parentCategory1), eq(false));
+        verify(categoryTreeService).getTree();
+        verify(clientCategoryMapper).nodeToResponse(eq(categoryNode), eq(false));
     }
 
     /**
@@ -270,8 +268,8 @@ public class ClientCategoryControllerTests {
         ClientCategoryResponse mockResponse = mock(ClientCategoryResponse.class);
 
         // Cấu hình mock để trả về danh mục lá
-        when(categoryRepository.findBySlug(eq(slug))).thenReturn(Optional.of(grandchildCategory));
-        when(clientCategoryMapper.entityToResponse(eq(grandchildCategory), eq(false))).thenReturn(mockResponse);
+        CategoryNode categoryNode = categoryTree.findBySlug(slug).orElseThrow();
+        when(clientCategoryMapper.nodeToResponse(eq(categoryNode), eq(false))).thenReturn(mockResponse);
 
         // Act - Thực hiện phương thức cần test
         ResponseEntity<ClientCategoryResponse> response = clientCategoryController.getCategory(slug);
@@ -282,8 +280,8 @@ public class ClientCategoryControllerTests {
         assertSame(mockResponse, response.getBody()); // Kiểm tra đúng đối tượng trả về
 
         // Xác minh các phương thức mock đã được gọi đúng
-        verify(categoryRepository).findBySlug(slug);
-        verify(clientCategoryMapper).entityToResponse(eq(grandchildCategory), eq(false));
+        verify(categoryTreeService).getTree();
+        verify(clientCategoryMapper).nodeToResponse(eq(categoryNode), eq(false));
     }
 
     /**
@@ -300,9 +298,9 @@ public class ClientCategoryControllerTests {
         nestedResponses.add(nestedMockResponse);
 
         // Cấu hình mock để trả về một danh mục cha
-        when(categoryRepository.findByParentCategoryIsNull()).thenReturn(Collections.singletonList(parentCategory1));
+        when(categoryTreeService.getTree()).thenReturn(CategoryTree.of(Collections.singletonList(parentCategory1)));
         // Cấu hình mapper để trả về cấu trúc phân cấp của danh mục
-        when(clientCategoryMapper.entityToResponse(anyList(), eq(3))).thenReturn(nestedResponses);
+        when(clientCategoryMapper.nodeToResponse(anyList(), eq(3))).thenReturn(nestedResponses);
 
         // Act - Thực hiện phương thức cần test
         ResponseEntity<CollectionWrapper<ClientCategoryResponse>> response = clientCategoryController
@@ -316,8 +314,8 @@ public class ClientCategoryControllerTests {
         assertSame(nestedMockResponse, response.getBody().getContent().get(0)); // Kiểm tra đúng đối tượng trả về
 
         // Xác minh các phương thức mock đã được gọi đúng
-        verify(categoryRepository).findByParentCategoryIsNull();
-        verify(clientCategoryMapper).entityToResponse(anyList(), eq(3));
+        verify(categoryTreeService).getTree();
+        verify(clientCategoryMapper).nodeToResponse(anyList(), eq(3));
     }
 
     /**
@@ -329,8 +327,7 @@ public class ClientCategoryControllerTests {
     @DisplayName("Should return categories with specified depth limit")
     void getAllCategories_ShouldReturnCategoriesWithSpecifiedDepthLimit() {
         // Arrange - Chuẩn bị dữ liệu đầu vào
-        when(categoryRepository.findByParentCategoryIsNull()).thenReturn(parentCategories);
-        when(clientCategoryMapper.entityToResponse(eq(parentCategories), eq(3))).thenReturn(clientCategoryResponses);
+        when(clientCategoryMapper.nodeToResponse(eq(categoryTree.getRoots()), eq(3))).thenReturn(clientCategoryResponses);
 
         // Act - Thực hiện phương thức cần test
         ResponseEntity<CollectionWrapper<ClientCategoryResponse>> response = clientCategoryController
@@ -341,9 +338,9 @@ public class ClientCategoryControllerTests {
         assertNotNull(response.getBody()); // Kiểm tra response body không null
 
         // Xác minh các phương thức mock đã được gọi đúng
-        verify(categoryRepository).findByParentCategoryIsNull();
+        verify(categoryTreeService).getTree();
         // Xác minh tham số độ sâu là 3 (giá trị mặc định trong controller)
-        verify(clientCategoryMapper).entityToResponse(eq(parentCategories), eq(3));
+        verify(clientCategoryMapper).nodeToResponse(eq(categoryTree.getRoots()), eq(3));
     }
 
     /**
@@ -359,8 +356,8 @@ public class ClientCategoryControllerTests {
         ClientCategoryResponse mockResponse = mock(ClientCategoryResponse.class);
 
         // Cấu hình mock để trả về danh mục cha có nhiều con
-        when(categoryRepository.findBySlug(eq(slug))).thenReturn(Optional.of(parentCategory2));
-        when(clientCategoryMapper.entityToResponse(eq(parentCategory2), eq(false))).thenReturn(mockResponse);
+        CategoryNode categoryNode = categoryTree.findBySlug(slug).orElseThrow();
+        when(clientCategoryMapper.nodeToResponse(eq(categoryNode), eq(false))).thenReturn(mockResponse);
 
         // Act - Thực hiện phương thức cần test
         ResponseEntity<ClientCategoryResponse> response = clientCategoryController.getCategory(slug);
@@ -371,8 +368,8 @@ public class ClientCategoryControllerTests {
         assertSame(mockResponse, response.getBody()); // Kiểm tra đúng đối tượng trả về
 
         // Xác minh các phương thức mock đã được gọi đúng
-        verify(categoryRepository).findBySlug(slug);
-        verify(clientCategoryMapper).entityToResponse(eq(parentCategory2), eq(false));
+        verify(categoryTreeService).getTree();
+        verify(clientCategoryMapper).nodeToResponse(eq(categoryNode), eq(false));
     }
 
     /**
@@ -392,11 +389,14 @@ public class ClientCategoryControllerTests {
         when(specialCategory.getName()).thenReturn("Gaming & Entertainment");
         when(specialCategory.getSlug()).thenReturn("gaming-&-entertainment");
 
+        categoryTree = CategoryTree.of(Collections.singletonList(specialCategory));
+        when(categoryTreeService.getTree()).thenReturn(categoryTree);
+
         ClientCategoryResponse mockResponse = mock(ClientCategoryResponse.class);
 
         // Cấu hình mock để trả về danh mục có slug đặc biệt
-        when(categoryRepository.findBySlug(eq(slug))).thenReturn(Optional.of(specialCategory));
-        when(clientCategoryMapper.entityToResponse(eq(specialCategory), eq(false))).thenReturn(mockResponse);
+        CategoryNode categoryNode = categoryTree.findBySlug(slug).orElseThrow();
+        when(clientCategoryMapper.nodeToResponse(eq(categoryNode), eq(false))).thenReturn(mockResponse);
 
         // Act - Thực hiện phương thức cần test
         ResponseEntity<ClientCategoryResponse> response = clientCategoryController.getCategory(slug);
@@ -407,7 +407,7 @@ public class ClientCategoryControllerTests {
         assertSame(mockResponse, response.getBody()); // Kiểm tra đúng đối tượng trả về
 
         // Xác minh các phương thức mock đã được gọi đúng
-        verify(categoryRepository).findBySlug(slug);
-        verify(clientCategoryMapper).entityToResponse(eq(specialCategory), eq(false));
+        verify(categoryTreeService).getTree();
+        verify(clientCategoryMapper).nodeToResponse(eq(categoryNode), eq(false));
     }
 }
\ No newline at end of file
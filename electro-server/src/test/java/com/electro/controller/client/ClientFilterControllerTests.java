@@ -1,9 +1,12 @@
 package com.electro.controller.client;
 
 import com.electro.dto.client.ClientBrandResponse;
+import com.electro.dto.client.ClientFacetResponse;
 import com.electro.dto.client.ClientFilterResponse;
 import com.electro.entity.product.Brand;
 import com.electro.repository.product.BrandRepository;
+import com.electro.service.product.FacetIndexService;
+import com.electro.service.product.ProductSearchService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -36,6 +39,14 @@ public class ClientFilterControllerTests {
     @Mock
     private BrandRepository brandRepository;
 
+    // Mock chỉ mục tìm kiếm sản phẩm
+    @Mock
+    private ProductSearchService productSearchService;
+
+    // Mock chỉ mục facet
+    @Mock
+    private FacetIndexService facetIndexService;
+
     // Đối tượng controller cần test, được inject mock repository
     @InjectMocks
     private ClientFilterController clientFilterController;
@@ -149,7 +160,9 @@ public class ClientFilterControllerTests {
         String searchQuery = "phone";
 
         // Cấu hình mock để trả về danh sách thương hiệu
-        when(brandRepository.findBySearchQuery(eq(searchQuery))).thenReturn(multipleBrands);
+        List<Long> searchedProductIds = List.of(1L, 2L);
+        when(productSearchService.search(searchQuery)).thenReturn(searchedProductIds);
+        when(brandRepository.findByProductIds(eq(searchedProductIds))).thenReturn(multipleBrands);
 
         // Act - Thực hiện phương thức cần test
         ResponseEntity<ClientFilterResponse> response = clientFilterController.getFilterBySearchQuery(searchQuery);
@@ -167,7 +180,7 @@ public class ClientFilterControllerTests {
         assertEquals("Samsung", response.getBody().getFilterBrands().get(1).getBrandName());
 
         // Xác minh phương thức repository đã được gọi
-        verify(brandRepository).findBySearchQuery(searchQuery);
+        verify(brandRepository).findByProductIds(searchedProductIds);
     }
 
     /**
@@ -182,7 +195,9 @@ public class ClientFilterControllerTests {
         String searchQuery = "non-existent-product";
 
         // Cấu hình mock để trả về danh sách rỗng
-        when(brandRepository.findBySearchQuery(eq(searchQuery))).thenReturn(Collections.emptyList());
+        List<Long> searchedProductIds = List.of(1L, 2L);
+        when(productSearchService.search(searchQuery)).thenReturn(searchedProductIds);
+        when(brandRepository.findByProductIds(eq(searchedProductIds))).thenReturn(Collections.emptyList());
 
         // Act - Thực hiện phương thức cần test
         ResponseEntity<ClientFilterResponse> response = clientFilterController.getFilterBySearchQuery(searchQuery);
@@ -194,7 +209,7 @@ public class ClientFilterControllerTests {
         assertTrue(response.getBody().getFilterBrands().isEmpty()); // Kiểm tra danh sách rỗng
 
         // Xác minh phương thức repository đã được gọi
-        verify(brandRepository).findBySearchQuery(searchQuery);
+        verify(brandRepository).findByProductIds(searchedProductIds);
     }
 
     /**
@@ -209,7 +224,9 @@ public class ClientFilterControllerTests {
         String searchQuery = "sAMsUnG"; // Kết hợp chữ hoa và chữ thường
 
         // Cấu hình mock để trả về thương hiệu Samsung
-        when(brandRepository.findBySearchQuery(eq(searchQuery))).thenReturn(Collections.singletonList(testBrand2));
+        List<Long> searchedProductIds = List.of(1L, 2L);
+        when(productSearchService.search(searchQuery)).thenReturn(searchedProductIds);
+        when(brandRepository.findByProductIds(eq(searchedProductIds))).thenReturn(Collections.singletonList(testBrand2));
 
         // Act - Thực hiện phương thức cần test
         ResponseEntity<ClientFilterResponse> response = clientFilterController.getFilterBySearchQuery(searchQuery);
@@ -225,7 +242,7 @@ public class ClientFilterControllerTests {
         assertEquals("Samsung", response.getBody().getFilterBrands().get(0).getBrandName());
 
         // Xác minh phương thức repository đã được gọi
-        verify(brandRepository).findBySearchQuery(searchQuery);
+        verify(brandRepository).findByProductIds(searchedProductIds);
     }
 
     /**
@@ -240,7 +257,9 @@ public class ClientFilterControllerTests {
         String searchQuery = "sam"; // Chỉ một phần của "Samsung"
 
         // Cấu hình mock để trả về thương hiệu Samsung
-        when(brandRepository.findBySearchQuery(eq(searchQuery))).thenReturn(Collections.singletonList(testBrand2));
+        List<Long> searchedProductIds = List.of(1L, 2L);
+        when(productSearchService.search(searchQuery)).thenReturn(searchedProductIds);
+        when(brandRepository.findByProductIds(eq(searchedProductIds))).thenReturn(Collections.singletonList(testBrand2));
 
         // Act - Thực hiện phương thức cần test
         ResponseEntity<ClientFilterResponse> response = clientFilterController.getFilterBySearchQuery(searchQuery);
@@ -256,7 +275,7 @@ public class ClientFilterControllerTests {
         assertEquals("Samsung", response.getBody().getFilterBrands().get(0).getBrandName());
 
         // Xác minh phương thức repository đã được gọi
-        verify(brandRepository).findBySearchQuery(searchQuery);
+        verify(brandRepository).findByProductIds(searchedProductIds);
     }
 
     /**
@@ -271,7 +290,9 @@ public class ClientFilterControllerTests {
         String searchQuery = "ap!@#$%^&*()ple"; // "Apple" với ký tự đặc biệt
 
         // Giả sử repository sẽ xử lý dọn dẹp ký tự đặc biệt và trả về Apple
-        when(brandRepository.findBySearchQuery(eq(searchQuery))).thenReturn(Collections.singletonList(testBrand1));
+        List<Long> searchedProductIds = List.of(1L, 2L);
+        when(productSearchService.search(searchQuery)).thenReturn(searchedProductIds);
+        when(brandRepository.findByProductIds(eq(searchedProductIds))).thenReturn(Collections.singletonList(testBrand1));
 
         // Act - Thực hiện phương thức cần test
         ResponseEntity<ClientFilterResponse> response = clientFilterController.getFilterBySearchQuery(searchQuery);
@@ -287,7 +308,7 @@ public class ClientFilterControllerTests {
         assertEquals("Apple", response.getBody().getFilterBrands().get(0).getBrandName());
 
         // Xác minh phương thức repository đã được gọi
-        verify(brandRepository).findBySearchQuery(searchQuery);
+        verify(brandRepository).findByProductIds(searchedProductIds);
     }
 
     /**
@@ -362,7 +383,9 @@ public class ClientFilterControllerTests {
         List<Brand> laptopBrands = Arrays.asList(testBrand1, testBrand2, testBrand3);
 
         // Cấu hình mock để trả về danh sách nhiều thương hiệu
-        when(brandRepository.findBySearchQuery(eq(searchQuery))).thenReturn(laptopBrands);
+        List<Long> searchedProductIds = List.of(1L, 2L);
+        when(productSearchService.search(searchQuery)).thenReturn(searchedProductIds);
+        when(brandRepository.findByProductIds(eq(searchedProductIds))).thenReturn(laptopBrands);
 
         // Act - Thực hiện phương thức cần test
         ResponseEntity<ClientFilterResponse> response = clientFilterController.getFilterBySearchQuery(searchQuery);
@@ -374,7 +397,7 @@ public class ClientFilterControllerTests {
         assertEquals(3, response.getBody().getFilterBrands().size()); // Kiểm tra số lượng thương hiệu
 
         // Xác minh phương thức repository đã được gọi
-        verify(brandRepository).findBySearchQuery(searchQuery);
+        verify(brandRepository).findByProductIds(searchedProductIds);
     }
 
     /**
@@ -389,7 +412,9 @@ public class ClientFilterControllerTests {
         String searchQuery = "iPhone Pro";
 
         // Cấu hình mock để trả về thương hiệu Apple
-        when(brandRepository.findBySearchQuery(eq(searchQuery))).thenReturn(Collections.singletonList(testBrand1));
+        List<Long> searchedProductIds = List.of(1L, 2L);
+        when(productSearchService.search(searchQuery)).thenReturn(searchedProductIds);
+        when(brandRepository.findByProductIds(eq(searchedProductIds))).thenReturn(Collections.singletonList(testBrand1));
 
         // Act - Thực hiện phương thức cần test
         ResponseEntity<ClientFilterResponse> response = clientFilterController.getFilterBySearchQuery(searchQuery);
@@ -405,7 +430,7 @@ public class ClientFilterControllerTests {
         assertEquals("Apple", response.getBody().getFilterBrands().get(0).getBrandName());
 
         // Xác minh phương thức repository đã được gọi
-        verify(brandRepository).findBySearchQuery(searchQuery);
+        verify(brandRepository).findByProductIds(searchedProductIds);
     }
 
     /**
@@ -420,7 +445,9 @@ public class ClientFilterControllerTests {
         String searchQuery = "iPhone 14";
 
         // Cấu hình mock để trả về thương hiệu Apple
-        when(brandRepository.findBySearchQuery(eq(searchQuery))).thenReturn(Collections.singletonList(testBrand1));
+        List<Long> searchedProductIds = List.of(1L, 2L);
+        when(productSearchService.search(searchQuery)).thenReturn(searchedProductIds);
+        when(brandRepository.findByProductIds(eq(searchedProductIds))).thenReturn(Collections.singletonList(testBrand1));
 
         // Act - Thực hiện phương thức cần test
         ResponseEntity<ClientFilterResponse> response = clientFilterController.getFilterBySearchQuery(searchQuery);
@@ -436,6 +463,34 @@ public class ClientFilterControllerTests {
         assertEquals("Apple", response.getBody().getFilterBrands().get(0).getBrandName());
 
         // Xác minh phương thức repository đã được gọi
-        verify(brandRepository).findBySearchQuery(searchQuery);
+        verify(brandRepository).findByProductIds(searchedProductIds);
+    }
+
+    /**
+     * Test case 13: Kiểm tra lấy số đếm facet theo trạng thái lọc
+     * Khi: Có danh mục, thương hiệu và thuộc tính được chọn
+     * Mong đợi: Trả về nguyên kết quả từ chỉ mục facet
+     */
+    @Test
+    @DisplayName("Should return facet counts from facet index")
+    void getFacets_ShouldReturnFacetCountsFromFacetIndex() {
+        // Arrange - Chuẩn bị dữ liệu đầu vào
+        List<Long> brandIds = List.of(1L);
+        List<String> properties = List.of("color:Đỏ");
+        ClientFacetResponse clientFacetResponse = new ClientFacetResponse().setFacetTotalProducts(3);
+
+        when(facetIndexService.findFacets("laptop", null, brandIds, List.of(), List.of(), properties))
+                .thenReturn(clientFacetResponse);
+
+        // Act - Thực hiện phương thức cần test
+        ResponseEntity<ClientFacetResponse> response = clientFilterController
+                .getFacets("laptop", null, brandIds, List.of(), List.of(), properties);
+
+        // Assert - Kiểm tra kết quả
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(clientFacetResponse, response.getBody());
+
+        // Không còn truy vấn database cho facet
+        verifyNoInteractions(brandRepository);
     }
-}
\ No newline at end of file
+}
@@ -1,9 +1,11 @@
 package com.electro.controller.client;
 
 import com.electro.constant.AppConstants;
+import com.electro.dto.CursorResponse;
 import com.electro.dto.ListResponse;
 import com.electro.dto.client.ClientConfirmedOrderResponse;
 import com.electro.dto.client.ClientOrderDetailResponse;
+import com.electro.dto.client.ClientOrderPreviewResponse;
 import com.electro.dto.client.ClientSimpleOrderRequest;
 import com.electro.dto.client.ClientSimpleOrderResponse;
 import com.electro.entity.general.Notification;
@@ -14,10 +16,12 @@ import com.electro.entity.cashbook.PaymentMethodType;
 import com.electro.exception.ResourceNotFoundException;
 import com.electro.mapper.client.ClientOrderMapper;
 import com.electro.mapper.general.NotificationMapper;
+import com.electro.repository.KeysetRepository;
 import com.electro.repository.general.NotificationRepository;
 import com.electro.repository.order.OrderRepository;
 import com.electro.service.general.NotificationService;
 import com.electro.service.order.OrderService;
+import com.electro.utils.CursorUtils;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -29,6 +33,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockHttpServletRequest;
@@ -85,6 +90,9 @@ public class ClientOrderControllerTest {
     @Mock
     private NotificationMapper notificationMapper;
 
+    @Mock
+    private KeysetRepository keysetRepository;
+
     @Mock
     private Authentication authentication;
 
@@ -226,6 +234,36 @@ public class ClientOrderControllerTest {
         verify(orderRepository).findAllByUsername(eq("testuser"), eq("createdAt,desc"), isNull(), any(PageRequest.class));
     }
 
+    @Test
+    @DisplayName("GAO-03: View order history by cursor")
+    void testGetAllOrdersByCursor() {
+        // Arrange
+        when(authentication.getName()).thenReturn("testuser");
+
+        when(keysetRepository.findSlice(eq(orderRepository), any(), eq("id,desc"), eq(""), eq(2)))
+                .thenReturn(new SliceImpl<>(orderList, PageRequest.of(0, 2), true));
+
+        when(clientOrderMapper.entityToResponse(testOrder1)).thenReturn(orderResponse1);
+        when(clientOrderMapper.entityToResponse(testOrder2)).thenReturn(orderResponse2);
+
+        // Act
+        ResponseEntity<CursorResponse<ClientSimpleOrderResponse>> response =
+                clientOrderController.getAllOrdersByCursor(authentication, "", 2, "id,desc", null);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(2, response.getBody().getContent().size());
+        assertFalse(response.getBody().isLast());
+
+        // Cursor trang sau mang khóa sắp xếp của đơn hàng cuối cùng
+        assertNotNull(response.getBody().getNextCursor());
+        assertEquals(2L, CursorUtils.decode(response.getBody().getNextCursor(), 1).get(0).asLong());
+
+        verify(orderRepository).filterByUsername("testuser", null);
+        verify(orderRepository, never()).findAllByUsername(anyString(), anyString(), any(), any());
+    }
+
     // Method: getOrder()
     @Test
     @DisplayName("GO-01: Get order details")
@@ -264,6 +302,29 @@ public class ClientOrderControllerTest {
         verify(orderRepository).findByCode(orderCode);
     }
     
+    // Method: previewClientOrder()
+    @Test
+    @DisplayName("POR-01: Preview order of current cart")
+    void testPreviewClientOrder() {
+        // Given
+        ClientOrderPreviewResponse previewResponse = new ClientOrderPreviewResponse()
+                .setPreviewItems(new ArrayList<>())
+                .setPreviewTotalAmount(new BigDecimal("100.00"))
+                .setPreviewTax(new BigDecimal("0.1"))
+                .setPreviewShippingCost(BigDecimal.ZERO)
+                .setPreviewTotalPay(new BigDecimal("110.00"));
+        when(orderService.previewClientOrder()).thenReturn(previewResponse);
+
+        // When
+        ResponseEntity<ClientOrderPreviewResponse> response = clientOrderController.previewClientOrder();
+
+        // Then
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(previewResponse, response.getBody());
+        verify(orderService, times(1)).previewClientOrder();
+    }
+
     // Method: createClientOrder()
     @Test
     @DisplayName("CCO-01: Place order with preplaced information")
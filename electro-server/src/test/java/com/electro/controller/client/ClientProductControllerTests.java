@@ -7,10 +7,16 @@ import com.electro.entity.product.Category;
 import com.electro.entity.product.Product;
 import com.electro.exception.ResourceNotFoundException;
 import com.electro.mapper.client.ClientProductMapper;
-import com.electro.projection.inventory.SimpleProductInventory;
+import com.electro.projection.product.ProductCard;
 import com.electro.repository.ProjectionRepository;
 import com.electro.repository.product.ProductRepository;
 import com.electro.repository.review.ReviewRepository;
+import com.electro.service.inventory.InventoryQueryService;
+import com.electro.service.product.BoughtTogetherService;
+import com.electro.service.product.CachedProductDetail;
+import com.electro.service.product.ProductDetailCacheService;
+import com.electro.service.product.ProductSearchService;
+import com.electro.service.product.RelatedProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -29,13 +35,19 @@ import org.springframework.http.ResponseEntity;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyBoolean;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
@@ -59,6 +71,21 @@ public class ClientProductControllerTests {
         @Mock
         private ReviewRepository reviewRepository;
 
+        @Mock
+        private ProductDetailCacheService productDetailCacheService;
+
+        @Mock
+        private ProductSearchService productSearchService;
+
+        @Mock
+        private RelatedProductService relatedProductService;
+
+        @Mock
+        private BoughtTogetherService boughtTogetherService;
+
+        @Mock
+        private InventoryQueryService inventoryQueryService;
+
         @InjectMocks
         private ClientProductController clientProductController;
 
@@ -69,9 +96,7 @@ public class ClientProductControllerTests {
         private ClientListedProductResponse clientListedProductResponse1;
         private ClientListedProductResponse clientListedProductResponse2;
         private List<ClientListedProductResponse> clientListedProductResponses;
-        private SimpleProductInventory simpleProductInventory1;
-        private SimpleProductInventory simpleProductInventory2;
-        private List<SimpleProductInventory> productInventories;
+        private Map<Long, Integer> productAvailabilities;
         private ClientProductResponse clientProductResponse;
 
         @BeforeEach
@@ -85,11 +110,8 @@ public class ClientProductControllerTests {
                 productList = Arrays.asList(testProduct1, testProduct2);
                 productPage = new PageImpl<>(productList);
 
-                // Mocking SimpleProductInventory - chỉ khởi tạo mà không stub
-                simpleProductInventory1 = mock(SimpleProductInventory.class);
-                simpleProductInventory2 = mock(SimpleProductInventory.class);
-
-                productInventories = Arrays.asList(simpleProductInventory1, simpleProductInventory2);
+                // Số lượng còn bán được của sản phẩm, đọc từ variant_availability
+                productAvailabilities = Map.of(1L, 45, 2L, 0);
 
                 // Setup client responses using direct instantiation
                 clientListedProductResponse1 = new ClientListedProductResponse();
@@ -106,11 +128,27 @@ public class ClientProductControllerTests {
                 when(testProduct2.getId()).thenReturn(2L);
 
                 // Sử dụng anyList() thay vì List.of(1L) hoặc List.of(2L)
-                when(projectionRepository.findSimpleProductInventories(anyList())).thenReturn(productInventories);
+                when(inventoryQueryService.availableForProducts(anyList())).thenReturn(productAvailabilities);
+
+                // Thẻ sản phẩm được dựng lại theo đúng danh sách id truyền vào
+                when(projectionRepository.findProductCards(anyList())).thenAnswer(invocation -> {
+                        List<Long> productIds = invocation.getArgument(0);
+                        return productIds.stream()
+                                        .map(productId -> new ProductCard(productId, "name", "slug"))
+                                        .collect(Collectors.toList());
+                });
 
                 // Sử dụng doReturn/when thay vì when/thenReturn để tránh strict matching
                 doReturn(clientListedProductResponse1).when(clientProductMapper)
-                                .entityToListedResponse(any(Product.class), anyList());
+                                .cardToListedResponse(any(ProductCard.class), anyMap());
+
+                // Cache luôn lắp ráp lại, phần ghép dữ liệu biến động trả về nguyên phản hồi đã lắp ráp
+                when(productDetailCacheService.getOrLoad(anyString(), any())).thenAnswer(invocation -> {
+                        Supplier<ClientProductResponse> loader = invocation.getArgument(1);
+                        return new CachedProductDetail(loader.get(), "hash", Set.of(), Long.MAX_VALUE);
+                });
+                when(productDetailCacheService.eTagOf(any(), any())).thenReturn("\"etag\"");
+                when(clientProductMapper.mergeVolatileData(any())).thenAnswer(invocation -> invocation.getArgument(0));
         }
 
         // TC-PROD-01: Lấy tất cả sản phẩm với phân trang
@@ -136,7 +174,7 @@ public class ClientProductControllerTests {
 
                 verify(productRepository).findByParams(any(), any(), any(), anyBoolean(), anyBoolean(),
                                 any(Pageable.class));
-                verify(projectionRepository).findSimpleProductInventories(anyList());
+                verify(inventoryQueryService).availableForProducts(anyList());
         }
 
         // TC-PROD-02: Lọc sản phẩm theo nhiều tiêu chí
@@ -149,6 +187,8 @@ public class ClientProductControllerTests {
                 String filter = "category.id==1";
                 String sort = "price,asc";
                 String search = "iPhone";
+                List<Long> searchedProductIds = List.of(1L);
+                when(productSearchService.search(search)).thenReturn(searchedProductIds);
                 boolean saleable = true;
                 boolean newable = false;
 
@@ -156,7 +196,7 @@ public class ClientProductControllerTests {
                 List<Product> filteredProducts = List.of(testProduct1);
                 Page<Product> filteredProductPage = new PageImpl<>(filteredProducts);
 
-                when(productRepository.findByParams(eq(filter), eq(sort), eq(search), eq(saleable), eq(newable),
+                when(productRepository.findByParams(eq(filter), eq(sort), eq(searchedProductIds), eq(saleable), eq(newable),
                                 any(Pageable.class)))
                                 .thenReturn(filteredProductPage);
 
@@ -168,9 +208,9 @@ public class ClientProductControllerTests {
                 assertEquals(HttpStatus.OK, response.getStatusCode());
                 assertNotNull(response.getBody());
 
-                verify(productRepository).findByParams(eq(filter), eq(sort), eq(search), eq(saleable), eq(newable),
+                verify(productRepository).findByParams(eq(filter), eq(sort), eq(searchedProductIds), eq(saleable), eq(newable),
                                 any(Pageable.class));
-                verify(projectionRepository).findSimpleProductInventories(anyList());
+                verify(inventoryQueryService).availableForProducts(anyList());
         }
 
         // TC-PROD-03: Kết quả rỗng khi không có sản phẩm nào phù hợp với bộ lọc
@@ -188,7 +228,7 @@ public class ClientProductControllerTests {
                 when(productRepository.findByParams(eq(filter), any(), any(), anyBoolean(), anyBoolean(),
                                 any(Pageable.class)))
                                 .thenReturn(emptyPage);
-                when(projectionRepository.findSimpleProductInventories(anyList())).thenReturn(new ArrayList<>());
+                when(inventoryQueryService.availableForProducts(anyList())).thenReturn(new HashMap<>());
 
                 // Act
                 ResponseEntity<ListResponse<ClientListedProductResponse>> response = clientProductController
@@ -200,26 +240,23 @@ public class ClientProductControllerTests {
 
                 verify(productRepository).findByParams(eq(filter), any(), any(), anyBoolean(), anyBoolean(),
                                 any(Pageable.class));
-                verify(projectionRepository).findSimpleProductInventories(anyList());
-                verify(clientProductMapper, never()).entityToListedResponse(any(Product.class), anyList());
+                verify(inventoryQueryService).availableForProducts(anyList());
+                verify(clientProductMapper, never()).cardToListedResponse(any(ProductCard.class), anyMap());
         }
 
-        // TC-PROD-04: Tìm kiếm sản phẩm theo từ khóa
+        // TC-PROD-04: Tìm kiếm sản phẩm theo từ khóa, giữ thứ tự độ liên quan và đếm trên toàn bộ tập khớp
         @Test
-        @DisplayName("Should return products when search term provided")
+        @DisplayName("Should return products ranked by relevance when search term provided")
         void getAllProducts_ShouldReturnMatchingProducts_WhenSearchTermProvided() {
                 // Arrange
                 int page = 1;
-                int size = 10;
+                int size = 2;
                 String search = "iPhone";
-                Pageable pageable = PageRequest.of(page - 1, size);
+                List<Long> searchedProductIds = List.of(3L, 1L, 2L, 4L);
+                when(productSearchService.search(search)).thenReturn(searchedProductIds);
 
-                List<Product> searchResults = List.of(testProduct1);
-                Page<Product> searchResultPage = new PageImpl<>(searchResults);
-
-                when(productRepository.findByParams(any(), any(), eq(search), anyBoolean(), anyBoolean(),
-                                any(Pageable.class)))
-                                .thenReturn(searchResultPage);
+                // Database chỉ lọc, không giữ thứ tự; sản phẩm 4 bị loại bởi điều kiện lọc
+                when(projectionRepository.findProductIds(any())).thenReturn(List.of(1L, 2L, 3L));
 
                 // Act
                 ResponseEntity<ListResponse<ClientListedProductResponse>> response = clientProductController
@@ -228,10 +265,14 @@ public class ClientProductControllerTests {
                 // Assert
                 assertEquals(HttpStatus.OK, response.getStatusCode());
                 assertNotNull(response.getBody());
+                assertEquals(3, response.getBody().getTotalElements());
+                assertEquals(2, response.getBody().getTotalPages());
 
-                verify(productRepository).findByParams(any(), any(), eq(search), anyBoolean(), anyBoolean(),
+                verify(productRepository).toSpecification(isNull(), isNull(), eq(searchedProductIds), eq(false), eq(false));
+                verify(productRepository, never()).findByParams(any(), any(), any(), anyBoolean(), anyBoolean(),
                                 any(Pageable.class));
-                verify(projectionRepository).findSimpleProductInventories(anyList());
+                verify(projectionRepository).findProductCards(List.of(3L, 1L));
+                verify(inventoryQueryService).availableForProducts(anyList());
         }
 
         // TC-PROD-05: Lọc sản phẩm có thể bán
@@ -249,7 +290,7 @@ public class ClientProductControllerTests {
                                 .thenReturn(productPage);
 
                 doReturn(clientListedProductResponse1, clientListedProductResponse2)
-                                .when(clientProductMapper).entityToListedResponse(any(Product.class), anyList());
+                                .when(clientProductMapper).cardToListedResponse(any(ProductCard.class), anyMap());
 
                 // Act
                 ResponseEntity<ListResponse<ClientListedProductResponse>> response = clientProductController
@@ -261,7 +302,7 @@ public class ClientProductControllerTests {
 
                 verify(productRepository).findByParams(any(), any(), any(), eq(saleable), anyBoolean(),
                                 any(Pageable.class));
-                verify(projectionRepository).findSimpleProductInventories(anyList());
+                verify(inventoryQueryService).availableForProducts(anyList());
         }
 
         // TC-PROD-06: Lọc sản phẩm mới
@@ -384,14 +425,10 @@ public class ClientProductControllerTests {
                 when(reviewRepository.countByProductId(anyLong())).thenReturn(10);
 
                 // For related products
-                Page<Product> relatedProducts = new PageImpl<>(List.of(testProduct2));
-                when(productRepository.findByParams(any(), any(), any(), anyBoolean(), anyBoolean(),
-                                any(Pageable.class)))
-                                .thenReturn(relatedProducts);
+                when(relatedProductService.sample(anyLong(), anyInt())).thenReturn(List.of(2L));
 
                 doReturn(clientProductResponse).when(clientProductMapper).entityToResponse(
                                 any(Product.class),
-                                anyList(),
                                 anyInt(),
                                 anyInt(),
                                 anyList());
@@ -406,8 +443,7 @@ public class ClientProductControllerTests {
                 verify(productRepository).findBySlug(slug);
                 verify(reviewRepository).findAverageRatingScoreByProductId(anyLong());
                 verify(reviewRepository).countByProductId(anyLong());
-                verify(productRepository).findByParams(any(), any(), any(), anyBoolean(), anyBoolean(),
-                                any(Pageable.class));
+                verify(projectionRepository).findProductCards(List.of(2L));
         }
 
         // TC-PROD-11: Xử lý khi slug không tồn tại
@@ -424,10 +460,10 @@ public class ClientProductControllerTests {
                                 () -> clientProductController.getProduct(slug));
 
                 verify(productRepository).findBySlug(slug);
-                verify(projectionRepository, never()).findSimpleProductInventories(anyList());
+                verify(inventoryQueryService, never()).availableForProducts(anyList());
                 verify(reviewRepository, never()).findAverageRatingScoreByProductId(anyLong());
                 verify(reviewRepository, never()).countByProductId(anyLong());
-                verify(clientProductMapper, never()).entityToResponse(any(), anyList(), anyInt(), anyInt(), anyList());
+                verify(clientProductMapper, never()).entityToResponse(any(), anyInt(), anyInt(), anyList());
         }
 
         // TC-PROD-12: Phân trang với dữ liệu lớn
@@ -461,12 +497,10 @@ public class ClientProductControllerTests {
                 int page = 1;
                 int size = 10;
                 String search = "iPhone+Pro&Max";
+                List<Long> searchedProductIds = List.of(1L);
+                when(productSearchService.search(search)).thenReturn(searchedProductIds);
 
-                Pageable pageable = PageRequest.of(page - 1, size);
-
-                when(productRepository.findByParams(any(), any(), eq(search), anyBoolean(), anyBoolean(),
-                                any(Pageable.class)))
-                                .thenReturn(productPage);
+                when(projectionRepository.findProductIds(any())).thenReturn(searchedProductIds);
 
                 // Act
                 ResponseEntity<ListResponse<ClientListedProductResponse>> response = clientProductController
@@ -476,8 +510,8 @@ public class ClientProductControllerTests {
                 assertEquals(HttpStatus.OK, response.getStatusCode());
                 assertNotNull(response.getBody());
 
-                verify(productRepository).findByParams(any(), any(), eq(search), anyBoolean(), anyBoolean(),
-                                any(Pageable.class));
+                verify(productRepository).toSpecification(any(), any(), eq(searchedProductIds), anyBoolean(), anyBoolean());
+                verify(projectionRepository).findProductCards(searchedProductIds);
         }
 
         // TC-PROD-14: Kết hợp nhiều điều kiện lọc
@@ -490,12 +524,14 @@ public class ClientProductControllerTests {
                 String filter = "category.id==1;brand.id==2";
                 String sort = "name,asc";
                 String search = "Pro";
+                List<Long> searchedProductIds = List.of(1L);
+                when(productSearchService.search(search)).thenReturn(searchedProductIds);
                 boolean saleable = true;
                 boolean newable = false;
 
                 Pageable pageable = PageRequest.of(page - 1, size);
 
-                when(productRepository.findByParams(eq(filter), eq(sort), eq(search), eq(saleable), eq(newable),
+                when(productRepository.findByParams(eq(filter), eq(sort), eq(searchedProductIds), eq(saleable), eq(newable),
                                 any(Pageable.class)))
                                 .thenReturn(productPage);
 
@@ -507,7 +543,7 @@ public class ClientProductControllerTests {
                 assertEquals(HttpStatus.OK, response.getStatusCode());
                 assertNotNull(response.getBody());
 
-                verify(productRepository).findByParams(eq(filter), eq(sort), eq(search), eq(saleable), eq(newable),
+                verify(productRepository).findByParams(eq(filter), eq(sort), eq(searchedProductIds), eq(saleable), eq(newable),
                                 any(Pageable.class));
         }
 
@@ -523,17 +559,12 @@ public class ClientProductControllerTests {
                 when(reviewRepository.countByProductId(anyLong())).thenReturn(15);
 
                 // For related products
-                List<Product> relatedProductList = List.of(testProduct1);
-                Page<Product> relatedProducts = new PageImpl<>(relatedProductList);
-                when(productRepository.findByParams(anyString(), eq("random"), isNull(), eq(false), eq(false),
-                                any(Pageable.class)))
-                                .thenReturn(relatedProducts);
+                when(relatedProductService.sample(anyLong(), anyInt())).thenReturn(List.of(1L));
 
                 List<ClientListedProductResponse> relatedProductResponses = List.of(clientListedProductResponse1);
 
                 doReturn(clientProductResponse).when(clientProductMapper).entityToResponse(
                                 any(Product.class),
-                                anyList(),
                                 anyInt(),
                                 anyInt(),
                                 eq(relatedProductResponses));
@@ -546,8 +577,8 @@ public class ClientProductControllerTests {
                 assertNotNull(response.getBody());
 
                 verify(productRepository).findBySlug(slug);
-                verify(productRepository).findByParams(anyString(), eq("random"), isNull(), eq(false), eq(false),
-                                any(Pageable.class));
+                verify(relatedProductService).sample(anyLong(), eq(4));
+                verify(projectionRepository).findProductCards(List.of(1L));
         }
 
         // TC-PROD-16: Thay đổi khoảng giá sau lựa chọn đầu tiên
@@ -1,15 +1,21 @@
 package com.electro.controller.client;
 
+import com.electro.dto.CollectionWrapper;
 import com.electro.dto.client.ClientListedProductResponse;
 import com.electro.dto.client.ClientProductResponse;
 import com.electro.entity.product.Category;
 import com.electro.entity.product.Product;
 import com.electro.exception.ResourceNotFoundException;
 import com.electro.mapper.client.ClientProductMapper;
-import com.electro.projection.inventory.SimpleProductInventory;
+import com.electro.projection.product.ProductCard;
 import com.electro.repository.ProjectionRepository;
 import com.electro.repository.product.ProductRepository;
 import com.electro.repository.review.ReviewRepository;
+import com.electro.service.inventory.InventoryQueryService;
+import com.electro.service.product.BoughtTogetherService;
+import com.electro.service.product.CachedProductDetail;
+import com.electro.service.product.ProductDetailCacheService;
+import com.electro.service.product.RelatedProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,15 +25,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -49,13 +54,25 @@ public class ClientProductDetailControllerTests {
     @Mock
     private ReviewRepository reviewRepository;
 
+    @Mock
+    private ProductDetailCacheService productDetailCacheService;
+
+    @Mock
+    private RelatedProductService relatedProductService;
+
+    @Mock
+    private BoughtTogetherService boughtTogetherService;
+
+    @Mock
+    private InventoryQueryService inventoryQueryService;
+
     @InjectMocks
     private ClientProductController clientProductController;
 
     private Product testProduct1;
     private Product testProduct2;
-    private List<SimpleProductInventory> productInventories;
-    private SimpleProductInventory simpleProductInventory;
+    private ProductCard testProductCard1;
+    private ProductCard testProductCard2;
     private ClientProductResponse clientProductResponse;
     private List<ClientListedProductResponse> relatedProductResponses;
 
@@ -79,13 +96,9 @@ public class ClientProductDetailControllerTests {
         when(testProduct2.getSlug()).thenReturn("samsung-galaxy-s23");
         when(testProduct2.getCategory()).thenReturn(category);
 
-        // Setup inventory
-        simpleProductInventory = mock(SimpleProductInventory.class);
-        when(simpleProductInventory.getProductId()).thenReturn(1L);
-        when(simpleProductInventory.getInventory()).thenReturn(50);
-        when(simpleProductInventory.getCanBeSold()).thenReturn(45);
-
-        productInventories = Collections.singletonList(simpleProductInventory);
+        // Thẻ sản phẩm tương ứng cho các danh sách liên quan/mua cùng
+        testProductCard1 = new ProductCard(1L, "iPhone 14", "iphone-14");
+        testProductCard2 = new ProductCard(2L, "Samsung Galaxy S23", "samsung-galaxy-s23");
 
         // Setup client product response
         clientProductResponse = mock(ClientProductResponse.class);
@@ -93,6 +106,17 @@ public class ClientProductDetailControllerTests {
         // Setup related products response
         ClientListedProductResponse relatedProductResponse = mock(ClientListedProductResponse.class);
         relatedProductResponses = Collections.singletonList(relatedProductResponse);
+
+        // Cache luôn lắp ráp lại, phần ghép dữ liệu biến động trả về nguyên phản hồi đã lắp ráp
+        when(productDetailCacheService.getOrLoad(anyString(), any())).thenAnswer(invocation -> {
+            Supplier<ClientProductResponse> loader = invocation.getArgument(1);
+            return new CachedProductDetail(loader.get(), "hash", Set.of(), Long.MAX_VALUE);
+        });
+        when(productDetailCacheService.eTagOf(any(), any())).thenReturn("\"etag\"");
+        when(clientProductMapper.mergeVolatileData(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Nhóm sản phẩm liên quan trả về id của sản phẩm còn lại
+        when(relatedProductService.sample(anyLong(), anyInt())).thenReturn(List.of(2L));
     }
 
     // TC-PROD-DETAIL-01: Lấy chi tiết sản phẩm theo slug hợp lệ
@@ -103,19 +127,16 @@ public class ClientProductDetailControllerTests {
         String slug = "iphone-14";
 
         when(productRepository.findBySlug(slug)).thenReturn(Optional.of(testProduct1));
-        when(projectionRepository.findSimpleProductInventories(eq(List.of(1L)))).thenReturn(productInventories);
-        when(projectionRepository.findSimpleProductInventories(argThat(list -> !list.equals(List.of(1L)))))
-                .thenReturn(Collections.emptyList());
+        when(inventoryQueryService.availableForProducts(anyList()))
+                .thenReturn(Collections.emptyMap());
         when(reviewRepository.findAverageRatingScoreByProductId(1L)).thenReturn(4);
         when(reviewRepository.countByProductId(1L)).thenReturn(10);
 
         // For related products
-        Page<Product> relatedProducts = new PageImpl<>(Collections.singletonList(testProduct2));
-        when(productRepository.findByParams(anyString(), eq("random"), isNull(), eq(false), eq(false),
-                any(Pageable.class)))
-                .thenReturn(relatedProducts);
+        List<ProductCard> relatedProducts = Collections.singletonList(testProductCard2);
+        when(projectionRepository.findProductCards(anyList())).thenReturn(relatedProducts);
 
-        when(clientProductMapper.entityToResponse(any(Product.class), anyList(), anyInt(), anyInt(), anyList()))
+        when(clientProductMapper.entityToResponse(any(Product.class), anyInt(), anyInt(), anyList()))
                 .thenReturn(clientProductResponse);
 
         // Act
@@ -128,13 +149,11 @@ public class ClientProductDetailControllerTests {
 
         verify(productRepository).findBySlug(slug);
         // Verify được gọi đúng 2 lần với các tham số khác nhau
-        verify(projectionRepository).findSimpleProductInventories(eq(List.of(1L)));
-        verify(projectionRepository).findSimpleProductInventories(argThat(list -> !list.equals(List.of(1L))));
+        verify(inventoryQueryService).availableForProducts(anyList());
         verify(reviewRepository).findAverageRatingScoreByProductId(1L);
         verify(reviewRepository).countByProductId(1L);
         verify(clientProductMapper).entityToResponse(
                 eq(testProduct1),
-                anyList(),
                 anyInt(),
                 anyInt(),
                 anyList());
@@ -154,10 +173,10 @@ public class ClientProductDetailControllerTests {
                 () -> clientProductController.getProduct(slug));
 
         verify(productRepository).findBySlug(slug);
-        verify(projectionRepository, never()).findSimpleProductInventories(anyList());
+        verify(inventoryQueryService, never()).availableForProducts(anyList());
         verify(reviewRepository, never()).findAverageRatingScoreByProductId(anyLong());
         verify(reviewRepository, never()).countByProductId(anyLong());
-        verify(clientProductMapper, never()).entityToResponse(any(), anyList(), anyInt(), anyInt(), anyList());
+        verify(clientProductMapper, never()).entityToResponse(any(), anyInt(), anyInt(), anyList());
     }
 
     // TC-PROD-DETAIL-03: Kiểm tra thông tin đánh giá sản phẩm
@@ -170,19 +189,16 @@ public class ClientProductDetailControllerTests {
         int reviewCount = 10;
 
         when(productRepository.findBySlug(slug)).thenReturn(Optional.of(testProduct1));
-        when(projectionRepository.findSimpleProductInventories(eq(List.of(1L)))).thenReturn(productInventories);
-        when(projectionRepository.findSimpleProductInventories(argThat(list -> !list.equals(List.of(1L)))))
-                .thenReturn(Collections.emptyList());
+        when(inventoryQueryService.availableForProducts(anyList()))
+                .thenReturn(Collections.emptyMap());
         when(reviewRepository.findAverageRatingScoreByProductId(1L)).thenReturn(averageRating);
         when(reviewRepository.countByProductId(1L)).thenReturn(reviewCount);
 
         // For related products
-        Page<Product> relatedProducts = new PageImpl<>(Collections.singletonList(testProduct2));
-        when(productRepository.findByParams(anyString(), eq("random"), isNull(), eq(false), eq(false),
-                any(Pageable.class)))
-                .thenReturn(relatedProducts);
+        List<ProductCard> relatedProducts = Collections.singletonList(testProductCard2);
+        when(projectionRepository.findProductCards(anyList())).thenReturn(relatedProducts);
 
-        when(clientProductMapper.entityToResponse(any(Product.class), anyList(), anyInt(), anyInt(), anyList()))
+        when(clientProductMapper.entityToResponse(any(Product.class), anyInt(), anyInt(), anyList()))
                 .thenReturn(clientProductResponse);
 
         // Act
@@ -193,11 +209,9 @@ public class ClientProductDetailControllerTests {
         assertNotNull(response.getBody());
 
         // Verify rating information is passed to the mapper
-        verify(projectionRepository).findSimpleProductInventories(eq(List.of(1L)));
-        verify(projectionRepository).findSimpleProductInventories(argThat(list -> !list.equals(List.of(1L))));
+        verify(inventoryQueryService).availableForProducts(anyList());
         verify(clientProductMapper).entityToResponse(
                 any(Product.class),
-                anyList(),
                 eq(averageRating),
                 eq(reviewCount),
                 anyList());
@@ -211,24 +225,20 @@ public class ClientProductDetailControllerTests {
         String slug = "samsung-galaxy-s23";
 
         when(productRepository.findBySlug(slug)).thenReturn(Optional.of(testProduct2));
-        when(projectionRepository.findSimpleProductInventories(eq(List.of(2L)))).thenReturn(productInventories);
-        when(projectionRepository.findSimpleProductInventories(argThat(list -> !list.equals(List.of(2L)))))
-                .thenReturn(Collections.emptyList());
+        when(inventoryQueryService.availableForProducts(anyList()))
+                .thenReturn(Collections.emptyMap());
         when(reviewRepository.findAverageRatingScoreByProductId(anyLong())).thenReturn(4);
         when(reviewRepository.countByProductId(anyLong())).thenReturn(10);
 
         // Setup related products
-        List<Product> relatedProductList = Collections.singletonList(testProduct1);
-        Page<Product> relatedProducts = new PageImpl<>(relatedProductList);
+        List<ProductCard> relatedProducts = Collections.singletonList(testProductCard1);
 
-        when(productRepository.findByParams(anyString(), eq("random"), isNull(), eq(false), eq(false),
-                any(Pageable.class)))
-                .thenReturn(relatedProducts);
+        when(projectionRepository.findProductCards(anyList())).thenReturn(relatedProducts);
 
-        when(clientProductMapper.entityToListedResponse(any(Product.class), anyList()))
+        when(clientProductMapper.cardToListedResponse(any(ProductCard.class), anyMap()))
                 .thenReturn(mock(ClientListedProductResponse.class));
 
-        when(clientProductMapper.entityToResponse(any(Product.class), anyList(), anyInt(), anyInt(), anyList()))
+        when(clientProductMapper.entityToResponse(any(Product.class), anyInt(), anyInt(), anyList()))
                 .thenReturn(clientProductResponse);
 
         // Act
@@ -239,11 +249,10 @@ public class ClientProductDetailControllerTests {
         assertNotNull(response.getBody());
 
         // Verify related products are retrieved and mapped
-        verify(projectionRepository).findSimpleProductInventories(eq(List.of(2L)));
-        verify(projectionRepository).findSimpleProductInventories(argThat(list -> !list.equals(List.of(2L))));
-        verify(productRepository).findByParams(anyString(), eq("random"), isNull(), eq(false), eq(false),
-                any(Pageable.class));
-        verify(clientProductMapper).entityToListedResponse(any(Product.class), anyList());
+        verify(inventoryQueryService).availableForProducts(anyList());
+        verify(relatedProductService).sample(eq(2L), eq(4));
+        verify(projectionRepository).findProductCards(List.of(2L));
+        verify(clientProductMapper).cardToListedResponse(eq(testProductCard1), anyMap());
     }
 
     // TC-PROD-DETAIL-05: Kiểm tra thông tin tồn kho
@@ -254,20 +263,17 @@ public class ClientProductDetailControllerTests {
         String slug = "iphone-14";
 
         when(productRepository.findBySlug(slug)).thenReturn(Optional.of(testProduct1));
-        when(projectionRepository.findSimpleProductInventories(eq(List.of(1L)))).thenReturn(productInventories);
         when(reviewRepository.findAverageRatingScoreByProductId(anyLong())).thenReturn(4);
         when(reviewRepository.countByProductId(anyLong())).thenReturn(10);
 
         // For related products
-        Page<Product> emptyRelatedProducts = new PageImpl<>(Collections.emptyList());
-        when(productRepository.findByParams(anyString(), eq("random"), isNull(), eq(false), eq(false),
-                any(Pageable.class)))
-                .thenReturn(emptyRelatedProducts);
+        List<ProductCard> emptyRelatedProducts = Collections.emptyList();
+        when(projectionRepository.findProductCards(anyList())).thenReturn(emptyRelatedProducts);
 
-        when(projectionRepository.findSimpleProductInventories(argThat(list -> !list.equals(List.of(1L)))))
-                .thenReturn(Collections.emptyList());
+        when(inventoryQueryService.availableForProducts(anyList()))
+                .thenReturn(Collections.emptyMap());
 
-        when(clientProductMapper.entityToResponse(any(Product.class), anyList(), anyInt(), anyInt(), anyList()))
+        when(clientProductMapper.entityToResponse(any(Product.class), anyInt(), anyInt(), anyList()))
                 .thenReturn(clientProductResponse);
 
         // Act
@@ -277,12 +283,10 @@ public class ClientProductDetailControllerTests {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
 
-        // Verify inventory information is retrieved and passed to the mapper
-        verify(projectionRepository).findSimpleProductInventories(eq(List.of(1L)));
-        verify(projectionRepository).findSimpleProductInventories(argThat(list -> !list.equals(List.of(1L))));
+        // Verify card availability is read from variant_availability, the mapper handles the product itself
+        verify(inventoryQueryService).availableForProducts(anyList());
         verify(clientProductMapper).entityToResponse(
                 any(Product.class),
-                eq(productInventories),
                 anyInt(),
                 anyInt(),
                 anyList());
@@ -301,19 +305,16 @@ public class ClientProductDetailControllerTests {
         when(specialProduct.getSlug()).thenReturn(specialSlug);
 
         when(productRepository.findBySlug(specialSlug)).thenReturn(Optional.of(specialProduct));
-        when(projectionRepository.findSimpleProductInventories(eq(List.of(3L)))).thenReturn(productInventories);
-        when(projectionRepository.findSimpleProductInventories(argThat(list -> !list.equals(List.of(3L)))))
-                .thenReturn(Collections.emptyList());
+        when(inventoryQueryService.availableForProducts(anyList()))
+                .thenReturn(Collections.emptyMap());
         when(reviewRepository.findAverageRatingScoreByProductId(anyLong())).thenReturn(4);
         when(reviewRepository.countByProductId(anyLong())).thenReturn(10);
 
         // For related products
-        Page<Product> relatedProducts = new PageImpl<>(Collections.emptyList());
-        when(productRepository.findByParams(anyString(), eq("random"), isNull(), eq(false), eq(false),
-                any(Pageable.class)))
-                .thenReturn(relatedProducts);
+        List<ProductCard> relatedProducts = Collections.emptyList();
+        when(projectionRepository.findProductCards(anyList())).thenReturn(relatedProducts);
 
-        when(clientProductMapper.entityToResponse(any(Product.class), anyList(), anyInt(), anyInt(), anyList()))
+        when(clientProductMapper.entityToResponse(any(Product.class), anyInt(), anyInt(), anyList()))
                 .thenReturn(clientProductResponse);
 
         // Act
@@ -324,8 +325,7 @@ public class ClientProductDetailControllerTests {
         assertNotNull(response.getBody());
 
         verify(productRepository).findBySlug(specialSlug);
-        verify(projectionRepository).findSimpleProductInventories(eq(List.of(3L)));
-        verify(projectionRepository).findSimpleProductInventories(argThat(list -> !list.equals(List.of(3L))));
+        verify(inventoryQueryService).availableForProducts(anyList());
     }
 
     // TC-PROD-DETAIL-07: Sản phẩm không có sản phẩm liên quan
@@ -341,19 +341,16 @@ public class ClientProductDetailControllerTests {
         when(uniqueProduct.getSlug()).thenReturn(slug);
 
         when(productRepository.findBySlug(slug)).thenReturn(Optional.of(uniqueProduct));
-        when(projectionRepository.findSimpleProductInventories(eq(List.of(4L)))).thenReturn(productInventories);
-        when(projectionRepository.findSimpleProductInventories(argThat(list -> !list.equals(List.of(4L)))))
-                .thenReturn(Collections.emptyList());
+        when(inventoryQueryService.availableForProducts(anyList()))
+                .thenReturn(Collections.emptyMap());
         when(reviewRepository.findAverageRatingScoreByProductId(anyLong())).thenReturn(5);
         when(reviewRepository.countByProductId(anyLong())).thenReturn(2);
 
         // Empty related products
-        Page<Product> emptyRelatedProducts = new PageImpl<>(Collections.emptyList());
-        when(productRepository.findByParams(anyString(), eq("random"), isNull(), eq(false), eq(false),
-                any(Pageable.class)))
-                .thenReturn(emptyRelatedProducts);
+        List<ProductCard> emptyRelatedProducts = Collections.emptyList();
+        when(projectionRepository.findProductCards(anyList())).thenReturn(emptyRelatedProducts);
 
-        when(clientProductMapper.entityToResponse(any(Product.class), anyList(), anyInt(), anyInt(),
+        when(clientProductMapper.entityToResponse(any(Product.class), anyInt(), anyInt(),
                 eq(Collections.emptyList())))
                 .thenReturn(clientProductResponse);
 
@@ -365,11 +362,9 @@ public class ClientProductDetailControllerTests {
         assertNotNull(response.getBody());
 
         // Verify empty related products list is passed to the mapper
-        verify(projectionRepository).findSimpleProductInventories(eq(List.of(4L)));
-        verify(projectionRepository).findSimpleProductInventories(argThat(list -> !list.equals(List.of(4L))));
+        verify(inventoryQueryService).availableForProducts(anyList());
         verify(clientProductMapper).entityToResponse(
                 any(Product.class),
-                anyList(),
                 anyInt(),
                 anyInt(),
                 eq(Collections.emptyList()));
@@ -392,19 +387,16 @@ public class ClientProductDetailControllerTests {
         // through the mapper
 
         when(productRepository.findBySlug(slug)).thenReturn(Optional.of(productWithImages));
-        when(projectionRepository.findSimpleProductInventories(eq(List.of(5L)))).thenReturn(productInventories);
-        when(projectionRepository.findSimpleProductInventories(argThat(list -> !list.equals(List.of(5L)))))
-                .thenReturn(Collections.emptyList());
+        when(inventoryQueryService.availableForProducts(anyList()))
+                .thenReturn(Collections.emptyMap());
         when(reviewRepository.findAverageRatingScoreByProductId(anyLong())).thenReturn(5);
         when(reviewRepository.countByProductId(anyLong())).thenReturn(20);
 
         // For related products
-        Page<Product> relatedProducts = new PageImpl<>(Collections.emptyList());
-        when(productRepository.findByParams(anyString(), eq("random"), isNull(), eq(false), eq(false),
-                any(Pageable.class)))
-                .thenReturn(relatedProducts);
+        List<ProductCard> relatedProducts = Collections.emptyList();
+        when(projectionRepository.findProductCards(anyList())).thenReturn(relatedProducts);
 
-        when(clientProductMapper.entityToResponse(eq(productWithImages), anyList(), anyInt(), anyInt(), anyList()))
+        when(clientProductMapper.entityToResponse(eq(productWithImages), anyInt(), anyInt(), anyList()))
                 .thenReturn(clientProductResponse);
 
         // Act
@@ -415,11 +407,9 @@ public class ClientProductDetailControllerTests {
         assertNotNull(response.getBody());
 
         verify(productRepository).findBySlug(slug);
-        verify(projectionRepository).findSimpleProductInventories(eq(List.of(5L)));
-        verify(projectionRepository).findSimpleProductInventories(argThat(list -> !list.equals(List.of(5L))));
+        verify(inventoryQueryService).availableForProducts(anyList());
         verify(clientProductMapper).entityToResponse(
                 eq(productWithImages),
-                anyList(),
                 anyInt(),
                 anyInt(),
                 anyList());
@@ -441,19 +431,16 @@ public class ClientProductDetailControllerTests {
         // Ta sẽ kiểm tra thông qua mapper
 
         when(productRepository.findBySlug(slug)).thenReturn(Optional.of(productWithColors));
-        when(projectionRepository.findSimpleProductInventories(eq(List.of(6L)))).thenReturn(productInventories);
-        when(projectionRepository.findSimpleProductInventories(argThat(list -> !list.equals(List.of(6L)))))
-                .thenReturn(Collections.emptyList());
+        when(inventoryQueryService.availableForProducts(anyList()))
+                .thenReturn(Collections.emptyMap());
         when(reviewRepository.findAverageRatingScoreByProductId(anyLong())).thenReturn(5);
         when(reviewRepository.countByProductId(anyLong())).thenReturn(15);
 
         // For related products
-        Page<Product> relatedProducts = new PageImpl<>(Collections.emptyList());
-        when(productRepository.findByParams(anyString(), eq("random"), isNull(), eq(false), eq(false),
-                any(Pageable.class)))
-                .thenReturn(relatedProducts);
+        List<ProductCard> relatedProducts = Collections.emptyList();
+        when(projectionRepository.findProductCards(anyList())).thenReturn(relatedProducts);
 
-        when(clientProductMapper.entityToResponse(eq(productWithColors), anyList(), anyInt(), anyInt(), anyList()))
+        when(clientProductMapper.entityToResponse(eq(productWithColors), anyInt(), anyInt(), anyList()))
                 .thenReturn(clientProductResponse);
 
         // Act
@@ -465,7 +452,6 @@ public class ClientProductDetailControllerTests {
         verify(productRepository).findBySlug(slug);
         verify(clientProductMapper).entityToResponse(
                 eq(productWithColors),
-                anyList(),
                 anyInt(),
                 anyInt(),
                 anyList());
@@ -484,19 +470,16 @@ public class ClientProductDetailControllerTests {
         when(productWithSizes.getSlug()).thenReturn(slug);
 
         when(productRepository.findBySlug(slug)).thenReturn(Optional.of(productWithSizes));
-        when(projectionRepository.findSimpleProductInventories(eq(List.of(7L)))).thenReturn(productInventories);
-        when(projectionRepository.findSimpleProductInventories(argThat(list -> !list.equals(List.of(7L)))))
-                .thenReturn(Collections.emptyList());
+        when(inventoryQueryService.availableForProducts(anyList()))
+                .thenReturn(Collections.emptyMap());
         when(reviewRepository.findAverageRatingScoreByProductId(anyLong())).thenReturn(4);
         when(reviewRepository.countByProductId(anyLong())).thenReturn(25);
 
         // For related products
-        Page<Product> relatedProducts = new PageImpl<>(Collections.emptyList());
-        when(productRepository.findByParams(anyString(), eq("random"), isNull(), eq(false), eq(false),
-                any(Pageable.class)))
-                .thenReturn(relatedProducts);
+        List<ProductCard> relatedProducts = Collections.emptyList();
+        when(projectionRepository.findProductCards(anyList())).thenReturn(relatedProducts);
 
-        when(clientProductMapper.entityToResponse(eq(productWithSizes), anyList(), anyInt(), anyInt(), anyList()))
+        when(clientProductMapper.entityToResponse(eq(productWithSizes), anyInt(), anyInt(), anyList()))
                 .thenReturn(clientProductResponse);
 
         // Act
@@ -510,7 +493,6 @@ public class ClientProductDetailControllerTests {
         verify(productRepository).findBySlug(slug);
         verify(clientProductMapper).entityToResponse(
                 eq(productWithSizes),
-                anyList(),
                 anyInt(),
                 anyInt(),
                 anyList());
@@ -528,27 +510,17 @@ public class ClientProductDetailControllerTests {
         when(product.getName()).thenReturn("Dell XPS 13");
         when(product.getSlug()).thenReturn(slug);
 
-        // Giả lập thông tin tồn kho giới hạn số lượng
-        SimpleProductInventory inventory = mock(SimpleProductInventory.class);
-        when(inventory.getProductId()).thenReturn(8L);
-        when(inventory.getCanBeSold()).thenReturn(18);
-
-        List<SimpleProductInventory> inventories = Collections.singletonList(inventory);
-
         when(productRepository.findBySlug(slug)).thenReturn(Optional.of(product));
-        when(projectionRepository.findSimpleProductInventories(eq(List.of(8L)))).thenReturn(inventories);
-        when(projectionRepository.findSimpleProductInventories(argThat(list -> !list.equals(List.of(8L)))))
-                .thenReturn(Collections.emptyList());
+        when(inventoryQueryService.availableForProducts(anyList()))
+                .thenReturn(Collections.emptyMap());
         when(reviewRepository.findAverageRatingScoreByProductId(anyLong())).thenReturn(5);
         when(reviewRepository.countByProductId(anyLong())).thenReturn(12);
 
         // For related products
-        Page<Product> relatedProducts = new PageImpl<>(Collections.emptyList());
-        when(productRepository.findByParams(anyString(), eq("random"), isNull(), eq(false), eq(false),
-                any(Pageable.class)))
-                .thenReturn(relatedProducts);
+        List<ProductCard> relatedProducts = Collections.emptyList();
+        when(projectionRepository.findProductCards(anyList())).thenReturn(relatedProducts);
 
-        when(clientProductMapper.entityToResponse(eq(product), eq(inventories), anyInt(), anyInt(), anyList()))
+        when(clientProductMapper.entityToResponse(eq(product), anyInt(), anyInt(), anyList()))
                 .thenReturn(clientProductResponse);
 
         // Act
@@ -558,12 +530,10 @@ public class ClientProductDetailControllerTests {
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
 
-        // Verify inventory information is passed to the mapper correctly
+        // Verify the mapper receives the product, it reads the variant availability itself
         verify(productRepository).findBySlug(slug);
-        verify(projectionRepository).findSimpleProductInventories(eq(List.of(8L)));
         verify(clientProductMapper).entityToResponse(
                 eq(product),
-                eq(inventories),
                 anyInt(),
                 anyInt(),
                 anyList());
@@ -582,19 +552,16 @@ public class ClientProductDetailControllerTests {
         when(product.getSlug()).thenReturn(slug);
 
         when(productRepository.findBySlug(slug)).thenReturn(Optional.of(product));
-        when(projectionRepository.findSimpleProductInventories(eq(List.of(9L)))).thenReturn(productInventories);
-        when(projectionRepository.findSimpleProductInventories(argThat(list -> !list.equals(List.of(9L)))))
-                .thenReturn(Collections.emptyList());
+        when(inventoryQueryService.availableForProducts(anyList()))
+                .thenReturn(Collections.emptyMap());
         when(reviewRepository.findAverageRatingScoreByProductId(anyLong())).thenReturn(5);
         when(reviewRepository.countByProductId(anyLong())).thenReturn(30);
 
         // For related products
-        Page<Product> relatedProducts = new PageImpl<>(Collections.emptyList());
-        when(productRepository.findByParams(anyString(), eq("random"), isNull(), eq(false), eq(false),
-                any(Pageable.class)))
-                .thenReturn(relatedProducts);
+        List<ProductCard> relatedProducts = Collections.emptyList();
+        when(projectionRepository.findProductCards(anyList())).thenReturn(relatedProducts);
 
-        when(clientProductMapper.entityToResponse(eq(product), anyList(), anyInt(), anyInt(), anyList()))
+        when(clientProductMapper.entityToResponse(eq(product), anyInt(), anyInt(), anyList()))
                 .thenReturn(clientProductResponse);
 
         // Act
@@ -607,7 +574,6 @@ public class ClientProductDetailControllerTests {
         verify(productRepository).findBySlug(slug);
         verify(clientProductMapper).entityToResponse(
                 eq(product),
-                anyList(),
                 anyInt(),
                 anyInt(),
                 anyList());
@@ -625,19 +591,16 @@ public class ClientProductDetailControllerTests {
         when(product.getSlug()).thenReturn(slug);
 
         when(productRepository.findBySlug(slug)).thenReturn(Optional.of(product));
-        when(projectionRepository.findSimpleProductInventories(eq(List.of(10L)))).thenReturn(productInventories);
-        when(projectionRepository.findSimpleProductInventories(argThat(list -> !list.equals(List.of(10L)))))
-                .thenReturn(Collections.emptyList());
+        when(inventoryQueryService.availableForProducts(anyList()))
+                .thenReturn(Collections.emptyMap());
         when(reviewRepository.findAverageRatingScoreByProductId(anyLong())).thenReturn(4);
         when(reviewRepository.countByProductId(anyLong())).thenReturn(18);
 
         // For related products
-        Page<Product> relatedProducts = new PageImpl<>(Collections.emptyList());
-        when(productRepository.findByParams(anyString(), eq("random"), isNull(), eq(false), eq(false),
-                any(Pageable.class)))
-                .thenReturn(relatedProducts);
+        List<ProductCard> relatedProducts = Collections.emptyList();
+        when(projectionRepository.findProductCards(anyList())).thenReturn(relatedProducts);
 
-        when(clientProductMapper.entityToResponse(eq(product), anyList(), anyInt(), anyInt(), anyList()))
+        when(clientProductMapper.entityToResponse(eq(product), anyInt(), anyInt(), anyList()))
                 .thenReturn(clientProductResponse);
 
         // Act
@@ -650,7 +613,6 @@ public class ClientProductDetailControllerTests {
         verify(productRepository).findBySlug(slug);
         verify(clientProductMapper).entityToResponse(
                 eq(product),
-                anyList(),
                 anyInt(),
                 anyInt(),
                 anyList());
@@ -668,19 +630,16 @@ public class ClientProductDetailControllerTests {
         when(product.getSlug()).thenReturn(slug);
 
         when(productRepository.findBySlug(slug)).thenReturn(Optional.of(product));
-        when(projectionRepository.findSimpleProductInventories(eq(List.of(11L)))).thenReturn(productInventories);
-        when(projectionRepository.findSimpleProductInventories(argThat(list -> !list.equals(List.of(11L)))))
-                .thenReturn(Collections.emptyList());
+        when(inventoryQueryService.availableForProducts(anyList()))
+                .thenReturn(Collections.emptyMap());
         when(reviewRepository.findAverageRatingScoreByProductId(anyLong())).thenReturn(5);
         when(reviewRepository.countByProductId(anyLong())).thenReturn(40);
 
         // For related products
-        Page<Product> relatedProducts = new PageImpl<>(Collections.emptyList());
-        when(productRepository.findByParams(anyString(), eq("random"), isNull(), eq(false), eq(false),
-                any(Pageable.class)))
-                .thenReturn(relatedProducts);
+        List<ProductCard> relatedProducts = Collections.emptyList();
+        when(projectionRepository.findProductCards(anyList())).thenReturn(relatedProducts);
 
-        when(clientProductMapper.entityToResponse(eq(product), anyList(), anyInt(), anyInt(), anyList()))
+        when(clientProductMapper.entityToResponse(eq(product), anyInt(), anyInt(), anyList()))
                 .thenReturn(clientProductResponse);
 
         // Act
@@ -693,7 +652,6 @@ public class ClientProductDetailControllerTests {
         verify(productRepository).findBySlug(slug);
         verify(clientProductMapper).entityToResponse(
                 eq(product),
-                anyList(),
                 anyInt(),
                 anyInt(),
                 anyList());
@@ -711,19 +669,16 @@ public class ClientProductDetailControllerTests {
         when(product.getSlug()).thenReturn(slug);
 
         when(productRepository.findBySlug(slug)).thenReturn(Optional.of(product));
-        when(projectionRepository.findSimpleProductInventories(eq(List.of(12L)))).thenReturn(productInventories);
-        when(projectionRepository.findSimpleProductInventories(argThat(list -> !list.equals(List.of(12L)))))
-                .thenReturn(Collections.emptyList());
+        when(inventoryQueryService.availableForProducts(anyList()))
+                .thenReturn(Collections.emptyMap());
         when(reviewRepository.findAverageRatingScoreByProductId(anyLong())).thenReturn(5);
         when(reviewRepository.countByProductId(anyLong())).thenReturn(50);
 
         // For related products
-        Page<Product> relatedProducts = new PageImpl<>(Collections.emptyList());
-        when(productRepository.findByParams(anyString(), eq("random"), isNull(), eq(false), eq(false),
-                any(Pageable.class)))
-                .thenReturn(relatedProducts);
+        List<ProductCard> relatedProducts = Collections.emptyList();
+        when(projectionRepository.findProductCards(anyList())).thenReturn(relatedProducts);
 
-        when(clientProductMapper.entityToResponse(eq(product), anyList(), anyInt(), anyInt(), anyList()))
+        when(clientProductMapper.entityToResponse(eq(product), anyInt(), anyInt(), anyList()))
                 .thenReturn(clientProductResponse);
 
         // Act
@@ -736,9 +691,58 @@ public class ClientProductDetailControllerTests {
         verify(productRepository).findBySlug(slug);
         verify(clientProductMapper).entityToResponse(
                 eq(product),
-                anyList(),
                 anyInt(),
                 anyInt(),
                 anyList());
     }
-}
\ No newline at end of file
+
+    // TC-PROD-DETAIL-16: Chi tiết sản phẩm đã có trong cache
+    @Test
+    @DisplayName("Should serve cached product details with ETag without querying repositories")
+    void getProduct_ShouldServeCachedDetailsWithETag_WhenCached() {
+        // Arrange
+        String slug = "iphone-14";
+        CachedProductDetail cachedProductDetail = new CachedProductDetail(clientProductResponse, "hash", Set.of(1L), Long.MAX_VALUE);
+
+        when(productDetailCacheService.getOrLoad(eq(slug), any())).thenReturn(cachedProductDetail);
+        when(productDetailCacheService.eTagOf(cachedProductDetail, clientProductResponse)).thenReturn("\"abc\"");
+
+        // Act
+        ResponseEntity<ClientProductResponse> response = clientProductController.getProduct(slug);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(clientProductResponse, response.getBody());
+        assertEquals("\"abc\"", response.getHeaders().getETag());
+
+        verify(clientProductMapper).mergeVolatileData(clientProductResponse);
+        verifyNoInteractions(productRepository, reviewRepository, projectionRepository);
+    }
+
+    // TC-PROD-DETAIL-17: Lấy sản phẩm hay được mua cùng
+    @Test
+    @DisplayName("Should return bought together products in partner order")
+    void getBoughtTogetherProducts_ShouldReturnPartnersInOrder() {
+        // Arrange
+        String slug = "iphone-14";
+        ClientListedProductResponse boughtTogetherResponse = mock(ClientListedProductResponse.class);
+
+        when(productRepository.findBySlug(slug)).thenReturn(Optional.of(testProduct1));
+        when(boughtTogetherService.findPartners(eq(1L), anyInt())).thenReturn(List.of(2L));
+        when(projectionRepository.findProductCards(List.of(2L))).thenReturn(List.of(testProductCard2));
+        when(inventoryQueryService.availableForProducts(List.of(2L))).thenReturn(Collections.emptyMap());
+        when(clientProductMapper.cardToListedResponse(eq(testProductCard2), anyMap())).thenReturn(boughtTogetherResponse);
+
+        // Act
+        ResponseEntity<CollectionWrapper<ClientListedProductResponse>> response =
+                clientProductController.getBoughtTogetherProducts(slug);
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals(List.of(boughtTogetherResponse), response.getBody().getContent());
+
+        verify(boughtTogetherService).findPartners(eq(1L), anyInt());
+        verify(inventoryQueryService).availableForProducts(List.of(2L));
+    }
+}
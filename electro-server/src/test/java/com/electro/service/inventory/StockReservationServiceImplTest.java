@@ -0,0 +1,176 @@
+package com.electro.service.inventory;
+
+import com.electro.entity.inventory.StockReservation;
+import com.electro.entity.order.Order;
+import com.electro.entity.order.OrderVariant;
+import com.electro.entity.product.Variant;
+import com.electro.repository.inventory.StockReservationRepository;
+import com.electro.repository.inventory.VariantAvailabilityRepository;
+import com.electro.repository.order.OrderRepository;
+import com.electro.service.product.BestSellerService;
+import com.electro.service.promotion.FlashSaleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class StockReservationServiceImplTest {
+
+    private static final int RESERVED = 1;
+    private static final int CONSUMED = 2;
+    private static final int RELEASED = 3;
+
+    @Mock
+    private VariantAvailabilityRepository variantAvailabilityRepository;
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private FlashSaleService flashSaleService;
+
+    @Mock
+    private BestSellerService bestSellerService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private StockReservationServiceImpl stockReservationService;
+
+    private Order order;
+    private StockReservation reservation;
+
+    @BeforeEach
+    void setUp() {
+        Variant variant = new Variant();
+        variant.setId(10L);
+
+        order = new Order();
+        order.setId(1L);
+        order.setStatus(1);
+        order.setPaymentStatus(1);
+        order.setOrderVariants(Set.of(new OrderVariant().setVariant(variant).setQuantity(2)));
+
+        reservation = new StockReservation()
+                .setOrder(order)
+                .setVariant(variant)
+                .setQuantity(2)
+                .setStatus(RESERVED)
+                .setExpiresAt(Instant.now().minusSeconds(60));
+        reservation.setId(100L);
+    }
+
+    @Test
+    @DisplayName("SRS-01: Reserve fails when a variant does not have enough stock")
+    void testReserveNotEnoughStock() {
+        // Given
+        when(variantAvailabilityRepository.decrement(10L, 2)).thenReturn(0);
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> stockReservationService.reserve(order, null));
+        assertEquals("Variant with id 10 does not have enough stock", exception.getMessage());
+        verify(stockReservationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("SRS-02: Release returns stock and flash-sale units only once")
+    void testDoubleRelease() {
+        // Given: lần đầu đóng được reservation, lần sau reservation không còn ở trạng thái đang giữ
+        when(stockReservationRepository.findByOrder_IdAndStatus(1L, RESERVED))
+                .thenReturn(List.of(reservation))
+                .thenReturn(List.of());
+        when(stockReservationRepository.close(100L, RELEASED)).thenReturn(1);
+
+        // When
+        stockReservationService.release(order);
+        stockReservationService.release(order);
+
+        // Then
+        verify(variantAvailabilityRepository, times(1)).increment(10L, 2);
+        verify(flashSaleService, times(1)).release(order);
+    }
+
+    @Test
+    @DisplayName("SRS-03: Release loses the race against a concurrent release")
+    void testReleaseRaceLost() {
+        // Given: reservation đã được đọc nhưng bên khác đã đổi trạng thái trước câu UPDATE có điều kiện
+        when(stockReservationRepository.findByOrder_IdAndStatus(1L, RESERVED)).thenReturn(List.of(reservation));
+        when(stockReservationRepository.close(100L, RELEASED)).thenReturn(0);
+
+        // When
+        stockReservationService.release(order);
+
+        // Then
+        verify(variantAvailabilityRepository, never()).increment(anyLong(), anyInt());
+        verify(flashSaleService, never()).release(any());
+    }
+
+    @Test
+    @DisplayName("SRS-04: Consume wins the race against expiry")
+    void testConsumeBeforeExpire() {
+        // Given: phiếu xuất đã chuyển reservation sang trạng thái 2 trước khi job hết hạn chạy
+        when(stockReservationRepository.findByOrder_IdAndStatus(1L, RESERVED))
+                .thenReturn(List.of(reservation))
+                .thenReturn(List.of(reservation));
+        when(stockReservationRepository.close(100L, CONSUMED)).thenReturn(1);
+        when(stockReservationRepository.findExpiredOrderIds(any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(1L));
+        when(stockReservationRepository.closeIfExpired(eq(100L), any(Instant.class))).thenReturn(0);
+
+        // When
+        stockReservationService.consume(order);
+        stockReservationService.releaseExpired();
+
+        // Then: hàng đã xuất không được trả lại, đơn hàng không bị hủy
+        verify(variantAvailabilityRepository, never()).increment(anyLong(), anyInt());
+        verify(orderRepository, never()).findById(anyLong());
+        verify(flashSaleService, never()).release(any());
+        assertEquals(1, order.getStatus());
+    }
+
+    @Test
+    @DisplayName("SRS-05: Expiry wins the race against consume")
+    void testExpireBeforeConsume() {
+        // Given: job hết hạn đóng reservation trước, phiếu xuất lập sau không còn gì để chuyển
+        when(stockReservationRepository.findExpiredOrderIds(any(Instant.class), any(Pageable.class)))
+                .thenReturn(List.of(1L));
+        when(stockReservationRepository.findByOrder_IdAndStatus(1L, RESERVED))
+                .thenReturn(List.of(reservation))
+                .thenReturn(List.of(reservation));
+        when(stockReservationRepository.closeIfExpired(eq(100L), any(Instant.class))).thenReturn(1);
+        when(stockReservationRepository.close(100L, CONSUMED)).thenReturn(0);
+        when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+        // When
+        stockReservationService.releaseExpired();
+        stockReservationService.consume(order);
+
+        // Then: hàng được trả lại đúng một lần, đơn hàng bị hủy do quá hạn thanh toán
+        verify(variantAvailabilityRepository, times(1)).increment(10L, 2);
+        verify(orderRepository).save(order);
+        verify(flashSaleService, times(1)).release(order);
+        verify(bestSellerService, times(1)).recordCancelledOrder(order);
+        assertEquals(5, order.getStatus());
+    }
+
+}
@@ -0,0 +1,157 @@
+package com.electro.service.order;
+
+import com.electro.dto.client.ClientCheckoutTicketResponse;
+import com.electro.mapper.general.EventMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(MockitoExtension.class)
+public class CheckoutAdmissionServiceImplTest {
+
+    private static final int WAITING = 1;
+    private static final int ADMITTED = 2;
+    private static final int IN_PROGRESS = 3;
+
+    @Mock
+    private EventMapper eventMapper;
+
+    @InjectMocks
+    private CheckoutAdmissionServiceImpl checkoutAdmissionService;
+
+    @BeforeEach
+    void setUp() {
+        // 2 suất đặt hàng đồng thời, hàng đợi tối đa 2 người
+        ReflectionTestUtils.setField(checkoutAdmissionService, "maxConcurrent", 2);
+        ReflectionTestUtils.setField(checkoutAdmissionService, "maxQueueSize", 2);
+        ReflectionTestUtils.setField(checkoutAdmissionService, "admissionTimeoutMs", 60000L);
+        ReflectionTestUtils.setField(checkoutAdmissionService, "idleTimeoutMs", 60000L);
+    }
+
+    @Test
+    @DisplayName("CAS-01: Users enter while slots are free and queue in arrival order after that")
+    void testTryEnterSlotAccounting() {
+        // When
+        boolean firstEntered = checkoutAdmissionService.tryEnter("alice");
+        boolean secondEntered = checkoutAdmissionService.tryEnter("bob");
+        boolean thirdEntered = checkoutAdmissionService.tryEnter("carol");
+        boolean fourthEntered = checkoutAdmissionService.tryEnter("dave");
+
+        // Then
+        assertTrue(firstEntered);
+        assertTrue(secondEntered);
+        assertFalse(thirdEntered);
+        assertFalse(fourthEntered);
+
+        assertEquals(IN_PROGRESS, findTicket("alice").getTicketStatus());
+        assertEquals(IN_PROGRESS, findTicket("bob").getTicketStatus());
+        assertEquals(WAITING, findTicket("carol").getTicketStatus());
+        assertEquals(1, findTicket("carol").getTicketPosition());
+        assertEquals(WAITING, findTicket("dave").getTicketStatus());
+        assertEquals(2, findTicket("dave").getTicketPosition());
+    }
+
+    @Test
+    @DisplayName("CAS-02: Leave hands the slot to the first waiting user")
+    void testLeaveAdmitsInFifoOrder() {
+        // Given
+        checkoutAdmissionService.tryEnter("alice");
+        checkoutAdmissionService.tryEnter("bob");
+        checkoutAdmissionService.tryEnter("carol");
+        checkoutAdmissionService.tryEnter("dave");
+
+        // When
+        checkoutAdmissionService.leave("alice");
+        checkoutAdmissionService.tick();
+
+        // Then
+        assertFalse(checkoutAdmissionService.findTicket("alice").isPresent());
+
+        ClientCheckoutTicketResponse carolTicket = findTicket("carol");
+        assertEquals(ADMITTED, carolTicket.getTicketStatus());
+        assertEquals(0, carolTicket.getTicketPosition());
+        assertNotNull(carolTicket.getTicketAdmittedUntil());
+
+        assertEquals(WAITING, findTicket("dave").getTicketStatus());
+        assertEquals(1, findTicket("dave").getTicketPosition());
+
+        // Người đến lượt gửi lại yêu cầu thì được vào, người phía sau vẫn phải chờ
+        assertTrue(checkoutAdmissionService.tryEnter("carol"));
+        assertEquals(IN_PROGRESS, findTicket("carol").getTicketStatus());
+        assertFalse(checkoutAdmissionService.tryEnter("dave"));
+    }
+
+    @Test
+    @DisplayName("CAS-03: An admitted user who does not check out in time loses the slot to the next one")
+    void testAdmissionExpiry() {
+        // Given: suất đến lượt hết hạn ngay khi được cấp
+        ReflectionTestUtils.setField(checkoutAdmissionService, "admissionTimeoutMs", -1L);
+
+        checkoutAdmissionService.tryEnter("alice");
+        checkoutAdmissionService.tryEnter("bob");
+        checkoutAdmissionService.tryEnter("carol");
+        checkoutAdmissionService.tryEnter("dave");
+        checkoutAdmissionService.leave("alice");
+        assertEquals(ADMITTED, findTicket("carol").getTicketStatus());
+
+        // When
+        checkoutAdmissionService.tick();
+
+        // Then
+        assertFalse(checkoutAdmissionService.findTicket("carol").isPresent());
+        assertEquals(ADMITTED, findTicket("dave").getTicketStatus());
+        assertEquals(IN_PROGRESS, findTicket("bob").getTicketStatus());
+    }
+
+    @Test
+    @DisplayName("CAS-04: Join fails when the queue is full")
+    void testJoinQueueFull() {
+        // Given
+        checkoutAdmissionService.tryEnter("alice");
+        checkoutAdmissionService.tryEnter("bob");
+        checkoutAdmissionService.join("carol");
+        checkoutAdmissionService.join("dave");
+
+        // When & Then
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> checkoutAdmissionService.join("erin"));
+        assertEquals("Checkout queue is full. Please try again later!", exception.getMessage());
+        assertFalse(checkoutAdmissionService.tryEnter("erin"));
+        assertFalse(checkoutAdmissionService.findTicket("erin").isPresent());
+    }
+
+    @Test
+    @DisplayName("CAS-05: Join returns the existing ticket and leave of a waiting user keeps the slots")
+    void testJoinExistingTicket() {
+        // Given
+        checkoutAdmissionService.tryEnter("alice");
+        checkoutAdmissionService.tryEnter("bob");
+        ClientCheckoutTicketResponse carolTicket = checkoutAdmissionService.join("carol");
+
+        // When
+        ClientCheckoutTicketResponse joinedAgain = checkoutAdmissionService.join("carol");
+        checkoutAdmissionService.leave("carol");
+
+        // Then
+        assertEquals(carolTicket.getTicketToken(), joinedAgain.getTicketToken());
+        assertEquals(WAITING, findTicket("carol").getTicketStatus());
+        assertFalse(checkoutAdmissionService.tryEnter("dave"));
+        assertEquals(2, findTicket("dave").getTicketPosition());
+    }
+
+    private ClientCheckoutTicketResponse findTicket(String username) {
+        Optional<ClientCheckoutTicketResponse> ticket = checkoutAdmissionService.findTicket(username);
+        assertTrue(ticket.isPresent());
+        return ticket.get();
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.electro.service.order;
+
+import com.electro.entity.product.Product;
+import com.electro.entity.product.Variant;
+import com.electro.entity.promotion.Promotion;
+import com.electro.exception.ResourceNotFoundException;
+import com.electro.repository.product.VariantRepository;
+import com.electro.service.promotion.PromotionIndexService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class PricingEngineImplTest {
+
+    @Mock
+    private VariantRepository variantRepository;
+
+    @Mock
+    private PromotionIndexService promotionIndexService;
+
+    @InjectMocks
+    private PricingEngineImpl pricingEngine;
+
+    private Variant laptop;
+    private Variant phone;
+    private Promotion promotion;
+
+    @BeforeEach
+    void setUp() {
+        laptop = createVariant(1L, 10L, 100000.0);
+        phone = createVariant(2L, 20L, 99999.0);
+
+        promotion = new Promotion().setPercent(15);
+        promotion.setId(100L);
+    }
+
+    @Test
+    @DisplayName("PE-01: Discounted price keeps 5 decimal places rounded half up")
+    void testPriceRounding() {
+        // Given: 1.00001 * 50% = 0.500005
+        Variant variant = createVariant(3L, 30L, 1.00001);
+        when(variantRepository.findAllWithProductByIdIn(anyCollection())).thenReturn(List.of(variant));
+        when(promotionIndexService.findActivePromotion(30L)).thenReturn(Optional.of(promotion.setPercent(50)));
+
+        // When
+        PriceQuote quote = pricingEngine.quote(Map.of(3L, 1));
+
+        // Then
+        PriceQuote.Line line = quote.getLines().get(0);
+        assertEquals(new BigDecimal("0.50001"), line.getPrice());
+        assertSame(promotion, line.getPromotion());
+    }
+
+    @Test
+    @DisplayName("PE-02: Lines, totals, tax and total pay follow the order creation formula")
+    void testQuoteTotals() {
+        // Given
+        when(variantRepository.findAllWithProductByIdIn(anyCollection())).thenReturn(List.of(phone, laptop));
+        when(promotionIndexService.findActivePromotion(10L)).thenReturn(Optional.empty());
+        when(promotionIndexService.findActivePromotion(20L)).thenReturn(Optional.of(promotion));
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(1L, 2);
+        quantities.put(2L, 1);
+
+        // When
+        PriceQuote quote = pricingEngine.quote(quantities);
+
+        // Then: các dòng giữ thứ tự đầu vào
+        assertEquals(2, quote.getLines().size());
+
+        PriceQuote.Line laptopLine = quote.getLines().get(0);
+        assertSame(laptop, laptopLine.getVariant());
+        assertNull(laptopLine.getPromotion());
+        assertEquals(0, new BigDecimal("100000").compareTo(laptopLine.getPrice()));
+        assertEquals(0, new BigDecimal("200000").compareTo(laptopLine.getAmount()));
+
+        PriceQuote.Line phoneLine = quote.getLines().get(1);
+        assertSame(phone, phoneLine.getVariant());
+        assertEquals(0, new BigDecimal("99999").compareTo(phoneLine.getListPrice()));
+        assertEquals(new BigDecimal("84999.15000"), phoneLine.getPrice());
+        assertEquals(0, new BigDecimal("84999.15").compareTo(phoneLine.getAmount()));
+
+        // Thuế 284999.15 * 0.1 = 28499.915 được làm tròn thành 28500
+        assertEquals(0, new BigDecimal("284999.15").compareTo(quote.getTotalAmount()));
+        assertEquals(0, new BigDecimal("0.1").compareTo(quote.getTax()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(quote.getShippingCost()));
+        assertEquals(0, new BigDecimal("313499.15").compareTo(quote.getTotalPay()));
+    }
+
+    @Test
+    @DisplayName("PE-03: Quote fails when a variant does not exist")
+    void testQuoteMissingVariant() {
+        // Given
+        when(variantRepository.findAllWithProductByIdIn(anyCollection())).thenReturn(List.of(laptop));
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(1L, 1);
+        quantities.put(99L, 1);
+
+        // When & Then
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> pricingEngine.quote(quantities));
+        assertEquals("Variant not found with id: '99'", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("PE-04: Empty quote has zero totals and does not query variants")
+    void testQuoteEmpty() {
+        // When
+        PriceQuote quote = pricingEngine.quote(Map.of());
+
+        // Then
+        assertTrue(quote.getLines().isEmpty());
+        assertEquals(0, BigDecimal.ZERO.compareTo(quote.getTotalAmount()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(quote.getTotalPay()));
+        verify(variantRepository, never()).findAllWithProductByIdIn(anyCollection());
+    }
+
+    private static Variant createVariant(Long variantId, Long productId, Double price) {
+        Product product = new Product();
+        product.setId(productId);
+
+        Variant variant = new Variant().setProduct(product).setPrice(price);
+        variant.setId(variantId);
+        return variant;
+    }
+
+}
@@ -0,0 +1,76 @@
+package com.electro.service.product;
+
+import com.electro.dto.client.ClientListedProductResponse;
+import com.electro.dto.client.ClientProductResponse;
+import com.electro.dto.client.ClientPromotionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProductDetailCacheServiceImplTest {
+
+    private ProductDetailCacheServiceImpl productDetailCacheService;
+    private CachedProductDetail cachedProductDetail;
+
+    @BeforeEach
+    void setUp() {
+        productDetailCacheService = new ProductDetailCacheServiceImpl(new ObjectMapper());
+        cachedProductDetail = productDetailCacheService.getOrLoad("laptop", () -> createResponse(10, true));
+    }
+
+    @Test
+    @DisplayName("PDC-01: ETag is stable while the merged data does not change")
+    void testETagStable() {
+        String eTag = productDetailCacheService.eTagOf(cachedProductDetail, createResponse(10, true));
+
+        assertEquals(eTag, productDetailCacheService.eTagOf(cachedProductDetail, createResponse(10, true)));
+    }
+
+    @Test
+    @DisplayName("PDC-02: ETag changes when the flash sale remaining quota changes")
+    void testETagRemainingQuota() {
+        String eTag = productDetailCacheService.eTagOf(cachedProductDetail, createResponse(10, true));
+
+        assertNotEquals(eTag, productDetailCacheService.eTagOf(cachedProductDetail, createResponse(9, true)));
+    }
+
+    @Test
+    @DisplayName("PDC-03: ETag changes when a related product card becomes unsaleable")
+    void testETagRelatedProductSaleable() {
+        String eTag = productDetailCacheService.eTagOf(cachedProductDetail, createResponse(10, true));
+
+        assertNotEquals(eTag, productDetailCacheService.eTagOf(cachedProductDetail, createResponse(10, false)));
+    }
+
+    private static ClientProductResponse createResponse(int remainingQuota, boolean relatedProductSaleable) {
+        ClientPromotionResponse promotion = new ClientPromotionResponse();
+        promotion.setPromotionId(1L);
+        promotion.setPromotionPercent(20);
+        promotion.setPromotionRemainingQuota(remainingQuota);
+
+        ClientListedProductResponse relatedProduct = new ClientListedProductResponse()
+                .setProductId(2L)
+                .setProductName("Mouse")
+                .setProductSlug("mouse")
+                .setProductVariants(List.of())
+                .setProductSaleable(relatedProductSaleable);
+
+        return new ClientProductResponse()
+                .setProductId(1L)
+                .setProductName("Laptop")
+                .setProductSlug("laptop")
+                .setProductVariants(List.of(new ClientProductResponse.ClientVariantResponse()
+                        .setVariantId(10L)
+                        .setVariantPrice(1000.0)
+                        .setVariantInventory(5)))
+                .setProductSaleable(true)
+                .setProductRelatedProducts(List.of(relatedProduct))
+                .setProductPromotion(promotion);
+    }
+
+}
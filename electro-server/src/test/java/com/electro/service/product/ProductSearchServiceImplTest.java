@@ -0,0 +1,86 @@
+package com.electro.service.product;
+
+import com.electro.entity.product.Product;
+import com.electro.repository.product.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductSearchServiceImplTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private ProductSearchServiceImpl productSearchService;
+
+    @Test
+    @DisplayName("PS-01: A product indexed while rebuild reads the snapshot keeps its newer document")
+    void testRebuildReplaysConcurrentIndex() {
+        // Given: trong lúc rebuild() đọc ảnh chụp cũ, sản phẩm 2 được đổi tên và index() chạy xong
+        Product staleProduct = createProduct(2L, "Galaxy Tab");
+        Product updatedProduct = createProduct(2L, "Galaxy Watch");
+
+        when(productRepository.findById(2L)).thenReturn(Optional.of(updatedProduct));
+        when(productRepository.findAll()).thenAnswer(invocation -> {
+            productSearchService.index(2L);
+            return List.of(createProduct(1L, "Galaxy Phone"), staleProduct);
+        });
+
+        // When
+        productSearchService.rebuild();
+
+        // Then
+        assertEquals(List.of(2L), productSearchService.search("watch"));
+        assertEquals(List.of(), productSearchService.search("tab"));
+        assertEquals(List.of(1L), productSearchService.search("phone"));
+
+        // Lần rebuild() sau không có index() chen giữa nên dùng đúng ảnh chụp đọc được
+        doReturn(List.of(staleProduct)).when(productRepository).findAll();
+        productSearchService.rebuild();
+        assertEquals(List.of(2L), productSearchService.search("tab"));
+    }
+
+    @Test
+    @DisplayName("PS-02: Short query tokens expand to a limited number of prefix terms")
+    void testShortPrefixExpansionCap() {
+        // Given: 60 sản phẩm, mỗi sản phẩm một từ bắt đầu bằng "ab"
+        List<Product> products = new ArrayList<>();
+        IntStream.rangeClosed(1, 60).forEach(i -> products.add(createProduct((long) i, "ab" + (1000 + i))));
+        products.add(createProduct(61L, "ab"));
+        when(productRepository.findAll()).thenReturn(products);
+
+        productSearchService.rebuild();
+
+        // When
+        List<Long> shortResults = productSearchService.search("ab");
+        List<Long> longResults = productSearchService.search("ab1");
+
+        // Then: từ khớp trọn vẹn đứng đầu, phần mở rộng tiền tố bị giới hạn; từ đủ dài thì không giới hạn
+        assertEquals(50, shortResults.size());
+        assertEquals(61L, shortResults.get(0));
+        assertEquals(60, longResults.size());
+        assertEquals(IntStream.rangeClosed(1, 60).mapToObj(i -> (long) i).collect(Collectors.toSet()),
+                longResults.stream().collect(Collectors.toSet()));
+    }
+
+    private static Product createProduct(Long productId, String name) {
+        Product product = new Product().setName(name);
+        product.setId(productId);
+        return product;
+    }
+
+}
@@ -0,0 +1,222 @@
+package com.electro.service.promotion;
+
+import com.electro.entity.order.Order;
+import com.electro.entity.order.OrderVariant;
+import com.electro.entity.product.Variant;
+import com.electro.entity.promotion.Promotion;
+import com.electro.entity.promotion.PromotionQuota;
+import com.electro.entity.promotion.PromotionQuotaKey;
+import com.electro.projection.promotion.FlashSaleClaim;
+import com.electro.projection.promotion.FlashSaleVariant;
+import com.electro.repository.order.OrderVariantRepository;
+import com.electro.repository.promotion.PromotionQuotaRepository;
+import com.electro.repository.promotion.PromotionRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class FlashSaleServiceImplTest {
+
+    @Mock
+    private PromotionRepository promotionRepository;
+
+    @Mock
+    private PromotionQuotaRepository promotionQuotaRepository;
+
+    @Mock
+    private OrderVariantRepository orderVariantRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private FlashSaleServiceImpl flashSaleService;
+
+    @Test
+    @DisplayName("FSQ-01: tryClaim takes units while the quota has enough left")
+    void testTryClaimWithinQuota() {
+        FlashSaleServiceImpl.StripedQuota quota = new FlashSaleServiceImpl.StripedQuota(10, 0);
+
+        assertTrue(quota.tryClaim(4));
+        assertTrue(quota.tryClaim(6));
+
+        assertEquals(0, quota.remaining());
+        assertEquals(10, quota.claimed());
+    }
+
+    @Test
+    @DisplayName("FSQ-02: tryClaim beyond the remaining units fails without taking any")
+    void testTryClaimBeyondQuota() {
+        FlashSaleServiceImpl.StripedQuota quota = new FlashSaleServiceImpl.StripedQuota(5, 3);
+
+        assertFalse(quota.tryClaim(3));
+
+        assertEquals(2, quota.remaining());
+        assertEquals(3, quota.claimed());
+    }
+
+    @Test
+    @DisplayName("FSQ-03: tryClaim accepts zero and rejects negative quantities")
+    void testTryClaimNonPositiveQuantity() {
+        FlashSaleServiceImpl.StripedQuota quota = new FlashSaleServiceImpl.StripedQuota(5, 0);
+
+        assertTrue(quota.tryClaim(0));
+        assertFalse(quota.tryClaim(-1));
+
+        assertEquals(5, quota.remaining());
+    }
+
+    @Test
+    @DisplayName("FSQ-04: release gives units back to later claims")
+    void testRelease() {
+        FlashSaleServiceImpl.StripedQuota quota = new FlashSaleServiceImpl.StripedQuota(10, 0);
+        assertTrue(quota.tryClaim(10));
+        assertFalse(quota.tryClaim(1));
+
+        quota.release(3);
+
+        assertEquals(3, quota.remaining());
+        assertEquals(7, quota.claimed());
+        assertTrue(quota.tryClaim(3));
+        assertFalse(quota.tryClaim(1));
+    }
+
+    @Test
+    @DisplayName("FSQ-05: Shrinking below the claimed units is paid back by releases first")
+    void testResizeBelowClaimed() {
+        FlashSaleServiceImpl.StripedQuota quota = new FlashSaleServiceImpl.StripedQuota(10, 0);
+        assertTrue(quota.tryClaim(8));
+
+        quota.resize(5);
+        assertEquals(0, quota.remaining());
+        assertEquals(8, quota.claimed());
+
+        // 3 suất bán vượt quota mới phải được bù trước khi có suất để bán lại
+        quota.release(2);
+        assertEquals(0, quota.remaining());
+        assertEquals(6, quota.claimed());
+
+        quota.release(3);
+        assertEquals(2, quota.remaining());
+        assertEquals(3, quota.claimed());
+    }
+
+    @Test
+    @DisplayName("FSQ-06: Growing the quota keeps the claimed units")
+    void testResizeGrow() {
+        FlashSaleServiceImpl.StripedQuota quota = new FlashSaleServiceImpl.StripedQuota(5, 7);
+        assertEquals(0, quota.remaining());
+        assertEquals(7, quota.claimed());
+
+        quota.resize(10);
+
+        assertEquals(3, quota.remaining());
+        assertEquals(7, quota.claimed());
+    }
+
+    @Test
+    @DisplayName("FSQ-07: Reload with a new quota keeps claims and releases made on the running counter")
+    void testReloadKeepsCounter() {
+        // Given: quota 10, sau đó được sửa còn 5
+        when(promotionRepository.findUnexpiredFlashSaleVariants(any(Instant.class)))
+                .thenReturn(List.of(new FlashSaleVariant(1L, 10, 100L, 1000L)))
+                .thenReturn(List.of(new FlashSaleVariant(1L, 5, 100L, 1000L)));
+        when(promotionQuotaRepository.findByPromotionQuotaKey_PromotionIdIn(anyCollection())).thenReturn(List.of());
+
+        Promotion promotion = new Promotion().setQuotaPerVariant(10);
+        promotion.setId(1L);
+
+        Variant variant = new Variant();
+        variant.setId(1000L);
+
+        Order order = new Order();
+        order.setOrderVariants(Set.of(new OrderVariant().setPromotion(promotion).setVariant(variant).setQuantity(4)));
+
+        flashSaleService.reload();
+        assertTrue(flashSaleService.claim(promotion, 1000L, 4));
+
+        // When
+        flashSaleService.reload();
+
+        // Then: 4 suất đã bán vẫn được tính với quota mới, suất trả lại sau reload không bị mất
+        assertEquals(Optional.of(1), flashSaleService.findRemainingQuota(1L, 100L));
+
+        flashSaleService.release(order);
+        assertEquals(Optional.of(5), flashSaleService.findRemainingQuota(1L, 100L));
+    }
+
+    @Test
+    @DisplayName("FSQ-08: Concurrent claims for exactly the remaining units all succeed")
+    void testConcurrentClaimsOfLastUnits() throws Exception {
+        // Given: 32 luồng cùng lấy 2 suất, tổng đúng bằng quota
+        int threads = 32;
+        FlashSaleServiceImpl.StripedQuota quota = new FlashSaleServiceImpl.StripedQuota(threads * 2, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return quota.tryClaim(2);
+                }));
+            }
+
+            // When
+            start.countDown();
+
+            // Then: không luồng nào bị từ chối sai vì các luồng khác đang giữ tạm một phần suất
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(10, TimeUnit.SECONDS));
+            }
+            assertEquals(0, quota.remaining());
+            assertFalse(quota.tryClaim(1));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("FSQ-09: Reload reconciles claims lost before the last flush from unsettled orders")
+    void testReloadReconcilesOrderedClaims() {
+        // Given: promotion_quota chỉ ghi được 2 suất trước khi ứng dụng dừng, các đơn hàng chưa hủy đã giữ 5 suất
+        PromotionQuota promotionQuota = new PromotionQuota();
+        promotionQuota.setPromotionQuotaKey(new PromotionQuotaKey(1L, 1000L));
+        promotionQuota.setClaimed(2);
+
+        when(promotionRepository.findUnexpiredFlashSaleVariants(any(Instant.class)))
+                .thenReturn(List.of(new FlashSaleVariant(1L, 10, 100L, 1000L)));
+        when(promotionQuotaRepository.findByPromotionQuotaKey_PromotionIdIn(anyCollection()))
+                .thenReturn(List.of(promotionQuota));
+        when(orderVariantRepository.findFlashSaleClaims(anyCollection()))
+                .thenReturn(List.of(new FlashSaleClaim(1L, 1000L, 5L)));
+
+        // When
+        flashSaleService.reload();
+
+        // Then
+        assertEquals(Optional.of(5), flashSaleService.findRemainingQuota(1L, 100L));
+    }
+
+}